@@ -0,0 +1,212 @@
+package pegasus;
+
+import pegasus.metrics.Counter;
+import pegasus.metrics.Gauge;
+import pegasus.metrics.Histogram;
+import pegasus.metrics.MetricRegistry;
+import pegasus.profile.ProfileScope;
+import pegasus.profile.Profiler;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * A fixed-timestep game loop. Ticks are simulated at a constant rate, and a frame is rendered after the pending
+ * ticks of each iteration have been simulated. Every iteration ends a {@link Profiler} frame, and updates the
+ * {@code loop.*} metrics of the {@link MetricRegistry#global() global registry}.
+ */
+public final class GameLoop implements Runnable {
+    /**
+     * The profiler scope of a simulated tick.
+     */
+    private static final ProfileScope TICK = Profiler.scope("tick");
+
+    /**
+     * The profiler scope of a rendered frame.
+     */
+    private static final ProfileScope RENDER = Profiler.scope("render");
+
+    /**
+     * The number of simulated ticks.
+     */
+    private static final Counter TICKS = MetricRegistry.global().counter("loop.ticks");
+
+    /**
+     * The measured number of ticks per second.
+     */
+    private static final Gauge TICK_RATE = MetricRegistry.global().gauge("loop.tickRate");
+
+    /**
+     * The duration of each iteration in nanoseconds.
+     */
+    private static final Histogram FRAME_TIME = MetricRegistry.global().histogram("loop.frameNanos");
+
+    /**
+     * The number of bytes allocated by the loop thread during each iteration.
+     */
+    private static final Histogram FRAME_ALLOCATION = MetricRegistry.global().histogram("loop.allocatedBytesPerFrame");
+
+    /**
+     * The thread bean used to measure allocation, or {@code null} if the platform does not support it.
+     */
+    private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+    /**
+     * The maximum number of ticks simulated per iteration before the loop gives up catching up.
+     */
+    private static final int MAX_CATCH_UP = 8;
+
+    /**
+     * The duration of a tick in nanoseconds.
+     */
+    private final long tickNanos;
+
+    /**
+     * The function which simulates a tick, given its number.
+     */
+    private final LongConsumer tick;
+
+    /**
+     * The function which renders a frame.
+     */
+    private final Runnable render;
+
+    /**
+     * The thread running this loop, or {@code null} if this loop has not been started.
+     */
+    private Thread thread;
+
+    /**
+     * Whether this loop is running.
+     */
+    private volatile boolean running;
+
+    /**
+     * The number of ticks simulated so far.
+     */
+    private volatile long ticks;
+
+    /**
+     * Creates a new loop.
+     * @param tickRate The number of ticks per second
+     * @param tick The function which simulates a tick, given its number
+     * @param render The function which renders a frame
+     * @throws IllegalArgumentException When the tick rate is not positive
+     */
+    public GameLoop(double tickRate, LongConsumer tick, Runnable render) throws IllegalArgumentException {
+        if (!(tickRate > 0)) throw new IllegalArgumentException("The tick rate must be positive.");
+
+        this.tickNanos = (long) (1e9 / tickRate);
+        this.tick = tick;
+        this.render = render;
+    }
+
+    /**
+     * Starts running this loop on a new thread.
+     * @throws IllegalStateException When this loop has already been started
+     */
+    public synchronized void start() throws IllegalStateException {
+        if (thread != null) throw new IllegalStateException("The loop has already been started.");
+
+        running = true;
+        thread = new Thread(this, "Game Loop");
+        thread.start();
+    }
+
+    /**
+     * Stops this loop after its current iteration, and waits for it to finish.
+     * @throws InterruptedException When the current thread is interrupted while waiting
+     */
+    public void stop() throws InterruptedException {
+        running = false;
+
+        Thread t;
+        synchronized (this) {
+            t = thread;
+        }
+
+        if (t != null && t != Thread.currentThread()) t.join();
+    }
+
+    /**
+     * Returns whether this loop is running.
+     * @return {@code true} if this loop is running
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns the number of ticks simulated so far.
+     * @return The number of simulated ticks
+     */
+    public long ticks() {
+        return ticks;
+    }
+
+    /**
+     * Runs this loop on the current thread until it is {@link #stop() stopped}.
+     */
+    @Override
+    public void run() {
+        running = true;
+
+        var next = System.nanoTime();
+        var threadId = Thread.currentThread().getId();
+        var rateStart = next;
+        var rateTicks = ticks;
+
+        while (running) {
+            var frameStart = System.nanoTime();
+            var allocatedStart = THREADS != null ? THREADS.getThreadAllocatedBytes(threadId) : 0;
+            var caughtUp = 0;
+
+            while (System.nanoTime() - next >= 0 && caughtUp++ < MAX_CATCH_UP) {
+                TICK.begin();
+                tick.accept(ticks);
+                TICK.end();
+
+                ticks++;
+                next += tickNanos;
+                TICKS.increment();
+            }
+
+            if (caughtUp > MAX_CATCH_UP) next = System.nanoTime();
+
+            RENDER.begin();
+            render.run();
+            RENDER.end();
+
+            Profiler.endFrame();
+
+            var frameEnd = System.nanoTime();
+            FRAME_TIME.record(frameEnd - frameStart);
+
+            if (THREADS != null) {
+                FRAME_ALLOCATION.record(THREADS.getThreadAllocatedBytes(threadId) - allocatedStart);
+            }
+
+            if (frameEnd - rateStart >= 1_000_000_000L) {
+                TICK_RATE.set((ticks - rateTicks) * 1e9 / (frameEnd - rateStart));
+                rateStart = frameEnd;
+                rateTicks = ticks;
+            }
+
+            var wait = next - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+        }
+    }
+
+    /**
+     * Returns the thread bean used to measure allocation.
+     * @return The thread bean, or {@code null} if the platform does not support measuring allocation
+     */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)) return null;
+        if (!bean.isThreadAllocatedMemorySupported()) return null;
+
+        bean.setThreadAllocatedMemoryEnabled(true);
+        return bean;
+    }
+}
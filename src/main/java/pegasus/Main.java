@@ -1,27 +1,37 @@
 package pegasus;
 
+import pegasus.input.AwtInputAdapter;
+import pegasus.input.InputQueue;
+import pegasus.input.InputState;
+import pegasus.metrics.CsvReporter;
+import pegasus.metrics.JmxReporter;
+import pegasus.metrics.LogReporter;
+import pegasus.metrics.MetricRegistry;
 import pegasus.number.Int2;
 import pegasus.number.Vector3;
+import pegasus.profile.Profiler;
+import pegasus.profile.ProfilerOverlay;
+import pegasus.render.DamageTracker;
+import pegasus.render.IncrementalRepainter;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
-    private static final JFrame frame = new JFrame("Vortex Engine");
-    private static final JPanel panel = new JPanel() {
-        @Override
-        public void paint(Graphics g) {
+    private static final ProfilerOverlay overlay = new ProfilerOverlay();
+    private static final InputQueue inputQueue = new InputQueue(1024);
+    private static final InputState input = new InputState();
+    private static final DamageTracker damage = new DamageTracker(0, 0, 0.5, 32);
+    private static IncrementalRepainter repainter;
+    private static int overlayHeight;
 
-        }
-    };
-
-    static {
-        frame.add(panel);
-    }
-
-    public static void main(String[] args) {
-        var x = new Int2(1, 2);
-        var y = new Int2(5, 6);
+    public static void main(String[] args) throws IOException {
+        var x = Int2.valueOf(1, 2);
+        var y = Int2.valueOf(5, 6);
 
         System.out.println(x.add(y));
         System.out.println(x.add(23, 2));
@@ -32,5 +42,69 @@ public class Main {
         var c = a.cross(b);
 
         System.out.println(c.normalize());
+
+        var trace = System.getProperty("pegasus.profile.trace");
+
+        if (trace != null) {
+            Profiler.startCapture(1 << 20);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    Profiler.writeTrace(Path.of(trace));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }));
+        }
+
+        var metrics = MetricRegistry.global();
+        JmxReporter.start(metrics, "pegasus");
+
+        var csv = System.getProperty("pegasus.metrics.csv");
+        if (csv != null) new CsvReporter(metrics, true, Path.of(csv)).start(1, TimeUnit.SECONDS);
+
+        if (Boolean.getBoolean("pegasus.metrics.log")) new LogReporter(metrics, true).start(10, TimeUnit.SECONDS);
+
+        openWindow();
+
+        new GameLoop(60, tick -> input.update(inputQueue), Main::render).start();
+    }
+
+    private static void openWindow() {
+        var frame = new JFrame("Vortex Engine");
+        var panel = new JPanel() {
+            @Override
+            public void paint(Graphics g) {
+                repainter.paint(g);
+            }
+        };
+
+        repainter = new IncrementalRepainter(panel, damage, g -> overlay.paint(g, 8, 8));
+        frame.add(panel);
+        new AwtInputAdapter(inputQueue).attach(panel);
+
+        panel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("F3"), "toggleProfiler");
+        panel.getActionMap().put("toggleProfiler", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                overlay.toggle();
+            }
+        });
+
+        frame.setSize(800, 600);
+        frame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+        frame.setVisible(true);
+
+        panel.requestFocusInWindow();
+    }
+
+    private static void render() {
+        if (overlay.isVisible()) overlayHeight = Math.max(overlayHeight, overlay.height());
+
+        if (overlayHeight > 0) {
+            damage.add(8, 8, overlay.width(), overlayHeight);
+            if (!overlay.isVisible()) overlayHeight = 0;
+        }
+
+        repainter.render();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package pegasus.asset;
+
+import java.io.IOException;
+
+/**
+ * Decodes the raw bytes of an asset file into a usable value. Decoders are called from job system workers, and
+ * must therefore be thread-safe.
+ * @param <T> The type of decoded value
+ */
+@FunctionalInterface
+public interface AssetDecoder<T> {
+    /**
+     * Decodes the contents of an asset file.
+     * @param data The contents of the file
+     * @return The decoded value
+     * @throws IOException When the contents are malformed
+     */
+    T decode(byte[] data) throws IOException;
+}
@@ -0,0 +1,78 @@
+package pegasus.asset;
+
+/**
+ * A cached asset shared by every handle acquired for its path. All fields other than {@link #state} are guarded
+ * by the owning {@link AssetManager}.
+ * @param <T> The type of decoded value
+ */
+final class AssetEntry<T> implements Comparable<AssetEntry<?>> {
+    /**
+     * The path of the asset relative to the asset root.
+     */
+    final String path;
+
+    /**
+     * The decoder of the asset.
+     */
+    final AssetDecoder<T> decoder;
+
+    /**
+     * The order in which this entry was queued, used to break priority ties.
+     */
+    final long sequence;
+
+    /**
+     * The time at which this entry was queued, in nanoseconds.
+     */
+    final long queuedAt = System.nanoTime();
+
+    /**
+     * The current state of this entry.
+     */
+    volatile AssetState state = AssetState.QUEUED;
+
+    /**
+     * The decoded value, or {@code null} if this entry is not ready.
+     */
+    volatile T value;
+
+    /**
+     * The reason this entry failed, or {@code null} if it has not failed.
+     */
+    volatile Throwable failure;
+
+    /**
+     * The loading priority of this entry. Higher priorities are read first.
+     */
+    int priority;
+
+    /**
+     * The number of unreleased handles of this entry.
+     */
+    int references;
+
+    /**
+     * Creates a new entry.
+     * @param path The path of the asset
+     * @param decoder The decoder of the asset
+     * @param priority The loading priority
+     * @param sequence The order in which this entry was queued
+     */
+    AssetEntry(String path, AssetDecoder<T> decoder, int priority, long sequence) {
+        this.path = path;
+        this.decoder = decoder;
+        this.priority = priority;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Orders entries by descending priority, then by ascending sequence.
+     * @param other The entry to compare to
+     * @return The comparison result
+     */
+    @Override
+    public int compareTo(AssetEntry<?> other) {
+        if (priority != other.priority) return Integer.compare(other.priority, priority);
+        return Long.compare(sequence, other.sequence);
+    }
+}
@@ -0,0 +1,111 @@
+package pegasus.asset;
+
+/**
+ * A reference to an asset loaded by an {@link AssetManager}. Handles never block: the game loop polls
+ * {@link #get()} or {@link #state()} each frame until the asset is ready. Every handle holds one reference to the
+ * cached asset, which is evicted once every handle to it has been released. Releasing the last handle of an asset
+ * which is still loading cancels the load.
+ * @param <T> The type of decoded value
+ */
+public final class AssetHandle<T> implements AutoCloseable {
+    /**
+     * The manager which owns the asset.
+     */
+    private final AssetManager manager;
+
+    /**
+     * The cached asset.
+     */
+    private final AssetEntry<T> entry;
+
+    /**
+     * Whether this handle has been released.
+     */
+    private boolean released;
+
+    /**
+     * Creates a new handle.
+     * @param manager The manager which owns the asset
+     * @param entry The cached asset
+     */
+    AssetHandle(AssetManager manager, AssetEntry<T> entry) {
+        this.manager = manager;
+        this.entry = entry;
+    }
+
+    /**
+     * Returns the path of the asset relative to the asset root.
+     * @return The path of the asset
+     */
+    public String path() {
+        return entry.path;
+    }
+
+    /**
+     * Returns the current state of the asset.
+     * @return The current state of the asset
+     */
+    public AssetState state() {
+        return entry.state;
+    }
+
+    /**
+     * Returns whether the asset has finished loading, successfully or not.
+     * @return {@code true} if the asset will not change state anymore
+     */
+    public boolean isDone() {
+        return entry.state.isDone();
+    }
+
+    /**
+     * Returns the decoded asset if it is ready. This method never blocks.
+     * @return The decoded asset, or {@code null} if it is not ready
+     */
+    public T get() {
+        return entry.value;
+    }
+
+    /**
+     * Returns the reason the asset failed to load.
+     * @return The failure, or {@code null} if the asset has not failed
+     */
+    public Throwable failure() {
+        return entry.failure;
+    }
+
+    /**
+     * Changes the loading priority of the asset, if it is still waiting to be read.
+     * @param priority The new priority, where higher priorities are read first
+     */
+    public void setPriority(int priority) {
+        manager.reprioritize(entry, priority);
+    }
+
+    /**
+     * Releases this handle. Calling this more than once has no effect.
+     */
+    public synchronized void release() {
+        if (released) return;
+
+        released = true;
+        manager.release(entry);
+    }
+
+    /**
+     * Releases this handle.
+     * @see #release()
+     */
+    @Override
+    public void close() {
+        release();
+    }
+
+    /**
+     * Serializes this handle into a string.
+     * @return The path and state of the asset
+     */
+    @Override
+    public String toString() {
+        return entry.path + " (" + entry.state + ")";
+    }
+}
@@ -0,0 +1,335 @@
+package pegasus.asset;
+
+import pegasus.job.JobSystem;
+import pegasus.metrics.Counter;
+import pegasus.metrics.Gauge;
+import pegasus.metrics.Histogram;
+import pegasus.metrics.MetricRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads assets asynchronously through a two-stage pipeline. A bounded pool of reader threads reads files in
+ * priority order, and hands their contents to the {@link JobSystem} for decoding, so that a reader can start on the
+ * next file while the previous one is decoded. Loaded assets are cached by normalized path and reference-counted
+ * through {@link AssetHandle}s. An asset which failed to load stays cached for the handles which already hold it,
+ * but the next load of its path tries again.
+ * <p>
+ * Every manager registers a gauge of its queue length named {@code asset.queued.<id>}, where the ID is unique to
+ * the manager, and removes it once closed.
+ */
+public final class AssetManager implements AutoCloseable {
+    /**
+     * The number of assets which finished loading.
+     */
+    private static final Counter LOADED = MetricRegistry.global().counter("asset.loaded");
+
+    /**
+     * The number of assets which failed to load.
+     */
+    private static final Counter FAILED = MetricRegistry.global().counter("asset.failed");
+
+    /**
+     * The number of loads cancelled before they finished.
+     */
+    private static final Counter CANCELLED = MetricRegistry.global().counter("asset.cancelled");
+
+    /**
+     * The number of loads served from the cache.
+     */
+    private static final Counter HITS = MetricRegistry.global().counter("asset.cacheHits");
+
+    /**
+     * The time from queueing an asset to it being ready, in nanoseconds.
+     */
+    private static final Histogram LATENCY = MetricRegistry.global().histogram("asset.loadNanos");
+
+    /**
+     * The number of managers created so far, used to name their gauges.
+     */
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    /**
+     * The directory assets are loaded from.
+     */
+    private final Path root;
+
+    /**
+     * The job system which runs the decode stage.
+     */
+    private final JobSystem jobs;
+
+    /**
+     * The gauge of the number of assets waiting to be read.
+     */
+    private final Gauge queued;
+
+    /**
+     * The cached assets by normalized path.
+     */
+    private final Map<String, AssetEntry<?>> cache = new HashMap<>();
+
+    /**
+     * The assets waiting to be read, highest priority first.
+     */
+    private final PriorityBlockingQueue<AssetEntry<?>> queue = new PriorityBlockingQueue<>();
+
+    /**
+     * The reader threads.
+     */
+    private final Thread[] readers;
+
+    /**
+     * The number of entries created so far.
+     */
+    private long sequence;
+
+    /**
+     * Whether this manager is running.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Creates a new asset manager.
+     * @param root The directory to load assets from
+     * @param readers The maximum number of files read concurrently
+     * @param jobs The job system to decode assets on
+     * @throws IllegalArgumentException When the reader count is not positive
+     */
+    public AssetManager(Path root, int readers, JobSystem jobs) throws IllegalArgumentException {
+        if (readers <= 0) throw new IllegalArgumentException("The reader count must be positive.");
+
+        this.root = root.toAbsolutePath().normalize();
+        this.jobs = Objects.requireNonNull(jobs);
+        this.readers = new Thread[readers];
+
+        for (var i = 0; i < readers; i++) {
+            var reader = new Thread(this::read, "pegasus-asset-" + i);
+
+            reader.setDaemon(true);
+            reader.start();
+
+            this.readers[i] = reader;
+        }
+
+        this.queued = MetricRegistry.global().gauge("asset.queued." + INSTANCES.getAndIncrement(), queue::size);
+    }
+
+    /**
+     * Acquires a handle to an asset, queueing it for loading if it is not cached or has failed to load. If the
+     * asset is already cached or loading, its priority is raised to the provided priority if that is higher. Paths
+     * which normalize to the same file share one cached asset.
+     * @param path The path of the asset relative to the asset root
+     * @param decoder The decoder of the asset
+     * @param priority The loading priority, where higher priorities are read first
+     * @param <T> The type of decoded value
+     * @return A handle to the asset, which must be released once it is no longer used
+     * @throws IllegalArgumentException When the path is outside of the asset root, or the asset is already cached
+     * with a different decoder
+     * @throws IllegalStateException When this manager has been closed
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> AssetHandle<T> load(String path, AssetDecoder<T> decoder, int priority)
+            throws IllegalArgumentException, IllegalStateException {
+        if (!running) throw new IllegalStateException("The asset manager has been closed.");
+
+        var file = root.resolve(path).normalize();
+
+        if (!file.startsWith(root)) {
+            throw new IllegalArgumentException("The path is outside of the asset root: " + path);
+        }
+
+        var key = root.relativize(file).toString();
+        var cached = cache.get(key);
+
+        if (cached != null && cached.state != AssetState.FAILED) {
+            if (cached.decoder != decoder) {
+                throw new IllegalArgumentException("The asset is already cached with a different decoder: " + path);
+            }
+
+            var entry = (AssetEntry<T>) cached;
+
+            entry.references++;
+            if (priority > entry.priority) reprioritize(entry, priority);
+
+            HITS.increment();
+            return new AssetHandle<>(this, entry);
+        }
+
+        var entry = new AssetEntry<>(key, Objects.requireNonNull(decoder), priority, sequence++);
+
+        entry.references = 1;
+        cache.put(key, entry);
+        queue.add(entry);
+
+        return new AssetHandle<>(this, entry);
+    }
+
+    /**
+     * Returns the number of cached assets, including those which are still loading.
+     * @return The number of cached assets
+     */
+    public synchronized int cachedCount() {
+        return cache.size();
+    }
+
+    /**
+     * Stops the reader threads and removes the gauge of this manager. Assets which have not been read yet are
+     * cancelled.
+     */
+    @Override
+    public void close() {
+        MetricRegistry.global().remove(queued);
+
+        synchronized (this) {
+            running = false;
+
+            for (var entry : queue) {
+                cancel(entry);
+            }
+
+            queue.clear();
+        }
+
+        for (var reader : readers) {
+            reader.interrupt();
+        }
+
+        for (var reader : readers) {
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Changes the priority of an entry, reordering it in the queue if it is waiting to be read.
+     * @param entry The entry
+     * @param priority The new priority
+     */
+    synchronized void reprioritize(AssetEntry<?> entry, int priority) {
+        if (entry.priority == priority) return;
+
+        if (entry.state == AssetState.QUEUED && queue.remove(entry)) {
+            entry.priority = priority;
+            queue.add(entry);
+        } else {
+            entry.priority = priority;
+        }
+    }
+
+    /**
+     * Releases a reference to an entry, evicting it once it has no references left and cancelling it if it is
+     * still loading.
+     * @param entry The entry
+     */
+    synchronized void release(AssetEntry<?> entry) {
+        if (--entry.references > 0) return;
+
+        cache.remove(entry.path, entry);
+        if (entry.state == AssetState.QUEUED) queue.remove(entry);
+        if (!entry.state.isDone()) cancel(entry);
+
+        entry.value = null;
+    }
+
+    /**
+     * Marks an entry as cancelled.
+     * @param entry The entry
+     */
+    private void cancel(AssetEntry<?> entry) {
+        entry.state = AssetState.CANCELLED;
+        CANCELLED.increment();
+    }
+
+    /**
+     * The main loop of a reader thread.
+     */
+    private void read() {
+        while (running) {
+            AssetEntry<?> entry;
+
+            try {
+                entry = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            synchronized (this) {
+                if (entry.state != AssetState.QUEUED) continue;
+                entry.state = AssetState.READING;
+            }
+
+            byte[] data;
+
+            try {
+                data = Files.readAllBytes(root.resolve(entry.path));
+            } catch (IOException | RuntimeException e) {
+                fail(entry, e);
+                continue;
+            }
+
+            synchronized (this) {
+                if (entry.state != AssetState.READING) continue;
+                entry.state = AssetState.DECODING;
+            }
+
+            try {
+                jobs.submit(() -> decode(entry, data));
+            } catch (IllegalStateException e) {
+                fail(entry, e);
+            }
+        }
+    }
+
+    /**
+     * Runs the decode stage of an entry, and publishes the result unless the entry has been cancelled.
+     * @param entry The entry
+     * @param data The contents of the asset file
+     * @param <T> The type of decoded value
+     */
+    private <T> void decode(AssetEntry<T> entry, byte[] data) {
+        T value;
+
+        try {
+            value = entry.decoder.decode(data);
+        } catch (IOException | RuntimeException e) {
+            fail(entry, e);
+            return;
+        }
+
+        synchronized (this) {
+            if (entry.state != AssetState.DECODING) return;
+
+            entry.value = value;
+            entry.state = AssetState.READY;
+        }
+
+        LOADED.increment();
+        LATENCY.record(System.nanoTime() - entry.queuedAt);
+    }
+
+    /**
+     * Marks an entry as failed, unless it has been cancelled.
+     * @param entry The entry
+     * @param failure The reason the entry failed
+     */
+    private synchronized void fail(AssetEntry<?> entry, Throwable failure) {
+        if (entry.state == AssetState.CANCELLED) return;
+
+        entry.failure = failure;
+        entry.state = AssetState.FAILED;
+
+        FAILED.increment();
+    }
+}
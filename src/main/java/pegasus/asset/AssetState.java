@@ -0,0 +1,44 @@
+package pegasus.asset;
+
+/**
+ * The state of an asset in the loading pipeline.
+ */
+public enum AssetState {
+    /**
+     * The asset is waiting for a reader thread.
+     */
+    QUEUED,
+
+    /**
+     * The file of the asset is being read.
+     */
+    READING,
+
+    /**
+     * The contents of the asset are being decoded.
+     */
+    DECODING,
+
+    /**
+     * The asset has been loaded.
+     */
+    READY,
+
+    /**
+     * The asset could not be read or decoded.
+     */
+    FAILED,
+
+    /**
+     * The asset was released before it finished loading.
+     */
+    CANCELLED;
+
+    /**
+     * Returns whether this is a final state.
+     * @return {@code true} if the asset will not change state anymore
+     */
+    public boolean isDone() {
+        return this == READY || this == FAILED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,47 @@
+package pegasus.asset;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Decodes images in any format supported by {@link ImageIO}. Decoded images are converted to
+ * {@link BufferedImage#TYPE_INT_ARGB} so that they can be drawn and sampled without further conversion.
+ */
+public final class ImageDecoder implements AssetDecoder<BufferedImage> {
+    /**
+     * The shared instance of this decoder.
+     */
+    public static final ImageDecoder INSTANCE = new ImageDecoder();
+
+    /**
+     * {@inheritDoc}
+     * @param data {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public BufferedImage decode(byte[] data) throws IOException {
+        var image = ImageIO.read(new ByteArrayInputStream(data));
+        if (image == null) throw new IOException("Unsupported image format.");
+
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB) return image;
+
+        var converted = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        var g = converted.createGraphics();
+
+        try {
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+
+        return converted;
+    }
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private ImageDecoder() {}
+}
@@ -0,0 +1,51 @@
+package pegasus.asset;
+
+import pegasus.number.Vector3;
+import pegasus.number.Vector4;
+
+/**
+ * The vertex and index buffers of a decoded mesh. Attributes which the source file does not define are empty.
+ */
+public final class MeshData {
+    /**
+     * The vertex positions.
+     */
+    public final Vector3[] positions;
+
+    /**
+     * The vertex normals.
+     */
+    public final Vector3[] normals;
+
+    /**
+     * The vertex colors in {@code r, g, b, a} order.
+     */
+    public final Vector4[] colors;
+
+    /**
+     * The triangle indices into the position buffer, three per triangle.
+     */
+    public final int[] indices;
+
+    /**
+     * Creates new mesh data.
+     * @param positions The vertex positions
+     * @param normals The vertex normals
+     * @param colors The vertex colors
+     * @param indices The triangle indices
+     */
+    public MeshData(Vector3[] positions, Vector3[] normals, Vector4[] colors, int[] indices) {
+        this.positions = positions;
+        this.normals = normals;
+        this.colors = colors;
+        this.indices = indices;
+    }
+
+    /**
+     * Returns the number of triangles of this mesh.
+     * @return The number of triangles
+     */
+    public int triangleCount() {
+        return indices.length / 3;
+    }
+}
@@ -0,0 +1,156 @@
+package pegasus.asset;
+
+import pegasus.number.Vector3;
+import pegasus.number.Vector4;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Decodes meshes from a subset of the Wavefront OBJ text format. Supported statements are {@code v x y z}
+ * (position), {@code vn x y z} (normal), {@code vc r g b a} (color) and {@code f} (face). Faces may reference
+ * vertices as {@code i}, {@code i/t}, {@code i/t/n} or {@code i//n}, where only the position index is used;
+ * negative indices are relative to the end of the position list, and polygons are triangulated as fans. Other
+ * statements and comments are ignored.
+ */
+public final class MeshDecoder implements AssetDecoder<MeshData> {
+    /**
+     * The shared instance of this decoder.
+     */
+    public static final MeshDecoder INSTANCE = new MeshDecoder();
+
+    /**
+     * {@inheritDoc}
+     * @param data {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public MeshData decode(byte[] data) throws IOException {
+        var positions = new ArrayList<Vector3>();
+        var normals = new ArrayList<Vector3>();
+        var colors = new ArrayList<Vector4>();
+        var indices = new int[64];
+        var indexCount = 0;
+
+        var tokens = new String[16];
+        var lineNumber = 0;
+        var start = 0;
+
+        while (start < data.length) {
+            var end = start;
+            while (end < data.length && data[end] != '\n') end++;
+
+            lineNumber++;
+
+            var count = tokenize(data, start, end, tokens);
+            start = end + 1;
+
+            if (count == 0 || tokens[0].startsWith("#")) continue;
+
+            try {
+                switch (tokens[0]) {
+                    case "v" -> positions.add(new Vector3(
+                            parse(tokens, count, 1), parse(tokens, count, 2), parse(tokens, count, 3)
+                    ));
+                    case "vn" -> normals.add(new Vector3(
+                            parse(tokens, count, 1), parse(tokens, count, 2), parse(tokens, count, 3)
+                    ));
+                    case "vc" -> colors.add(new Vector4(
+                            parse(tokens, count, 1), parse(tokens, count, 2),
+                            parse(tokens, count, 3), parse(tokens, count, 4)
+                    ));
+                    case "f" -> {
+                        if (count < 4) throw new IOException("A face needs at least three vertices.");
+
+                        var first = index(tokens[1], positions.size());
+                        var previous = index(tokens[2], positions.size());
+
+                        for (var i = 3; i < count; i++) {
+                            var current = index(tokens[i], positions.size());
+
+                            if (indexCount + 3 > indices.length) indices = Arrays.copyOf(indices, indices.length * 2);
+
+                            indices[indexCount++] = first;
+                            indices[indexCount++] = previous;
+                            indices[indexCount++] = current;
+
+                            previous = current;
+                        }
+                    }
+                    default -> {}
+                }
+            } catch (IOException | NumberFormatException e) {
+                throw new IOException("Malformed mesh at line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+
+        return new MeshData(
+                positions.toArray(new Vector3[0]),
+                normals.toArray(new Vector3[0]),
+                colors.toArray(new Vector4[0]),
+                Arrays.copyOf(indices, indexCount)
+        );
+    }
+
+    /**
+     * Splits a line into whitespace-separated tokens. Tokens beyond the capacity of the array are dropped.
+     * @param data The file contents
+     * @param start The index of the first character of the line
+     * @param end The index one past the last character of the line
+     * @param tokens The array to store the tokens in
+     * @return The number of tokens
+     */
+    private static int tokenize(byte[] data, int start, int end, String[] tokens) {
+        var count = 0;
+        var i = start;
+
+        while (i < end && count < tokens.length) {
+            while (i < end && data[i] <= ' ') i++;
+            if (i == end) break;
+
+            var tokenStart = i;
+            while (i < end && data[i] > ' ') i++;
+
+            tokens[count++] = new String(data, tokenStart, i - tokenStart, StandardCharsets.US_ASCII);
+        }
+
+        return count;
+    }
+
+    /**
+     * Parses a numeric token.
+     * @param tokens The tokens of the line
+     * @param count The number of tokens
+     * @param i The index of the token to parse
+     * @return The parsed value
+     * @throws IOException When the token is missing
+     */
+    private static double parse(String[] tokens, int count, int i) throws IOException {
+        if (i >= count) throw new IOException("Expected " + i + " values.");
+        return Double.parseDouble(tokens[i]);
+    }
+
+    /**
+     * Parses the position index of a face vertex.
+     * @param token The face vertex token
+     * @param positions The number of positions defined so far
+     * @return The zero-based position index
+     * @throws IOException When the index is out of range
+     */
+    private static int index(String token, int positions) throws IOException {
+        var slash = token.indexOf('/');
+        var i = Integer.parseInt(slash < 0 ? token : token.substring(0, slash));
+        var index = i < 0 ? positions + i : i - 1;
+
+        if (index < 0 || index >= positions) throw new IOException("Vertex index " + i + " is out of range.");
+        return index;
+    }
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private MeshDecoder() {}
+}
@@ -0,0 +1,236 @@
+package pegasus.bench;
+
+import pegasus.grid.TileGrid;
+import pegasus.job.IntRangeConsumer;
+import pegasus.job.JobSystem;
+import pegasus.path.FlowField;
+import pegasus.path.FlowFieldCache;
+
+/**
+ * Agents walking over a cave-like tile grid towards a few shared goals by following cached flow fields. Every tick
+ * one wall cell is toggled, which updates every cached field incrementally, and then the agents take one step each in
+ * parallel. An agent which reaches its goal, or cannot reach it anymore, is respawned at a new cell with the next goal.
+ */
+public final class AgentsScene implements BenchScene {
+    /**
+     * The width and height of the grid.
+     */
+    private static final int GRID = 256;
+
+    /**
+     * The number of goals.
+     */
+    private static final int GOALS = 8;
+
+    /**
+     * The number of agents stepped by a single job.
+     */
+    private static final int GRAIN = 1024;
+
+    /**
+     * The cell value of a wall.
+     */
+    private static final int WALL = 1;
+
+    /**
+     * Steps a range of agents.
+     */
+    private final IntRangeConsumer step = this::step;
+
+    /**
+     * The flow field of each goal for the current tick.
+     */
+    private final FlowField[] fields = new FlowField[GOALS];
+
+    /**
+     * The X coordinate of each goal.
+     */
+    private final int[] goalX = new int[GOALS];
+
+    /**
+     * The Y coordinate of each goal.
+     */
+    private final int[] goalY = new int[GOALS];
+
+    /**
+     * The grid.
+     */
+    private TileGrid grid;
+
+    /**
+     * The flow fields towards the goals.
+     */
+    private FlowFieldCache cache;
+
+    /**
+     * The job system to run on.
+     */
+    private JobSystem jobs;
+
+    /**
+     * The X coordinate of each agent.
+     */
+    private int[] x;
+
+    /**
+     * The Y coordinate of each agent.
+     */
+    private int[] y;
+
+    /**
+     * The goal of each agent.
+     */
+    private int[] goal;
+
+    /**
+     * The current tick.
+     */
+    private long tick;
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return "agents";
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int defaultSize() {
+        return 65536;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param size The number of agents
+     * @param jobs {@inheritDoc}
+     */
+    @Override
+    public void setUp(int size, JobSystem jobs) {
+        this.jobs = jobs;
+        this.grid = new TileGrid(GRID, GRID, WALL);
+        this.cache = new FlowFieldCache(grid, v -> v == WALL ? Double.POSITIVE_INFINITY : 1, jobs, GOALS);
+        this.x = new int[size];
+        this.y = new int[size];
+        this.goal = new int[size];
+
+        for (var cy = 0; cy < GRID; cy++) {
+            for (var cx = 0; cx < GRID; cx++) {
+                if (mix(cy * GRID + cx) % 100 < 22) grid.set(cx, cy, WALL);
+            }
+        }
+
+        for (var g = 0; g < GOALS; g++) {
+            goalX[g] = (int) (mix(g * 2 + 1_000_003) % GRID);
+            goalY[g] = (int) (mix(g * 2 + 1_000_004) % GRID);
+            grid.set(goalX[g], goalY[g], 0);
+        }
+
+        for (var i = 0; i < size; i++) {
+            spawn(i, -1);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tick {@inheritDoc}
+     */
+    @Override
+    public void tick(long tick) {
+        this.tick = tick;
+
+        var cell = (int) (mix(tick + 7) % (GRID * GRID));
+        var cx = cell % GRID;
+        var cy = cell / GRID;
+
+        if (!isGoal(cx, cy)) {
+            grid.set(cx, cy, grid.get(cx, cy) == WALL ? 0 : WALL);
+            cache.invalidate(cx, cy);
+        }
+
+        for (var g = 0; g < GOALS; g++) {
+            fields[g] = cache.get(goalX[g], goalY[g]);
+        }
+
+        jobs.parallelFor(0, x.length, GRAIN, step);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tearDown() {
+        jobs = null;
+        grid = null;
+        cache = null;
+        x = null;
+        y = null;
+        goal = null;
+    }
+
+    /**
+     * Moves a range of agents one cell along the flow field of their goal.
+     * @param from The first agent (inclusive)
+     * @param to The last agent (exclusive)
+     */
+    private void step(int from, int to) {
+        for (var i = from; i < to; i++) {
+            var direction = fields[goal[i]].direction(x[i], y[i]);
+
+            if (direction == FlowField.NONE) {
+                spawn(i, tick);
+                continue;
+            }
+
+            x[i] += FlowField.offsetX(direction);
+            y[i] += FlowField.offsetY(direction);
+        }
+    }
+
+    /**
+     * Moves an agent to an open cell derived from its index and the tick, and gives it the next goal.
+     * @param agent The agent
+     * @param tick The current tick
+     */
+    private void spawn(int agent, long tick) {
+        var cell = (int) (mix(agent * 0x9E3779B97F4A7C15L ^ tick) % (GRID * GRID));
+
+        while (grid.get(cell % GRID, cell / GRID) == WALL) {
+            cell = (cell + 1) % (GRID * GRID);
+        }
+
+        x[agent] = cell % GRID;
+        y[agent] = cell / GRID;
+        goal[agent] = (goal[agent] + 1) % GOALS;
+    }
+
+    /**
+     * Returns whether a cell is one of the goals.
+     * @param cx The X coordinate of the cell
+     * @param cy The Y coordinate of the cell
+     * @return {@code true} if the cell is a goal
+     */
+    private boolean isGoal(int cx, int cy) {
+        for (var g = 0; g < GOALS; g++) {
+            if (goalX[g] == cx && goalY[g] == cy) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Scrambles the bits of a value into a non-negative value.
+     * @param x The value
+     * @return The scrambled value
+     */
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return (x ^ (x >>> 31)) >>> 1;
+    }
+}
@@ -0,0 +1,168 @@
+package pegasus.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Stored benchmark results which new runs are compared against. A run regresses when its throughput drops, its 99th
+ * percentile tick time grows, or its allocation per tick grows by more than the configured fraction of the baseline.
+ * Allocation differences below {@link #ALLOCATION_SLACK} bytes per tick are ignored, so that a scene which allocates
+ * nothing does not fail over a few stray bytes. Baselines are stored as properties files keyed by scene name.
+ */
+public final class BenchBaseline {
+    /**
+     * The growth of allocation per tick in bytes which is never reported as a regression.
+     */
+    public static final double ALLOCATION_SLACK = 1024;
+
+    /**
+     * The stored results.
+     */
+    private final Properties properties = new Properties();
+
+    /**
+     * The largest tolerated relative drop in ticks per second.
+     */
+    private double throughputTolerance = 0.15;
+
+    /**
+     * The largest tolerated relative growth of the 99th percentile tick time.
+     */
+    private double latencyTolerance = 0.25;
+
+    /**
+     * The largest tolerated relative growth of the allocation per tick.
+     */
+    private double allocationTolerance = 0.10;
+
+    /**
+     * Loads a baseline from a file. A missing file is an error rather than an empty baseline, since comparing
+     * against an empty baseline would silently pass every run.
+     * @param file The file to load
+     * @return The baseline
+     * @throws NoSuchFileException When the file does not exist
+     * @throws IOException When the file cannot be read
+     */
+    public static BenchBaseline load(Path file) throws NoSuchFileException, IOException {
+        var baseline = new BenchBaseline();
+
+        if (!Files.exists(file)) {
+            throw new NoSuchFileException(
+                    file.toString(), null, "The baseline does not exist; record one with pegasus.bench.update=true."
+            );
+        }
+
+        try (var reader = Files.newBufferedReader(file)) {
+            baseline.properties.load(reader);
+        }
+
+        return baseline;
+    }
+
+    /**
+     * Sets the tolerated regressions, as fractions of the baseline values.
+     * @param throughput The largest tolerated drop in ticks per second
+     * @param latency The largest tolerated growth of the 99th percentile tick time
+     * @param allocation The largest tolerated growth of the allocation per tick
+     * @throws IllegalArgumentException When a tolerance is negative
+     */
+    public void setTolerances(double throughput, double latency, double allocation) throws IllegalArgumentException {
+        if (!(throughput >= 0 && latency >= 0 && allocation >= 0)) {
+            throw new IllegalArgumentException("The tolerances must not be negative.");
+        }
+
+        this.throughputTolerance = throughput;
+        this.latencyTolerance = latency;
+        this.allocationTolerance = allocation;
+    }
+
+    /**
+     * Returns the stored result of a scene.
+     * @param scene The name of the scene
+     * @return The stored result, or {@code null} if this baseline has none
+     * @throws NumberFormatException When the stored values are malformed
+     */
+    public BenchResult get(String scene) throws NumberFormatException {
+        return BenchResult.load(properties, scene);
+    }
+
+    /**
+     * Stores a result, replacing the stored result of its scene.
+     * @param result The result
+     */
+    public void put(BenchResult result) {
+        result.store(properties);
+    }
+
+    /**
+     * Returns whether this baseline has a stored result which a result can be compared against.
+     * @param result The result
+     * @return {@code true} if a result of the same scene and size is stored
+     * @throws NumberFormatException When the stored values are malformed
+     */
+    public boolean covers(BenchResult result) throws NumberFormatException {
+        var base = get(result.scene);
+        return base != null && base.size == result.size;
+    }
+
+    /**
+     * Compares a result against the stored result of its scene. Results of a different size are not compared.
+     * @param result The result
+     * @return A description of every regression, empty if there is none or nothing to compare against
+     * @throws NumberFormatException When the stored values are malformed
+     */
+    public List<String> compare(BenchResult result) throws NumberFormatException {
+        var regressions = new ArrayList<String>();
+
+        var base = get(result.scene);
+        if (base == null || base.size != result.size) return regressions;
+
+        if (result.ticksPerSecond < base.ticksPerSecond * (1 - throughputTolerance)) {
+            regressions.add(describe(result.scene, "ticks/s", base.ticksPerSecond, result.ticksPerSecond));
+        }
+
+        if (result.p99Millis > base.p99Millis * (1 + latencyTolerance)) {
+            regressions.add(describe(result.scene, "p99 ms", base.p99Millis, result.p99Millis));
+        }
+
+        var allowed = Math.max(base.bytesPerTick * (1 + allocationTolerance), base.bytesPerTick + ALLOCATION_SLACK);
+
+        if (result.bytesPerTick > allowed) {
+            regressions.add(describe(result.scene, "bytes/tick", base.bytesPerTick, result.bytesPerTick));
+        }
+
+        return regressions;
+    }
+
+    /**
+     * Writes this baseline to a file.
+     * @param file The file to write to
+     * @throws IOException When the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        var parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+
+        try (var writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, "Vortex Engine benchmark baseline");
+        }
+    }
+
+    /**
+     * Describes a regression.
+     * @param scene The name of the scene
+     * @param metric The name of the metric
+     * @param base The baseline value
+     * @param value The new value
+     * @return The description
+     */
+    private static String describe(String scene, String metric, double base, double value) {
+        var change = base == 0 ? Double.POSITIVE_INFINITY : (value - base) / base * 100;
+        return String.format("%s: %s %.3f -> %.3f (%+.1f%%)", scene, metric, base, value, change);
+    }
+}
@@ -0,0 +1,175 @@
+package pegasus.bench;
+
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * The measurements of one run of a {@link BenchScene}.
+ */
+public final class BenchResult {
+    /**
+     * The name of the scene.
+     */
+    public final String scene;
+
+    /**
+     * The size of the scene.
+     */
+    public final int size;
+
+    /**
+     * The number of measured ticks.
+     */
+    public final long ticks;
+
+    /**
+     * The number of ticks per second of wall-clock time.
+     */
+    public final double ticksPerSecond;
+
+    /**
+     * The number of work items processed per second of wall-clock time, or {@code 0} if the scene does not count
+     * its work items.
+     * @see BenchScene#itemsPerTick()
+     */
+    public final double itemsPerSecond;
+
+    /**
+     * The median duration of a tick in milliseconds.
+     */
+    public final double p50Millis;
+
+    /**
+     * The 99th percentile duration of a tick in milliseconds.
+     */
+    public final double p99Millis;
+
+    /**
+     * The longest duration of a tick in milliseconds.
+     */
+    public final double maxMillis;
+
+    /**
+     * The number of bytes allocated per tick by every thread of the process.
+     */
+    public final double bytesPerTick;
+
+    /**
+     * The number of garbage collections.
+     */
+    public final long gcCount;
+
+    /**
+     * The total time spent in garbage collections in milliseconds.
+     */
+    public final long gcMillis;
+
+    /**
+     * The measurement specific to the scene, or {@code null} if the scene has none. This is not stored in baselines.
+     * @see BenchScene#report()
+     */
+    public final String report;
+
+    /**
+     * Creates a new result.
+     * @param scene The name of the scene
+     * @param size The size of the scene
+     * @param ticks The number of measured ticks
+     * @param ticksPerSecond The number of ticks per second
+     * @param itemsPerSecond The number of work items processed per second, or {@code 0}
+     * @param p50Millis The median duration of a tick in milliseconds
+     * @param p99Millis The 99th percentile duration of a tick in milliseconds
+     * @param maxMillis The longest duration of a tick in milliseconds
+     * @param bytesPerTick The number of bytes allocated per tick
+     * @param gcCount The number of garbage collections
+     * @param gcMillis The total time spent in garbage collections in milliseconds
+     * @param report The measurement specific to the scene, or {@code null}
+     */
+    public BenchResult(
+            String scene, int size, long ticks, double ticksPerSecond, double itemsPerSecond, double p50Millis,
+            double p99Millis, double maxMillis, double bytesPerTick, long gcCount, long gcMillis, String report
+    ) {
+        this.scene = scene;
+        this.size = size;
+        this.ticks = ticks;
+        this.ticksPerSecond = ticksPerSecond;
+        this.itemsPerSecond = itemsPerSecond;
+        this.p50Millis = p50Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+        this.bytesPerTick = bytesPerTick;
+        this.gcCount = gcCount;
+        this.gcMillis = gcMillis;
+        this.report = report;
+    }
+
+    /**
+     * Reads a result from a set of properties written by {@link #store(Properties)}.
+     * @param properties The properties
+     * @param scene The name of the scene
+     * @return The result, or {@code null} if the properties contain no result for the scene
+     * @throws NumberFormatException When a value is malformed
+     */
+    public static BenchResult load(Properties properties, String scene) throws NumberFormatException {
+        var prefix = scene + ".";
+        if (properties.getProperty(prefix + "ticksPerSecond") == null) return null;
+
+        return new BenchResult(
+                scene,
+                Integer.parseInt(properties.getProperty(prefix + "size", "0")),
+                Long.parseLong(properties.getProperty(prefix + "ticks", "0")),
+                Double.parseDouble(properties.getProperty(prefix + "ticksPerSecond")),
+                Double.parseDouble(properties.getProperty(prefix + "itemsPerSecond", "0")),
+                Double.parseDouble(properties.getProperty(prefix + "p50Millis", "0")),
+                Double.parseDouble(properties.getProperty(prefix + "p99Millis", "0")),
+                Double.parseDouble(properties.getProperty(prefix + "maxMillis", "0")),
+                Double.parseDouble(properties.getProperty(prefix + "bytesPerTick", "0")),
+                Long.parseLong(properties.getProperty(prefix + "gcCount", "0")),
+                Long.parseLong(properties.getProperty(prefix + "gcMillis", "0")),
+                null
+        );
+    }
+
+    /**
+     * Writes this result into a set of properties, keyed by the name of the scene.
+     * @param properties The properties to write to
+     */
+    public void store(Properties properties) {
+        var prefix = scene + ".";
+
+        properties.setProperty(prefix + "size", Integer.toString(size));
+        properties.setProperty(prefix + "ticks", Long.toString(ticks));
+        properties.setProperty(prefix + "ticksPerSecond", format(ticksPerSecond));
+        if (itemsPerSecond > 0) properties.setProperty(prefix + "itemsPerSecond", format(itemsPerSecond));
+        properties.setProperty(prefix + "p50Millis", format(p50Millis));
+        properties.setProperty(prefix + "p99Millis", format(p99Millis));
+        properties.setProperty(prefix + "maxMillis", format(maxMillis));
+        properties.setProperty(prefix + "bytesPerTick", format(bytesPerTick));
+        properties.setProperty(prefix + "gcCount", Long.toString(gcCount));
+        properties.setProperty(prefix + "gcMillis", Long.toString(gcMillis));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        var line = String.format(
+                "%-10s size=%-7d %9.1f ticks/s  p50=%7.3f ms  p99=%7.3f ms  max=%7.3f ms  %10.0f B/tick  gc=%d (%d ms)",
+                scene, size, ticksPerSecond, p50Millis, p99Millis, maxMillis, bytesPerTick, gcCount, gcMillis
+        );
+
+        if (itemsPerSecond > 0) line += String.format("  %.0f items/s", itemsPerSecond);
+        return report != null ? line + "  " + report : line;
+    }
+
+    /**
+     * Formats a measurement for a baseline file.
+     * @param value The measurement
+     * @return The formatted measurement
+     */
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
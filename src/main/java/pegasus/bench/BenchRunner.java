@@ -0,0 +1,287 @@
+package pegasus.bench;
+
+import pegasus.job.JobSystem;
+import pegasus.metrics.Histogram;
+import pegasus.metrics.MetricRegistry;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs scripted whole-engine scenes without a display and reports their throughput, tick time percentiles,
+ * allocation and garbage collection. Every scene is ticked for a number of warm-up ticks, which are not measured, and
+ * then for a number of measured ticks. Allocation is summed over every thread of the process, so that work done by
+ * the job system is included.
+ * <p>
+ * The {@link #main(String[])} entry point is configured with system properties, and exits with status {@code 1} when
+ * a scene regressed against the baseline. Scenes which the baseline has no result for, or no result of the same size,
+ * are not compared, and are listed in a warning:
+ * <ul>
+ *     <li>{@code pegasus.bench.scenes}: comma-separated names of the scenes to run, all by default</li>
+ *     <li>{@code pegasus.bench.size}: the size of every scene, instead of their default sizes</li>
+ *     <li>{@code pegasus.bench.warmup} and {@code pegasus.bench.ticks}: the number of warm-up and measured ticks</li>
+ *     <li>{@code pegasus.bench.workers}: the number of job system workers, one less than the number of
+ *     available processors by default</li>
+ *     <li>{@code pegasus.bench.baseline}: the baseline file to compare against, which must exist unless the
+ *     baseline is being updated; without one, nothing is compared and a warning is printed</li>
+ *     <li>{@code pegasus.bench.update}: whether to write the results into the baseline file instead, creating it if
+ *     it does not exist</li>
+ *     <li>{@code pegasus.bench.tolerance.throughput}, {@code .latency} and {@code .allocation}: the tolerated
+ *     regressions as fractions of the baseline, see {@link BenchBaseline}</li>
+ * </ul>
+ */
+public final class BenchRunner {
+    /**
+     * The duration of each measured tick in nanoseconds.
+     */
+    private static final Histogram TICK_TIME = MetricRegistry.global().histogram("bench.tickNanos");
+
+    /**
+     * The thread bean used to measure allocation, or {@code null} if the platform does not support it.
+     */
+    private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+    /**
+     * The job system scenes run on.
+     */
+    private final JobSystem jobs;
+
+    /**
+     * The number of ticks run before measuring.
+     */
+    private final int warmup;
+
+    /**
+     * The number of measured ticks.
+     */
+    private final int ticks;
+
+    /**
+     * Creates a new runner.
+     * @param jobs The job system scenes run on
+     * @param warmup The number of ticks run before measuring
+     * @param ticks The number of measured ticks
+     * @throws IllegalArgumentException When the number of warm-up ticks is negative or of measured ticks is not
+     * positive
+     */
+    public BenchRunner(JobSystem jobs, int warmup, int ticks) throws IllegalArgumentException {
+        if (warmup < 0) throw new IllegalArgumentException("The number of warm-up ticks must not be negative.");
+        if (ticks <= 0) throw new IllegalArgumentException("The number of measured ticks must be positive.");
+
+        this.jobs = jobs;
+        this.warmup = warmup;
+        this.ticks = ticks;
+    }
+
+    /**
+     * Returns a new instance of every built-in scene.
+     * @return The built-in scenes
+     */
+    public static List<BenchScene> scenes() {
+        var scenes = new ArrayList<BenchScene>(List.of(
+                new BodiesScene(), new NarrowphaseScene(), new ParticlesScene(), new AgentsScene(), new RenderScene(),
+                new JobsScene(false), new JobsScene(true), new JobsStressScene(), new StateStressScene(false),
+                new StateStressScene(true), new MatrixScene(false), new MatrixScene(true), new ReplicationScene(),
+                new GridScene(false), new GridScene(true)
+        ));
+
+        for (var kernel : FastMathScene.Kernel.values()) {
+            scenes.add(new FastMathScene(kernel, false));
+            scenes.add(new FastMathScene(kernel, true));
+        }
+
+        return scenes;
+    }
+
+    /**
+     * Sets up, runs and tears down a scene.
+     * @param scene The scene
+     * @param size The size of the scene
+     * @return The measurements
+     */
+    public BenchResult run(BenchScene scene, int size) {
+        scene.setUp(size, jobs);
+
+        try {
+            for (var t = 0; t < warmup; t++) {
+                scene.tick(t);
+            }
+
+            System.gc();
+            TICK_TIME.reset();
+
+            var gcCount = gcCount();
+            var gcMillis = gcMillis();
+            var allocated = allocatedBytes();
+            var start = System.nanoTime();
+
+            for (var t = 0; t < ticks; t++) {
+                var tickStart = System.nanoTime();
+                scene.tick(warmup + t);
+                TICK_TIME.record(System.nanoTime() - tickStart);
+            }
+
+            var elapsed = System.nanoTime() - start;
+            var bytes = allocatedBytes() - allocated;
+            var snapshot = TICK_TIME.snapshot();
+
+            return new BenchResult(
+                    scene.name(), size, ticks, ticks * 1e9 / elapsed, ticks * scene.itemsPerTick() * 1e9 / elapsed,
+                    snapshot.percentile(0.5) / 1e6, snapshot.percentile(0.99) / 1e6, snapshot.max() / 1e6,
+                    THREADS != null ? bytes / (double) ticks : 0, gcCount() - gcCount, gcMillis() - gcMillis,
+                    scene.report()
+            );
+        } finally {
+            scene.tearDown();
+        }
+    }
+
+    /**
+     * Runs the configured scenes, prints their results and compares them against the baseline.
+     * @param args Ignored; the runner is configured with system properties
+     * @throws NoSuchFileException When the baseline file does not exist and is not being updated
+     * @throws IOException When the baseline cannot be read or written
+     * @throws IllegalArgumentException When a configured scene does not exist
+     */
+    public static void main(String[] args) throws NoSuchFileException, IOException, IllegalArgumentException {
+        var selected = System.getProperty("pegasus.bench.scenes", "");
+        var size = Integer.getInteger("pegasus.bench.size", 0);
+        var warmup = Integer.getInteger("pegasus.bench.warmup", 200);
+        var ticks = Integer.getInteger("pegasus.bench.ticks", 1000);
+        var workers = Integer.getInteger("pegasus.bench.workers", Runtime.getRuntime().availableProcessors() - 1);
+        var baselineFile = System.getProperty("pegasus.bench.baseline");
+        var update = Boolean.getBoolean("pegasus.bench.update");
+
+        var scenes = new ArrayList<BenchScene>();
+
+        for (var scene : scenes()) {
+            if (selected.isBlank() || Arrays.asList(selected.split(",")).contains(scene.name())) scenes.add(scene);
+        }
+
+        if (scenes.isEmpty()) throw new IllegalArgumentException("No scene matches \"" + selected + "\".");
+
+        BenchBaseline baseline;
+
+        if (baselineFile == null) {
+            System.err.println("WARNING: No baseline is configured, so no regressions will be detected.");
+            baseline = new BenchBaseline();
+        } else if (update && !Files.exists(Path.of(baselineFile))) {
+            baseline = new BenchBaseline();
+        } else {
+            baseline = BenchBaseline.load(Path.of(baselineFile));
+        }
+
+        baseline.setTolerances(
+                tolerance("throughput", 0.15), tolerance("latency", 0.25), tolerance("allocation", 0.10)
+        );
+
+        var regressions = new ArrayList<String>();
+        var uncovered = new ArrayList<String>();
+
+        try (var jobs = new JobSystem(Math.max(1, workers), "bench")) {
+            var runner = new BenchRunner(jobs, warmup, ticks);
+
+            for (var scene : scenes) {
+                var result = runner.run(scene, size > 0 ? size : scene.defaultSize());
+                System.out.println(result);
+
+                if (update) {
+                    baseline.put(result);
+                } else if (baseline.covers(result)) {
+                    regressions.addAll(baseline.compare(result));
+                } else {
+                    uncovered.add(result.scene);
+                }
+            }
+        }
+
+        if (update && baselineFile != null) {
+            baseline.save(Path.of(baselineFile));
+            System.out.println("Baseline written to " + baselineFile);
+        }
+
+        if (baselineFile != null && !uncovered.isEmpty()) {
+            System.err.println("WARNING: The baseline has no result of the same size for " + uncovered + ".");
+        }
+
+        if (regressions.isEmpty()) return;
+
+        System.out.println("Regressions:");
+        regressions.forEach(r -> System.out.println("  " + r));
+        System.exit(1);
+    }
+
+    /**
+     * Reads a configured tolerance.
+     * @param name The name of the tolerance
+     * @param fallback The tolerance to use when none is configured
+     * @return The tolerance
+     * @throws NumberFormatException When the configured tolerance is malformed
+     */
+    private static double tolerance(String name, double fallback) throws NumberFormatException {
+        var value = System.getProperty("pegasus.bench.tolerance." + name);
+        return value != null ? Double.parseDouble(value) : fallback;
+    }
+
+    /**
+     * Returns the total number of bytes allocated by every live thread.
+     * @return The number of allocated bytes, or {@code 0} if the platform does not support measuring allocation
+     */
+    private static long allocatedBytes() {
+        if (THREADS == null) return 0;
+
+        var total = 0L;
+
+        for (var bytes : THREADS.getThreadAllocatedBytes(THREADS.getAllThreadIds())) {
+            if (bytes > 0) total += bytes;
+        }
+
+        return total;
+    }
+
+    /**
+     * Returns the total number of garbage collections so far.
+     * @return The number of collections
+     */
+    private static long gcCount() {
+        var total = 0L;
+
+        for (var gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+
+        return total;
+    }
+
+    /**
+     * Returns the total time spent in garbage collections so far.
+     * @return The time in milliseconds
+     */
+    private static long gcMillis() {
+        var total = 0L;
+
+        for (var gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+
+        return total;
+    }
+
+    /**
+     * Returns the thread bean used to measure allocation.
+     * @return The thread bean, or {@code null} if the platform does not support measuring allocation
+     */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)) return null;
+        if (!bean.isThreadAllocatedMemorySupported()) return null;
+
+        bean.setThreadAllocatedMemoryEnabled(true);
+        return bean;
+    }
+}
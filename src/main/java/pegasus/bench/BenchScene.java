@@ -0,0 +1,57 @@
+package pegasus.bench;
+
+import pegasus.job.JobSystem;
+
+/**
+ * A scripted, deterministic workload run by {@link BenchRunner}. A scene is set up once, then ticked a fixed number
+ * of times; every tick should do the work of one frame of the engine. Scenes must not depend on a display.
+ */
+public interface BenchScene {
+    /**
+     * Returns the name of this scene, which identifies it on the command line and in baseline files.
+     * @return The name of this scene
+     */
+    String name();
+
+    /**
+     * Returns the size of this scene when none is configured.
+     * @return The default size
+     */
+    int defaultSize();
+
+    /**
+     * Builds the state of this scene.
+     * @param size The number of simulated or drawn elements
+     * @param jobs The job system to run on
+     */
+    void setUp(int size, JobSystem jobs);
+
+    /**
+     * Simulates one frame.
+     * @param tick The number of the tick, starting at {@code 0}
+     */
+    void tick(long tick);
+
+    /**
+     * Returns the number of work items, such as collision pairs, processed by every tick. The runner reports the
+     * rate of work items per second for scenes which count them.
+     * @return The number of work items per tick, or {@code 0} if this scene does not count them
+     */
+    default long itemsPerTick() {
+        return 0;
+    }
+
+    /**
+     * Returns a measurement specific to this scene, such as the size of the packets it sends, which the runner
+     * prints with the result of the run. This is called after the measured ticks and before {@link #tearDown()}.
+     * @return A short description of the measurement, or {@code null} if this scene has none
+     */
+    default String report() {
+        return null;
+    }
+
+    /**
+     * Releases the state of this scene.
+     */
+    default void tearDown() {}
+}
@@ -0,0 +1,200 @@
+package pegasus.bench;
+
+import pegasus.job.JobSystem;
+import pegasus.number.Quaternion;
+import pegasus.number.Vector3;
+import pegasus.physics.BodyStore;
+import pegasus.physics.Box;
+import pegasus.physics.Collider;
+import pegasus.physics.ConstraintStore;
+import pegasus.physics.Contact;
+import pegasus.physics.IslandSolver;
+import pegasus.physics.Narrowphase;
+import pegasus.physics.SimplexCache;
+import pegasus.physics.Sphere;
+
+/**
+ * Rigid spheres resting in stacks on a static ground box. Every tick, the colliders follow their bodies, the
+ * candidate pairs of each stack are collided in parallel, the contacts are rebuilt, and the solver steps. Sleeping is
+ * disabled, and one stack is kicked every tick, so the work per tick stays constant.
+ */
+public final class BodiesScene implements BenchScene {
+    /**
+     * The number of spheres per stack.
+     */
+    private static final int STACK = 4;
+
+    /**
+     * The radius of a sphere.
+     */
+    private static final double RADIUS = 0.5;
+
+    /**
+     * The distance between the centers of neighbouring stacks.
+     */
+    private static final double SPACING = 1.5;
+
+    /**
+     * The largest gap at which a pair still gets a speculative contact.
+     */
+    private static final double MARGIN = 0.1;
+
+    /**
+     * The length of a step.
+     */
+    private static final double DT = 1 / 60.0;
+
+    /**
+     * The job system to run on.
+     */
+    private JobSystem jobs;
+
+    /**
+     * The bodies, where the first body is the ground.
+     */
+    private BodyStore bodies;
+
+    /**
+     * The contacts of the current step.
+     */
+    private ConstraintStore constraints;
+
+    /**
+     * The solver.
+     */
+    private IslandSolver solver;
+
+    /**
+     * The collider of each body.
+     */
+    private Collider[] colliders;
+
+    /**
+     * The candidate pairs, packed as two body indices each.
+     */
+    private int[] pairs;
+
+    /**
+     * The simplex cache of each pair.
+     */
+    private SimplexCache[] caches;
+
+    /**
+     * The contact of each pair.
+     */
+    private Contact[] contacts;
+
+    /**
+     * The number of stacks.
+     */
+    private int stacks;
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return "bodies";
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int defaultSize() {
+        return 2048;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param size The number of spheres
+     * @param jobs {@inheritDoc}
+     */
+    @Override
+    public void setUp(int size, JobSystem jobs) {
+        this.jobs = jobs;
+        this.bodies = new BodyStore(size + 1);
+        this.constraints = new ConstraintStore(size);
+        this.solver = new IslandSolver(bodies, jobs);
+        this.colliders = new Collider[size + 1];
+        this.pairs = new int[size * 2];
+        this.caches = new SimplexCache[size];
+        this.contacts = new Contact[size];
+        this.stacks = (size + STACK - 1) / STACK;
+
+        solver.setSleepThresholds(0, 0, Double.POSITIVE_INFINITY);
+
+        var side = (int) Math.ceil(Math.sqrt(stacks));
+        var extent = side * SPACING;
+
+        bodies.add(new Vector3(extent / 2, -1, extent / 2), Quaternion.IDENTITY, 0, Vector3.ZERO);
+        colliders[0] = new Collider(new Box(new Vector3(extent, 1, extent)));
+
+        var sphere = new Sphere(RADIUS);
+        var inertia = 0.4 * RADIUS * RADIUS;
+
+        for (var i = 0; i < size; i++) {
+            var stack = i / STACK;
+            var level = i % STACK;
+            var position = new Vector3(
+                    (stack % side) * SPACING, RADIUS + level * (2 * RADIUS + 0.01), (stack / side) * SPACING
+            );
+
+            var body = bodies.add(position, Quaternion.IDENTITY, 1, new Vector3(inertia, inertia, inertia));
+            colliders[body] = new Collider(sphere);
+            caches[i] = new SimplexCache();
+            contacts[i] = new Contact();
+
+            pairs[i * 2] = level == 0 ? 0 : body - 1;
+            pairs[i * 2 + 1] = body;
+        }
+
+        colliders[0].setPose(bodies.position(0), Quaternion.IDENTITY);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tick {@inheritDoc}
+     */
+    @Override
+    public void tick(long tick) {
+        var count = bodies.count();
+
+        for (var body = 1; body < count; body++) {
+            colliders[body].setPose(bodies.position(body), bodies.orientation(body));
+        }
+
+        var pairCount = count - 1;
+        Narrowphase.collideAll(jobs, colliders, pairs, caches, contacts, pairCount);
+
+        constraints.clear();
+
+        for (var i = 0; i < pairCount; i++) {
+            if (contacts[i].distance() > MARGIN) continue;
+            constraints.addContact(pairs[i * 2], pairs[i * 2 + 1], contacts[i], 0.5, i);
+        }
+
+        // Kick the top of one stack upwards, so that the stacks keep moving.
+        var top = Math.min(count - 1, (int) (tick * 7919 % stacks) * STACK + STACK);
+        bodies.setVelocity(top, new Vector3(0, 4, 0), Vector3.ZERO);
+
+        solver.step(constraints, DT);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tearDown() {
+        jobs = null;
+        bodies = null;
+        constraints = null;
+        solver = null;
+        colliders = null;
+        pairs = null;
+        caches = null;
+        contacts = null;
+    }
+}
@@ -0,0 +1,228 @@
+package pegasus.bench;
+
+import pegasus.job.JobSystem;
+import pegasus.number.FastMath;
+
+/**
+ * One bulk kernel of {@link FastMath} applied to packed arrays, or the same kernel computed exactly with
+ * {@link Math}, as a reference for the speedup of the approximation. Every tick runs the kernel once over every
+ * element on the calling thread, since the approximations trade accuracy for per-element throughput rather than
+ * parallelism.
+ */
+public final class FastMathScene implements BenchScene {
+    /**
+     * The kernel to run.
+     */
+    private final Kernel kernel;
+
+    /**
+     * Whether the exact {@link Math} version is run instead of the approximation.
+     */
+    private final boolean exact;
+
+    /**
+     * The inputs, packed as four values per element.
+     */
+    private double[] inputs;
+
+    /**
+     * The angles of the trigonometric kernel, two per element.
+     */
+    private double[] angles;
+
+    /**
+     * The outputs, packed as four values per element.
+     */
+    private double[] outputs;
+
+    /**
+     * The number of elements.
+     */
+    private int size;
+
+    /**
+     * Creates a new scene.
+     * @param kernel The kernel to run
+     * @param exact {@code true} to run the exact version, {@code false} for the approximation
+     */
+    public FastMathScene(Kernel kernel, boolean exact) {
+        this.kernel = kernel;
+        this.exact = exact;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return kernel.name + (exact ? "Exact" : "Fast");
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int defaultSize() {
+        return 1 << 16;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param size The number of elements
+     * @param jobs {@inheritDoc}
+     */
+    @Override
+    public void setUp(int size, JobSystem jobs) {
+        this.size = size;
+        this.inputs = new double[size * 4];
+        this.angles = new double[size * 2];
+        this.outputs = new double[size * 4];
+
+        for (var i = 0; i < size; i++) {
+            var w = Math.cos(i * 0.37);
+            var x = Math.sin(i * 0.37) * Math.cos(i * 0.11);
+            var y = Math.sin(i * 0.37) * Math.sin(i * 0.11) * Math.cos(i * 0.05);
+            var z = Math.sin(i * 0.37) * Math.sin(i * 0.11) * Math.sin(i * 0.05);
+
+            inputs[i * 4] = w;
+            inputs[i * 4 + 1] = x;
+            inputs[i * 4 + 2] = y;
+            inputs[i * 4 + 3] = z;
+            angles[i * 2] = w * 100;
+            angles[i * 2 + 1] = x * 100;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tick {@inheritDoc}
+     */
+    @Override
+    public void tick(long tick) {
+        var t = (tick % 100) / 100.0;
+
+        switch (kernel) {
+            case TRIG -> trig();
+            case ATAN2 -> atan2();
+            case SLERP -> slerp(t);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tearDown() {
+        inputs = null;
+        angles = null;
+        outputs = null;
+    }
+
+    /**
+     * Computes the sine and cosine of every angle, into the lower and upper half of the outputs.
+     */
+    private void trig() {
+        var count = size * 2;
+
+        if (!exact) {
+            FastMath.sin(angles, 0, outputs, 0, count);
+            FastMath.cos(angles, 0, outputs, count, count);
+            return;
+        }
+
+        for (var i = 0; i < count; i++) {
+            outputs[i] = Math.sin(angles[i]);
+        }
+
+        for (var i = 0; i < count; i++) {
+            outputs[count + i] = Math.cos(angles[i]);
+        }
+    }
+
+    /**
+     * Computes the angle of every pair of inputs, as a packed point.
+     */
+    private void atan2() {
+        var count = size * 2;
+
+        if (!exact) {
+            FastMath.atan2(inputs, 0, outputs, 0, count);
+            return;
+        }
+
+        for (var i = 0; i < count; i++) {
+            outputs[i] = Math.atan2(inputs[i * 2 + 1], inputs[i * 2]);
+        }
+    }
+
+    /**
+     * Interpolates every input quaternion towards the next one.
+     * @param t The interpolation parameter
+     */
+    private void slerp(double t) {
+        var count = size - 1;
+
+        if (!exact) {
+            FastMath.slerp(inputs, 0, inputs, 4, t, outputs, 0, count);
+            return;
+        }
+
+        for (var i = 0; i < count * 4; i += 4) {
+            var aw = inputs[i];
+            var ax = inputs[i + 1];
+            var ay = inputs[i + 2];
+            var az = inputs[i + 3];
+            var bw = inputs[i + 4];
+            var bx = inputs[i + 5];
+            var by = inputs[i + 6];
+            var bz = inputs[i + 7];
+
+            var cos = aw * bw + ax * bx + ay * by + az * bz;
+            var sign = cos < 0 ? -1 : 1;
+            var theta = Math.acos(Math.min(1, cos * sign));
+            var sin = Math.sin(theta);
+            var a = sin > 1e-9 ? Math.sin((1 - t) * theta) / sin : 1 - t;
+            var b = (sin > 1e-9 ? Math.sin(t * theta) / sin : t) * sign;
+
+            outputs[i] = a * aw + b * bw;
+            outputs[i + 1] = a * ax + b * bx;
+            outputs[i + 2] = a * ay + b * by;
+            outputs[i + 3] = a * az + b * bz;
+        }
+    }
+
+    /**
+     * A kernel of {@link FastMath}.
+     */
+    public enum Kernel {
+        /**
+         * The bulk forms of {@link FastMath#sin(double)} and {@link FastMath#cos(double)}.
+         */
+        TRIG("trig"),
+
+        /**
+         * The bulk form of {@link FastMath#atan2(double, double)}.
+         */
+        ATAN2("atan2"),
+
+        /**
+         * The bulk form of {@link FastMath#slerp(pegasus.number.Vector4, pegasus.number.Vector4, double)}.
+         */
+        SLERP("slerp");
+
+        /**
+         * The prefix of the names of the scenes running this kernel.
+         */
+        final String name;
+
+        /**
+         * Creates a new kernel.
+         * @param name The prefix of the names of the scenes running this kernel
+         */
+        Kernel(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package pegasus.bench;
+
+import pegasus.grid.Chunk;
+import pegasus.grid.ChunkedGrid;
+import pegasus.job.JobSystem;
+import pegasus.number.Int2;
+
+/**
+ * Iteration over a square window of a {@link ChunkedGrid} centered on the origin, as tile code does. Every tick
+ * looks up the chunk of every cell by its coordinates, and collects the coordinates of every occupied cell into an
+ * array, so that they escape. The cached scene obtains every coordinate from {@link Int2#valueOf(int, int)}; the
+ * fresh scene allocates every coordinate with {@code new}, as a reference for the allocation saved by the cache.
+ * <p>
+ * The default size covers the default cache window of {@code pegasus.int2.cacheRadius}; larger windows or a smaller
+ * cache radius make the cached scene allocate for the coordinates outside of the window.
+ */
+public final class GridScene implements BenchScene {
+    /**
+     * Whether coordinates are allocated with {@code new} instead of {@link Int2#valueOf(int, int)}.
+     */
+    private final boolean fresh;
+
+    /**
+     * The grid iterated over.
+     */
+    private ChunkedGrid grid;
+
+    /**
+     * The coordinates of the occupied cells found by the latest tick.
+     */
+    private Int2[] occupied;
+
+    /**
+     * The number of occupied cells found by the latest tick.
+     */
+    private int count;
+
+    /**
+     * The side length of the window.
+     */
+    private int size;
+
+    /**
+     * Creates a new scene.
+     * @param fresh {@code true} to allocate every coordinate, {@code false} to use the cache
+     */
+    public GridScene(boolean fresh) {
+        this.fresh = fresh;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return fresh ? "gridFresh" : "grid";
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int defaultSize() {
+        return 128;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param size The side length of the window in cells
+     * @param jobs {@inheritDoc}
+     */
+    @Override
+    public void setUp(int size, JobSystem jobs) {
+        this.size = size;
+        this.grid = new ChunkedGrid();
+        this.occupied = new Int2[size * size];
+
+        var half = size / 2;
+
+        for (var y = -half; y < size - half; y++) {
+            for (var x = -half; x < size - half; x++) {
+                if ((x * 7 + y * 13) % 3 == 0) grid.set(x, y, 1);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tick {@inheritDoc}
+     */
+    @Override
+    public void tick(long tick) {
+        var half = size / 2;
+        var n = 0;
+
+        for (var y = -half; y < size - half; y++) {
+            for (var x = -half; x < size - half; x++) {
+                var cx = x >> Chunk.SHIFT;
+                var cy = y >> Chunk.SHIFT;
+                var chunk = grid.chunk(fresh ? new Int2(cx, cy) : Int2.valueOf(cx, cy));
+
+                if (chunk == null || chunk.get(x & Chunk.MASK, y & Chunk.MASK) == 0) continue;
+                occupied[n++] = fresh ? new Int2(x, y) : Int2.valueOf(x, y);
+            }
+        }
+
+        count = n;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return The number of cells in the window
+     */
+    @Override
+    public long itemsPerTick() {
+        return (long) size * size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return The number of occupied cells found by the latest tick
+     */
+    @Override
+    public String report() {
+        return count + " occupied";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tearDown() {
+        grid = null;
+        occupied = null;
+    }
+}
@@ -0,0 +1,241 @@
+package pegasus.bench;
+
+import pegasus.job.IntRangeConsumer;
+import pegasus.job.JobGraph;
+import pegasus.job.JobSystem;
+
+import java.io.Serial;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fine-grained frame tasks scheduled by the {@link JobSystem}, or the same tasks scheduled by
+ * {@link ForkJoinPool#commonPool()}, as a reference for the overhead of the job system. Every tick runs a parallel
+ * loop over every element in chunks of {@link #GRAIN} elements, then a graph of {@link #STAGES} stages of
+ * {@link #WIDTH} small jobs, where every job depends on every job of the previous stage. The job system runs a graph
+ * built once; the fork/join version runs each stage with {@link ForkJoinTask#invokeAll(ForkJoinTask[])}, which gives
+ * the same ordering.
+ */
+public final class JobsScene implements BenchScene {
+    /**
+     * The number of elements processed by a single task of the parallel loop.
+     */
+    private static final int GRAIN = 256;
+
+    /**
+     * The number of stages of the graph.
+     */
+    private static final int STAGES = 8;
+
+    /**
+     * The number of jobs per stage of the graph.
+     */
+    private static final int WIDTH = 16;
+
+    /**
+     * The number of elements processed by a single job of the graph.
+     */
+    private static final int SLICE = 256;
+
+    /**
+     * Whether the tasks are scheduled by the common fork/join pool instead of the job system.
+     */
+    private final boolean forkJoin;
+
+    /**
+     * Updates a range of elements.
+     */
+    private final IntRangeConsumer update = this::update;
+
+    /**
+     * The job system to run on.
+     */
+    private JobSystem jobs;
+
+    /**
+     * The graph of stages run by the job system.
+     */
+    private JobGraph graph;
+
+    /**
+     * The jobs of every stage, in stage order.
+     */
+    private Runnable[] stageJobs;
+
+    /**
+     * The elements updated by the parallel loop.
+     */
+    private float[] values;
+
+    /**
+     * The elements updated by the graph, in one slice per job of a stage.
+     */
+    private float[] slices;
+
+    /**
+     * Creates a new scene.
+     * @param forkJoin {@code true} to schedule on the common fork/join pool, {@code false} for the job system
+     */
+    public JobsScene(boolean forkJoin) {
+        this.forkJoin = forkJoin;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return forkJoin ? "jobsForkJoin" : "jobs";
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int defaultSize() {
+        return 65536;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param size The number of elements of the parallel loop
+     * @param jobs {@inheritDoc}
+     */
+    @Override
+    public void setUp(int size, JobSystem jobs) {
+        this.jobs = jobs;
+        this.values = new float[size];
+        this.slices = new float[WIDTH * SLICE];
+        this.stageJobs = new Runnable[STAGES * WIDTH];
+        this.graph = new JobGraph();
+
+        var previous = new JobGraph.Node[0];
+
+        for (var s = 0; s < STAGES; s++) {
+            var stage = new JobGraph.Node[WIDTH];
+
+            for (var j = 0; j < WIDTH; j++) {
+                var slice = j;
+                var job = (Runnable) () -> updateSlice(slice);
+
+                stageJobs[s * WIDTH + j] = job;
+                stage[j] = graph.add("bench.stage" + s, job, previous);
+            }
+
+            previous = stage;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tick {@inheritDoc}
+     */
+    @Override
+    public void tick(long tick) {
+        if (!forkJoin) {
+            jobs.parallelFor(0, values.length, GRAIN, update);
+            jobs.run(graph);
+            return;
+        }
+
+        var pool = ForkJoinPool.commonPool();
+
+        pool.invoke(new RangeAction(0, values.length));
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                for (var s = 0; s < STAGES; s++) {
+                    var tasks = new ForkJoinTask<?>[WIDTH];
+
+                    for (var j = 0; j < WIDTH; j++) {
+                        tasks[j] = ForkJoinTask.adapt(stageJobs[s * WIDTH + j]);
+                    }
+
+                    invokeAll(tasks);
+                }
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tearDown() {
+        jobs = null;
+        graph = null;
+        stageJobs = null;
+        values = null;
+        slices = null;
+    }
+
+    /**
+     * Updates a range of elements of the parallel loop.
+     * @param from The first element (inclusive)
+     * @param to The last element (exclusive)
+     */
+    private void update(int from, int to) {
+        for (var i = from; i < to; i++) {
+            values[i] = values[i] * 0.999f + i * 1e-6f;
+        }
+    }
+
+    /**
+     * Updates a slice of the elements of the graph.
+     * @param slice The index of the slice
+     */
+    private void updateSlice(int slice) {
+        for (var i = slice * SLICE; i < (slice + 1) * SLICE; i++) {
+            slices[i] = slices[i] * 0.999f + i * 1e-6f;
+        }
+    }
+
+    /**
+     * A fork/join task which updates a range of elements of the parallel loop, splitting it in halves down to
+     * {@link #GRAIN} elements.
+     */
+    private final class RangeAction extends RecursiveAction {
+        /**
+         * The serial version UID of this class.
+         */
+        @Serial
+        private static final long serialVersionUID = 0;
+
+        /**
+         * The first element of the range (inclusive).
+         */
+        private final int from;
+
+        /**
+         * The last element of the range (exclusive).
+         */
+        private final int to;
+
+        /**
+         * Creates a new range task.
+         * @param from The first element (inclusive)
+         * @param to The last element (exclusive)
+         */
+        RangeAction(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Splits the range in halves while it is larger than the grain size, then updates it.
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                update(from, to);
+                return;
+            }
+
+            var mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, mid), new RangeAction(mid, to));
+        }
+    }
+}
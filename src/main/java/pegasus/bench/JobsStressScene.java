@@ -0,0 +1,150 @@
+package pegasus.bench;
+
+import pegasus.job.JobSystem;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A stress check of the range splitting of {@link JobSystem#parallelFor(int, int, int, pegasus.job.IntRangeConsumer)}.
+ * Every tick runs a number of rounds, each of which is a small parallel loop with a grain of one index, so that
+ * nearly every index is split off and may be stolen by another worker. Every body counts the indices it has processed
+ * and whether it is still running, and a round is short if the loop returned before every index was processed or
+ * while a body was still running.
+ * <p>
+ * The measured time is that of the rounds. Tearing down the scene fails with an {@link IllegalStateException} if any
+ * round was short.
+ */
+public final class JobsStressScene implements BenchScene {
+    /**
+     * The number of indices of every round.
+     */
+    private static final int RANGE = 64;
+
+    /**
+     * The number of spins every body waits for, so that bodies overlap with the splitting of other workers.
+     */
+    private static final int SPINS = 16;
+
+    /**
+     * The number of indices processed in the current round.
+     */
+    private final AtomicInteger processed = new AtomicInteger();
+
+    /**
+     * The number of bodies running in the current round.
+     */
+    private final AtomicInteger active = new AtomicInteger();
+
+    /**
+     * The number of rounds run.
+     */
+    private final AtomicLong rounds = new AtomicLong();
+
+    /**
+     * The number of short rounds observed.
+     */
+    private final AtomicLong shortRounds = new AtomicLong();
+
+    /**
+     * The job system to run on.
+     */
+    private JobSystem jobs;
+
+    /**
+     * The number of rounds per tick.
+     */
+    private int size;
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return "jobsStress";
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int defaultSize() {
+        return 200;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param size The number of rounds per tick
+     * @param jobs {@inheritDoc}
+     */
+    @Override
+    public void setUp(int size, JobSystem jobs) {
+        this.jobs = jobs;
+        this.size = size;
+
+        rounds.set(0);
+        shortRounds.set(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tick {@inheritDoc}
+     */
+    @Override
+    public void tick(long tick) {
+        for (var round = 0; round < size; round++) {
+            processed.set(0);
+            jobs.parallelFor(0, RANGE, 1, this::process);
+
+            rounds.incrementAndGet();
+            if (processed.get() != RANGE || active.get() != 0) shortRounds.incrementAndGet();
+
+            // Let the bodies of a short round finish, so that they are not counted in the next round.
+            while (active.get() != 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return The number of rounds per tick
+     */
+    @Override
+    public long itemsPerTick() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalStateException When a parallel loop returned before all of its bodies had completed
+     */
+    @Override
+    public void tearDown() throws IllegalStateException {
+        jobs = null;
+
+        if (shortRounds.get() > 0) {
+            throw new IllegalStateException(
+                    shortRounds.get() + " of " + rounds.get() + " parallel loops returned before completing."
+            );
+        }
+    }
+
+    /**
+     * Processes a range of indices of a round.
+     * @param from The first index (inclusive)
+     * @param to The last index (exclusive)
+     */
+    private void process(int from, int to) {
+        active.incrementAndGet();
+
+        for (var i = 0; i < SPINS; i++) {
+            Thread.onSpinWait();
+        }
+
+        processed.addAndGet(to - from);
+        active.decrementAndGet();
+    }
+}
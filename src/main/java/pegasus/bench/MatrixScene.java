@@ -0,0 +1,198 @@
+package pegasus.bench;
+
+import pegasus.job.JobSystem;
+import pegasus.number.DenseMatrix;
+import pegasus.number.VectorN;
+
+/**
+ * Dense linear algebra of the size used by solvers and skinning. Every tick multiplies two square matrices, multiplies
+ * the product by a vector, and accumulates the product into a running sum. The blocked scene uses the parallel
+ * kernels of {@link DenseMatrix}; the naive scene computes the same products with plain triple loops, as a reference
+ * for the speedup of blocking and splitting.
+ */
+public final class MatrixScene implements BenchScene {
+    /**
+     * The factor the product is accumulated with.
+     */
+    private static final double DECAY = 0.5;
+
+    /**
+     * Whether the naive loops are run instead of the blocked kernels.
+     */
+    private final boolean naive;
+
+    /**
+     * The job system to run on.
+     */
+    private JobSystem jobs;
+
+    /**
+     * The left operand.
+     */
+    private DenseMatrix a;
+
+    /**
+     * The right operand.
+     */
+    private DenseMatrix b;
+
+    /**
+     * The vector the product is multiplied by.
+     */
+    private VectorN x;
+
+    /**
+     * The running sum of the products.
+     */
+    private DenseMatrix sum;
+
+    /**
+     * The product of the latest tick multiplied by the vector.
+     */
+    private VectorN y;
+
+    /**
+     * Creates a new scene.
+     * @param naive {@code true} to run the naive loops, {@code false} for the blocked kernels
+     */
+    public MatrixScene(boolean naive) {
+        this.naive = naive;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return naive ? "matrixNaive" : "matrix";
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int defaultSize() {
+        return 256;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param size The number of rows and columns of the matrices
+     * @param jobs {@inheritDoc}
+     */
+    @Override
+    public void setUp(int size, JobSystem jobs) {
+        this.jobs = jobs;
+        this.a = new DenseMatrix(size, size);
+        this.b = new DenseMatrix(size, size);
+        this.x = new VectorN(size);
+        this.sum = new DenseMatrix(size, size);
+
+        for (var i = 0; i < size; i++) {
+            x.set(i, (i % 7) / 7.0 - 0.5);
+
+            for (var j = 0; j < size; j++) {
+                a.set(i, j, ((i * 31 + j * 17) % 97) / 97.0 - 0.5);
+                b.set(i, j, ((i * 13 + j * 29) % 89) / 89.0 - 0.5);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tick {@inheritDoc}
+     */
+    @Override
+    public void tick(long tick) {
+        if (naive) {
+            var product = multiply(a, b);
+            y = multiply(product, x);
+            axpy(DECAY, product, sum);
+            return;
+        }
+
+        var product = a.multiply(b, jobs);
+        y = product.multiply(x, jobs);
+        sum.axpy(DECAY, product, jobs);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tearDown() {
+        jobs = null;
+        a = null;
+        b = null;
+        x = null;
+        sum = null;
+        y = null;
+    }
+
+    /**
+     * Multiplies two matrices with a naive triple loop.
+     * @param a The left operand
+     * @param b The right operand
+     * @return The product
+     */
+    private static DenseMatrix multiply(DenseMatrix a, DenseMatrix b) {
+        var result = new DenseMatrix(a.rows(), b.columns());
+        var av = a.toArray();
+        var bv = b.toArray();
+        var cv = result.toArray();
+        var inner = a.columns();
+        var width = b.columns();
+
+        for (var i = 0; i < a.rows(); i++) {
+            for (var j = 0; j < width; j++) {
+                var s = 0d;
+
+                for (var k = 0; k < inner; k++) {
+                    s += av[i * inner + k] * bv[k * width + j];
+                }
+
+                cv[i * width + j] = s;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Multiplies a matrix by a vector with a naive double loop.
+     * @param m The matrix
+     * @param v The vector
+     * @return The product
+     */
+    private static VectorN multiply(DenseMatrix m, VectorN v) {
+        var result = new VectorN(m.rows());
+
+        for (var i = 0; i < m.rows(); i++) {
+            var s = 0d;
+
+            for (var j = 0; j < m.columns(); j++) {
+                s += m.get(i, j) * v.get(j);
+            }
+
+            result.set(i, s);
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds a matrix multiplied by a scalar to another matrix with a naive double loop.
+     * @param s The scalar
+     * @param m The matrix to add
+     * @param dst The matrix to add to
+     */
+    private static void axpy(double s, DenseMatrix m, DenseMatrix dst) {
+        for (var i = 0; i < m.rows(); i++) {
+            for (var j = 0; j < m.columns(); j++) {
+                dst.set(i, j, dst.get(i, j) + s * m.get(i, j));
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package pegasus.bench;
+
+import pegasus.job.JobSystem;
+import pegasus.number.Vector3;
+import pegasus.physics.Box;
+import pegasus.physics.Capsule;
+import pegasus.physics.Collider;
+import pegasus.physics.Contact;
+import pegasus.physics.ConvexHull;
+import pegasus.physics.ConvexShape;
+import pegasus.physics.Narrowphase;
+import pegasus.physics.SimplexCache;
+import pegasus.physics.Sphere;
+
+/**
+ * The narrow phase on its own: a fixed batch of pairs of mixed convex shapes, collided in parallel every tick with
+ * warm-started simplex caches. The second collider of every pair orbits and spins around the first, so that the
+ * pairs move between being apart, touching and penetrating, and both GJK and EPA are exercised. The work items of
+ * this scene are pairs, so the runner reports pairs per second.
+ */
+public final class NarrowphaseScene implements BenchScene {
+    /**
+     * The distance between the centers of neighbouring pairs.
+     */
+    private static final double SPACING = 10;
+
+    /**
+     * The colliders, where the pair {@code i} consists of the colliders {@code 2i} and {@code 2i + 1}.
+     */
+    private Collider[] colliders;
+
+    /**
+     * The pairs, packed as indices into the colliders.
+     */
+    private int[] pairs;
+
+    /**
+     * The simplex cache of each pair.
+     */
+    private SimplexCache[] caches;
+
+    /**
+     * The contact of each pair.
+     */
+    private Contact[] contacts;
+
+    /**
+     * The X and Z coordinates of the first collider of each pair, packed as pairs.
+     */
+    private double[] centers;
+
+    /**
+     * The job system to run on.
+     */
+    private JobSystem jobs;
+
+    /**
+     * The number of pairs.
+     */
+    private int size;
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return "narrowphase";
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int defaultSize() {
+        return 4096;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param size The number of pairs
+     * @param jobs {@inheritDoc}
+     */
+    @Override
+    public void setUp(int size, JobSystem jobs) {
+        this.jobs = jobs;
+        this.size = size;
+        this.colliders = new Collider[size * 2];
+        this.pairs = new int[size * 2];
+        this.caches = new SimplexCache[size];
+        this.contacts = new Contact[size];
+        this.centers = new double[size * 2];
+
+        var shapes = new ConvexShape[] {
+                new Sphere(0.5),
+                new Box(new Vector3(0.4, 0.3, 0.5)),
+                new Capsule(0.4, 0.25),
+                new ConvexHull(
+                        new Vector3(0.5, 0, 0), new Vector3(-0.3, 0.4, 0.2), new Vector3(-0.3, -0.4, 0.2),
+                        new Vector3(0, 0, -0.5), new Vector3(0.1, 0.3, -0.3), new Vector3(0.2, -0.2, 0.4)
+                )
+        };
+
+        var side = (int) Math.ceil(Math.sqrt(size));
+
+        for (var i = 0; i < size; i++) {
+            colliders[i * 2] = new Collider(shapes[i % shapes.length]);
+            colliders[i * 2 + 1] = new Collider(shapes[i / shapes.length % shapes.length]);
+            centers[i * 2] = (i % side) * SPACING;
+            centers[i * 2 + 1] = (i / side) * SPACING;
+            colliders[i * 2].setPose(centers[i * 2], 0, centers[i * 2 + 1], 1, 0, 0, 0);
+
+            pairs[i * 2] = i * 2;
+            pairs[i * 2 + 1] = i * 2 + 1;
+            caches[i] = new SimplexCache();
+            contacts[i] = new Contact();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tick {@inheritDoc}
+     */
+    @Override
+    public void tick(long tick) {
+        for (var i = 0; i < size; i++) {
+            var phase = tick * 0.05 + i;
+            var distance = 1 + 0.8 * Math.sin(phase);
+            var half = (tick * 0.03 + i) * 0.5;
+
+            colliders[i * 2 + 1].setPose(
+                    centers[i * 2] + distance * Math.cos(phase * 0.3), distance * 0.2,
+                    centers[i * 2 + 1] + distance * Math.sin(phase * 0.3), Math.cos(half), 0, Math.sin(half), 0
+            );
+        }
+
+        Narrowphase.collideAll(jobs, colliders, pairs, caches, contacts, size);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return The number of pairs
+     */
+    @Override
+    public long itemsPerTick() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tearDown() {
+        jobs = null;
+        colliders = null;
+        pairs = null;
+        caches = null;
+        contacts = null;
+        centers = null;
+    }
+}
@@ -0,0 +1,212 @@
+package pegasus.bench;
+
+import pegasus.job.IntRangeConsumer;
+import pegasus.job.JobSystem;
+
+/**
+ * Point particles emitted from a fountain, falling under gravity with drag and bouncing on the ground. The particles
+ * are stored as flat arrays per component and integrated in parallel. A particle which has lived out its lifetime is
+ * emitted again with a velocity derived from its index and the tick, so every run is identical.
+ */
+public final class ParticlesScene implements BenchScene {
+    /**
+     * The number of particles integrated by a single job.
+     */
+    private static final int GRAIN = 4096;
+
+    /**
+     * The length of a step.
+     */
+    private static final float DT = 1 / 60f;
+
+    /**
+     * The downward acceleration.
+     */
+    private static final float GRAVITY = 9.81f;
+
+    /**
+     * The fraction of velocity kept per step.
+     */
+    private static final float DRAG = 0.995f;
+
+    /**
+     * The fraction of vertical speed kept by a bounce.
+     */
+    private static final float RESTITUTION = 0.5f;
+
+    /**
+     * The number of ticks a particle lives.
+     */
+    private static final int LIFETIME = 240;
+
+    /**
+     * Integrates a range of particles.
+     */
+    private final IntRangeConsumer integrate = this::integrate;
+
+    /**
+     * The job system to run on.
+     */
+    private JobSystem jobs;
+
+    /**
+     * The X coordinate of each particle.
+     */
+    private float[] px;
+
+    /**
+     * The Y coordinate of each particle.
+     */
+    private float[] py;
+
+    /**
+     * The Z coordinate of each particle.
+     */
+    private float[] pz;
+
+    /**
+     * The X velocity of each particle.
+     */
+    private float[] vx;
+
+    /**
+     * The Y velocity of each particle.
+     */
+    private float[] vy;
+
+    /**
+     * The Z velocity of each particle.
+     */
+    private float[] vz;
+
+    /**
+     * The tick at which each particle is emitted again.
+     */
+    private long[] expiry;
+
+    /**
+     * The current tick.
+     */
+    private long tick;
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return "particles";
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int defaultSize() {
+        return 1 << 20;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param size The number of particles
+     * @param jobs {@inheritDoc}
+     */
+    @Override
+    public void setUp(int size, JobSystem jobs) {
+        this.jobs = jobs;
+        this.px = new float[size];
+        this.py = new float[size];
+        this.pz = new float[size];
+        this.vx = new float[size];
+        this.vy = new float[size];
+        this.vz = new float[size];
+        this.expiry = new long[size];
+
+        // Stagger the first emissions, so that the particles do not all expire on the same tick.
+        for (var i = 0; i < size; i++) {
+            expiry[i] = i % LIFETIME;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tick {@inheritDoc}
+     */
+    @Override
+    public void tick(long tick) {
+        this.tick = tick;
+        jobs.parallelFor(0, px.length, GRAIN, integrate);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tearDown() {
+        jobs = null;
+        px = null;
+        py = null;
+        pz = null;
+        vx = null;
+        vy = null;
+        vz = null;
+        expiry = null;
+    }
+
+    /**
+     * Integrates a range of particles, emitting those which have expired.
+     * @param from The first particle (inclusive)
+     * @param to The last particle (exclusive)
+     */
+    private void integrate(int from, int to) {
+        var px = this.px;
+        var py = this.py;
+        var pz = this.pz;
+        var vx = this.vx;
+        var vy = this.vy;
+        var vz = this.vz;
+        var tick = this.tick;
+
+        for (var i = from; i < to; i++) {
+            if (expiry[i] <= tick) {
+                var h = mix(i * 0x9E3779B97F4A7C15L ^ tick);
+
+                px[i] = 0;
+                py[i] = 0;
+                pz[i] = 0;
+                vx[i] = ((h & 0xFFFF) / 65535f - 0.5f) * 4;
+                vy[i] = 8 + ((h >>> 16) & 0xFFFF) / 65535f * 4;
+                vz[i] = (((h >>> 32) & 0xFFFF) / 65535f - 0.5f) * 4;
+                expiry[i] = tick + LIFETIME;
+                continue;
+            }
+
+            var y = vy[i] - GRAVITY * DT;
+
+            vx[i] *= DRAG;
+            vy[i] = y * DRAG;
+            vz[i] *= DRAG;
+
+            px[i] += vx[i] * DT;
+            py[i] += vy[i] * DT;
+            pz[i] += vz[i] * DT;
+
+            if (py[i] < 0) {
+                py[i] = -py[i];
+                vy[i] = -vy[i] * RESTITUTION;
+            }
+        }
+    }
+
+    /**
+     * Scrambles the bits of a value.
+     * @param x The value
+     * @return The scrambled value
+     */
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+}
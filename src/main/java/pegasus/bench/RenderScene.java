@@ -0,0 +1,189 @@
+package pegasus.bench;
+
+import pegasus.job.JobSystem;
+import pegasus.profile.ProfilerOverlay;
+import pegasus.render.AtlasBuilder;
+import pegasus.render.SpriteBatch;
+import pegasus.render.SpriteRegion;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * A full frame rendered into an offscreen image: the image is cleared, moving and spinning sprites from a generated
+ * atlas are drawn through a {@link SpriteBatch}, and the profiler overlay is drawn on top with Java2D. Nothing is
+ * shown on screen, so the scene runs without a display.
+ */
+public final class RenderScene implements BenchScene {
+    /**
+     * The width of the image.
+     */
+    private static final int WIDTH = 800;
+
+    /**
+     * The height of the image.
+     */
+    private static final int HEIGHT = 600;
+
+    /**
+     * The size of a generated sprite.
+     */
+    private static final int SPRITE = 32;
+
+    /**
+     * The background color.
+     */
+    private static final int BACKGROUND = 0xFF202830;
+
+    /**
+     * The overlay drawn on top of the sprites.
+     */
+    private final ProfilerOverlay overlay = new ProfilerOverlay();
+
+    /**
+     * The image to render into.
+     */
+    private BufferedImage image;
+
+    /**
+     * The pixels of the image.
+     */
+    private int[] raster;
+
+    /**
+     * The sprites to draw.
+     */
+    private SpriteRegion[] regions;
+
+    /**
+     * The sprite batch.
+     */
+    private SpriteBatch batch;
+
+    /**
+     * The number of sprites drawn per frame.
+     */
+    private int size;
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return "render";
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int defaultSize() {
+        return 10000;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param size The number of sprites
+     * @param jobs {@inheritDoc}
+     */
+    @Override
+    public void setUp(int size, JobSystem jobs) {
+        this.size = size;
+        this.image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        this.raster = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        this.batch = new SpriteBatch(jobs);
+
+        var builder = new AtlasBuilder(256, 1);
+        var shapes = 4;
+
+        for (var s = 0; s < shapes; s++) {
+            builder.add("shape" + s, SPRITE, SPRITE, shape(s));
+        }
+
+        var atlases = builder.build();
+        this.regions = new SpriteRegion[shapes];
+
+        for (var s = 0; s < shapes; s++) {
+            regions[s] = atlases.region("shape" + s);
+        }
+
+        overlay.setVisible(true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tick {@inheritDoc}
+     */
+    @Override
+    public void tick(long tick) {
+        Arrays.fill(raster, BACKGROUND);
+
+        var time = tick / 60.0;
+
+        for (var i = 0; i < size; i++) {
+            var phase = i * 0.618034;
+            var x = WIDTH * (0.5 + 0.45 * Math.sin(time * 0.7 + phase * 3.1));
+            var y = HEIGHT * (0.5 + 0.45 * Math.cos(time * 0.9 + phase * 1.7));
+            var angle = time + phase;
+            var scale = 0.5 + (i % 5) * 0.25;
+            var cos = Math.cos(angle) * scale;
+            var sin = Math.sin(angle) * scale;
+
+            batch.add(regions[i % regions.length], x, y, cos, sin, -sin, cos, 0.75, i % 3);
+        }
+
+        batch.flush(raster, WIDTH, HEIGHT);
+
+        var g = image.createGraphics();
+
+        try {
+            overlay.paint(g, 8, 8);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void tearDown() {
+        image = null;
+        raster = null;
+        regions = null;
+        batch = null;
+    }
+
+    /**
+     * Generates the pixels of a sprite.
+     * @param shape The shape: a disc, a ring, a diamond or a square
+     * @return The non-premultiplied ARGB pixels
+     */
+    private static int[] shape(int shape) {
+        var pixels = new int[SPRITE * SPRITE];
+        var colors = new int[] {0xFFE05050, 0xFF50C0E0, 0xFFE0C050, 0xFF70E070};
+        var half = SPRITE / 2.0;
+
+        for (var py = 0; py < SPRITE; py++) {
+            for (var px = 0; px < SPRITE; px++) {
+                var dx = (px + 0.5 - half) / half;
+                var dy = (py + 0.5 - half) / half;
+                var r = Math.sqrt(dx * dx + dy * dy);
+
+                var inside = switch (shape) {
+                    case 0 -> r <= 1;
+                    case 1 -> r <= 1 && r >= 0.6;
+                    case 2 -> Math.abs(dx) + Math.abs(dy) <= 1;
+                    default -> Math.abs(dx) <= 0.8 && Math.abs(dy) <= 0.8;
+                };
+
+                pixels[py * SPRITE + px] = inside ? colors[shape] : 0;
+            }
+        }
+
+        return pixels;
+    }
+}
@@ -0,0 +1,210 @@
+package pegasus.bench;
+
+import pegasus.job.JobSystem;
+import pegasus.net.EntityStates;
+import pegasus.net.LoopbackTransport;
+import pegasus.net.ReplicationDecoder;
+import pegasus.net.ReplicationEncoder;
+
+import java.util.Locale;
+
+/**
+ * Delta-compressed replication of entity states over a {@link LoopbackTransport}. Every tick moves the entities,
+ * encodes and sends their states, decodes them on the receiving side and acknowledges the packet, so that every
+ * packet is diffed against the previous one. A quarter of the entities are idle, the others move every tick, and
+ * one in eight turns every tick. The work items of this scene are entities, and its report is the number of bytes
+ * sent per entity per tick, excluding the first packet, which carries the full state.
+ * <p>
+ * Tearing down the scene fails with an {@link IllegalStateException} if the decoded states differ from the sent
+ * states by more than the quantization allows.
+ */
+public final class ReplicationScene implements BenchScene {
+    /**
+     * The smallest position difference which is replicated.
+     */
+    private static final double PRECISION = 0.01;
+
+    /**
+     * The number of bits per orientation component.
+     */
+    private static final int ROTATION_BITS = 10;
+
+    /**
+     * The largest tolerated difference between a sent and a decoded orientation component.
+     */
+    private static final double ROTATION_TOLERANCE = 0.01;
+
+    /**
+     * The states sent by the authoritative side.
+     */
+    private EntityStates states;
+
+    /**
+     * The states decoded by the receiving side.
+     */
+    private EntityStates received;
+
+    /**
+     * The encoder of the authoritative side.
+     */
+    private ReplicationEncoder encoder;
+
+    /**
+     * The decoder of the receiving side.
+     */
+    private ReplicationDecoder decoder;
+
+    /**
+     * The transport packets are sent through.
+     */
+    private LoopbackTransport transport;
+
+    /**
+     * The velocity of every entity, packed as three components per entity.
+     */
+    private double[] velocities;
+
+    /**
+     * The number of bytes sent by the first tick.
+     */
+    private long initialBytes;
+
+    /**
+     * The number of ticks run.
+     */
+    private long ticks;
+
+    /**
+     * The number of entities.
+     */
+    private int size;
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return "replication";
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int defaultSize() {
+        return 4096;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param size The number of entities
+     * @param jobs {@inheritDoc}
+     */
+    @Override
+    public void setUp(int size, JobSystem jobs) {
+        this.size = size;
+        this.states = new EntityStates(size);
+        this.received = new EntityStates(size);
+        this.encoder = new ReplicationEncoder(size, PRECISION, ROTATION_BITS);
+        this.decoder = new ReplicationDecoder(size, PRECISION, ROTATION_BITS);
+        this.transport = new LoopbackTransport();
+        this.velocities = new double[size * 3];
+        this.initialBytes = 0;
+        this.ticks = 0;
+
+        for (var i = 0; i < size; i++) {
+            if (i % 4 != 0) {
+                velocities[i * 3] = Math.cos(i * 0.7) * 0.1;
+                velocities[i * 3 + 2] = Math.sin(i * 0.7) * 0.1;
+            }
+
+            states.set(i, (i % 64) * 4.0, 0, (i / 64) * 4.0, 1, 0, 0, 0);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tick {@inheritDoc}
+     */
+    @Override
+    public void tick(long tick) {
+        for (var i = 0; i < size; i++) {
+            if (i % 4 == 0) continue;
+
+            var p = states.position(i);
+            var r = states.rotation(i);
+
+            if ((i + tick) % 8 == 0) {
+                var half = (tick + i) * 0.01;
+                states.set(
+                        i, p.x + velocities[i * 3], p.y, p.z + velocities[i * 3 + 2],
+                        Math.cos(half), 0, Math.sin(half), 0
+                );
+            } else {
+                states.set(i, p.x + velocities[i * 3], p.y, p.z + velocities[i * 3 + 2], r.w, r.x, r.y, r.z);
+            }
+        }
+
+        encoder.send(states, transport);
+        encoder.acknowledge(decoder.receive(transport, received));
+
+        if (ticks++ == 0) initialBytes = transport.bytesSent();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return The number of entities
+     */
+    @Override
+    public long itemsPerTick() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return The number of bytes sent per entity per tick
+     */
+    @Override
+    public String report() {
+        if (ticks < 2 || size == 0) return null;
+
+        var bytes = (transport.bytesSent() - initialBytes) / (double) ((ticks - 1) * size);
+        return String.format(Locale.ROOT, "%.3f B/entity/tick", bytes);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalStateException When a decoded state differs from the sent state
+     */
+    @Override
+    public void tearDown() throws IllegalStateException {
+        var mismatches = 0;
+
+        for (var i = 0; i < size; i++) {
+            var p = states.position(i);
+            var q = received.position(i);
+            var r = states.rotation(i);
+            var s = received.rotation(i);
+
+            if (Math.abs(p.x - q.x) > PRECISION || Math.abs(p.y - q.y) > PRECISION
+                    || Math.abs(p.z - q.z) > PRECISION) {
+                mismatches++;
+            } else if (Math.abs(Math.abs(r.w * s.w + r.x * s.x + r.y * s.y + r.z * s.z) - 1) > ROTATION_TOLERANCE) {
+                mismatches++;
+            }
+        }
+
+        states = null;
+        received = null;
+        encoder = null;
+        decoder = null;
+        transport = null;
+        velocities = null;
+
+        if (mismatches > 0) {
+            throw new IllegalStateException(mismatches + " of " + size + " entities were not replicated correctly.");
+        }
+    }
+}
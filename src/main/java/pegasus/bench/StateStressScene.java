@@ -0,0 +1,237 @@
+package pegasus.bench;
+
+import pegasus.job.JobSystem;
+import pegasus.state.SeqlockTransforms;
+import pegasus.state.TripleBufferedTransforms;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A stress check of the lock-free transform stores. The tick writes every slot, while reader threads continuously
+ * read slots back and check that no position or orientation was torn. Every written transform is derived from a
+ * single value, so a torn read breaks the relation between its components; with the triple-buffered store, every
+ * slot of one read must also come from the same frame.
+ * <p>
+ * The measured time is that of the writer while it competes with the readers. Tearing down the scene fails with an
+ * {@link IllegalStateException} if any reader observed a torn transform.
+ */
+public final class StateStressScene implements BenchScene {
+    /**
+     * The number of reader threads.
+     */
+    private static final int READERS = 2;
+
+    /**
+     * The number of slots copied by one read of the triple-buffered store.
+     */
+    private static final int RANGE = 64;
+
+    /**
+     * Whether the triple-buffered store is tested instead of the seqlock store.
+     */
+    private final boolean tripleBuffered;
+
+    /**
+     * The number of reads performed.
+     */
+    private final AtomicLong reads = new AtomicLong();
+
+    /**
+     * The number of torn reads observed.
+     */
+    private final AtomicLong torn = new AtomicLong();
+
+    /**
+     * The seqlock store, or {@code null}.
+     */
+    private SeqlockTransforms seqlock;
+
+    /**
+     * The triple-buffered store, or {@code null}.
+     */
+    private TripleBufferedTransforms frames;
+
+    /**
+     * The reader threads.
+     */
+    private Thread[] readers;
+
+    /**
+     * Whether the readers should keep reading.
+     */
+    private volatile boolean running;
+
+    /**
+     * Creates a new scene.
+     * @param tripleBuffered {@code true} to test the triple-buffered store, {@code false} for the seqlock store
+     */
+    public StateStressScene(boolean tripleBuffered) {
+        this.tripleBuffered = tripleBuffered;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return tripleBuffered ? "tripleBuffer" : "seqlock";
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int defaultSize() {
+        return 16384;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param size The number of slots
+     * @param jobs {@inheritDoc}
+     */
+    @Override
+    public void setUp(int size, JobSystem jobs) {
+        if (tripleBuffered) {
+            frames = new TripleBufferedTransforms(size);
+        } else {
+            seqlock = new SeqlockTransforms(size);
+        }
+
+        reads.set(0);
+        torn.set(0);
+        running = true;
+        readers = new Thread[READERS];
+
+        for (var r = 0; r < READERS; r++) {
+            var seed = r;
+            readers[r] = new Thread(() -> read(seed), "State Reader " + r);
+            readers[r].setDaemon(true);
+            readers[r].start();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tick {@inheritDoc}
+     */
+    @Override
+    public void tick(long tick) {
+        if (tripleBuffered) {
+            frames.beginFrame();
+
+            for (var slot = 0; slot < frames.capacity(); slot++) {
+                write(slot, tick + slot);
+            }
+
+            frames.publish();
+            return;
+        }
+
+        for (var slot = 0; slot < seqlock.capacity(); slot++) {
+            write(slot, tick + slot);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalStateException When a reader observed a torn transform
+     */
+    @Override
+    public void tearDown() throws IllegalStateException {
+        running = false;
+
+        for (var reader : readers) {
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        seqlock = null;
+        frames = null;
+        readers = null;
+
+        if (torn.get() > 0) {
+            throw new IllegalStateException(torn.get() + " of " + reads.get() + " reads observed a torn transform.");
+        }
+    }
+
+    /**
+     * Writes the transform derived from a value into a slot: the position {@code (v, 2v, -v)}, and the rotation by
+     * {@code v / 100} radians about the Z axis.
+     * @param slot The slot
+     * @param v The value
+     */
+    private void write(int slot, double v) {
+        var half = v * 0.005;
+        var w = Math.cos(half);
+        var z = Math.sin(half);
+
+        if (tripleBuffered) {
+            frames.set(slot, v, 2 * v, -v, w, 0, 0, z);
+        } else {
+            seqlock.set(slot, v, 2 * v, -v, w, 0, 0, z);
+        }
+    }
+
+    /**
+     * Returns whether a transform read back is one written by {@link #write(int, double)}. Slots which have not been
+     * written yet hold the origin and the identity orientation, which also pass.
+     * @param p The packed positions
+     * @param r The packed orientations
+     * @param i The index of the transform in the arrays
+     * @return {@code true} if the transform is consistent
+     */
+    private static boolean isConsistent(double[] p, double[] r, int i) {
+        var v = p[i * 3];
+        var half = v * 0.005;
+
+        return p[i * 3 + 1] == 2 * v && p[i * 3 + 2] == -v
+                && r[i * 4] == Math.cos(half) && r[i * 4 + 1] == 0 && r[i * 4 + 2] == 0
+                && r[i * 4 + 3] == Math.sin(half);
+    }
+
+    /**
+     * The main loop of a reader thread.
+     * @param seed The seed of the slots to read
+     */
+    private void read(int seed) {
+        var capacity = tripleBuffered ? frames.capacity() : seqlock.capacity();
+        var range = Math.min(RANGE, capacity);
+        var p = new double[range * 3];
+        var r = new double[range * 4];
+        var slot = seed * 7919 % Math.max(1, capacity);
+
+        while (running) {
+            if (capacity == 0) return;
+            slot = (slot + 127) % capacity;
+
+            var start = Math.min(slot, capacity - range);
+            var count = range;
+
+            if (tripleBuffered) {
+                frames.readAll(start, count, p, 0, r, 0);
+            } else {
+                count = 1;
+                seqlock.readAll(start, count, p, 0, r, 0);
+            }
+
+            var bad = false;
+
+            for (var i = 0; i < count; i++) {
+                if (!isConsistent(p, r, i)) bad = true;
+
+                // Within a frame, the value of every slot is the tick plus the index of the slot.
+                if (tripleBuffered && p[0] != 0 && p[i * 3] - i != p[0]) bad = true;
+            }
+
+            reads.incrementAndGet();
+            if (bad) torn.incrementAndGet();
+        }
+    }
+}
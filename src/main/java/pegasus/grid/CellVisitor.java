@@ -0,0 +1,16 @@
+package pegasus.grid;
+
+/**
+ * Visits the cells of a two-dimensional grid traversal.
+ * @see GridRaycast#traverse(double, double, double, double, CellVisitor)
+ */
+@FunctionalInterface
+public interface CellVisitor {
+    /**
+     * Visits a cell.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @return {@code true} to continue the traversal, {@code false} to stop it
+     */
+    boolean visit(int x, int y);
+}
@@ -0,0 +1,129 @@
+package pegasus.grid;
+
+import pegasus.number.Int2;
+
+import java.util.Objects;
+
+/**
+ * A square block of {@link #SIZE} by {@link #SIZE} grid cells. Chunks track whether they have been
+ * modified since they were last saved.
+ */
+public final class Chunk {
+    /**
+     * The base-2 logarithm of the width of a chunk.
+     */
+    public static final int SHIFT = 5;
+
+    /**
+     * The number of cells along one side of a chunk.
+     */
+    public static final int SIZE = 1 << SHIFT;
+
+    /**
+     * The mask used to convert grid coordinates into local chunk coordinates.
+     */
+    public static final int MASK = SIZE - 1;
+
+    /**
+     * The number of cells in a chunk.
+     */
+    public static final int AREA = SIZE * SIZE;
+
+    /**
+     * The chunk coordinates of this chunk.
+     */
+    private final Int2 position;
+
+    /**
+     * The cell values of this chunk in row-major order.
+     */
+    private final int[] values;
+
+    /**
+     * Whether this chunk has been modified since it was last saved.
+     */
+    private boolean dirty;
+
+    /**
+     * Creates a new empty chunk.
+     * @param position The chunk coordinates of this chunk
+     */
+    public Chunk(Int2 position) {
+        this(position, new int[AREA]);
+    }
+
+    /**
+     * Creates a new chunk which uses the provided array as its storage.
+     * @param position The chunk coordinates of this chunk
+     * @param values The cell values in row-major order
+     * @throws IllegalArgumentException When the array is not of length {@link #AREA}
+     */
+    public Chunk(Int2 position, int[] values) throws IllegalArgumentException {
+        if (values.length != AREA) {
+            throw new IllegalArgumentException("The provided array is not of length " + AREA + ".");
+        }
+
+        this.position = Objects.requireNonNull(position);
+        this.values = values;
+    }
+
+    /**
+     * Returns the chunk coordinates of this chunk.
+     * @return The chunk coordinates of this chunk
+     */
+    public Int2 position() {
+        return position;
+    }
+
+    /**
+     * Returns the value of a cell within this chunk.
+     * @param x The local X coordinate in range {@code [0, SIZE)}
+     * @param y The local Y coordinate in range {@code [0, SIZE)}
+     * @return The value of the cell
+     */
+    public int get(int x, int y) {
+        return values[(y << SHIFT) | x];
+    }
+
+    /**
+     * Sets the value of a cell within this chunk, and marks this chunk as dirty.
+     * @param x The local X coordinate in range {@code [0, SIZE)}
+     * @param y The local Y coordinate in range {@code [0, SIZE)}
+     * @param value The value to set to
+     */
+    public void set(int x, int y, int value) {
+        values[(y << SHIFT) | x] = value;
+        dirty = true;
+    }
+
+    /**
+     * Returns the backing array of this chunk. Changes made directly to the array are not tracked;
+     * call {@link #markDirty()} after modifying it.
+     * @return The backing array of this chunk
+     */
+    public int[] values() {
+        return values;
+    }
+
+    /**
+     * Returns whether this chunk has been modified since it was last saved.
+     * @return {@code true} if this chunk is dirty
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Marks this chunk as modified.
+     */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Marks this chunk as saved.
+     */
+    public void markClean() {
+        dirty = false;
+    }
+}
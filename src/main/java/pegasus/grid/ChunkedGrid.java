@@ -0,0 +1,120 @@
+package pegasus.grid;
+
+import pegasus.number.Int2;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * An unbounded sparse grid which stores its cells in {@link Chunk chunks} keyed by their chunk coordinates.
+ * Cells of chunks which do not exist read as zero. A grid may be backed by a loader function, in which case
+ * absent chunks are requested from the loader the first time they are touched.
+ */
+public class ChunkedGrid implements IntGrid {
+    /**
+     * The loaded chunks of this grid.
+     */
+    private final Map<Int2, Chunk> chunks = new HashMap<>();
+
+    /**
+     * The function used to load absent chunks, which returns {@code null} for chunks that do not exist.
+     */
+    private final Function<Int2, Chunk> loader;
+
+    /**
+     * Creates a new empty grid.
+     */
+    public ChunkedGrid() {
+        this(p -> null);
+    }
+
+    /**
+     * Creates a new grid whose absent chunks are resolved using the provided loader.
+     * @param loader The function used to load absent chunks, which returns {@code null} for chunks that do not exist
+     */
+    public ChunkedGrid(Function<Int2, Chunk> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Returns the chunk at the provided chunk coordinates, loading it if necessary.
+     * @param position The chunk coordinates
+     * @return The chunk, or {@code null} if it does not exist
+     */
+    public Chunk chunk(Int2 position) {
+        var chunk = chunks.get(position);
+        if (chunk != null) return chunk;
+
+        chunk = loader.apply(position);
+        if (chunk != null) chunks.put(position, chunk);
+
+        return chunk;
+    }
+
+    /**
+     * Returns the chunk at the provided chunk coordinates, creating an empty chunk if it does not exist.
+     * @param position The chunk coordinates
+     * @return The chunk
+     */
+    public Chunk chunkOrCreate(Int2 position) {
+        var chunk = chunk(position);
+        if (chunk != null) return chunk;
+
+        chunk = new Chunk(position);
+        chunks.put(position, chunk);
+
+        return chunk;
+    }
+
+    /**
+     * Returns an unmodifiable view of the chunks which are currently loaded.
+     * @return The loaded chunks of this grid
+     */
+    public Collection<Chunk> loadedChunks() {
+        return Collections.unmodifiableCollection(chunks.values());
+    }
+
+    /**
+     * Returns the loaded chunks which have been modified since they were last saved.
+     * @return The dirty chunks of this grid
+     */
+    public List<Chunk> dirtyChunks() {
+        var dirty = new ArrayList<Chunk>();
+
+        for (var chunk : chunks.values()) {
+            if (chunk.isDirty()) dirty.add(chunk);
+        }
+
+        return dirty;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int get(int x, int y) {
+        var chunk = chunk(Int2.valueOf(x >> Chunk.SHIFT, y >> Chunk.SHIFT));
+        if (chunk == null) return 0;
+
+        return chunk.get(x & Chunk.MASK, y & Chunk.MASK);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @param value The value to set to
+     */
+    @Override
+    public void set(int x, int y, int value) {
+        chunkOrCreate(Int2.valueOf(x >> Chunk.SHIFT, y >> Chunk.SHIFT)).set(x & Chunk.MASK, y & Chunk.MASK, value);
+    }
+}
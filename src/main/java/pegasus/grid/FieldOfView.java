@@ -0,0 +1,107 @@
+package pegasus.grid;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Computes fields of view with recursive shadowcasting. Each of the eight octants around the origin is scanned row
+ * by row, narrowing the visible slope range at opaque cells and recursing into the gaps between them. Only cells
+ * inside the visible slope ranges are ever read from the grid; the result records them, so that a
+ * {@link FieldOfViewCache} can ignore changes to every other cell.
+ */
+public final class FieldOfView {
+    /**
+     * The transformation of each octant, as {@code xx, xy, yx, yy} rows.
+     */
+    private static final int[][] OCTANTS = {
+            {1, 0, 0, -1, -1, 0, 0, 1},
+            {0, 1, -1, 0, 0, -1, 1, 0},
+            {0, 1, 1, 0, 0, -1, -1, 0},
+            {1, 0, 0, 1, -1, 0, 0, -1}
+    };
+
+    /**
+     * Computes the cells visible from an origin within the radius of a map. Opaque cells are visible themselves,
+     * but hide the cells behind them. This method does not allocate.
+     * @param grid The grid to compute on
+     * @param opaque The predicate which returns {@code true} for the values of opaque cells
+     * @param x The X coordinate of the origin
+     * @param y The Y coordinate of the origin
+     * @param result The map to store the visible cells in, whose radius is the view radius
+     */
+    public static void compute(IntGrid grid, IntPredicate opaque, int x, int y, VisibilityMap result) {
+        result.reset(x, y);
+        result.set(x, y);
+
+        for (var octant = 0; octant < 8; octant++) {
+            cast(grid, opaque, result, x, y, 1, 1.0, 0.0,
+                    OCTANTS[0][octant], OCTANTS[1][octant], OCTANTS[2][octant], OCTANTS[3][octant]);
+        }
+    }
+
+    /**
+     * Scans the rows of an octant within a slope range.
+     * @param grid The grid to compute on
+     * @param opaque The predicate which returns {@code true} for the values of opaque cells
+     * @param result The map to store the visible cells in
+     * @param ox The X coordinate of the origin
+     * @param oy The Y coordinate of the origin
+     * @param row The first row to scan
+     * @param start The starting slope
+     * @param end The ending slope
+     * @param xx The X contribution of the column offset
+     * @param xy The X contribution of the row offset
+     * @param yx The Y contribution of the column offset
+     * @param yy The Y contribution of the row offset
+     */
+    private static void cast(
+            IntGrid grid, IntPredicate opaque, VisibilityMap result, int ox, int oy, int row, double start,
+            double end, int xx, int xy, int yx, int yy
+    ) {
+        if (start < end) return;
+
+        var radius = result.radius();
+        var radiusSquared = radius * radius + radius;
+        var nextStart = start;
+
+        for (var j = row; j <= radius; j++) {
+            var blocked = false;
+            var dy = -j;
+
+            for (var dx = -j; dx <= 0; dx++) {
+                var leftSlope = (dx - 0.5) / (dy + 0.5);
+                var rightSlope = (dx + 0.5) / (dy - 0.5);
+
+                if (start < rightSlope) continue;
+                if (end > leftSlope) break;
+
+                var x = ox + dx * xx + dy * xy;
+                var y = oy + dx * yx + dy * yy;
+
+                if (dx * dx + dy * dy <= radiusSquared) result.set(x, y);
+
+                var isOpaque = opaque.test(grid.get(x, y));
+                result.examine(x, y);
+
+                if (blocked) {
+                    if (isOpaque) {
+                        nextStart = rightSlope;
+                    } else {
+                        blocked = false;
+                        start = nextStart;
+                    }
+                } else if (isOpaque && j < radius) {
+                    blocked = true;
+                    cast(grid, opaque, result, ox, oy, j + 1, start, leftSlope, xx, xy, yx, yy);
+                    nextStart = rightSlope;
+                }
+            }
+
+            if (blocked) break;
+        }
+    }
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private FieldOfView() {}
+}
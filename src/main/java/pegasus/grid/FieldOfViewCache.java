@@ -0,0 +1,197 @@
+package pegasus.grid;
+
+import pegasus.metrics.Counter;
+import pegasus.metrics.MetricRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * A cache of fields of view keyed by origin and radius. When a cell changes, only the cached fields which read that
+ * cell are recomputed, lazily on their next query; all other fields stay valid. The least recently used fields are
+ * evicted once the cache is full. This class is not thread-safe.
+ */
+public final class FieldOfViewCache {
+    /**
+     * The number of queries answered from the cache.
+     */
+    private static final Counter HITS = MetricRegistry.global().counter("grid.fovHits");
+
+    /**
+     * The number of fields of view computed.
+     */
+    private static final Counter COMPUTES = MetricRegistry.global().counter("grid.fovComputes");
+
+    /**
+     * The grid to compute on.
+     */
+    private final IntGrid grid;
+
+    /**
+     * The predicate which returns {@code true} for the values of opaque cells.
+     */
+    private final IntPredicate opaque;
+
+    /**
+     * The cached fields in access order.
+     */
+    private final LinkedHashMap<Key, Entry> entries;
+
+    /**
+     * Creates a new cache.
+     * @param grid The grid to compute on
+     * @param opaque The predicate which returns {@code true} for the values of opaque cells
+     * @param capacity The maximum number of cached fields
+     * @throws IllegalArgumentException When the capacity is not positive
+     */
+    public FieldOfViewCache(IntGrid grid, IntPredicate opaque, int capacity) throws IllegalArgumentException {
+        if (capacity <= 0) throw new IllegalArgumentException("The capacity must be positive.");
+
+        this.grid = grid;
+        this.opaque = opaque;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the field of view from an origin, computing it if it is not cached or has been invalidated. The
+     * returned map is owned by this cache, and is only valid until the next call to this method.
+     * @param x The X coordinate of the origin
+     * @param y The Y coordinate of the origin
+     * @param radius The view radius
+     * @return The field of view
+     */
+    public VisibilityMap get(int x, int y, int radius) {
+        var key = new Key(x, y, radius);
+        var entry = entries.get(key);
+
+        if (entry == null) {
+            entry = new Entry(new VisibilityMap(radius));
+            entries.put(key, entry);
+        } else if (!entry.dirty) {
+            HITS.increment();
+            return entry.map;
+        }
+
+        FieldOfView.compute(grid, opaque, x, y, entry.map);
+        entry.dirty = false;
+
+        COMPUTES.increment();
+        return entry.map;
+    }
+
+    /**
+     * Notifies this cache that a cell of the grid has changed. Every cached field which read the cell is marked
+     * for recomputation.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @return The number of fields invalidated
+     */
+    public int invalidate(int x, int y) {
+        var count = 0;
+
+        for (var entry : entries.values()) {
+            if (!entry.dirty && entry.map.dependsOn(x, y)) {
+                entry.dirty = true;
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Removes every cached field.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of cached fields.
+     * @return The number of cached fields
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * The key of a cached field.
+     */
+    private static final class Key {
+        /**
+         * The X coordinate of the origin.
+         */
+        final int x;
+
+        /**
+         * The Y coordinate of the origin.
+         */
+        final int y;
+
+        /**
+         * The view radius.
+         */
+        final int radius;
+
+        /**
+         * Creates a new key.
+         * @param x The X coordinate of the origin
+         * @param y The Y coordinate of the origin
+         * @param radius The view radius
+         */
+        Key(int x, int y, int radius) {
+            this.x = x;
+            this.y = y;
+            this.radius = radius;
+        }
+
+        /**
+         * Returns the hash code of this key.
+         * @return The hash code of this key
+         */
+        @Override
+        public int hashCode() {
+            return (31 * x + y) * 31 + radius;
+        }
+
+        /**
+         * Checks for equality.
+         * @param obj The object to compare
+         * @return {@code true} if the provided object is a key with the same origin and radius
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key k)) return false;
+            return x == k.x && y == k.y && radius == k.radius;
+        }
+    }
+
+    /**
+     * A cached field.
+     */
+    private static final class Entry {
+        /**
+         * The cached field.
+         */
+        final VisibilityMap map;
+
+        /**
+         * Whether the field needs to be recomputed.
+         */
+        boolean dirty;
+
+        /**
+         * Creates a new entry.
+         * @param map The cached field
+         */
+        Entry(VisibilityMap map) {
+            this.map = map;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package pegasus.grid;
+
+import pegasus.number.Int2;
+import pegasus.number.Vector3;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Allocation-free grid traversals using the digital differential analyzer of Amanatides and Woo. Unlike Bresenham
+ * lines, a traversal visits every cell the segment passes through, in order. When a segment passes exactly
+ * through a cell corner, the traversal steps along the X axis first.
+ */
+public final class GridRaycast {
+    /**
+     * Visits the cells a segment passes through, from the cell containing its start to the cell containing its end.
+     * Cell {@code (x, y)} covers the square {@code [x, x + 1) x [y, y + 1)}.
+     * @param x0 The X coordinate of the start
+     * @param y0 The Y coordinate of the start
+     * @param x1 The X coordinate of the end
+     * @param y1 The Y coordinate of the end
+     * @param visitor The visitor of the cells
+     * @return {@code true} if every cell was visited, {@code false} if the visitor stopped the traversal
+     */
+    public static boolean traverse(double x0, double y0, double x1, double y1, CellVisitor visitor) {
+        var x = floor(x0);
+        var y = floor(y0);
+        var dx = x1 - x0;
+        var dy = y1 - y0;
+
+        var stepX = dx > 0 ? 1 : dx < 0 ? -1 : 0;
+        var stepY = dy > 0 ? 1 : dy < 0 ? -1 : 0;
+        var deltaX = stepX != 0 ? Math.abs(1 / dx) : Double.POSITIVE_INFINITY;
+        var deltaY = stepY != 0 ? Math.abs(1 / dy) : Double.POSITIVE_INFINITY;
+        var maxX = stepX > 0 ? (x + 1 - x0) * deltaX : stepX < 0 ? (x0 - x) * deltaX : Double.POSITIVE_INFINITY;
+        var maxY = stepY > 0 ? (y + 1 - y0) * deltaY : stepY < 0 ? (y0 - y) * deltaY : Double.POSITIVE_INFINITY;
+
+        var steps = Math.abs(floor(x1) - x) + Math.abs(floor(y1) - y);
+
+        if (!visitor.visit(x, y)) return false;
+
+        for (var i = 0; i < steps; i++) {
+            if (maxX <= maxY) {
+                maxX += deltaX;
+                x += stepX;
+            } else {
+                maxY += deltaY;
+                y += stepY;
+            }
+
+            if (!visitor.visit(x, y)) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Visits the cells a segment between the centers of two cells passes through.
+     * @param from The starting cell
+     * @param to The ending cell
+     * @param visitor The visitor of the cells
+     * @return {@code true} if every cell was visited, {@code false} if the visitor stopped the traversal
+     * @see #traverse(double, double, double, double, CellVisitor)
+     */
+    public static boolean traverse(Int2 from, Int2 to, CellVisitor visitor) {
+        return traverse(from.x + 0.5, from.y + 0.5, to.x + 0.5, to.y + 0.5, visitor);
+    }
+
+    /**
+     * Checks whether the segment between the centers of two cells passes only through transparent cells. The two
+     * end cells themselves are not tested. This method does not allocate.
+     * @param grid The grid to test against
+     * @param opaque The predicate which returns {@code true} for the values of opaque cells
+     * @param x0 The X coordinate of the starting cell
+     * @param y0 The Y coordinate of the starting cell
+     * @param x1 The X coordinate of the ending cell
+     * @param y1 The Y coordinate of the ending cell
+     * @return {@code true} if no cell between the two cells is opaque
+     */
+    public static boolean hasLineOfSight(IntGrid grid, IntPredicate opaque, int x0, int y0, int x1, int y1) {
+        var dx = x1 - x0;
+        var dy = y1 - y0;
+
+        var stepX = Integer.signum(dx);
+        var stepY = Integer.signum(dy);
+        var deltaX = stepX != 0 ? 1.0 / Math.abs(dx) : Double.POSITIVE_INFINITY;
+        var deltaY = stepY != 0 ? 1.0 / Math.abs(dy) : Double.POSITIVE_INFINITY;
+        var maxX = deltaX * 0.5;
+        var maxY = deltaY * 0.5;
+
+        var x = x0;
+        var y = y0;
+        var steps = Math.abs(dx) + Math.abs(dy);
+
+        for (var i = 1; i < steps; i++) {
+            if (maxX <= maxY) {
+                maxX += deltaX;
+                x += stepX;
+            } else {
+                maxY += deltaY;
+                y += stepY;
+            }
+
+            if (opaque.test(grid.get(x, y))) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Visits the voxels a ray passes through, starting with the voxel containing its origin. Voxel
+     * {@code (x, y, z)} covers the cube {@code [x, x + 1) x [y, y + 1) x [z, z + 1)}.
+     * @param origin The origin of the ray
+     * @param direction The direction of the ray, which does not need to be normalized
+     * @param maxDistance The distance along the ray after which the traversal stops
+     * @param visitor The visitor of the voxels
+     * @return {@code true} if the ray reached its maximum distance, {@code false} if the visitor stopped the
+     * traversal
+     * @throws IllegalArgumentException When the direction is zero
+     */
+    public static boolean traverse(Vector3 origin, Vector3 direction, double maxDistance, VoxelVisitor visitor)
+            throws IllegalArgumentException {
+        var length = direction.norm();
+        if (length == 0) throw new IllegalArgumentException("The direction of the ray must not be zero.");
+
+        var dx = direction.x / length;
+        var dy = direction.y / length;
+        var dz = direction.z / length;
+
+        var x = floor(origin.x);
+        var y = floor(origin.y);
+        var z = floor(origin.z);
+
+        var stepX = dx > 0 ? 1 : dx < 0 ? -1 : 0;
+        var stepY = dy > 0 ? 1 : dy < 0 ? -1 : 0;
+        var stepZ = dz > 0 ? 1 : dz < 0 ? -1 : 0;
+        var deltaX = stepX != 0 ? Math.abs(1 / dx) : Double.POSITIVE_INFINITY;
+        var deltaY = stepY != 0 ? Math.abs(1 / dy) : Double.POSITIVE_INFINITY;
+        var deltaZ = stepZ != 0 ? Math.abs(1 / dz) : Double.POSITIVE_INFINITY;
+        var maxX = boundary(origin.x, x, stepX, deltaX);
+        var maxY = boundary(origin.y, y, stepY, deltaY);
+        var maxZ = boundary(origin.z, z, stepZ, deltaZ);
+
+        var distance = 0.0;
+
+        while (distance <= maxDistance) {
+            if (!visitor.visit(x, y, z, distance)) return false;
+
+            if (maxX <= maxY && maxX <= maxZ) {
+                distance = maxX;
+                maxX += deltaX;
+                x += stepX;
+            } else if (maxY <= maxZ) {
+                distance = maxY;
+                maxY += deltaY;
+                y += stepY;
+            } else {
+                distance = maxZ;
+                maxZ += deltaZ;
+                z += stepZ;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the distance along a ray to the first voxel boundary on one axis.
+     * @param origin The origin coordinate
+     * @param cell The coordinate of the voxel containing the origin
+     * @param step The direction of travel on the axis
+     * @param delta The distance between voxel boundaries along the ray
+     * @return The distance to the first boundary
+     */
+    private static double boundary(double origin, int cell, int step, double delta) {
+        if (step > 0) return (cell + 1 - origin) * delta;
+        if (step < 0) return (origin - cell) * delta;
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the largest integer less than or equal to a value.
+     * @param value The value
+     * @return The floor of the value
+     */
+    private static int floor(double value) {
+        return (int) Math.floor(value);
+    }
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private GridRaycast() {}
+}
@@ -0,0 +1,42 @@
+package pegasus.grid;
+
+import pegasus.number.Int2;
+
+/**
+ * A two-dimensional grid of {@code int} values addressed by integer coordinates.
+ */
+public interface IntGrid {
+    /**
+     * Returns the value of the cell at the provided coordinates.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @return The value of the cell
+     */
+    int get(int x, int y);
+
+    /**
+     * Sets the value of the cell at the provided coordinates.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @param value The value to set to
+     */
+    void set(int x, int y, int value);
+
+    /**
+     * Returns the value of the cell at the provided position.
+     * @param p The position of the cell
+     * @return The value of the cell
+     */
+    default int get(Int2 p) {
+        return get(p.x, p.y);
+    }
+
+    /**
+     * Sets the value of the cell at the provided position.
+     * @param p The position of the cell
+     * @param value The value to set to
+     */
+    default void set(Int2 p, int value) {
+        set(p.x, p.y, value);
+    }
+}
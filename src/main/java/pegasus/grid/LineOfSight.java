@@ -0,0 +1,93 @@
+package pegasus.grid;
+
+import pegasus.job.JobSystem;
+import pegasus.metrics.Counter;
+import pegasus.metrics.MetricRegistry;
+import pegasus.number.Int2;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Line-of-sight queries against a grid, individually or in parallel batches. The grid must not be modified while a
+ * batch is running.
+ */
+public final class LineOfSight {
+    /**
+     * The number of line-of-sight queries.
+     */
+    private static final Counter QUERIES = MetricRegistry.global().counter("grid.losQueries");
+
+    /**
+     * The number of queries tested by a single job.
+     */
+    private static final int GRAIN = 256;
+
+    /**
+     * The grid to test against.
+     */
+    private final IntGrid grid;
+
+    /**
+     * The predicate which returns {@code true} for the values of opaque cells.
+     */
+    private final IntPredicate opaque;
+
+    /**
+     * Creates a new line-of-sight tester.
+     * @param grid The grid to test against
+     * @param opaque The predicate which returns {@code true} for the values of opaque cells
+     */
+    public LineOfSight(IntGrid grid, IntPredicate opaque) {
+        this.grid = grid;
+        this.opaque = opaque;
+    }
+
+    /**
+     * Checks whether two cells can see each other.
+     * @param x0 The X coordinate of the first cell
+     * @param y0 The Y coordinate of the first cell
+     * @param x1 The X coordinate of the second cell
+     * @param y1 The Y coordinate of the second cell
+     * @return {@code true} if no cell between the two cells is opaque
+     * @see GridRaycast#hasLineOfSight(IntGrid, IntPredicate, int, int, int, int)
+     */
+    public boolean test(int x0, int y0, int x1, int y1) {
+        QUERIES.increment();
+        return GridRaycast.hasLineOfSight(grid, opaque, x0, y0, x1, y1);
+    }
+
+    /**
+     * Checks whether two cells can see each other.
+     * @param a The first cell
+     * @param b The second cell
+     * @return {@code true} if no cell between the two cells is opaque
+     */
+    public boolean test(Int2 a, Int2 b) {
+        return test(a.x, a.y, b.x, b.y);
+    }
+
+    /**
+     * Tests a batch of queries in parallel.
+     * @param jobs The job system to run on
+     * @param queries The queries, packed as {@code x0, y0, x1, y1} quadruples
+     * @param results The array to write the result of each query to
+     * @param count The number of queries
+     * @throws IndexOutOfBoundsException When the arrays are too small for the query count
+     */
+    public void testAll(JobSystem jobs, int[] queries, boolean[] results, int count) throws IndexOutOfBoundsException {
+        if (queries.length < count * 4 || results.length < count) {
+            throw new IndexOutOfBoundsException("The arrays cannot hold " + count + " queries.");
+        }
+
+        jobs.parallelFor(0, count, GRAIN, (from, to) -> {
+            for (var i = from; i < to; i++) {
+                var q = i * 4;
+                results[i] = GridRaycast.hasLineOfSight(
+                        grid, opaque, queries[q], queries[q + 1], queries[q + 2], queries[q + 3]
+                );
+            }
+        });
+
+        QUERIES.add(count);
+    }
+}
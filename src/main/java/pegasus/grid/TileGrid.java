@@ -0,0 +1,112 @@
+package pegasus.grid;
+
+/**
+ * A dense, bounded grid backed by a single row-major array. Reading outside the bounds returns a fixed value, so
+ * that queries near the edges need no bounds checks of their own.
+ */
+public class TileGrid implements IntGrid {
+    /**
+     * The number of columns.
+     */
+    private final int width;
+
+    /**
+     * The number of rows.
+     */
+    private final int height;
+
+    /**
+     * The value of every cell outside the bounds.
+     */
+    private final int outside;
+
+    /**
+     * The cell values in row-major order.
+     */
+    private final int[] cells;
+
+    /**
+     * Creates a new grid with every cell set to zero.
+     * @param width The number of columns
+     * @param height The number of rows
+     * @param outside The value of every cell outside the bounds
+     * @throws IllegalArgumentException When the width or height is not positive
+     */
+    public TileGrid(int width, int height, int outside) throws IllegalArgumentException {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("The grid size must be positive.");
+
+        this.width = width;
+        this.height = height;
+        this.outside = outside;
+        this.cells = new int[width * height];
+    }
+
+    /**
+     * Returns the number of columns.
+     * @return The number of columns
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Returns the number of rows.
+     * @return The number of rows
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Returns whether a cell is inside the bounds of this grid.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @return {@code true} if the cell is inside the bounds
+     */
+    public boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    /**
+     * Returns the index of a cell in the {@link #values() backing array}.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @return The index of the cell
+     */
+    public int index(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+     * Returns the value of the cell at the provided coordinates, or the outside value if the cell is out of
+     * bounds.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @return The value of the cell
+     */
+    @Override
+    public int get(int x, int y) {
+        return contains(x, y) ? cells[y * width + x] : outside;
+    }
+
+    /**
+     * Sets the value of the cell at the provided coordinates.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @param value The value to set to
+     * @throws IndexOutOfBoundsException When the cell is out of bounds
+     */
+    @Override
+    public void set(int x, int y, int value) throws IndexOutOfBoundsException {
+        if (!contains(x, y)) throw new IndexOutOfBoundsException("[" + x + ", " + y + "] is out of bounds.");
+        cells[y * width + x] = value;
+    }
+
+    /**
+     * Returns the backing array of this grid in row-major order.
+     * @return The backing array of this grid
+     */
+    public int[] values() {
+        return cells;
+    }
+}
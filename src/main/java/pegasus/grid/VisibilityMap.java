@@ -0,0 +1,162 @@
+package pegasus.grid;
+
+import java.util.Arrays;
+
+/**
+ * The set of cells visible from an origin within a radius, stored as a bit set over the square around the origin.
+ * A map also records which cells were read while it was computed, since only a change to one of those cells can
+ * change the result. A map can be reused for any number of {@link FieldOfView#compute computations} with the same
+ * radius.
+ */
+public final class VisibilityMap {
+    /**
+     * The radius of this map.
+     */
+    private final int radius;
+
+    /**
+     * The side length of the square covered by this map.
+     */
+    private final int side;
+
+    /**
+     * The visibility bits in row-major order.
+     */
+    private final long[] bits;
+
+    /**
+     * The bits of the cells read during the computation in row-major order.
+     */
+    private final long[] examined;
+
+    /**
+     * The X coordinate of the origin.
+     */
+    private int originX;
+
+    /**
+     * The Y coordinate of the origin.
+     */
+    private int originY;
+
+    /**
+     * Creates a new empty map.
+     * @param radius The radius of the map
+     * @throws IllegalArgumentException When the radius is negative
+     */
+    public VisibilityMap(int radius) throws IllegalArgumentException {
+        if (radius < 0) throw new IllegalArgumentException("The radius must not be negative.");
+
+        this.radius = radius;
+        this.side = radius * 2 + 1;
+        this.bits = new long[(side * side + 63) >>> 6];
+        this.examined = new long[bits.length];
+    }
+
+    /**
+     * Returns the radius of this map.
+     * @return The radius of this map
+     */
+    public int radius() {
+        return radius;
+    }
+
+    /**
+     * Returns the X coordinate of the origin of this map.
+     * @return The X coordinate of the origin
+     */
+    public int originX() {
+        return originX;
+    }
+
+    /**
+     * Returns the Y coordinate of the origin of this map.
+     * @return The Y coordinate of the origin
+     */
+    public int originY() {
+        return originY;
+    }
+
+    /**
+     * Checks whether a cell is visible.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @return {@code true} if the cell is visible
+     */
+    public boolean isVisible(int x, int y) {
+        var i = index(x, y);
+        return i >= 0 && (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Checks whether the visibility of this map depends on a cell, meaning that changing the opacity of the cell
+     * may change which cells are visible.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @return {@code true} if the cell was read while computing this map
+     */
+    public boolean dependsOn(int x, int y) {
+        var i = index(x, y);
+        return i >= 0 && (examined[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Returns the number of visible cells.
+     * @return The number of visible cells
+     */
+    public int count() {
+        var count = 0;
+
+        for (var word : bits) {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    /**
+     * Clears this map and moves it to a new origin.
+     * @param x The X coordinate of the origin
+     * @param y The Y coordinate of the origin
+     */
+    void reset(int x, int y) {
+        originX = x;
+        originY = y;
+        Arrays.fill(bits, 0);
+        Arrays.fill(examined, 0);
+    }
+
+    /**
+     * Marks a cell as visible. The cell must be within the radius of the origin.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     */
+    void set(int x, int y) {
+        var i = index(x, y);
+        bits[i >>> 6] |= 1L << i;
+    }
+
+    /**
+     * Marks a cell as read during the computation. The cell must be within the square covered by this map.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     */
+    void examine(int x, int y) {
+        var i = index(x, y);
+        examined[i >>> 6] |= 1L << i;
+    }
+
+    /**
+     * Returns the bit index of a cell.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @return The bit index, or {@code -1} if the cell is outside of the square covered by this map
+     */
+    private int index(int x, int y) {
+        var dx = x - originX + radius;
+        var dy = y - originY + radius;
+
+        if (dx < 0 || dy < 0 || dx >= side || dy >= side) return -1;
+        return dy * side + dx;
+    }
+}
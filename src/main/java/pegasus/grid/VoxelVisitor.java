@@ -0,0 +1,18 @@
+package pegasus.grid;
+
+/**
+ * Visits the cells of a three-dimensional voxel traversal.
+ * @see GridRaycast#traverse(pegasus.number.Vector3, pegasus.number.Vector3, double, VoxelVisitor)
+ */
+@FunctionalInterface
+public interface VoxelVisitor {
+    /**
+     * Visits a voxel.
+     * @param x The X coordinate of the voxel
+     * @param y The Y coordinate of the voxel
+     * @param z The Z coordinate of the voxel
+     * @param distance The distance along the ray at which it enters the voxel
+     * @return {@code true} to continue the traversal, {@code false} to stop it
+     */
+    boolean visit(int x, int y, int z, double distance);
+}
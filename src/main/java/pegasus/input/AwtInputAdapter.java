@@ -0,0 +1,163 @@
+package pegasus.input;
+
+import java.awt.*;
+import java.awt.event.*;
+
+/**
+ * Forwards the keyboard, mouse and focus events of AWT components into an {@link InputQueue}. The listeners run on
+ * the AWT event thread, which is the only producer of the queue; events are copied into the queue as primitives, so
+ * the event objects never escape the event thread. Losing focus releases every key and button, since the matching
+ * release events would otherwise never arrive.
+ */
+public final class AwtInputAdapter implements KeyListener, MouseListener, MouseMotionListener, MouseWheelListener,
+        FocusListener {
+    /**
+     * The queue to forward events to.
+     */
+    private final InputQueue queue;
+
+    /**
+     * Creates a new adapter.
+     * @param queue The queue to forward events to
+     */
+    public AwtInputAdapter(InputQueue queue) {
+        this.queue = queue;
+    }
+
+    /**
+     * Registers this adapter as every kind of input listener of a component, and makes the component focusable so
+     * that it receives key events.
+     * @param component The component to listen to
+     */
+    public void attach(Component component) {
+        component.setFocusable(true);
+        component.addKeyListener(this);
+        component.addMouseListener(this);
+        component.addMouseMotionListener(this);
+        component.addMouseWheelListener(this);
+        component.addFocusListener(this);
+    }
+
+    /**
+     * Unregisters this adapter from a component.
+     * @param component The component to stop listening to
+     */
+    public void detach(Component component) {
+        component.removeKeyListener(this);
+        component.removeMouseListener(this);
+        component.removeMouseMotionListener(this);
+        component.removeMouseWheelListener(this);
+        component.removeFocusListener(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param e {@inheritDoc}
+     */
+    @Override
+    public void keyTyped(KeyEvent e) {}
+
+    /**
+     * {@inheritDoc}
+     * @param e {@inheritDoc}
+     */
+    @Override
+    public void keyPressed(KeyEvent e) {
+        queue.offer(InputQueue.KEY_PRESSED, e.getKeyCode(), 0, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param e {@inheritDoc}
+     */
+    @Override
+    public void keyReleased(KeyEvent e) {
+        queue.offer(InputQueue.KEY_RELEASED, e.getKeyCode(), 0, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param e {@inheritDoc}
+     */
+    @Override
+    public void mouseClicked(MouseEvent e) {}
+
+    /**
+     * {@inheritDoc}
+     * @param e {@inheritDoc}
+     */
+    @Override
+    public void mousePressed(MouseEvent e) {
+        queue.offer(InputQueue.MOUSE_PRESSED, e.getButton(), e.getX(), e.getY());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param e {@inheritDoc}
+     */
+    @Override
+    public void mouseReleased(MouseEvent e) {
+        queue.offer(InputQueue.MOUSE_RELEASED, e.getButton(), e.getX(), e.getY());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param e {@inheritDoc}
+     */
+    @Override
+    public void mouseEntered(MouseEvent e) {
+        queue.offer(InputQueue.MOUSE_MOVED, 0, e.getX(), e.getY());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param e {@inheritDoc}
+     */
+    @Override
+    public void mouseExited(MouseEvent e) {
+        queue.offer(InputQueue.MOUSE_MOVED, 0, e.getX(), e.getY());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param e {@inheritDoc}
+     */
+    @Override
+    public void mouseDragged(MouseEvent e) {
+        queue.offer(InputQueue.MOUSE_MOVED, 0, e.getX(), e.getY());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param e {@inheritDoc}
+     */
+    @Override
+    public void mouseMoved(MouseEvent e) {
+        queue.offer(InputQueue.MOUSE_MOVED, 0, e.getX(), e.getY());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param e {@inheritDoc}
+     */
+    @Override
+    public void mouseWheelMoved(MouseWheelEvent e) {
+        queue.offer(InputQueue.MOUSE_WHEEL, e.getWheelRotation(), e.getX(), e.getY());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param e {@inheritDoc}
+     */
+    @Override
+    public void focusGained(FocusEvent e) {}
+
+    /**
+     * {@inheritDoc}
+     * @param e {@inheritDoc}
+     */
+    @Override
+    public void focusLost(FocusEvent e) {
+        queue.offer(InputQueue.RELEASE_ALL, 0, 0, 0);
+    }
+}
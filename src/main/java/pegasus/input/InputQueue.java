@@ -0,0 +1,185 @@
+package pegasus.input;
+
+import pegasus.metrics.Counter;
+import pegasus.metrics.MetricRegistry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free single-producer single-consumer queue of input events, which carries input from the AWT event thread
+ * to the simulation thread. Events are stored as primitive records in a preallocated ring, so neither side allocates.
+ * When the ring is full, new events are dropped rather than blocking the event thread; the number of dropped events
+ * is reported as the {@code input.dropped} counter of the global metric registry.
+ * <p>
+ * {@link #offer(int, int, int, int)} must only be called from a single thread, and {@link #drain(InputSink)} from a
+ * single other thread.
+ */
+public final class InputQueue implements InputSink {
+    /**
+     * The type of an event in which a key was pressed.
+     */
+    public static final int KEY_PRESSED = 1;
+
+    /**
+     * The type of an event in which a key was released.
+     */
+    public static final int KEY_RELEASED = 2;
+
+    /**
+     * The type of an event in which the mouse moved.
+     */
+    public static final int MOUSE_MOVED = 3;
+
+    /**
+     * The type of an event in which a mouse button was pressed.
+     */
+    public static final int MOUSE_PRESSED = 4;
+
+    /**
+     * The type of an event in which a mouse button was released.
+     */
+    public static final int MOUSE_RELEASED = 5;
+
+    /**
+     * The type of an event in which the mouse wheel was rotated.
+     */
+    public static final int MOUSE_WHEEL = 6;
+
+    /**
+     * The type of an event in which every key and button was released, such as when the window loses focus.
+     */
+    public static final int RELEASE_ALL = 7;
+
+    /**
+     * The number of events enqueued.
+     */
+    private static final Counter EVENTS = MetricRegistry.global().counter("input.events");
+
+    /**
+     * The number of events dropped because the queue was full.
+     */
+    private static final Counter DROPPED = MetricRegistry.global().counter("input.dropped");
+
+    /**
+     * The number of values per record.
+     */
+    private static final int RECORD_SIZE = 4;
+
+    /**
+     * The records: the type, code and coordinates of each event.
+     */
+    private final int[] records;
+
+    /**
+     * The mask used to convert positions into record indices.
+     */
+    private final int mask;
+
+    /**
+     * The position up to which events have been published by the producer.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * The position up to which events have been consumed.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * The consumed position last seen by the producer, which saves it from reading {@link #tail} on every event.
+     */
+    private long cachedTail;
+
+    /**
+     * Creates a new queue.
+     * @param capacity The maximum number of pending events, which must be a power of two
+     * @throws IllegalArgumentException When the capacity is not a power of two
+     */
+    public InputQueue(int capacity) throws IllegalArgumentException {
+        if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("The capacity must be a power of two.");
+
+        this.records = new int[capacity * RECORD_SIZE];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Enqueues an event. This must only be called from the producing thread.
+     * @param type The type of the event
+     * @param code The key code or mouse button, or the wheel rotation of a wheel event
+     * @param x The X coordinate of the mouse
+     * @param y The Y coordinate of the mouse
+     * @return {@code true} if the event was enqueued, {@code false} if the queue was full and it was dropped
+     */
+    public boolean offer(int type, int code, int x, int y) {
+        var h = head.get();
+
+        if (h - cachedTail > mask) {
+            cachedTail = tail.getAcquire();
+
+            if (h - cachedTail > mask) {
+                DROPPED.increment();
+                return false;
+            }
+        }
+
+        var i = (int) (h & mask) * RECORD_SIZE;
+
+        records[i] = type;
+        records[i + 1] = code;
+        records[i + 2] = x;
+        records[i + 3] = y;
+
+        head.setRelease(h + 1);
+        EVENTS.increment();
+        return true;
+    }
+
+    /**
+     * {@inheritDoc} This enqueues the event, dropping it if the queue is full.
+     * @param type {@inheritDoc}
+     * @param code {@inheritDoc}
+     * @param x {@inheritDoc}
+     * @param y {@inheritDoc}
+     */
+    @Override
+    public void accept(int type, int code, int x, int y) {
+        offer(type, code, x, y);
+    }
+
+    /**
+     * Passes every pending event to a sink in order and removes them. This must only be called from the consuming
+     * thread.
+     * @param sink The sink to pass the events to
+     * @return The number of events drained
+     */
+    public int drain(InputSink sink) {
+        var t = tail.get();
+        var h = head.getAcquire();
+
+        for (var p = t; p < h; p++) {
+            var i = (int) (p & mask) * RECORD_SIZE;
+            sink.accept(records[i], records[i + 1], records[i + 2], records[i + 3]);
+        }
+
+        tail.setRelease(h);
+        return (int) (h - t);
+    }
+
+    /**
+     * Returns the number of pending events. This is only a snapshot when called while events are being enqueued or
+     * drained.
+     * @return The number of pending events
+     */
+    public int size() {
+        var t = tail.get();
+        return (int) (head.get() - t);
+    }
+
+    /**
+     * Returns the maximum number of pending events.
+     * @return The capacity of this queue
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
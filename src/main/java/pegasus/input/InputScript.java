@@ -0,0 +1,224 @@
+package pegasus.input;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A scripted stream of input events, each scheduled for a tick, which stands in for a user in headless tests and
+ * benchmarks. Events are played into any {@link InputSink}: into an {@link InputQueue} whose only producer is the
+ * script, or directly into an {@link InputState} between {@link InputState#begin()} and reading it.
+ */
+public final class InputScript {
+    /**
+     * The number of values per record.
+     */
+    private static final int RECORD_SIZE = 4;
+
+    /**
+     * The tick of each event.
+     */
+    private long[] ticks = new long[64];
+
+    /**
+     * The type, code and coordinates of each event.
+     */
+    private int[] records = new int[64 * RECORD_SIZE];
+
+    /**
+     * The number of events.
+     */
+    private int count;
+
+    /**
+     * The index of the next event to play.
+     */
+    private int cursor;
+
+    /**
+     * Creates a script of random input: keys from a set being pressed and released, the mouse wandering over an
+     * area, and occasional clicks.
+     * @param seed The seed of the random number generator
+     * @param ticks The number of ticks to script
+     * @param eventsPerTick The average number of events per tick
+     * @param keys The key codes to press
+     * @param width The width of the area the mouse moves over
+     * @param height The height of the area the mouse moves over
+     * @return The script
+     * @throws IllegalArgumentException When no keys are provided or the area is empty
+     */
+    public static InputScript random(long seed, long ticks, double eventsPerTick, int[] keys, int width, int height)
+            throws IllegalArgumentException {
+        if (keys.length == 0) throw new IllegalArgumentException("At least one key is required.");
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("The area must not be empty.");
+
+        var random = new SplittableRandom(seed);
+        var script = new InputScript();
+        var held = new boolean[keys.length];
+        var x = width / 2;
+        var y = height / 2;
+
+        for (var tick = 0L; tick < ticks; tick++) {
+            var events = (int) eventsPerTick + (random.nextDouble() < eventsPerTick % 1 ? 1 : 0);
+
+            for (var i = 0; i < events; i++) {
+                var roll = random.nextInt(8);
+
+                if (roll < 4) {
+                    x = Math.max(0, Math.min(width - 1, x + random.nextInt(-16, 17)));
+                    y = Math.max(0, Math.min(height - 1, y + random.nextInt(-16, 17)));
+                    script.mouseMove(tick, x, y);
+                } else if (roll < 7) {
+                    var k = random.nextInt(keys.length);
+                    script.add(tick, held[k] ? InputQueue.KEY_RELEASED : InputQueue.KEY_PRESSED, keys[k], 0, 0);
+                    held[k] = !held[k];
+                } else {
+                    script.mousePress(tick, 1, x, y).mouseRelease(tick, 1, x, y);
+                }
+            }
+        }
+
+        return script;
+    }
+
+    /**
+     * Appends an event.
+     * @param tick The tick to play the event on, which must not precede the tick of the previous event
+     * @param type The type of the event, one of the constants of {@link InputQueue}
+     * @param code The key code or mouse button, or the wheel rotation of a wheel event
+     * @param x The X coordinate of the mouse
+     * @param y The Y coordinate of the mouse
+     * @return This script
+     * @throws IllegalArgumentException When the tick precedes the tick of the previous event
+     */
+    public InputScript add(long tick, int type, int code, int x, int y) throws IllegalArgumentException {
+        if (count > 0 && tick < ticks[count - 1]) {
+            throw new IllegalArgumentException("Events must be added in order of their ticks.");
+        }
+
+        if (count == ticks.length) {
+            ticks = Arrays.copyOf(ticks, count * 2);
+            records = Arrays.copyOf(records, count * 2 * RECORD_SIZE);
+        }
+
+        var i = count * RECORD_SIZE;
+
+        ticks[count++] = tick;
+        records[i] = type;
+        records[i + 1] = code;
+        records[i + 2] = x;
+        records[i + 3] = y;
+
+        return this;
+    }
+
+    /**
+     * Appends a key press.
+     * @param tick The tick to press the key on
+     * @param key The key code
+     * @return This script
+     * @throws IllegalArgumentException When the tick precedes the tick of the previous event
+     */
+    public InputScript keyPress(long tick, int key) throws IllegalArgumentException {
+        return add(tick, InputQueue.KEY_PRESSED, key, 0, 0);
+    }
+
+    /**
+     * Appends a key release.
+     * @param tick The tick to release the key on
+     * @param key The key code
+     * @return This script
+     * @throws IllegalArgumentException When the tick precedes the tick of the previous event
+     */
+    public InputScript keyRelease(long tick, int key) throws IllegalArgumentException {
+        return add(tick, InputQueue.KEY_RELEASED, key, 0, 0);
+    }
+
+    /**
+     * Appends a mouse movement.
+     * @param tick The tick to move the mouse on
+     * @param x The X coordinate to move to
+     * @param y The Y coordinate to move to
+     * @return This script
+     * @throws IllegalArgumentException When the tick precedes the tick of the previous event
+     */
+    public InputScript mouseMove(long tick, int x, int y) throws IllegalArgumentException {
+        return add(tick, InputQueue.MOUSE_MOVED, 0, x, y);
+    }
+
+    /**
+     * Appends a mouse button press.
+     * @param tick The tick to press the button on
+     * @param button The button number
+     * @param x The X coordinate of the mouse
+     * @param y The Y coordinate of the mouse
+     * @return This script
+     * @throws IllegalArgumentException When the tick precedes the tick of the previous event
+     */
+    public InputScript mousePress(long tick, int button, int x, int y) throws IllegalArgumentException {
+        return add(tick, InputQueue.MOUSE_PRESSED, button, x, y);
+    }
+
+    /**
+     * Appends a mouse button release.
+     * @param tick The tick to release the button on
+     * @param button The button number
+     * @param x The X coordinate of the mouse
+     * @param y The Y coordinate of the mouse
+     * @return This script
+     * @throws IllegalArgumentException When the tick precedes the tick of the previous event
+     */
+    public InputScript mouseRelease(long tick, int button, int x, int y) throws IllegalArgumentException {
+        return add(tick, InputQueue.MOUSE_RELEASED, button, x, y);
+    }
+
+    /**
+     * Appends a mouse wheel rotation.
+     * @param tick The tick to rotate the wheel on
+     * @param rotation The number of notches to rotate by
+     * @return This script
+     * @throws IllegalArgumentException When the tick precedes the tick of the previous event
+     */
+    public InputScript wheel(long tick, int rotation) throws IllegalArgumentException {
+        return add(tick, InputQueue.MOUSE_WHEEL, rotation, 0, 0);
+    }
+
+    /**
+     * Plays every event scheduled up to and including a tick which has not been played yet.
+     * @param tick The current tick
+     * @param sink The sink to play the events into
+     * @return The number of events played
+     */
+    public int play(long tick, InputSink sink) {
+        var start = cursor;
+
+        while (cursor < count && ticks[cursor] <= tick) {
+            var i = cursor++ * RECORD_SIZE;
+            sink.accept(records[i], records[i + 1], records[i + 2], records[i + 3]);
+        }
+
+        return cursor - start;
+    }
+
+    /**
+     * Returns whether every event has been played.
+     * @return {@code true} if no events remain
+     */
+    public boolean isFinished() {
+        return cursor == count;
+    }
+
+    /**
+     * Returns the number of events in this script.
+     * @return The number of events
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Rewinds this script to its first event.
+     */
+    public void rewind() {
+        cursor = 0;
+    }
+}
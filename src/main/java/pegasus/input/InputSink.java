@@ -0,0 +1,17 @@
+package pegasus.input;
+
+/**
+ * A receiver of primitive input events.
+ * @see InputQueue
+ */
+@FunctionalInterface
+public interface InputSink {
+    /**
+     * Receives an input event.
+     * @param type The type of the event, one of the constants of {@link InputQueue}
+     * @param code The key code or mouse button, or the wheel rotation of a wheel event
+     * @param x The X coordinate of the mouse
+     * @param y The Y coordinate of the mouse
+     */
+    void accept(int type, int code, int x, int y);
+}
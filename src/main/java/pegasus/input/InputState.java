@@ -0,0 +1,279 @@
+package pegasus.input;
+
+import pegasus.number.Int2;
+
+import java.util.Arrays;
+
+/**
+ * The state of the keyboard and mouse as seen by the simulation, updated once per tick from an {@link InputQueue}.
+ * Between updates the state does not change, so every system reading it during a tick sees the same snapshot. Besides
+ * which keys and buttons are held, the state records which were pressed or released during the last update, so that
+ * a key tapped within a single tick is still seen.
+ * <p>
+ * This class is not thread-safe, and is meant to be owned by the simulation thread.
+ */
+public final class InputState implements InputSink {
+    /**
+     * The number of distinct key codes tracked. Higher key codes are ignored.
+     */
+    public static final int KEY_CODES = 1 << 16;
+
+    /**
+     * The keys which are held, as a bit set.
+     */
+    private final long[] down = new long[KEY_CODES / Long.SIZE];
+
+    /**
+     * The keys pressed during the last update.
+     */
+    private int[] pressed = new int[16];
+
+    /**
+     * The number of keys pressed during the last update.
+     */
+    private int pressedCount;
+
+    /**
+     * The keys released during the last update.
+     */
+    private int[] released = new int[16];
+
+    /**
+     * The number of keys released during the last update.
+     */
+    private int releasedCount;
+
+    /**
+     * The mouse buttons which are held, as a bit set.
+     */
+    private int buttons;
+
+    /**
+     * The mouse buttons pressed during the last update, as a bit set.
+     */
+    private int buttonsPressed;
+
+    /**
+     * The mouse buttons released during the last update, as a bit set.
+     */
+    private int buttonsReleased;
+
+    /**
+     * The X coordinate of the mouse.
+     */
+    private int mouseX;
+
+    /**
+     * The Y coordinate of the mouse.
+     */
+    private int mouseY;
+
+    /**
+     * The wheel rotation during the last update.
+     */
+    private int wheel;
+
+    /**
+     * Applies every pending event of a queue, replacing the events of the previous update.
+     * @param queue The queue to drain
+     * @return The number of events applied
+     */
+    public int update(InputQueue queue) {
+        begin();
+        return queue.drain(this);
+    }
+
+    /**
+     * Clears the events of the previous update, while keeping which keys and buttons are held. Call this before
+     * applying the events of a tick through {@link #accept(int, int, int, int)} directly.
+     */
+    public void begin() {
+        pressedCount = 0;
+        releasedCount = 0;
+        buttonsPressed = 0;
+        buttonsReleased = 0;
+        wheel = 0;
+    }
+
+    /**
+     * {@inheritDoc} This applies the event to this state.
+     * @param type {@inheritDoc}
+     * @param code {@inheritDoc}
+     * @param x {@inheritDoc}
+     * @param y {@inheritDoc}
+     */
+    @Override
+    public void accept(int type, int code, int x, int y) {
+        switch (type) {
+            case InputQueue.KEY_PRESSED -> {
+                if (code < 0 || code >= KEY_CODES || isKeyDown(code)) return;
+
+                down[code >>> 6] |= 1L << code;
+                pressed = append(pressed, pressedCount++, code);
+            }
+            case InputQueue.KEY_RELEASED -> {
+                if (!isKeyDown(code)) return;
+
+                down[code >>> 6] &= ~(1L << code);
+                released = append(released, releasedCount++, code);
+            }
+            case InputQueue.MOUSE_MOVED -> {
+                mouseX = x;
+                mouseY = y;
+            }
+            case InputQueue.MOUSE_PRESSED -> {
+                mouseX = x;
+                mouseY = y;
+                if (code < 0 || code >= Integer.SIZE) return;
+
+                buttonsPressed |= ~buttons & 1 << code;
+                buttons |= 1 << code;
+            }
+            case InputQueue.MOUSE_RELEASED -> {
+                mouseX = x;
+                mouseY = y;
+                if (code < 0 || code >= Integer.SIZE) return;
+
+                buttonsReleased |= buttons & 1 << code;
+                buttons &= ~(1 << code);
+            }
+            case InputQueue.MOUSE_WHEEL -> wheel += code;
+            case InputQueue.RELEASE_ALL -> releaseAll();
+            default -> {}
+        }
+    }
+
+    /**
+     * Returns whether a key is held.
+     * @param key The key code
+     * @return {@code true} if the key is held
+     */
+    public boolean isKeyDown(int key) {
+        if (key < 0 || key >= KEY_CODES) return false;
+        return (down[key >>> 6] & 1L << key) != 0;
+    }
+
+    /**
+     * Returns whether a key was pressed during the last update.
+     * @param key The key code
+     * @return {@code true} if the key was pressed, even if it has been released again since
+     */
+    public boolean wasKeyPressed(int key) {
+        return contains(pressed, pressedCount, key);
+    }
+
+    /**
+     * Returns whether a key was released during the last update.
+     * @param key The key code
+     * @return {@code true} if the key was released
+     */
+    public boolean wasKeyReleased(int key) {
+        return contains(released, releasedCount, key);
+    }
+
+    /**
+     * Returns whether a mouse button is held.
+     * @param button The button number
+     * @return {@code true} if the button is held
+     */
+    public boolean isButtonDown(int button) {
+        return button >= 0 && button < Integer.SIZE && (buttons & 1 << button) != 0;
+    }
+
+    /**
+     * Returns whether a mouse button was pressed during the last update.
+     * @param button The button number
+     * @return {@code true} if the button was pressed, even if it has been released again since
+     */
+    public boolean wasButtonPressed(int button) {
+        return button >= 0 && button < Integer.SIZE && (buttonsPressed & 1 << button) != 0;
+    }
+
+    /**
+     * Returns whether a mouse button was released during the last update.
+     * @param button The button number
+     * @return {@code true} if the button was released
+     */
+    public boolean wasButtonReleased(int button) {
+        return button >= 0 && button < Integer.SIZE && (buttonsReleased & 1 << button) != 0;
+    }
+
+    /**
+     * Returns the position of the mouse.
+     * @return The position of the mouse
+     */
+    public Int2 mouse() {
+        return Int2.valueOf(mouseX, mouseY);
+    }
+
+    /**
+     * Returns the X coordinate of the mouse without allocating.
+     * @return The X coordinate of the mouse
+     */
+    public int mouseX() {
+        return mouseX;
+    }
+
+    /**
+     * Returns the Y coordinate of the mouse without allocating.
+     * @return The Y coordinate of the mouse
+     */
+    public int mouseY() {
+        return mouseY;
+    }
+
+    /**
+     * Returns the wheel rotation during the last update.
+     * @return The number of notches the wheel was rotated by, negative when rotated away from the user
+     */
+    public int wheelRotation() {
+        return wheel;
+    }
+
+    /**
+     * Releases every held key and button, recording them as released.
+     */
+    private void releaseAll() {
+        for (var i = 0; i < down.length; i++) {
+            var word = down[i];
+
+            while (word != 0) {
+                released = append(released, releasedCount++, i << 6 | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+
+        Arrays.fill(down, 0);
+        buttonsReleased |= buttons;
+        buttons = 0;
+    }
+
+    /**
+     * Stores a key code into a list, growing it if needed.
+     * @param keys The list
+     * @param index The index to store at
+     * @param key The key code
+     * @return The list, which may have been reallocated
+     */
+    private static int[] append(int[] keys, int index, int key) {
+        if (index == keys.length) keys = Arrays.copyOf(keys, index * 2);
+
+        keys[index] = key;
+        return keys;
+    }
+
+    /**
+     * Returns whether a list contains a key code.
+     * @param keys The list
+     * @param count The number of key codes in the list
+     * @param key The key code
+     * @return {@code true} if the list contains the key code
+     */
+    private static boolean contains(int[] keys, int count, int key) {
+        for (var i = 0; i < count; i++) {
+            if (keys[i] == key) return true;
+        }
+
+        return false;
+    }
+}
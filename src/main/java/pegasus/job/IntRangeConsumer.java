@@ -0,0 +1,15 @@
+package pegasus.job;
+
+/**
+ * A body of a parallel loop, which processes a contiguous range of indices.
+ * @see JobSystem#parallelFor(int, int, IntRangeConsumer)
+ */
+@FunctionalInterface
+public interface IntRangeConsumer {
+    /**
+     * Processes a range of indices.
+     * @param from The first index of the range (inclusive)
+     * @param to The last index of the range (exclusive)
+     */
+    void accept(int from, int to);
+}
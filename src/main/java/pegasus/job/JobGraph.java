@@ -0,0 +1,230 @@
+package pegasus.job;
+
+import pegasus.profile.ProfileScope;
+import pegasus.profile.Profiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A graph of jobs with dependencies, built once and run any number of times through
+ * {@link JobSystem#run(JobGraph)}. A job starts once all of its dependencies have completed, and every job runs
+ * inside a {@link Profiler} scope of its name. Since dependencies must be added before their dependents, a graph
+ * can never contain a cycle.
+ */
+public final class JobGraph {
+    /**
+     * The nodes of this graph in insertion order.
+     */
+    private final List<Node> nodes = new ArrayList<>();
+
+    /**
+     * The number of dependencies of each node which have not completed yet in the current run.
+     */
+    private AtomicIntegerArray remaining = new AtomicIntegerArray(0);
+
+    /**
+     * The handle of the current run, or {@code null} if this graph has never been run.
+     */
+    private JobHandle handle;
+
+    /**
+     * Adds a job to this graph.
+     * @param name The name of the job, which is also the name of its profiler scope
+     * @param job The job to run
+     * @param dependencies The nodes which must complete before the job starts
+     * @return The node of the job
+     * @throws IllegalArgumentException When a dependency does not belong to this graph
+     * @throws IllegalStateException When this graph is running
+     */
+    public synchronized Node add(String name, Runnable job, Node... dependencies)
+            throws IllegalArgumentException, IllegalStateException {
+        if (handle != null && !handle.isDone()) throw new IllegalStateException("The graph is running.");
+
+        for (var dependency : dependencies) {
+            if (dependency.graph != this) {
+                throw new IllegalArgumentException("The dependency does not belong to this graph.");
+            }
+        }
+
+        var node = new Node(this, nodes.size(), name, job, dependencies.length);
+
+        for (var dependency : dependencies) {
+            dependency.dependents.add(node);
+        }
+
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * Returns the number of jobs in this graph.
+     * @return The number of jobs in this graph
+     */
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Starts a run of this graph by pushing its root jobs.
+     * @param system The system to run on
+     * @return The handle of the run
+     * @throws IllegalStateException When this graph is already running
+     */
+    synchronized JobHandle start(JobSystem system) throws IllegalStateException {
+        if (handle != null && !handle.isDone()) throw new IllegalStateException("The graph is already running.");
+
+        var count = nodes.size();
+
+        if (handle == null || handle.system != system) {
+            handle = new JobHandle(system, count);
+        } else {
+            handle.reset(count);
+        }
+
+        if (remaining.length() != count) remaining = new AtomicIntegerArray(count);
+
+        for (var node : nodes) {
+            node.task.handle = handle;
+            remaining.set(node.index, node.dependencies);
+        }
+
+        for (var node : nodes) {
+            if (node.dependencies == 0) system.push(node.task);
+        }
+
+        return handle;
+    }
+
+    /**
+     * A job of a {@link JobGraph}.
+     */
+    public static final class Node {
+        /**
+         * The task which runs this node.
+         */
+        private final Task task = new Task(null) {
+            @Override
+            void execute() {
+                runJob();
+            }
+        };
+
+        /**
+         * The graph this node belongs to.
+         */
+        private final JobGraph graph;
+
+        /**
+         * The index of this node in its graph.
+         */
+        private final int index;
+
+        /**
+         * The profiler scope of this node.
+         */
+        private final ProfileScope scope;
+
+        /**
+         * The job to run.
+         */
+        private final Runnable job;
+
+        /**
+         * The number of dependencies of this node.
+         */
+        private final int dependencies;
+
+        /**
+         * The nodes which depend on this node.
+         */
+        private final List<Node> dependents = new ArrayList<>();
+
+        /**
+         * Creates a new node.
+         * @param graph The graph this node belongs to
+         * @param index The index of this node in its graph
+         * @param name The name of this node
+         * @param job The job to run
+         * @param dependencies The number of dependencies of this node
+         */
+        private Node(JobGraph graph, int index, String name, Runnable job, int dependencies) {
+            this.graph = graph;
+            this.index = index;
+            this.scope = Profiler.scope(name);
+            this.job = job;
+            this.dependencies = dependencies;
+        }
+
+        /**
+         * Returns the name of this node.
+         * @return The name of this node
+         */
+        public String name() {
+            return scope.name();
+        }
+
+        /**
+         * Runs the job of this node, then releases the dependents whose dependencies have all completed. Dependents
+         * are released even if the job throws, so that the run always terminates.
+         */
+        private void runJob() {
+            scope.begin();
+
+            try {
+                job.run();
+            } finally {
+                scope.end();
+                release(task.handle, null);
+            }
+        }
+
+        /**
+         * Releases the dependents of this node whose dependencies have all completed, by pushing them. A dependent
+         * which cannot be pushed because the system is closing is skipped instead, and so is every dependent of a
+         * skipped node.
+         * @param handle The handle of the run
+         * @param failure The reason this node was skipped, or {@code null} if it has run
+         */
+        private void release(JobHandle handle, IllegalStateException failure) {
+            for (var i = 0; i < dependents.size(); i++) {
+                var dependent = dependents.get(i);
+                if (graph.remaining.decrementAndGet(dependent.index) != 0) continue;
+
+                var cause = failure;
+
+                if (cause == null) {
+                    try {
+                        handle.system.push(dependent.task);
+                        continue;
+                    } catch (IllegalStateException e) {
+                        cause = e;
+                    }
+                }
+
+                dependent.skip(handle, cause);
+            }
+        }
+
+        /**
+         * Completes this node without running its job, failing the run, so that the run still terminates.
+         * @param handle The handle of the run
+         * @param failure The reason this node is skipped
+         */
+        private void skip(JobHandle handle, IllegalStateException failure) {
+            handle.fail(failure);
+            release(handle, failure);
+            handle.complete();
+        }
+
+        /**
+         * Serializes this node into a string.
+         * @return The name of this node
+         */
+        @Override
+        public String toString() {
+            return name();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package pegasus.job;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A handle to work submitted to a {@link JobSystem}. A handle is done once every task belonging to it has
+ * completed, including the tasks they have forked.
+ */
+public final class JobHandle {
+    /**
+     * The system executing the work.
+     */
+    final JobSystem system;
+
+    /**
+     * The number of tasks which have not completed yet.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * The first failure of a task, or {@code null} if no task has failed.
+     */
+    private volatile Throwable failure;
+
+    /**
+     * Creates a new handle.
+     * @param system The system executing the work
+     * @param pending The initial number of pending tasks
+     */
+    JobHandle(JobSystem system, int pending) {
+        this.system = system;
+        this.pending.set(pending);
+    }
+
+    /**
+     * Returns whether all work of this handle has completed.
+     * @return {@code true} if all work of this handle has completed
+     */
+    public boolean isDone() {
+        return pending.get() == 0;
+    }
+
+    /**
+     * Waits until all work of this handle has completed. The calling thread executes pending jobs while it waits.
+     * @throws CompletionException When a job of this handle has thrown
+     */
+    public void await() throws CompletionException {
+        system.helpUntilDone(this);
+
+        var failure = this.failure;
+        if (failure != null) throw new CompletionException(failure);
+    }
+
+    /**
+     * Resets this handle to be reused.
+     * @param pending The initial number of pending tasks
+     */
+    void reset(int pending) {
+        failure = null;
+        this.pending.set(pending);
+    }
+
+    /**
+     * Registers an additional pending task.
+     */
+    void fork() {
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Marks a pending task as completed.
+     */
+    void complete() {
+        pending.decrementAndGet();
+    }
+
+    /**
+     * Records a failure of a task. Only the first failure is kept.
+     * @param t The failure
+     */
+    void fail(Throwable t) {
+        if (failure == null) failure = t;
+    }
+}
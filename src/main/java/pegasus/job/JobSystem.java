@@ -0,0 +1,508 @@
+package pegasus.job;
+
+import pegasus.metrics.Counter;
+import pegasus.metrics.MetricRegistry;
+
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntConsumer;
+
+/**
+ * A fixed pool of worker threads which execute jobs from work-stealing deques. Jobs forked by a worker are pushed
+ * to its own deque, while jobs submitted by other threads are queued to a shared injector. Idle workers steal the
+ * oldest jobs of other workers, and threads waiting on a {@link JobHandle} execute pending jobs instead of
+ * blocking.
+ * <p>
+ * Parallel loops split their range lazily: a worker only splits off half of its remaining range while its own
+ * deque is nearly empty, so that the number of jobs adapts to the number of idle workers instead of the size of
+ * the range.
+ */
+public final class JobSystem implements AutoCloseable {
+    /**
+     * The number of executed jobs.
+     */
+    private static final Counter EXECUTED = MetricRegistry.global().counter("job.executed");
+
+    /**
+     * The number of jobs stolen from another worker.
+     */
+    private static final Counter STEALS = MetricRegistry.global().counter("job.steals");
+
+    /**
+     * The number of jobs a worker keeps in its deque before it stops splitting ranges.
+     */
+    private static final int SPLIT_THRESHOLD = 2;
+
+    /**
+     * The number of failed attempts to find a job before a worker parks.
+     */
+    private static final int SPINS = 64;
+
+    /**
+     * The maximum duration a worker parks for before looking for jobs again, in nanoseconds.
+     */
+    private static final long PARK_NANOS = 1_000_000;
+
+    /**
+     * Returns the global job system, creating it on first use. Its worker count is set by the system property
+     * {@code pegasus.job.workers}, defaulting to one less than the number of available processors so that the
+     * main thread has a core of its own.
+     * @return The global job system
+     */
+    public static JobSystem global() {
+        return Global.INSTANCE;
+    }
+
+    /**
+     * The workers of this system.
+     */
+    private final Worker[] workers;
+
+    /**
+     * The queue of jobs submitted by threads other than the workers.
+     */
+    private final ConcurrentLinkedQueue<Task> injector = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of parked workers.
+     */
+    private final AtomicInteger sleeping = new AtomicInteger();
+
+    /**
+     * Whether this system is running.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Creates a new job system.
+     * @param workers The number of worker threads
+     * @param name The prefix of the worker thread names
+     * @throws IllegalArgumentException When the worker count is not positive
+     */
+    public JobSystem(int workers, String name) throws IllegalArgumentException {
+        if (workers <= 0) throw new IllegalArgumentException("The worker count must be positive.");
+
+        this.workers = new Worker[workers];
+
+        for (var i = 0; i < workers; i++) {
+            this.workers[i] = new Worker(this, name + "-" + i);
+        }
+
+        for (var worker : this.workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Returns the number of worker threads of this system.
+     * @return The number of worker threads
+     */
+    public int workerCount() {
+        return workers.length;
+    }
+
+    /**
+     * Submits a job.
+     * @param job The job to run
+     * @return The handle of the job
+     * @throws IllegalStateException When this system has been closed
+     */
+    public JobHandle submit(Runnable job) throws IllegalStateException {
+        Objects.requireNonNull(job);
+
+        var handle = new JobHandle(this, 1);
+
+        push(new Task(handle) {
+            @Override
+            void execute() {
+                job.run();
+            }
+        });
+
+        return handle;
+    }
+
+    /**
+     * Starts a run of a job graph.
+     * @param graph The graph to run
+     * @return The handle of the run
+     * @throws IllegalStateException When the graph is already running, or this system has been closed
+     */
+    public JobHandle submit(JobGraph graph) throws IllegalStateException {
+        return graph.start(this);
+    }
+
+    /**
+     * Runs a job graph, executing its jobs on the calling thread as well until every job has completed.
+     * @param graph The graph to run
+     * @throws IllegalStateException When the graph is already running, or this system has been closed
+     * @throws CompletionException When a job of the graph has thrown
+     */
+    public void run(JobGraph graph) throws IllegalStateException, CompletionException {
+        submit(graph).await();
+    }
+
+    /**
+     * Runs a parallel loop over a range of indices, choosing the grain size from the range and worker count. The
+     * calling thread participates until the loop has completed.
+     * @param from The first index (inclusive)
+     * @param to The last index (exclusive)
+     * @param body The body of the loop
+     * @throws CompletionException When the body has thrown
+     */
+    public void parallelFor(int from, int to, IntRangeConsumer body) throws CompletionException {
+        parallelFor(from, to, Math.max(1, (to - from) / (8 * (workers.length + 1))), body);
+    }
+
+    /**
+     * Runs a parallel loop over a range of indices. The range is never split into parts smaller than the grain
+     * size. The calling thread participates until the loop has completed.
+     * @param from The first index (inclusive)
+     * @param to The last index (exclusive)
+     * @param grain The minimum number of indices to process per job
+     * @param body The body of the loop
+     * @throws IllegalArgumentException When the grain size is not positive
+     * @throws CompletionException When the body has thrown
+     */
+    public void parallelFor(int from, int to, int grain, IntRangeConsumer body)
+            throws IllegalArgumentException, CompletionException {
+        if (grain <= 0) throw new IllegalArgumentException("The grain size must be positive.");
+        if (from >= to) return;
+
+        if (to - from <= grain) {
+            body.accept(from, to);
+            return;
+        }
+
+        var handle = new JobHandle(this, 1);
+
+        new RangeTask(handle, body, from, to, grain).run();
+        handle.await();
+    }
+
+    /**
+     * Runs a parallel loop over a range of indices, calling the body once per index.
+     * @param from The first index (inclusive)
+     * @param to The last index (exclusive)
+     * @param body The body of the loop
+     * @throws CompletionException When the body has thrown
+     */
+    public void parallelForEach(int from, int to, IntConsumer body) throws CompletionException {
+        parallelFor(from, to, (start, end) -> {
+            for (var i = start; i < end; i++) {
+                body.accept(i);
+            }
+        });
+    }
+
+    /**
+     * Stops the workers of this system once they finish their current job. Jobs which have not started yet are
+     * discarded.
+     */
+    @Override
+    public void close() {
+        running = false;
+
+        for (var worker : workers) {
+            LockSupport.unpark(worker);
+        }
+
+        for (var worker : workers) {
+            if (worker == Thread.currentThread()) continue;
+
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Pushes a task to the deque of the calling worker, or to the injector if the caller is not a worker of this
+     * system, and wakes a parked worker.
+     * @param task The task to push
+     * @throws IllegalStateException When this system has been closed
+     */
+    void push(Task task) throws IllegalStateException {
+        if (!running) throw new IllegalStateException("The job system has been closed.");
+
+        var worker = currentWorker();
+
+        if (worker != null) {
+            worker.deque.push(task);
+        } else {
+            injector.add(task);
+        }
+
+        if (sleeping.get() > 0) wakeOne();
+    }
+
+    /**
+     * Executes pending tasks on the calling thread until a handle is done.
+     * @param handle The handle to wait for
+     */
+    void helpUntilDone(JobHandle handle) {
+        var worker = currentWorker();
+        var idle = 0;
+
+        while (!handle.isDone()) {
+            var task = find(worker);
+
+            if (task != null) {
+                execute(task);
+                idle = 0;
+            } else if (++idle < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Returns the worker of this system which is the calling thread.
+     * @return The calling worker, or {@code null} if the caller is not a worker of this system
+     */
+    private Worker currentWorker() {
+        return Thread.currentThread() instanceof Worker w && w.system == this ? w : null;
+    }
+
+    /**
+     * Finds a task to execute, first from the deque of the caller, then from the injector, and finally by
+     * stealing from another worker.
+     * @param self The calling worker, or {@code null} if the caller is not a worker
+     * @return The task, or {@code null} if no task was found
+     */
+    private Task find(Worker self) {
+        if (self != null) {
+            var task = self.deque.pop();
+            if (task != null) return task;
+        }
+
+        var task = injector.poll();
+        if (task != null) return task;
+
+        var count = workers.length;
+        var start = ThreadLocalRandom.current().nextInt(count);
+
+        for (var i = 0; i < count; i++) {
+            var victim = workers[(start + i) % count];
+            if (victim == self) continue;
+
+            task = victim.deque.steal();
+
+            if (task != null) {
+                STEALS.increment();
+                return task;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns whether any task is visible to an idle worker.
+     * @return {@code true} if a task may be available
+     */
+    private boolean hasWork() {
+        if (!injector.isEmpty()) return true;
+
+        for (var worker : workers) {
+            if (worker.deque.size() > 0) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Executes a task.
+     * @param task The task to execute
+     */
+    private void execute(Task task) {
+        task.run();
+        EXECUTED.increment();
+    }
+
+    /**
+     * Unparks one parked worker, if any.
+     */
+    private void wakeOne() {
+        for (var worker : workers) {
+            if (worker.parked) {
+                LockSupport.unpark(worker);
+                return;
+            }
+        }
+    }
+
+    /**
+     * The main loop of a worker.
+     * @param self The worker
+     */
+    private void work(Worker self) {
+        var idle = 0;
+
+        while (running) {
+            var task = find(self);
+
+            if (task != null) {
+                execute(task);
+                idle = 0;
+                continue;
+            }
+
+            if (++idle < SPINS) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            self.parked = true;
+            sleeping.incrementAndGet();
+
+            if (running && !hasWork()) LockSupport.parkNanos(this, PARK_NANOS);
+
+            sleeping.decrementAndGet();
+            self.parked = false;
+            idle = 0;
+        }
+    }
+
+    /**
+     * A worker thread of a {@link JobSystem}.
+     */
+    private static final class Worker extends Thread {
+        /**
+         * The system this worker belongs to.
+         */
+        final JobSystem system;
+
+        /**
+         * The deque of jobs forked by this worker.
+         */
+        final WorkDeque deque = new WorkDeque();
+
+        /**
+         * Whether this worker is parked or about to park.
+         */
+        volatile boolean parked;
+
+        /**
+         * Creates a new worker.
+         * @param system The system this worker belongs to
+         * @param name The name of this worker
+         */
+        Worker(JobSystem system, String name) {
+            super(name);
+
+            this.system = system;
+            setDaemon(true);
+        }
+
+        /**
+         * Runs the main loop of this worker.
+         */
+        @Override
+        public void run() {
+            system.work(this);
+        }
+    }
+
+    /**
+     * A task which processes a range of indices, lazily splitting off halves while its worker is idle enough.
+     */
+    private static final class RangeTask extends Task {
+        /**
+         * The body of the loop.
+         */
+        private final IntRangeConsumer body;
+
+        /**
+         * The minimum number of indices to process per task.
+         */
+        private final int grain;
+
+        /**
+         * The first index of the range (inclusive).
+         */
+        private final int from;
+
+        /**
+         * The last index of the range (exclusive).
+         */
+        private final int to;
+
+        /**
+         * Creates a new range task.
+         * @param handle The handle of the loop
+         * @param body The body of the loop
+         * @param from The first index (inclusive)
+         * @param to The last index (exclusive)
+         * @param grain The minimum number of indices to process per task
+         */
+        RangeTask(JobHandle handle, IntRangeConsumer body, int from, int to, int grain) {
+            super(handle);
+
+            this.body = body;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        /**
+         * Splits off the upper half of the range while it is larger than the grain size and the deque of the
+         * executing worker is nearly empty, then processes the remaining lower part. A split is counted before it is
+         * pushed, since another worker may steal and complete it as soon as it is visible; if a closing system
+         * rejects the push, the split is completed again so that the handle does not wait for it.
+         */
+        @Override
+        void execute() {
+            var system = handle.system;
+            var worker = system.currentWorker();
+            var end = to;
+
+            while (end - from > grain && (worker == null || worker.deque.size() < SPLIT_THRESHOLD)) {
+                var mid = (from + end) >>> 1;
+
+                handle.fork();
+
+                try {
+                    system.push(new RangeTask(handle, body, mid, end, grain));
+                } catch (IllegalStateException e) {
+                    handle.complete();
+                    throw e;
+                }
+
+                end = mid;
+            }
+
+            body.accept(from, end);
+        }
+    }
+
+    /**
+     * The holder of the global job system.
+     */
+    private static final class Global {
+        /**
+         * The global job system.
+         */
+        static final JobSystem INSTANCE = new JobSystem(
+                Math.max(1, Integer.getInteger(
+                        "pegasus.job.workers",
+                        Runtime.getRuntime().availableProcessors() - 1
+                )),
+                "pegasus-job"
+        );
+
+        /**
+         * Private constructor. Do not use outside of this class.
+         */
+        private Global() {}
+    }
+}
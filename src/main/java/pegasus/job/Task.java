@@ -0,0 +1,40 @@
+package pegasus.job;
+
+/**
+ * A unit of work executed by a {@link JobSystem}. Every task belongs to a {@link JobHandle}, which it completes
+ * once after executing, whether or not it throws.
+ */
+abstract class Task {
+    /**
+     * The handle this task completes.
+     */
+    JobHandle handle;
+
+    /**
+     * Creates a new task.
+     * @param handle The handle this task completes
+     */
+    Task(JobHandle handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Executes the work of this task.
+     */
+    abstract void execute();
+
+    /**
+     * Executes this task, recording any failure in its handle, and completes the handle.
+     */
+    final void run() {
+        var handle = this.handle;
+
+        try {
+            execute();
+        } catch (Throwable t) {
+            handle.fail(t);
+        } finally {
+            handle.complete();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package pegasus.job;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A Chase-Lev work-stealing deque. The owning worker pushes and pops tasks at the bottom in LIFO order, while
+ * other threads steal from the top in FIFO order. The backing array grows as needed and never shrinks.
+ */
+final class WorkDeque {
+    /**
+     * The initial capacity of the backing array. This must be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * The handle used to claim tasks from the top of the deque.
+     */
+    private static final VarHandle TOP;
+
+    static {
+        try {
+            TOP = MethodHandles.lookup().findVarHandle(WorkDeque.class, "top", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The index of the oldest task, incremented by successful steals.
+     */
+    private volatile long top;
+
+    /**
+     * The index one past the newest task, only written by the owner.
+     */
+    private volatile long bottom;
+
+    /**
+     * The circular array of tasks.
+     */
+    private volatile Task[] tasks = new Task[INITIAL_CAPACITY];
+
+    /**
+     * Pushes a task to the bottom of this deque. This must only be called by the owner.
+     * @param task The task to push
+     */
+    void push(Task task) {
+        var b = bottom;
+        var t = top;
+        var array = tasks;
+
+        if (b - t >= array.length) array = grow(array, t, b);
+
+        array[(int) b & (array.length - 1)] = task;
+        bottom = b + 1;
+    }
+
+    /**
+     * Pops the newest task from the bottom of this deque. This must only be called by the owner.
+     * @return The popped task, or {@code null} if this deque is empty
+     */
+    Task pop() {
+        var b = bottom - 1;
+        var array = tasks;
+
+        bottom = b;
+
+        var t = top;
+
+        if (t > b) {
+            bottom = b + 1;
+            return null;
+        }
+
+        var task = array[(int) b & (array.length - 1)];
+
+        if (t == b) {
+            if (!TOP.compareAndSet(this, t, t + 1)) task = null;
+            bottom = b + 1;
+        }
+
+        return task;
+    }
+
+    /**
+     * Steals the oldest task from the top of this deque. This can be called by any thread.
+     * @return The stolen task, or {@code null} if this deque is empty or the steal lost a race
+     */
+    Task steal() {
+        var t = top;
+        var b = bottom;
+
+        if (t >= b) return null;
+
+        var array = tasks;
+        var task = array[(int) t & (array.length - 1)];
+
+        return TOP.compareAndSet(this, t, t + 1) ? task : null;
+    }
+
+    /**
+     * Returns the approximate number of tasks in this deque.
+     * @return The approximate number of tasks in this deque
+     */
+    int size() {
+        return (int) Math.max(0, bottom - top);
+    }
+
+    /**
+     * Doubles the capacity of the backing array. This must only be called by the owner.
+     * @param array The current array
+     * @param t The current top index
+     * @param b The current bottom index
+     * @return The new array
+     */
+    private Task[] grow(Task[] array, long t, long b) {
+        var grown = new Task[array.length * 2];
+
+        for (var i = t; i < b; i++) {
+            grown[(int) i & (grown.length - 1)] = array[(int) i & (array.length - 1)];
+        }
+
+        tasks = grown;
+        return grown;
+    }
+}
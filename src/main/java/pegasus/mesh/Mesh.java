@@ -0,0 +1,321 @@
+package pegasus.mesh;
+
+import pegasus.asset.MeshData;
+import pegasus.number.Vector3f;
+import pegasus.number.Vector4f;
+
+/**
+ * An indexed triangle mesh. Vertex attributes are stored as packed {@code float} streams, one array per attribute
+ * with the components of each vertex next to each other, and triangles as an {@code int} index buffer with three
+ * indices per triangle. Passes over a large model then stream through a few flat arrays instead of chasing one
+ * object per vertex.
+ * <p>
+ * Positions are always present. Texture coordinates are optional and given on construction. Normals and tangents
+ * are derived by a {@link MeshProcessor}; tangents are stored as {@code x, y, z, w}, where {@code w} is the
+ * handedness of the bitangent. The bounds are computed on construction, and must be recomputed by
+ * {@link MeshProcessor#computeBounds(Mesh)} after the positions have been modified in place.
+ */
+public final class Mesh {
+    /**
+     * The number of components of a position or normal.
+     */
+    static final int POSITION = 3;
+
+    /**
+     * The number of components of a tangent.
+     */
+    static final int TANGENT = 4;
+
+    /**
+     * The number of components of a texture coordinate.
+     */
+    static final int UV = 2;
+
+    /**
+     * The number of vertices.
+     */
+    private final int vertexCount;
+
+    /**
+     * The vertex positions.
+     */
+    final float[] positions;
+
+    /**
+     * The texture coordinates, or {@code null} if this mesh has none.
+     */
+    final float[] uvs;
+
+    /**
+     * The triangle indices, three per triangle.
+     */
+    final int[] indices;
+
+    /**
+     * The bounds, as the minimum X, Y and Z followed by the maximum X, Y and Z.
+     */
+    final float[] bounds = new float[6];
+
+    /**
+     * The vertex normals, or {@code null} if they have not been computed.
+     */
+    float[] normals;
+
+    /**
+     * The vertex tangents, or {@code null} if they have not been computed.
+     */
+    float[] tangents;
+
+    /**
+     * Creates a new mesh. The arrays are used directly, without being copied.
+     * @param positions The vertex positions, three components per vertex
+     * @param uvs The texture coordinates, two components per vertex, or {@code null}
+     * @param indices The triangle indices, three per triangle
+     * @throws IllegalArgumentException When the length of an array does not match, or an index is out of range
+     */
+    public Mesh(float[] positions, float[] uvs, int[] indices) throws IllegalArgumentException {
+        if (positions.length % POSITION != 0) {
+            throw new IllegalArgumentException("The positions must have three components per vertex.");
+        }
+
+        var count = positions.length / POSITION;
+
+        if (uvs != null && uvs.length != count * UV) {
+            throw new IllegalArgumentException("The texture coordinates must have two components per vertex.");
+        }
+
+        if (indices.length % 3 != 0) throw new IllegalArgumentException("The indices must form whole triangles.");
+
+        for (var index : indices) {
+            if (index < 0 || index >= count) throw new IllegalArgumentException("Index " + index + " is out of range.");
+        }
+
+        this.vertexCount = count;
+        this.positions = positions;
+        this.uvs = uvs;
+        this.indices = indices;
+
+        bounds(positions, 0, count, bounds, 0);
+    }
+
+    /**
+     * Creates a mesh from decoded mesh data. The normals of the data are kept if there is one per position.
+     * @param data The mesh data
+     * @return The mesh
+     * @throws IllegalArgumentException When an index of the data is out of range
+     */
+    public static Mesh of(MeshData data) throws IllegalArgumentException {
+        var count = data.positions.length;
+        var positions = new float[count * POSITION];
+
+        for (var i = 0; i < count; i++) {
+            var p = data.positions[i];
+
+            positions[i * POSITION] = (float) p.x;
+            positions[i * POSITION + 1] = (float) p.y;
+            positions[i * POSITION + 2] = (float) p.z;
+        }
+
+        var mesh = new Mesh(positions, null, data.indices.clone());
+        if (data.normals.length != count) return mesh;
+
+        mesh.normals = new float[count * POSITION];
+
+        for (var i = 0; i < count; i++) {
+            var n = data.normals[i];
+
+            mesh.normals[i * POSITION] = (float) n.x;
+            mesh.normals[i * POSITION + 1] = (float) n.y;
+            mesh.normals[i * POSITION + 2] = (float) n.z;
+        }
+
+        return mesh;
+    }
+
+    /**
+     * Returns the number of vertices of this mesh.
+     * @return The number of vertices
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns the number of triangles of this mesh.
+     * @return The number of triangles
+     */
+    public int triangleCount() {
+        return indices.length / 3;
+    }
+
+    /**
+     * Returns whether this mesh has texture coordinates.
+     * @return {@code true} if this mesh has texture coordinates
+     */
+    public boolean hasUvs() {
+        return uvs != null;
+    }
+
+    /**
+     * Returns whether the normals of this mesh are available.
+     * @return {@code true} if this mesh has normals
+     */
+    public boolean hasNormals() {
+        return normals != null;
+    }
+
+    /**
+     * Returns whether the tangents of this mesh are available.
+     * @return {@code true} if this mesh has tangents
+     */
+    public boolean hasTangents() {
+        return tangents != null;
+    }
+
+    /**
+     * Returns the position of a vertex.
+     * @param vertex The index of the vertex
+     * @return The position
+     * @throws IndexOutOfBoundsException When the vertex is out of bounds
+     */
+    public Vector3f position(int vertex) throws IndexOutOfBoundsException {
+        var o = offset(vertex, POSITION);
+        return new Vector3f(positions[o], positions[o + 1], positions[o + 2]);
+    }
+
+    /**
+     * Returns the normal of a vertex.
+     * @param vertex The index of the vertex
+     * @return The unit normal
+     * @throws IndexOutOfBoundsException When the vertex is out of bounds
+     * @throws IllegalStateException When this mesh has no normals
+     */
+    public Vector3f normal(int vertex) throws IndexOutOfBoundsException, IllegalStateException {
+        if (normals == null) throw new IllegalStateException("The normals have not been computed.");
+
+        var o = offset(vertex, POSITION);
+        return new Vector3f(normals[o], normals[o + 1], normals[o + 2]);
+    }
+
+    /**
+     * Returns the tangent of a vertex.
+     * @param vertex The index of the vertex
+     * @return The unit tangent, with the handedness of the bitangent as {@code w}
+     * @throws IndexOutOfBoundsException When the vertex is out of bounds
+     * @throws IllegalStateException When this mesh has no tangents
+     */
+    public Vector4f tangent(int vertex) throws IndexOutOfBoundsException, IllegalStateException {
+        if (tangents == null) throw new IllegalStateException("The tangents have not been computed.");
+
+        var o = offset(vertex, TANGENT);
+        return new Vector4f(tangents[o + 3], tangents[o], tangents[o + 1], tangents[o + 2]);
+    }
+
+    /**
+     * Returns the minimum corner of the bounds of this mesh.
+     * @return The minimum corner
+     */
+    public Vector3f min() {
+        return new Vector3f(bounds[0], bounds[1], bounds[2]);
+    }
+
+    /**
+     * Returns the maximum corner of the bounds of this mesh.
+     * @return The maximum corner
+     */
+    public Vector3f max() {
+        return new Vector3f(bounds[3], bounds[4], bounds[5]);
+    }
+
+    /**
+     * Returns the position stream of this mesh, with three components per vertex. The array is shared with this
+     * mesh; call {@link MeshProcessor#computeBounds(Mesh)} after modifying it.
+     * @return The position stream
+     */
+    public float[] positions() {
+        return positions;
+    }
+
+    /**
+     * Returns the texture coordinate stream of this mesh, with two components per vertex. The array is shared with
+     * this mesh.
+     * @return The texture coordinate stream, or {@code null} if this mesh has none
+     */
+    public float[] uvs() {
+        return uvs;
+    }
+
+    /**
+     * Returns the normal stream of this mesh, with three components per vertex. The array is shared with this mesh.
+     * @return The normal stream, or {@code null} if the normals have not been computed
+     */
+    public float[] normals() {
+        return normals;
+    }
+
+    /**
+     * Returns the tangent stream of this mesh, with four components per vertex. The array is shared with this mesh.
+     * @return The tangent stream, or {@code null} if the tangents have not been computed
+     */
+    public float[] tangents() {
+        return tangents;
+    }
+
+    /**
+     * Returns the index buffer of this mesh, with three indices per triangle. The array is shared with this mesh
+     * and must not be modified.
+     * @return The index buffer
+     */
+    public int[] indices() {
+        return indices;
+    }
+
+    /**
+     * Returns the offset of the first component of a vertex in a stream.
+     * @param vertex The index of the vertex
+     * @param components The number of components per vertex
+     * @return The offset
+     * @throws IndexOutOfBoundsException When the vertex is out of bounds
+     */
+    private int offset(int vertex, int components) throws IndexOutOfBoundsException {
+        if (vertex < 0 || vertex >= vertexCount) throw new IndexOutOfBoundsException(vertex);
+        return vertex * components;
+    }
+
+    /**
+     * Computes the bounds of a range of positions. An empty range yields inverted infinite bounds.
+     * @param positions The position stream
+     * @param from The first vertex (inclusive)
+     * @param to The last vertex (exclusive)
+     * @param out The array to store the minimum and maximum corners in
+     * @param offset The offset to store the corners at
+     */
+    static void bounds(float[] positions, int from, int to, float[] out, int offset) {
+        var minX = Float.POSITIVE_INFINITY;
+        var minY = Float.POSITIVE_INFINITY;
+        var minZ = Float.POSITIVE_INFINITY;
+        var maxX = Float.NEGATIVE_INFINITY;
+        var maxY = Float.NEGATIVE_INFINITY;
+        var maxZ = Float.NEGATIVE_INFINITY;
+
+        for (var i = from * POSITION; i < to * POSITION; i += POSITION) {
+            var x = positions[i];
+            var y = positions[i + 1];
+            var z = positions[i + 2];
+
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+
+        out[offset] = minX;
+        out[offset + 1] = minY;
+        out[offset + 2] = minZ;
+        out[offset + 3] = maxX;
+        out[offset + 4] = maxY;
+        out[offset + 5] = maxZ;
+    }
+}
@@ -0,0 +1,364 @@
+package pegasus.mesh;
+
+import pegasus.job.IntRangeConsumer;
+import pegasus.job.JobSystem;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Computes the derived attributes of meshes on a {@link JobSystem}. Normals and tangents are computed in two
+ * parallel passes: the first computes a value per triangle, and the second sums the values of the triangles around
+ * each vertex, using the vertex to triangle adjacency. Every vertex is written by exactly one task and sums its
+ * triangles in the same order, so the results do not depend on the number of workers. Bounds are reduced from
+ * per-chunk bounds computed in parallel.
+ * <p>
+ * A processor keeps its scratch buffers between meshes, and must be used from one thread at a time.
+ */
+public final class MeshProcessor {
+    /**
+     * The number of triangles or vertices per task.
+     */
+    private static final int GRAIN = 1024;
+
+    /**
+     * The number of per-triangle values of the tangent pass: the tangent and bitangent directions.
+     */
+    private static final int FACE_TANGENT = 6;
+
+    /**
+     * The job system to process on.
+     */
+    private final JobSystem jobs;
+
+    /**
+     * The triangles around each vertex of the current mesh.
+     */
+    private final VertexTriangles adjacency = new VertexTriangles();
+
+    /**
+     * Computes the area-weighted normals of a range of triangles.
+     */
+    private final IntRangeConsumer faceNormals = this::faceNormals;
+
+    /**
+     * Computes the normals of a range of vertices.
+     */
+    private final IntRangeConsumer vertexNormals = this::vertexNormals;
+
+    /**
+     * Computes the tangent directions of a range of triangles.
+     */
+    private final IntRangeConsumer faceTangents = this::faceTangents;
+
+    /**
+     * Computes the tangents of a range of vertices.
+     */
+    private final IntRangeConsumer vertexTangents = this::vertexTangents;
+
+    /**
+     * Computes the bounds of a range of chunks.
+     */
+    private final IntRangeConsumer chunkBounds = this::chunkBounds;
+
+    /**
+     * The per-triangle values of the current pass.
+     */
+    private float[] faces = new float[0];
+
+    /**
+     * The bounds of each chunk of the current mesh.
+     */
+    private float[] partials = new float[0];
+
+    /**
+     * The mesh being processed.
+     */
+    private Mesh mesh;
+
+    /**
+     * Creates a new processor.
+     * @param jobs The job system to process on
+     */
+    public MeshProcessor(JobSystem jobs) {
+        this.jobs = jobs;
+    }
+
+    /**
+     * Computes the normals of a mesh by averaging the normals of the triangles around each vertex, weighted by their
+     * area. Vertices without any triangle area get a zero normal.
+     * @param mesh The mesh
+     * @throws CompletionException When a pass fails
+     */
+    public void computeNormals(Mesh mesh) throws CompletionException {
+        this.mesh = mesh;
+
+        try {
+            adjacency.build(mesh.indices, mesh.vertexCount());
+            normals();
+        } finally {
+            this.mesh = null;
+        }
+    }
+
+    /**
+     * Computes the tangents of a mesh from its texture coordinates, orthogonalized against its normals. The normals
+     * are computed first if the mesh does not have them yet.
+     * @param mesh The mesh
+     * @throws IllegalArgumentException When the mesh has no texture coordinates
+     * @throws CompletionException When a pass fails
+     */
+    public void computeTangents(Mesh mesh) throws IllegalArgumentException, CompletionException {
+        if (mesh.uvs == null) throw new IllegalArgumentException("Tangents require texture coordinates.");
+
+        this.mesh = mesh;
+
+        try {
+            adjacency.build(mesh.indices, mesh.vertexCount());
+            if (mesh.normals == null) normals();
+
+            var triangles = mesh.triangleCount();
+            if (faces.length < triangles * FACE_TANGENT) faces = new float[triangles * FACE_TANGENT];
+            if (mesh.tangents == null) mesh.tangents = new float[mesh.vertexCount() * Mesh.TANGENT];
+
+            jobs.parallelFor(0, triangles, GRAIN, faceTangents);
+            jobs.parallelFor(0, mesh.vertexCount(), GRAIN, vertexTangents);
+        } finally {
+            this.mesh = null;
+        }
+    }
+
+    /**
+     * Recomputes the bounds of a mesh from its positions.
+     * @param mesh The mesh
+     * @throws CompletionException When a pass fails
+     */
+    public void computeBounds(Mesh mesh) throws CompletionException {
+        var chunks = (mesh.vertexCount() + GRAIN - 1) / GRAIN;
+
+        if (chunks <= 1) {
+            Mesh.bounds(mesh.positions, 0, mesh.vertexCount(), mesh.bounds, 0);
+            return;
+        }
+
+        if (partials.length < chunks * 6) partials = new float[chunks * 6];
+
+        this.mesh = mesh;
+
+        try {
+            jobs.parallelFor(0, chunks, 1, chunkBounds);
+        } finally {
+            this.mesh = null;
+        }
+
+        var bounds = mesh.bounds;
+        System.arraycopy(partials, 0, bounds, 0, 6);
+
+        for (var c = 1; c < chunks; c++) {
+            for (var i = 0; i < 3; i++) {
+                bounds[i] = Math.min(bounds[i], partials[c * 6 + i]);
+                bounds[i + 3] = Math.max(bounds[i + 3], partials[c * 6 + i + 3]);
+            }
+        }
+    }
+
+    /**
+     * Runs both normal passes over the current mesh, whose adjacency has been built.
+     * @throws CompletionException When a pass fails
+     */
+    private void normals() throws CompletionException {
+        var triangles = mesh.triangleCount();
+        if (faces.length < triangles * Mesh.POSITION) faces = new float[triangles * Mesh.POSITION];
+        if (mesh.normals == null) mesh.normals = new float[mesh.vertexCount() * Mesh.POSITION];
+
+        jobs.parallelFor(0, triangles, GRAIN, faceNormals);
+        jobs.parallelFor(0, mesh.vertexCount(), GRAIN, vertexNormals);
+    }
+
+    /**
+     * Computes the area-weighted normals of a range of triangles, as the cross products of their edges.
+     * @param from The first triangle (inclusive)
+     * @param to The last triangle (exclusive)
+     */
+    private void faceNormals(int from, int to) {
+        var positions = mesh.positions;
+        var indices = mesh.indices;
+        var faces = this.faces;
+
+        for (var t = from; t < to; t++) {
+            var a = indices[t * 3] * Mesh.POSITION;
+            var b = indices[t * 3 + 1] * Mesh.POSITION;
+            var c = indices[t * 3 + 2] * Mesh.POSITION;
+
+            var ux = positions[b] - positions[a];
+            var uy = positions[b + 1] - positions[a + 1];
+            var uz = positions[b + 2] - positions[a + 2];
+            var vx = positions[c] - positions[a];
+            var vy = positions[c + 1] - positions[a + 1];
+            var vz = positions[c + 2] - positions[a + 2];
+
+            faces[t * 3] = uy * vz - uz * vy;
+            faces[t * 3 + 1] = uz * vx - ux * vz;
+            faces[t * 3 + 2] = ux * vy - uy * vx;
+        }
+    }
+
+    /**
+     * Computes the normals of a range of vertices by summing the normals of their triangles.
+     * @param from The first vertex (inclusive)
+     * @param to The last vertex (exclusive)
+     */
+    private void vertexNormals(int from, int to) {
+        var offsets = adjacency.offsets;
+        var adjacent = adjacency.triangles;
+        var normals = mesh.normals;
+        var faces = this.faces;
+
+        for (var v = from; v < to; v++) {
+            var x = 0f;
+            var y = 0f;
+            var z = 0f;
+
+            for (var j = offsets[v]; j < offsets[v + 1]; j++) {
+                var t = adjacent[j] * 3;
+
+                x += faces[t];
+                y += faces[t + 1];
+                z += faces[t + 2];
+            }
+
+            var length = (float) Math.sqrt(x * x + y * y + z * z);
+            var scale = length > 0 ? 1 / length : 0;
+
+            normals[v * 3] = x * scale;
+            normals[v * 3 + 1] = y * scale;
+            normals[v * 3 + 2] = z * scale;
+        }
+    }
+
+    /**
+     * Computes the directions of increasing texture U and V over a range of triangles. Triangles whose texture
+     * coordinates are degenerate contribute nothing.
+     * @param from The first triangle (inclusive)
+     * @param to The last triangle (exclusive)
+     */
+    private void faceTangents(int from, int to) {
+        var positions = mesh.positions;
+        var uvs = mesh.uvs;
+        var indices = mesh.indices;
+        var faces = this.faces;
+
+        for (var t = from; t < to; t++) {
+            var a = indices[t * 3];
+            var b = indices[t * 3 + 1];
+            var c = indices[t * 3 + 2];
+            var o = t * FACE_TANGENT;
+
+            var ex = positions[b * 3] - positions[a * 3];
+            var ey = positions[b * 3 + 1] - positions[a * 3 + 1];
+            var ez = positions[b * 3 + 2] - positions[a * 3 + 2];
+            var fx = positions[c * 3] - positions[a * 3];
+            var fy = positions[c * 3 + 1] - positions[a * 3 + 1];
+            var fz = positions[c * 3 + 2] - positions[a * 3 + 2];
+
+            var du1 = uvs[b * 2] - uvs[a * 2];
+            var dv1 = uvs[b * 2 + 1] - uvs[a * 2 + 1];
+            var du2 = uvs[c * 2] - uvs[a * 2];
+            var dv2 = uvs[c * 2 + 1] - uvs[a * 2 + 1];
+            var determinant = du1 * dv2 - du2 * dv1;
+
+            if (Math.abs(determinant) < 1e-12f) {
+                for (var i = 0; i < FACE_TANGENT; i++) {
+                    faces[o + i] = 0;
+                }
+
+                continue;
+            }
+
+            var r = 1 / determinant;
+
+            faces[o] = (ex * dv2 - fx * dv1) * r;
+            faces[o + 1] = (ey * dv2 - fy * dv1) * r;
+            faces[o + 2] = (ez * dv2 - fz * dv1) * r;
+            faces[o + 3] = (fx * du1 - ex * du2) * r;
+            faces[o + 4] = (fy * du1 - ey * du2) * r;
+            faces[o + 5] = (fz * du1 - ez * du2) * r;
+        }
+    }
+
+    /**
+     * Computes the tangents of a range of vertices by summing the tangent directions of their triangles and
+     * orthogonalizing the sum against the normal. Vertices without a usable direction get an arbitrary tangent
+     * perpendicular to their normal.
+     * @param from The first vertex (inclusive)
+     * @param to The last vertex (exclusive)
+     */
+    private void vertexTangents(int from, int to) {
+        var offsets = adjacency.offsets;
+        var adjacent = adjacency.triangles;
+        var normals = mesh.normals;
+        var tangents = mesh.tangents;
+        var faces = this.faces;
+
+        for (var v = from; v < to; v++) {
+            var sx = 0f;
+            var sy = 0f;
+            var sz = 0f;
+            var bx = 0f;
+            var by = 0f;
+            var bz = 0f;
+
+            for (var j = offsets[v]; j < offsets[v + 1]; j++) {
+                var o = adjacent[j] * FACE_TANGENT;
+
+                sx += faces[o];
+                sy += faces[o + 1];
+                sz += faces[o + 2];
+                bx += faces[o + 3];
+                by += faces[o + 4];
+                bz += faces[o + 5];
+            }
+
+            var nx = normals[v * 3];
+            var ny = normals[v * 3 + 1];
+            var nz = normals[v * 3 + 2];
+            var d = nx * sx + ny * sy + nz * sz;
+
+            var tx = sx - nx * d;
+            var ty = sy - ny * d;
+            var tz = sz - nz * d;
+            var length = (float) Math.sqrt(tx * tx + ty * ty + tz * tz);
+
+            if (length < 1e-12f) {
+                var alongX = Math.abs(nx) < 0.9f;
+
+                tx = alongX ? 1 - nx * nx : -ny * nx;
+                ty = alongX ? -nx * ny : 1 - ny * ny;
+                tz = alongX ? -nx * nz : -ny * nz;
+                length = (float) Math.sqrt(tx * tx + ty * ty + tz * tz);
+            }
+
+            var scale = length > 0 ? 1 / length : 0;
+            var cx = ny * sz - nz * sy;
+            var cy = nz * sx - nx * sz;
+            var cz = nx * sy - ny * sx;
+
+            tangents[v * 4] = tx * scale;
+            tangents[v * 4 + 1] = ty * scale;
+            tangents[v * 4 + 2] = tz * scale;
+            tangents[v * 4 + 3] = cx * bx + cy * by + cz * bz < 0 ? -1 : 1;
+        }
+    }
+
+    /**
+     * Computes the bounds of a range of chunks of the positions of the current mesh.
+     * @param from The first chunk (inclusive)
+     * @param to The last chunk (exclusive)
+     */
+    private void chunkBounds(int from, int to) {
+        var count = mesh.vertexCount();
+
+        for (var c = from; c < to; c++) {
+            Mesh.bounds(mesh.positions, c * GRAIN, Math.min(count, (c + 1) * GRAIN), partials, c * 6);
+        }
+    }
+}
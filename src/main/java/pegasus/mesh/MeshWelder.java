@@ -0,0 +1,177 @@
+package pegasus.mesh;
+
+import pegasus.metrics.Counter;
+import pegasus.metrics.MetricRegistry;
+
+import java.util.Arrays;
+
+/**
+ * Merges duplicated vertices of a mesh. Every position is snapped to a grid whose cells are as large as the welding
+ * tolerance, and the vertices are hashed by their cell, so welding takes linear time. Vertices in the same cell are
+ * merged when their texture coordinates and normals also match, so that seams and hard edges are kept. Positions
+ * which are closer than the tolerance but fall into neighbouring cells are not merged.
+ * <p>
+ * The merged vertex keeps the attributes of the first vertex of its group, and triangles which collapse because two
+ * of their corners were merged are dropped. Tangents are not kept, as they depend on the connectivity. The number of
+ * removed vertices and triangles is recorded in the {@code mesh.weldedVertices} and {@code mesh.degenerateTriangles}
+ * counters of the global metric registry.
+ */
+public final class MeshWelder {
+    /**
+     * The number of vertices removed by welding.
+     */
+    private static final Counter WELDED = MetricRegistry.global().counter("mesh.weldedVertices");
+
+    /**
+     * The number of triangles removed by welding.
+     */
+    private static final Counter DEGENERATE = MetricRegistry.global().counter("mesh.degenerateTriangles");
+
+    /**
+     * The largest difference of a texture coordinate or normal component for two vertices to be merged.
+     */
+    private static final float ATTRIBUTE_TOLERANCE = 1e-4f;
+
+    /**
+     * Welds the vertices of a mesh.
+     * @param mesh The mesh to weld, which is not modified
+     * @param tolerance The size of the grid cells positions are snapped to
+     * @return The welded mesh
+     * @throws IllegalArgumentException When the tolerance is not positive
+     */
+    public static Mesh weld(Mesh mesh, float tolerance) throws IllegalArgumentException {
+        if (!(tolerance > 0)) throw new IllegalArgumentException("The tolerance must be positive.");
+
+        var count = mesh.vertexCount();
+        var positions = mesh.positions;
+        var uvs = mesh.uvs;
+        var normals = mesh.normals;
+        var scale = 1.0 / tolerance;
+
+        var capacity = Integer.highestOneBit(Math.max(8, count) * 2 - 1) << 1;
+        var mask = capacity - 1;
+        var keys = new long[capacity];
+        var heads = new int[capacity];
+        var next = new int[count];
+        var cells = new long[count * 3];
+        var sources = new int[count];
+        var remap = new int[count];
+        var welded = 0;
+
+        for (var v = 0; v < count; v++) {
+            var o = v * Mesh.POSITION;
+            var cx = Math.round(positions[o] * scale);
+            var cy = Math.round(positions[o + 1] * scale);
+            var cz = Math.round(positions[o + 2] * scale);
+            var key = cx * 0x9E3779B97F4A7C15L ^ cy * 0xC2B2AE3D27D4EB4FL ^ cz * 0x165667B19E3779F9L;
+            var slot = (int) (key ^ (key >>> 32)) & mask;
+
+            while (heads[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+
+            var match = -1;
+            var last = -1;
+
+            for (var w = heads[slot] - 1; w >= 0; w = next[w]) {
+                last = w;
+
+                if (cells[w * 3] != cx || cells[w * 3 + 1] != cy || cells[w * 3 + 2] != cz) continue;
+                if (!matches(uvs, Mesh.UV, sources[w], v) || !matches(normals, Mesh.POSITION, sources[w], v)) continue;
+
+                match = w;
+                break;
+            }
+
+            if (match >= 0) {
+                remap[v] = match;
+                continue;
+            }
+
+            var w = welded++;
+
+            cells[w * 3] = cx;
+            cells[w * 3 + 1] = cy;
+            cells[w * 3 + 2] = cz;
+            sources[w] = v;
+            next[w] = -1;
+            remap[v] = w;
+
+            if (last >= 0) {
+                next[last] = w;
+            } else {
+                keys[slot] = key;
+                heads[slot] = w + 1;
+            }
+        }
+
+        var indices = mesh.indices;
+        var weldedIndices = new int[indices.length];
+        var indexCount = 0;
+
+        for (var i = 0; i < indices.length; i += 3) {
+            var a = remap[indices[i]];
+            var b = remap[indices[i + 1]];
+            var c = remap[indices[i + 2]];
+            if (a == b || b == c || c == a) continue;
+
+            weldedIndices[indexCount++] = a;
+            weldedIndices[indexCount++] = b;
+            weldedIndices[indexCount++] = c;
+        }
+
+        var result = new Mesh(
+                gather(positions, Mesh.POSITION, sources, welded),
+                uvs == null ? null : gather(uvs, Mesh.UV, sources, welded),
+                indexCount == indices.length ? weldedIndices : Arrays.copyOf(weldedIndices, indexCount)
+        );
+
+        if (normals != null) result.normals = gather(normals, Mesh.POSITION, sources, welded);
+
+        WELDED.add(count - welded);
+        DEGENERATE.add((indices.length - indexCount) / 3);
+
+        return result;
+    }
+
+    /**
+     * Returns whether two vertices have matching values in an attribute stream.
+     * @param stream The attribute stream, or {@code null} if the mesh does not have the attribute
+     * @param components The number of components per vertex
+     * @param a The first vertex
+     * @param b The second vertex
+     * @return {@code true} if the values match within {@link #ATTRIBUTE_TOLERANCE}, or the stream is absent
+     */
+    private static boolean matches(float[] stream, int components, int a, int b) {
+        if (stream == null) return true;
+
+        for (var i = 0; i < components; i++) {
+            if (Math.abs(stream[a * components + i] - stream[b * components + i]) > ATTRIBUTE_TOLERANCE) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Copies the values of a set of vertices from an attribute stream into a new stream.
+     * @param stream The attribute stream
+     * @param components The number of components per vertex
+     * @param sources The vertex to copy into each vertex of the new stream
+     * @param count The number of vertices of the new stream
+     * @return The new stream
+     */
+    private static float[] gather(float[] stream, int components, int[] sources, int count) {
+        var result = new float[count * components];
+
+        for (var v = 0; v < count; v++) {
+            System.arraycopy(stream, sources[v] * components, result, v * components, components);
+        }
+
+        return result;
+    }
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private MeshWelder() {}
+}
@@ -0,0 +1,282 @@
+package pegasus.mesh;
+
+import java.util.Arrays;
+
+/**
+ * Reorders the triangles and vertices of a mesh for locality. Triangles are reordered with Forsyth's linear-speed
+ * vertex cache optimization: every vertex is scored by its position in a simulated LRU cache and by the number of
+ * triangles still referencing it, and the next triangle is greedily chosen among those touching a cached vertex as
+ * the one with the highest total score. Vertices are then renumbered in the order the triangles first reference
+ * them, so that vertex fetches stream through the attribute arrays.
+ * <p>
+ * The quality of an ordering is measured by {@link #averageCacheMissRatio(int[], int)}, the number of vertices
+ * transformed per triangle with a FIFO post-transform cache; lower is better, with {@code 0.5} as the ideal for
+ * large regular grids.
+ */
+public final class VertexCacheOptimizer {
+    /**
+     * The size of the simulated cache.
+     */
+    public static final int CACHE_SIZE = 32;
+
+    /**
+     * The exponent of the decay of the score of a vertex with its cache position.
+     */
+    private static final double DECAY_POWER = 1.5;
+
+    /**
+     * The score of the vertices of the last emitted triangle, which is lowered so that the next triangle does not
+     * simply reuse the same edge.
+     */
+    private static final double LAST_TRIANGLE_SCORE = 0.75;
+
+    /**
+     * The scale of the bonus of a vertex with few remaining triangles.
+     */
+    private static final double VALENCE_SCALE = 2;
+
+    /**
+     * The exponent of the bonus of a vertex with few remaining triangles.
+     */
+    private static final double VALENCE_POWER = 0.5;
+
+    /**
+     * The largest number of remaining triangles with a precomputed bonus.
+     */
+    private static final int MAX_VALENCE = 32;
+
+    /**
+     * The score of each cache position.
+     */
+    private static final float[] CACHE_SCORES = new float[CACHE_SIZE];
+
+    /**
+     * The bonus of each number of remaining triangles.
+     */
+    private static final float[] VALENCE_SCORES = new float[MAX_VALENCE + 1];
+
+    static {
+        for (var i = 0; i < CACHE_SIZE; i++) {
+            CACHE_SCORES[i] = i < 3
+                    ? (float) LAST_TRIANGLE_SCORE
+                    : (float) Math.pow(1 - (i - 3) / (double) (CACHE_SIZE - 3), DECAY_POWER);
+        }
+
+        for (var i = 1; i <= MAX_VALENCE; i++) {
+            VALENCE_SCORES[i] = (float) (VALENCE_SCALE * Math.pow(i, -VALENCE_POWER));
+        }
+    }
+
+    /**
+     * Reorders the triangles and then the vertices of a mesh in place.
+     * @param mesh The mesh to optimize
+     */
+    public static void optimize(Mesh mesh) {
+        reorderTriangles(mesh.indices, mesh.vertexCount());
+        reorderVertices(mesh);
+    }
+
+    /**
+     * Reorders the triangles of an index buffer in place for the post-transform vertex cache.
+     * @param indices The triangle indices
+     * @param vertexCount The number of vertices, which must be larger than every index
+     */
+    public static void reorderTriangles(int[] indices, int vertexCount) {
+        var triangleCount = indices.length / 3;
+        if (triangleCount < 2) return;
+
+        var adjacency = new VertexTriangles();
+        adjacency.build(indices, vertexCount);
+
+        var offsets = adjacency.offsets;
+        var adjacent = adjacency.triangles;
+        var live = new int[vertexCount];
+        var positions = new int[vertexCount];
+        var scores = new float[vertexCount];
+
+        for (var v = 0; v < vertexCount; v++) {
+            live[v] = offsets[v + 1] - offsets[v];
+            positions[v] = -1;
+            scores[v] = score(-1, live[v]);
+        }
+
+        var emitted = new boolean[triangleCount];
+        var cache = new int[CACHE_SIZE + 3];
+        var next = new int[CACHE_SIZE + 3];
+        var cacheCount = 0;
+        var output = new int[indices.length];
+        var best = -1;
+        var cursor = 0;
+
+        for (var n = 0; n < triangleCount; n++) {
+            if (best < 0) {
+                while (emitted[cursor]) cursor++;
+                best = cursor;
+            }
+
+            emitted[best] = true;
+            System.arraycopy(indices, best * 3, output, n * 3, 3);
+
+            var count = 0;
+
+            for (var k = 0; k < 3; k++) {
+                var v = indices[best * 3 + k];
+                remove(adjacent, offsets[v], live, v, best);
+
+                if (count == 0 || (next[0] != v && (count == 1 || next[1] != v))) next[count++] = v;
+            }
+
+            for (var i = 0; i < cacheCount; i++) {
+                var v = cache[i];
+                if (v != next[0] && (count < 2 || v != next[1]) && (count < 3 || v != next[2])) next[count++] = v;
+            }
+
+            var swap = cache;
+            cache = next;
+            next = swap;
+            cacheCount = Math.min(count, CACHE_SIZE);
+
+            for (var i = 0; i < count; i++) {
+                var v = cache[i];
+
+                positions[v] = i < CACHE_SIZE ? i : -1;
+                scores[v] = score(positions[v], live[v]);
+            }
+
+            best = -1;
+            var bestScore = -1f;
+
+            for (var i = 0; i < cacheCount; i++) {
+                var v = cache[i];
+
+                for (var j = offsets[v]; j < offsets[v] + live[v]; j++) {
+                    var t = adjacent[j];
+                    var s = scores[indices[t * 3]] + scores[indices[t * 3 + 1]] + scores[indices[t * 3 + 2]];
+                    if (s <= bestScore) continue;
+
+                    best = t;
+                    bestScore = s;
+                }
+            }
+        }
+
+        System.arraycopy(output, 0, indices, 0, indices.length);
+    }
+
+    /**
+     * Renumbers the vertices of a mesh in the order its triangles first reference them. Vertices which are not
+     * referenced by any triangle are moved to the end.
+     * @param mesh The mesh to reorder
+     */
+    public static void reorderVertices(Mesh mesh) {
+        var count = mesh.vertexCount();
+        var indices = mesh.indices;
+        var remap = new int[count];
+        var order = new int[count];
+        var next = 0;
+
+        Arrays.fill(remap, -1);
+
+        for (var i = 0; i < indices.length; i++) {
+            var v = indices[i];
+
+            if (remap[v] < 0) {
+                remap[v] = next;
+                order[next++] = v;
+            }
+
+            indices[i] = remap[v];
+        }
+
+        for (var v = 0; v < count; v++) {
+            if (remap[v] < 0) order[next++] = v;
+        }
+
+        permute(mesh.positions, Mesh.POSITION, order);
+        if (mesh.uvs != null) permute(mesh.uvs, Mesh.UV, order);
+        if (mesh.normals != null) permute(mesh.normals, Mesh.POSITION, order);
+        if (mesh.tangents != null) permute(mesh.tangents, Mesh.TANGENT, order);
+    }
+
+    /**
+     * Returns the average number of vertices transformed per triangle when drawing an index buffer with a FIFO
+     * post-transform vertex cache.
+     * @param indices The triangle indices
+     * @param cacheSize The number of vertices the cache holds
+     * @return The average cache miss ratio, between {@code 0.5} at best and {@code 3} at worst
+     * @throws IllegalArgumentException When the cache size is not positive
+     */
+    public static double averageCacheMissRatio(int[] indices, int cacheSize) throws IllegalArgumentException {
+        if (cacheSize <= 0) throw new IllegalArgumentException("The cache size must be positive.");
+        if (indices.length < 3) return 0;
+
+        var vertexCount = 0;
+
+        for (var index : indices) {
+            vertexCount = Math.max(vertexCount, index + 1);
+        }
+
+        var entered = new int[vertexCount];
+        var misses = 0;
+
+        for (var v : indices) {
+            if (entered[v] > 0 && misses - entered[v] < cacheSize) continue;
+            entered[v] = ++misses;
+        }
+
+        return misses / (double) (indices.length / 3);
+    }
+
+    /**
+     * Returns the score of a vertex.
+     * @param position The position of the vertex in the cache, or {@code -1} if it is not cached
+     * @param live The number of triangles which still reference the vertex
+     * @return The score, or {@code -1} if no triangle references the vertex anymore
+     */
+    private static float score(int position, int live) {
+        if (live == 0) return -1;
+
+        var score = position < 0 ? 0 : CACHE_SCORES[position];
+        return score + VALENCE_SCORES[Math.min(live, MAX_VALENCE)];
+    }
+
+    /**
+     * Removes a triangle from the remaining triangles of a vertex, by swapping it past the end of the live range.
+     * @param adjacent The triangles of every vertex
+     * @param start The offset of the triangles of the vertex
+     * @param live The number of remaining triangles of every vertex
+     * @param v The vertex
+     * @param triangle The triangle to remove
+     */
+    private static void remove(int[] adjacent, int start, int[] live, int v, int triangle) {
+        var end = start + live[v] - 1;
+
+        for (var j = start; j <= end; j++) {
+            if (adjacent[j] != triangle) continue;
+
+            adjacent[j] = adjacent[end];
+            adjacent[end] = triangle;
+            live[v]--;
+            return;
+        }
+    }
+
+    /**
+     * Reorders the values of an attribute stream in place.
+     * @param stream The attribute stream
+     * @param components The number of components per vertex
+     * @param order The old vertex to move to each new position
+     */
+    private static void permute(float[] stream, int components, int[] order) {
+        var copy = stream.clone();
+
+        for (var v = 0; v < order.length; v++) {
+            System.arraycopy(copy, order[v] * components, stream, v * components, components);
+        }
+    }
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private VertexCacheOptimizer() {}
+}
@@ -0,0 +1,51 @@
+package pegasus.mesh;
+
+import java.util.Arrays;
+
+/**
+ * The triangles referencing each vertex of an index buffer, in compressed rows: the triangles of vertex {@code v}
+ * are {@code triangles[offsets[v]]} up to {@code triangles[offsets[v + 1]]}, in ascending order. The arrays are
+ * kept across builds and only grow.
+ */
+final class VertexTriangles {
+    /**
+     * The offset of the first triangle of each vertex, followed by the total number of entries.
+     */
+    int[] offsets = new int[1];
+
+    /**
+     * The triangles of every vertex.
+     */
+    int[] triangles = new int[0];
+
+    /**
+     * Rebuilds the adjacency of an index buffer.
+     * @param indices The triangle indices
+     * @param vertexCount The number of vertices
+     */
+    void build(int[] indices, int vertexCount) {
+        if (offsets.length < vertexCount + 1) offsets = new int[vertexCount + 1];
+        if (triangles.length < indices.length) triangles = new int[indices.length];
+
+        Arrays.fill(offsets, 0, vertexCount + 1, 0);
+
+        for (var index : indices) {
+            offsets[index + 1]++;
+        }
+
+        for (var v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        for (var i = 0; i < indices.length; i++) {
+            var v = indices[i];
+            triangles[offsets[v]++] = i / 3;
+        }
+
+        for (var v = vertexCount; v > 0; v--) {
+            offsets[v] = offsets[v - 1];
+        }
+
+        offsets[0] = 0;
+    }
+}
@@ -0,0 +1,59 @@
+package pegasus.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count. Updates are striped across cells, so many threads can increment a counter
+ * without contending with each other.
+ */
+public final class Counter implements Metric {
+    /**
+     * The name of this counter.
+     */
+    private final String name;
+
+    /**
+     * The count of this counter.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Creates a new counter.
+     * @param name The name of this counter
+     */
+    Counter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Increments this counter by one.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Adds the provided amount to this counter.
+     * @param n The amount to add
+     */
+    public void add(long n) {
+        count.add(n);
+    }
+
+    /**
+     * Returns the current count of this counter.
+     * @return The current count
+     */
+    public long count() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,77 @@
+package pegasus.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * Appends the metrics of a registry to CSV files in a directory, one file per metric.
+ */
+public final class CsvReporter extends PeriodicReporter {
+    /**
+     * The directory the files are written to.
+     */
+    private final Path directory;
+
+    /**
+     * Creates a new reporter.
+     * @param registry The registry to report
+     * @param resetHistograms {@code true} to reset histograms after each report
+     * @param directory The directory to write the files to
+     * @throws IOException When the directory could not be created
+     */
+    public CsvReporter(MetricRegistry registry, boolean resetHistograms, Path directory) throws IOException {
+        super(registry, resetHistograms);
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param timestamp {@inheritDoc}
+     * @param metrics {@inheritDoc}
+     * @throws UncheckedIOException When a file could not be written
+     */
+    @Override
+    protected void report(long timestamp, Collection<Metric> metrics) throws UncheckedIOException {
+        for (var metric : metrics) {
+            if (metric instanceof Counter c) {
+                append(c.name(), "timestamp,count", timestamp + "," + c.count());
+            } else if (metric instanceof Gauge g) {
+                append(g.name(), "timestamp,value", timestamp + "," + g.value());
+            } else if (metric instanceof Histogram h) {
+                var s = h.snapshot();
+                append(h.name(), "timestamp,count,mean,p50,p90,p99,max", timestamp
+                        + "," + s.count()
+                        + "," + s.mean()
+                        + "," + s.percentile(0.5)
+                        + "," + s.percentile(0.9)
+                        + "," + s.percentile(0.99)
+                        + "," + s.max());
+            }
+        }
+    }
+
+    /**
+     * Appends a row to the file of a metric, writing the header first if the file is new.
+     * @param name The name of the metric
+     * @param header The header of the file
+     * @param row The row to append
+     * @throws UncheckedIOException When the file could not be written
+     */
+    private void append(String name, String header, String row) throws UncheckedIOException {
+        var file = directory.resolve(name.replaceAll("[^A-Za-z0-9._-]", "_") + ".csv");
+
+        try {
+            var text = Files.exists(file) ? row + "\n" : header + "\n" + row + "\n";
+            Files.writeString(file, text, StandardCharsets.UTF_8, CREATE, APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
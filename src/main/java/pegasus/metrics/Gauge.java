@@ -0,0 +1,58 @@
+package pegasus.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A metric whose value is either set directly, or sampled from a function each time it is read.
+ */
+public final class Gauge implements Metric {
+    /**
+     * The name of this gauge.
+     */
+    private final String name;
+
+    /**
+     * The function the value is sampled from, or {@code null} if the value is set directly.
+     */
+    private final DoubleSupplier supplier;
+
+    /**
+     * The value of this gauge when it is set directly.
+     */
+    private volatile double value;
+
+    /**
+     * Creates a new gauge.
+     * @param name The name of this gauge
+     * @param supplier The function the value is sampled from, or {@code null} if the value is set directly
+     */
+    Gauge(String name, DoubleSupplier supplier) {
+        this.name = name;
+        this.supplier = supplier;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Sets the value of this gauge. Has no effect on gauges which sample their value from a function.
+     * @param value The value to set to
+     */
+    public void set(double value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the current value of this gauge.
+     * @return The current value
+     */
+    public double value() {
+        return supplier != null ? supplier.getAsDouble() : value;
+    }
+}
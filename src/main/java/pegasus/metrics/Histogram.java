@@ -0,0 +1,309 @@
+package pegasus.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative {@code long} values with log-linear buckets, in the style of HdrHistogram. Every
+ * power-of-two range is split into {@link #SUB_BUCKETS} linear buckets, which bounds the relative error of a
+ * reported percentile to {@code 1 / SUB_BUCKETS}. Values below {@link #SUB_BUCKETS} are recorded exactly.
+ * <p>
+ * Values are counted in a single array of buckets until two threads contend on it, as detected by a failed
+ * compare-and-set. From then on, the counts are striped across several arrays selected by the recording thread, so
+ * many threads can record values without contending on the same cache lines. Like {@link LongAdder}, this only pays
+ * for the stripes of histograms which are actually contended, and only for the stripes which are used.
+ */
+public final class Histogram implements Metric {
+    /**
+     * The base-2 logarithm of {@link #SUB_BUCKETS}.
+     */
+    private static final int SUB_BITS = 5;
+
+    /**
+     * The number of linear buckets per power of two.
+     */
+    public static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /**
+     * The total number of buckets.
+     */
+    static final int BUCKETS = (63 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    /**
+     * The number of stripes.
+     */
+    private static final int STRIPES =
+            Math.min(16, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    /**
+     * Returns the bucket a value is recorded into.
+     * @param value The value, which must not be negative
+     * @return The index of the bucket
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        var shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + ((int) (value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Returns the smallest value recorded into a bucket.
+     * @param bucket The index of the bucket
+     * @return The smallest value of the bucket
+     */
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+
+        var shift = bucket / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * The name of this histogram.
+     */
+    private final String name;
+
+    /**
+     * The bucket counts recorded before any contention.
+     */
+    private final AtomicLongArray base = new AtomicLongArray(BUCKETS);
+
+    /**
+     * The striped bucket counts, each allocated on first use, or {@code null} if no contention has occurred.
+     */
+    private volatile AtomicReferenceArray<AtomicLongArray> stripes;
+
+    /**
+     * The number of recorded values.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * The sum of recorded values.
+     */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * The largest recorded value.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates a new histogram.
+     * @param name The name of this histogram
+     */
+    Histogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Records a value. Negative values are recorded as zero.
+     * @param value The value to record
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+
+        var bucket = bucket(value);
+        var stripes = this.stripes;
+
+        if (stripes == null) {
+            var c = base.get(bucket);
+            if (!base.compareAndSet(bucket, c, c + 1)) stripe(contend()).incrementAndGet(bucket);
+        } else {
+            stripe(stripes).incrementAndGet(bucket);
+        }
+
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Removes every recorded value. Values recorded concurrently with a reset may be partially lost.
+     */
+    public void reset() {
+        clear(base);
+
+        var stripes = this.stripes;
+
+        if (stripes != null) {
+            for (var i = 0; i < STRIPES; i++) {
+                var stripe = stripes.get(i);
+                if (stripe != null) clear(stripe);
+            }
+        }
+
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    /**
+     * Returns a snapshot of the recorded values.
+     * @return A snapshot of this histogram
+     */
+    public Snapshot snapshot() {
+        var counts = new long[BUCKETS];
+        var total = add(base, counts);
+        var stripes = this.stripes;
+
+        if (stripes != null) {
+            for (var i = 0; i < STRIPES; i++) {
+                var stripe = stripes.get(i);
+                if (stripe != null) total += add(stripe, counts);
+            }
+        }
+
+        return new Snapshot(counts, total, sum.sum(), max.get());
+    }
+
+    /**
+     * Returns the striped bucket counts, creating them if no contention has occurred yet.
+     * @return The striped bucket counts
+     */
+    private synchronized AtomicReferenceArray<AtomicLongArray> contend() {
+        if (stripes == null) stripes = new AtomicReferenceArray<>(STRIPES);
+        return stripes;
+    }
+
+    /**
+     * Returns the stripe of the calling thread, allocating it if it has not been used yet.
+     * @param stripes The striped bucket counts
+     * @return The bucket counts of the calling thread
+     */
+    private static AtomicLongArray stripe(AtomicReferenceArray<AtomicLongArray> stripes) {
+        var i = (int) (Thread.currentThread().getId() * 0x9E3779B97F4A7C15L >>> 60) & (STRIPES - 1);
+        var stripe = stripes.get(i);
+        if (stripe != null) return stripe;
+
+        stripes.compareAndSet(i, null, new AtomicLongArray(BUCKETS));
+        return stripes.get(i);
+    }
+
+    /**
+     * Sets every bucket count of an array to zero.
+     * @param counts The bucket counts
+     */
+    private static void clear(AtomicLongArray counts) {
+        for (var i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Adds bucket counts to a snapshot of bucket counts.
+     * @param counts The bucket counts to add
+     * @param dst The snapshot of bucket counts to add to
+     * @return The sum of the added counts
+     */
+    private static long add(AtomicLongArray counts, long[] dst) {
+        var total = 0L;
+
+        for (var i = 0; i < BUCKETS; i++) {
+            var c = counts.get(i);
+
+            dst[i] += c;
+            total += c;
+        }
+
+        return total;
+    }
+
+    /**
+     * A point-in-time copy of the values recorded by a histogram.
+     */
+    public static final class Snapshot {
+        /**
+         * The count of each bucket.
+         */
+        private final long[] counts;
+
+        /**
+         * The number of recorded values.
+         */
+        private final long count;
+
+        /**
+         * The sum of recorded values.
+         */
+        private final long sum;
+
+        /**
+         * The largest recorded value.
+         */
+        private final long max;
+
+        /**
+         * Creates a new snapshot.
+         * @param counts The count of each bucket
+         * @param count The number of recorded values
+         * @param sum The sum of recorded values
+         * @param max The largest recorded value
+         */
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Returns the number of recorded values.
+         * @return The number of recorded values
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Returns the arithmetic mean of the recorded values.
+         * @return The mean, or {@code 0} if no values were recorded
+         */
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Returns the largest recorded value.
+         * @return The largest recorded value
+         */
+        public long max() {
+            return max;
+        }
+
+        /**
+         * Returns an approximation of the provided percentile of the recorded values.
+         * @param percentile The percentile in range {@code [0, 1]}
+         * @return The approximate value at the percentile, or {@code 0} if no values were recorded
+         */
+        public long percentile(double percentile) {
+            if (count == 0) return 0;
+
+            var rank = Math.max(1, (long) Math.ceil(percentile * count));
+            var seen = 0L;
+
+            for (var i = 0; i < counts.length; i++) {
+                seen += counts[i];
+
+                if (seen >= rank) {
+                    var upper = i + 1 < BUCKETS ? lowerBound(i + 1) - 1 : Long.MAX_VALUE;
+                    return Math.min(max, lowerBound(i) + (upper - lowerBound(i)) / 2);
+                }
+            }
+
+            return max;
+        }
+    }
+}
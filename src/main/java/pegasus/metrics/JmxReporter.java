@@ -0,0 +1,104 @@
+package pegasus.metrics;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Exposes every metric of a registry as an MBean of the platform MBean server. Metrics added to the registry later
+ * are exposed as they are added. Each metric is registered under
+ * {@code <domain>:type=<Counter|Gauge|Histogram>,name=<name>}.
+ */
+public final class JmxReporter implements Closeable, MetricRegistry.Listener {
+    /**
+     * Starts exposing the metrics of a registry.
+     * @param registry The registry to expose
+     * @param domain The JMX domain to register the metrics under
+     * @return The started reporter
+     */
+    public static JmxReporter start(MetricRegistry registry, String domain) {
+        var reporter = new JmxReporter(registry, domain);
+        registry.addListener(reporter);
+        return reporter;
+    }
+
+    /**
+     * The registry exposed by this reporter.
+     */
+    private final MetricRegistry registry;
+
+    /**
+     * The JMX domain the metrics are registered under.
+     */
+    private final String domain;
+
+    /**
+     * The MBean server the metrics are registered with.
+     */
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     * @param registry The registry to expose
+     * @param domain The JMX domain to register the metrics under
+     */
+    private JmxReporter(MetricRegistry registry, String domain) {
+        this.registry = registry;
+        this.domain = domain;
+    }
+
+    /**
+     * Registers the MBean of an added metric.
+     * @param metric The added metric
+     * @throws IllegalStateException When the MBean could not be registered
+     */
+    @Override
+    public void added(Metric metric) throws IllegalStateException {
+        try {
+            var name = objectName(metric);
+
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(new MetricMBean(metric), name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register the metric " + metric.name() + ".", e);
+        }
+    }
+
+    /**
+     * Unregisters the MBean of a removed metric.
+     * @param metric The removed metric
+     */
+    @Override
+    public void removed(Metric metric) {
+        try {
+            server.unregisterMBean(objectName(metric));
+        } catch (InstanceNotFoundException ignored) {
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister the metric " + metric.name() + ".", e);
+        }
+    }
+
+    /**
+     * Stops exposing the metrics, and unregisters every MBean of this reporter.
+     */
+    @Override
+    public void close() {
+        registry.removeListener(this);
+        registry.metrics().forEach(this::removed);
+    }
+
+    /**
+     * Returns the object name of a metric.
+     * @param metric The metric
+     * @return The object name of the metric
+     * @throws MalformedObjectNameException When the name of the metric cannot be used in an object name
+     */
+    private ObjectName objectName(Metric metric) throws MalformedObjectNameException {
+        var type = metric.getClass().getSimpleName();
+        return new ObjectName(domain + ":type=" + type + ",name=" + ObjectName.quote(metric.name()));
+    }
+}
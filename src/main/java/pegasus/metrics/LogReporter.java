@@ -0,0 +1,54 @@
+package pegasus.metrics;
+
+import java.util.Collection;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the metrics of a registry to a {@link Logger}, one line per metric.
+ */
+public final class LogReporter extends PeriodicReporter {
+    /**
+     * The logger to write to.
+     */
+    private final Logger logger;
+
+    /**
+     * Creates a new reporter which writes to the {@code pegasus.metrics} logger.
+     * @param registry The registry to report
+     * @param resetHistograms {@code true} to reset histograms after each report
+     */
+    public LogReporter(MetricRegistry registry, boolean resetHistograms) {
+        this(registry, resetHistograms, Logger.getLogger("pegasus.metrics"));
+    }
+
+    /**
+     * Creates a new reporter.
+     * @param registry The registry to report
+     * @param resetHistograms {@code true} to reset histograms after each report
+     * @param logger The logger to write to
+     */
+    public LogReporter(MetricRegistry registry, boolean resetHistograms, Logger logger) {
+        super(registry, resetHistograms);
+        this.logger = logger;
+    }
+
+    @Override
+    protected void report(long timestamp, Collection<Metric> metrics) {
+        if (!logger.isLoggable(Level.INFO)) return;
+
+        for (var metric : metrics) {
+            if (metric instanceof Counter c) {
+                logger.info(c.name() + " count=" + c.count());
+            } else if (metric instanceof Gauge g) {
+                logger.info(g.name() + " value=" + g.value());
+            } else if (metric instanceof Histogram h) {
+                var s = h.snapshot();
+                logger.info(String.format(
+                        "%s count=%d mean=%.1f p50=%d p99=%d max=%d",
+                        h.name(), s.count(), s.mean(), s.percentile(0.5), s.percentile(0.99), s.max()
+                ));
+            }
+        }
+    }
+}
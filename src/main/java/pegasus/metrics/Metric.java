@@ -0,0 +1,12 @@
+package pegasus.metrics;
+
+/**
+ * A named measurement held by a {@link MetricRegistry}.
+ */
+public interface Metric {
+    /**
+     * Returns the name of this metric.
+     * @return The name of this metric
+     */
+    String name();
+}
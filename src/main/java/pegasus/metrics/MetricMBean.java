@@ -0,0 +1,108 @@
+package pegasus.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.ReflectionException;
+
+/**
+ * Exposes a single metric as a read-only JMX MBean.
+ */
+final class MetricMBean implements DynamicMBean {
+    /**
+     * The attribute names of a histogram.
+     */
+    private static final String[] HISTOGRAM_ATTRIBUTES = {"Count", "Mean", "P50", "P90", "P99", "P999", "Max"};
+
+    /**
+     * The metric exposed by this MBean.
+     */
+    private final Metric metric;
+
+    /**
+     * The attribute names of this MBean.
+     */
+    private final String[] attributes;
+
+    /**
+     * Creates a new MBean.
+     * @param metric The metric to expose
+     */
+    MetricMBean(Metric metric) {
+        this.metric = metric;
+
+        if (metric instanceof Counter) {
+            this.attributes = new String[] {"Count"};
+        } else if (metric instanceof Gauge) {
+            this.attributes = new String[] {"Value"};
+        } else {
+            this.attributes = HISTOGRAM_ATTRIBUTES;
+        }
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        if (metric instanceof Counter c && attribute.equals("Count")) return c.count();
+        if (metric instanceof Gauge g && attribute.equals("Value")) return g.value();
+
+        if (metric instanceof Histogram h) {
+            var s = h.snapshot();
+
+            switch (attribute) {
+                case "Count": return s.count();
+                case "Mean": return s.mean();
+                case "P50": return s.percentile(0.5);
+                case "P90": return s.percentile(0.9);
+                case "P99": return s.percentile(0.99);
+                case "P999": return s.percentile(0.999);
+                case "Max": return s.max();
+            }
+        }
+
+        throw new AttributeNotFoundException(attribute);
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("The attributes of a metric are read-only.");
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        var list = new AttributeList();
+
+        for (var name : attributes) {
+            try {
+                list.add(new Attribute(name, getAttribute(name)));
+            } catch (AttributeNotFoundException ignored) {
+            }
+        }
+
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        var infos = new MBeanAttributeInfo[attributes.length];
+
+        for (var i = 0; i < attributes.length; i++) {
+            var type = attributes[i].equals("Mean") || attributes[i].equals("Value") ? "double" : "long";
+            infos[i] = new MBeanAttributeInfo(attributes[i], type, attributes[i], true, false, false);
+        }
+
+        return new MBeanInfo(getClass().getName(), metric.name(), infos, null, null, null);
+    }
+}
@@ -0,0 +1,199 @@
+package pegasus.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A thread-safe collection of named metrics. Metrics are created on first request and shared by every caller
+ * which requests the same name afterwards.
+ */
+public final class MetricRegistry {
+    /**
+     * The registry shared by the engine subsystems.
+     */
+    private static final MetricRegistry GLOBAL = new MetricRegistry();
+
+    /**
+     * Returns the registry shared by the engine subsystems.
+     * @return The global registry
+     */
+    public static MetricRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * The metrics of this registry, sorted by name.
+     */
+    private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    /**
+     * The listeners notified of added and removed metrics.
+     */
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Returns the counter with the provided name, creating it if it does not exist.
+     * @param name The name of the counter
+     * @return The counter
+     * @throws IllegalArgumentException When a metric of another type has the provided name
+     */
+    public Counter counter(String name) throws IllegalArgumentException {
+        return get(name, Counter.class);
+    }
+
+    /**
+     * Returns the gauge with the provided name, creating a directly set gauge if it does not exist.
+     * @param name The name of the gauge
+     * @return The gauge
+     * @throws IllegalArgumentException When a metric of another type has the provided name
+     */
+    public Gauge gauge(String name) throws IllegalArgumentException {
+        return get(name, Gauge.class);
+    }
+
+    /**
+     * Registers a gauge which samples its value from the provided function, replacing any existing gauge with
+     * the same name.
+     * @param name The name of the gauge
+     * @param supplier The function to sample the value from
+     * @return The registered gauge
+     * @throws IllegalArgumentException When a metric of another type has the provided name
+     */
+    public Gauge gauge(String name, DoubleSupplier supplier) throws IllegalArgumentException {
+        var gauge = new Gauge(name, supplier);
+        var previous = metrics.put(name, gauge);
+
+        if (previous != null && !(previous instanceof Gauge)) {
+            metrics.put(name, previous);
+            throw new IllegalArgumentException("A metric of another type is named " + name + ".");
+        }
+
+        if (previous != null) listeners.forEach(l -> l.removed(previous));
+        listeners.forEach(l -> l.added(gauge));
+
+        return gauge;
+    }
+
+    /**
+     * Returns the histogram with the provided name, creating it if it does not exist.
+     * @param name The name of the histogram
+     * @return The histogram
+     * @throws IllegalArgumentException When a metric of another type has the provided name
+     */
+    public Histogram histogram(String name) throws IllegalArgumentException {
+        return get(name, Histogram.class);
+    }
+
+    /**
+     * Removes a metric.
+     * @param name The name of the metric
+     * @return {@code true} if a metric was removed
+     */
+    public boolean remove(String name) {
+        var metric = metrics.remove(name);
+        if (metric == null) return false;
+
+        listeners.forEach(l -> l.removed(metric));
+        return true;
+    }
+
+    /**
+     * Removes a metric, unless another metric has replaced it under the same name.
+     * @param metric The metric
+     * @return {@code true} if the metric was removed
+     */
+    public boolean remove(Metric metric) {
+        if (!metrics.remove(metric.name(), metric)) return false;
+
+        listeners.forEach(l -> l.removed(metric));
+        return true;
+    }
+
+    /**
+     * Returns a copy of the metrics of this registry, sorted by name.
+     * @return The metrics of this registry
+     */
+    public Collection<Metric> metrics() {
+        return Collections.unmodifiableList(new ArrayList<>(metrics.values()));
+    }
+
+    /**
+     * Adds a listener, and notifies it of every metric which is already registered.
+     * @param listener The listener to add
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+        metrics.values().forEach(listener::added);
+    }
+
+    /**
+     * Removes a listener.
+     * @param listener The listener to remove
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the metric with the provided name, creating it if it does not exist.
+     * @param name The name of the metric
+     * @param type The type of the metric
+     * @return The metric
+     * @param <M> The type of the metric
+     * @throws IllegalArgumentException When a metric of another type has the provided name
+     */
+    private <M extends Metric> M get(String name, Class<M> type) throws IllegalArgumentException {
+        var metric = metrics.get(name);
+
+        if (metric == null) {
+            var created = create(name, type);
+            metric = metrics.putIfAbsent(name, created);
+
+            if (metric == null) {
+                listeners.forEach(l -> l.added(created));
+                metric = created;
+            }
+        }
+
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("A metric of another type is named " + name + ".");
+        }
+
+        return type.cast(metric);
+    }
+
+    /**
+     * Creates a new metric of the provided type.
+     * @param name The name of the metric
+     * @param type The type of the metric
+     * @return The created metric
+     */
+    private static Metric create(String name, Class<? extends Metric> type) {
+        if (type == Counter.class) return new Counter(name);
+        if (type == Gauge.class) return new Gauge(name, null);
+        return new Histogram(name);
+    }
+
+    /**
+     * Receives notifications when metrics are added to or removed from a registry.
+     */
+    public interface Listener {
+        /**
+         * Called when a metric is added.
+         * @param metric The added metric
+         */
+        void added(Metric metric);
+
+        /**
+         * Called when a metric is removed.
+         * @param metric The removed metric
+         */
+        void removed(Metric metric);
+    }
+}
@@ -0,0 +1,87 @@
+package pegasus.metrics;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A reporter which writes the metrics of a registry at a fixed interval on a background thread.
+ */
+public abstract class PeriodicReporter implements Closeable {
+    /**
+     * The registry reported by this reporter.
+     */
+    private final MetricRegistry registry;
+
+    /**
+     * Whether histograms are reset after each report, so each report covers only its own interval.
+     */
+    private final boolean resetHistograms;
+
+    /**
+     * The executor which runs the reports.
+     */
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        var thread = new Thread(r, "Metrics Reporter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates a new reporter.
+     * @param registry The registry to report
+     * @param resetHistograms {@code true} to reset histograms after each report
+     */
+    protected PeriodicReporter(MetricRegistry registry, boolean resetHistograms) {
+        this.registry = registry;
+        this.resetHistograms = resetHistograms;
+    }
+
+    /**
+     * Starts reporting at the provided interval.
+     * @param period The interval between reports
+     * @param unit The unit of the interval
+     */
+    public void start(long period, TimeUnit unit) {
+        executor.scheduleAtFixedRate(this::reportNow, period, period, unit);
+    }
+
+    /**
+     * Reports the current values of every metric immediately on the calling thread.
+     */
+    public void reportNow() {
+        var metrics = registry.metrics();
+        report(System.currentTimeMillis(), metrics);
+
+        if (!resetHistograms) return;
+
+        for (var metric : metrics) {
+            if (metric instanceof Histogram h) h.reset();
+        }
+    }
+
+    /**
+     * Stops reporting, and writes a final report.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        reportNow();
+    }
+
+    /**
+     * Writes a report.
+     * @param timestamp The time of the report in milliseconds since the epoch
+     * @param metrics The metrics to report
+     */
+    protected abstract void report(long timestamp, Collection<Metric> metrics);
+}
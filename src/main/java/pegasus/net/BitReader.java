@@ -0,0 +1,86 @@
+package pegasus.net;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads values packed by a {@link BitWriter}.
+ */
+public final class BitReader {
+    /**
+     * The buffer to read from.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The bits which have been read from the buffer but not yet consumed.
+     */
+    private long scratch;
+
+    /**
+     * The number of bits in {@link #scratch}.
+     */
+    private int scratchBits;
+
+    /**
+     * Creates a new reader which consumes the remaining bytes of the provided buffer.
+     * @param buffer The buffer to read from
+     */
+    public BitReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Reads a value of the provided bit width.
+     * @param bits The number of bits to read in range {@code [0, 64]}
+     * @return The value read
+     * @throws BufferUnderflowException When the buffer does not have enough bits remaining
+     */
+    public long read(int bits) throws BufferUnderflowException {
+        if (bits > 32) {
+            var low = read(32);
+            return low | (read(bits - 32) << 32);
+        }
+
+        if (bits == 0) return 0;
+
+        while (scratchBits < bits) {
+            scratch |= (buffer.get() & 0xFFL) << scratchBits;
+            scratchBits += 8;
+        }
+
+        var value = scratch & ((1L << bits) - 1);
+        scratch >>>= bits;
+        scratchBits -= bits;
+
+        return value;
+    }
+
+    /**
+     * Reads a single bit.
+     * @return The bit read
+     * @throws BufferUnderflowException When the buffer does not have enough bits remaining
+     */
+    public boolean readBoolean() throws BufferUnderflowException {
+        return read(1) != 0;
+    }
+
+    /**
+     * Reads an unsigned value written by {@link BitWriter#writeVarLong(long)}.
+     * @return The value read
+     * @throws BufferUnderflowException When the buffer does not have enough bits remaining
+     */
+    public long readVarLong() throws BufferUnderflowException {
+        return read(BitWriter.VAR_WIDTHS[(int) read(2)]);
+    }
+
+    /**
+     * Reads a signed value written by {@link BitWriter#writeZigZag(long)}.
+     * @return The value read
+     * @throws BufferUnderflowException When the buffer does not have enough bits remaining
+     */
+    public long readZigZag() throws BufferUnderflowException {
+        var value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
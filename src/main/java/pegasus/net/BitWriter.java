@@ -0,0 +1,126 @@
+package pegasus.net;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Packs values of arbitrary bit widths into a reusable byte array. Bits are written least significant first.
+ */
+public final class BitWriter {
+    /**
+     * The bit widths of the size classes used by {@link #writeVarLong(long)}.
+     */
+    static final int[] VAR_WIDTHS = {6, 12, 24, 64};
+
+    /**
+     * The bytes written so far.
+     */
+    private byte[] bytes;
+
+    /**
+     * The number of complete bytes written.
+     */
+    private int length;
+
+    /**
+     * The bits which have not yet been written as a complete byte.
+     */
+    private long scratch;
+
+    /**
+     * The number of bits in {@link #scratch}.
+     */
+    private int scratchBits;
+
+    /**
+     * Creates a new writer.
+     * @param capacity The initial capacity in bytes
+     */
+    public BitWriter(int capacity) {
+        this.bytes = new byte[Math.max(capacity, 8)];
+    }
+
+    /**
+     * Discards everything written so far, keeping the allocated capacity.
+     */
+    public void reset() {
+        length = 0;
+        scratch = 0;
+        scratchBits = 0;
+    }
+
+    /**
+     * Writes the lowest {@code bits} bits of a value.
+     * @param value The value to write
+     * @param bits The number of bits to write in range {@code [0, 64]}
+     */
+    public void write(long value, int bits) {
+        if (bits > 32) {
+            write(value, 32);
+            write(value >>> 32, bits - 32);
+            return;
+        }
+
+        if (bits == 0) return;
+
+        scratch |= (value & ((1L << bits) - 1)) << scratchBits;
+        scratchBits += bits;
+
+        while (scratchBits >= 8) {
+            if (length == bytes.length) bytes = Arrays.copyOf(bytes, bytes.length * 2);
+
+            bytes[length++] = (byte) scratch;
+            scratch >>>= 8;
+            scratchBits -= 8;
+        }
+    }
+
+    /**
+     * Writes a single bit.
+     * @param value The bit to write
+     */
+    public void writeBoolean(boolean value) {
+        write(value ? 1 : 0, 1);
+    }
+
+    /**
+     * Writes an unsigned value using a two-bit size class followed by the value, so small values take few bits.
+     * @param value The unsigned value to write
+     */
+    public void writeVarLong(long value) {
+        var sizeClass = 0;
+
+        while (sizeClass < VAR_WIDTHS.length - 1 && (value >>> VAR_WIDTHS[sizeClass]) != 0) {
+            sizeClass++;
+        }
+
+        write(sizeClass, 2);
+        write(value, VAR_WIDTHS[sizeClass]);
+    }
+
+    /**
+     * Writes a signed value using zigzag encoding and {@link #writeVarLong(long)}.
+     * @param value The signed value to write
+     */
+    public void writeZigZag(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Returns the number of bits written so far.
+     * @return The number of bits written
+     */
+    public long bitLength() {
+        return (long) length * 8 + scratchBits;
+    }
+
+    /**
+     * Pads the written bits to a whole byte, and returns a buffer viewing the written bytes. The returned buffer
+     * is only valid until this writer is next modified.
+     * @return A buffer viewing the written bytes
+     */
+    public ByteBuffer flip() {
+        if (scratchBits > 0) write(0, 8 - scratchBits);
+        return ByteBuffer.wrap(bytes, 0, length);
+    }
+}
@@ -0,0 +1,112 @@
+package pegasus.net;
+
+import pegasus.number.Quaternion;
+import pegasus.number.Vector3;
+
+/**
+ * The replicated state of a fixed number of entity slots. Each active slot holds a position and an orientation,
+ * stored in packed arrays.
+ */
+public final class EntityStates {
+    /**
+     * Whether each slot is active.
+     */
+    final boolean[] active;
+
+    /**
+     * The packed positions of each slot in {@code x, y, z} order.
+     */
+    final double[] positions;
+
+    /**
+     * The packed orientations of each slot in {@code w, x, y, z} order.
+     */
+    final double[] rotations;
+
+    /**
+     * Creates a new set of states where every slot is inactive.
+     * @param capacity The number of slots
+     */
+    public EntityStates(int capacity) {
+        this.active = new boolean[capacity];
+        this.positions = new double[capacity * 3];
+        this.rotations = new double[capacity * 4];
+    }
+
+    /**
+     * Returns the number of slots.
+     * @return The number of slots
+     */
+    public int capacity() {
+        return active.length;
+    }
+
+    /**
+     * Returns whether a slot is active.
+     * @param slot The index of the slot
+     * @return {@code true} if the slot is active
+     */
+    public boolean isActive(int slot) {
+        return active[slot];
+    }
+
+    /**
+     * Activates a slot and assigns its state.
+     * @param slot The index of the slot
+     * @param position The position of the entity
+     * @param rotation The orientation of the entity, which must be normalized
+     */
+    public void set(int slot, Vector3 position, Quaternion rotation) {
+        set(slot, position.x, position.y, position.z, rotation.w, rotation.x, rotation.y, rotation.z);
+    }
+
+    /**
+     * Activates a slot and assigns its state.
+     * @param slot The index of the slot
+     * @param px The X coordinate of the position
+     * @param py The Y coordinate of the position
+     * @param pz The Z coordinate of the position
+     * @param rw The W component of the orientation
+     * @param rx The X component of the orientation
+     * @param ry The Y component of the orientation
+     * @param rz The Z component of the orientation
+     */
+    public void set(int slot, double px, double py, double pz, double rw, double rx, double ry, double rz) {
+        active[slot] = true;
+
+        positions[slot * 3] = px;
+        positions[slot * 3 + 1] = py;
+        positions[slot * 3 + 2] = pz;
+
+        rotations[slot * 4] = rw;
+        rotations[slot * 4 + 1] = rx;
+        rotations[slot * 4 + 2] = ry;
+        rotations[slot * 4 + 3] = rz;
+    }
+
+    /**
+     * Deactivates a slot.
+     * @param slot The index of the slot
+     */
+    public void remove(int slot) {
+        active[slot] = false;
+    }
+
+    /**
+     * Returns the position of a slot.
+     * @param slot The index of the slot
+     * @return The position of the slot
+     */
+    public Vector3 position(int slot) {
+        return new Vector3(positions[slot * 3], positions[slot * 3 + 1], positions[slot * 3 + 2]);
+    }
+
+    /**
+     * Returns the orientation of a slot.
+     * @param slot The index of the slot
+     * @return The orientation of the slot
+     */
+    public Quaternion rotation(int slot) {
+        return new Quaternion(rotations[slot * 4], rotations[slot * 4 + 1], rotations[slot * 4 + 2], rotations[slot * 4 + 3]);
+    }
+}
@@ -0,0 +1,65 @@
+package pegasus.net;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-memory transport which delivers every sent packet back to its own receiving side. Keeps statistics of
+ * the traffic it has carried, which makes it suitable for tests and bandwidth measurements.
+ */
+public final class LoopbackTransport implements Transport {
+    /**
+     * The packets which have been sent but not yet received.
+     */
+    private final ConcurrentLinkedQueue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The total number of bytes sent.
+     */
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    /**
+     * The total number of packets sent.
+     */
+    private final AtomicLong packetsSent = new AtomicLong();
+
+    /**
+     * {@inheritDoc}
+     * @param packet The packet to send
+     */
+    @Override
+    public void send(ByteBuffer packet) {
+        var copy = ByteBuffer.allocate(packet.remaining());
+        copy.put(packet.duplicate()).flip();
+
+        queue.add(copy);
+        bytesSent.addAndGet(copy.remaining());
+        packetsSent.incrementAndGet();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public ByteBuffer receive() {
+        return queue.poll();
+    }
+
+    /**
+     * Returns the total number of bytes sent through this transport.
+     * @return The total number of bytes sent
+     */
+    public long bytesSent() {
+        return bytesSent.get();
+    }
+
+    /**
+     * Returns the total number of packets sent through this transport.
+     * @return The total number of packets sent
+     */
+    public long packetsSent() {
+        return packetsSent.get();
+    }
+}
@@ -0,0 +1,83 @@
+package pegasus.net;
+
+import pegasus.number.SmallestThree;
+
+import java.util.Arrays;
+
+/**
+ * The quantized state of every entity slot at one sequence number.
+ */
+final class QuantizedFrame {
+    /**
+     * The sequence number of this frame, or {@code -1} if this frame holds no state.
+     */
+    int sequence = -1;
+
+    /**
+     * Whether each slot is active.
+     */
+    final boolean[] active;
+
+    /**
+     * The quantized positions of each slot in {@code x, y, z} order.
+     */
+    final long[] positions;
+
+    /**
+     * The smallest-three encoded orientations of each slot.
+     */
+    final long[] rotations;
+
+    /**
+     * Creates a new frame where every slot is inactive.
+     * @param capacity The number of slots
+     */
+    QuantizedFrame(int capacity) {
+        this.active = new boolean[capacity];
+        this.positions = new long[capacity * 3];
+        this.rotations = new long[capacity];
+    }
+
+    /**
+     * Quantizes the provided states into this frame.
+     * @param states The states to quantize
+     * @param inversePrecision The reciprocal of the position precision
+     * @param rotationBits The number of bits per orientation component
+     */
+    void quantize(EntityStates states, double inversePrecision, int rotationBits) {
+        for (var i = 0; i < active.length; i++) {
+            active[i] = states.active[i];
+            if (!active[i]) continue;
+
+            for (var j = i * 3; j < i * 3 + 3; j++) {
+                positions[j] = Math.round(states.positions[j] * inversePrecision);
+            }
+
+            var r = i * 4;
+            rotations[i] = SmallestThree.encode(
+                    states.rotations[r],
+                    states.rotations[r + 1],
+                    states.rotations[r + 2],
+                    states.rotations[r + 3],
+                    rotationBits
+            );
+        }
+    }
+
+    /**
+     * Copies the state of another frame into this frame.
+     * @param other The frame to copy
+     */
+    void copy(QuantizedFrame other) {
+        System.arraycopy(other.active, 0, active, 0, active.length);
+        System.arraycopy(other.positions, 0, positions, 0, positions.length);
+        System.arraycopy(other.rotations, 0, rotations, 0, rotations.length);
+    }
+
+    /**
+     * Deactivates every slot of this frame.
+     */
+    void clear() {
+        Arrays.fill(active, false);
+    }
+}
@@ -0,0 +1,134 @@
+package pegasus.net;
+
+import pegasus.number.SmallestThree;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes packets produced by a {@link ReplicationEncoder} on the receiving side. The decoder must be created with
+ * the same capacity, precision and rotation bits as the encoder.
+ */
+public final class ReplicationDecoder {
+    /**
+     * The decoded frames indexed by their sequence number modulo {@link ReplicationEncoder#HISTORY}.
+     */
+    private final QuantizedFrame[] history = new QuantizedFrame[ReplicationEncoder.HISTORY];
+
+    /**
+     * The frame with every slot inactive.
+     */
+    private final QuantizedFrame empty;
+
+    /**
+     * The position precision.
+     */
+    private final double precision;
+
+    /**
+     * The number of bits per orientation component.
+     */
+    private final int rotationBits;
+
+    /**
+     * The sequence number of the most recently decoded packet.
+     */
+    private int latest = ReplicationEncoder.NO_BASELINE;
+
+    /**
+     * Creates a new decoder.
+     * @param capacity The number of entity slots
+     * @param precision The position precision of the encoder
+     * @param rotationBits The number of bits per orientation component of the encoder
+     */
+    public ReplicationDecoder(int capacity, double precision, int rotationBits) {
+        for (var i = 0; i < history.length; i++) {
+            history[i] = new QuantizedFrame(capacity);
+        }
+
+        this.empty = new QuantizedFrame(capacity);
+        this.precision = precision;
+        this.rotationBits = rotationBits;
+    }
+
+    /**
+     * Decodes every pending packet of a transport.
+     * @param transport The transport to receive packets from
+     * @param out The states to write the newest decoded state into
+     * @return The sequence number of the newest decoded packet, or {@code -1} if no packet was decoded
+     * @throws IllegalStateException When a packet refers to a baseline which is no longer available
+     */
+    public int receive(Transport transport, EntityStates out) throws IllegalStateException {
+        var result = ReplicationEncoder.NO_BASELINE;
+
+        for (var packet = transport.receive(); packet != null; packet = transport.receive()) {
+            var sequence = decode(packet, out);
+            if (sequence != ReplicationEncoder.NO_BASELINE) result = sequence;
+        }
+
+        return result;
+    }
+
+    /**
+     * Decodes a packet. Packets older than the newest decoded packet are ignored.
+     * @param packet The packet to decode
+     * @param out The states to write the decoded state into
+     * @return The sequence number of the packet, or {@code -1} if the packet was ignored
+     * @throws IllegalStateException When the packet refers to a baseline which is no longer available
+     */
+    public int decode(ByteBuffer packet, EntityStates out) throws IllegalStateException {
+        var reader = new BitReader(packet);
+        var sequence = (int) reader.read(32);
+        var baselineSequence = (int) reader.read(32);
+
+        if (sequence <= latest) return ReplicationEncoder.NO_BASELINE;
+
+        var baseline = empty;
+
+        if (baselineSequence != ReplicationEncoder.NO_BASELINE) {
+            baseline = history[baselineSequence % history.length];
+
+            if (baseline.sequence != baselineSequence) {
+                throw new IllegalStateException("The baseline of the packet is no longer available.");
+            }
+        }
+
+        var frame = history[sequence % history.length];
+        frame.copy(baseline);
+        frame.sequence = sequence;
+
+        var count = (int) reader.readVarLong();
+        var rotationLength = SmallestThree.encodedBits(rotationBits);
+        var i = -1;
+
+        for (var c = 0; c < count; c++) {
+            i += (int) reader.readVarLong() + 1;
+
+            var wasActive = baseline.active[i];
+            frame.active[i] = reader.readBoolean();
+
+            if (!frame.active[i]) continue;
+
+            if (reader.readBoolean()) {
+                for (var j = i * 3; j < i * 3 + 3; j++) {
+                    frame.positions[j] = (wasActive ? baseline.positions[j] : 0) + reader.readZigZag();
+                }
+            }
+
+            if (reader.readBoolean()) frame.rotations[i] = reader.read(rotationLength);
+        }
+
+        for (var s = 0; s < frame.active.length; s++) {
+            out.active[s] = frame.active[s];
+            if (!frame.active[s]) continue;
+
+            for (var j = s * 3; j < s * 3 + 3; j++) {
+                out.positions[j] = frame.positions[j] * precision;
+            }
+
+            SmallestThree.decode(frame.rotations[s], rotationBits, out.rotations, s * 4);
+        }
+
+        latest = sequence;
+        return sequence;
+    }
+}
@@ -0,0 +1,237 @@
+package pegasus.net;
+
+import pegasus.metrics.Counter;
+import pegasus.metrics.Histogram;
+import pegasus.metrics.MetricRegistry;
+import pegasus.number.SmallestThree;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes consecutive {@link EntityStates} into delta-compressed packets on the authoritative side.
+ * <p>
+ * Positions are quantized to a fixed precision and orientations are encoded with {@link SmallestThree}. Each
+ * packet is diffed against the most recent frame {@link #acknowledge(int) acknowledged} by the receiver, and only
+ * the slots and fields which changed since that frame are bit-packed into it. When no acknowledged frame is
+ * available, the packet is diffed against an empty frame and can be decoded on its own.
+ */
+public final class ReplicationEncoder {
+    /**
+     * The number of changed slots written into each packet.
+     */
+    private static final Histogram CHANGED_ENTITIES = MetricRegistry.global().histogram("replication.changedEntities");
+
+    /**
+     * The total number of bytes encoded.
+     */
+    private static final Counter BYTES = MetricRegistry.global().counter("replication.bytes");
+
+    /**
+     * The number of past frames kept as potential baselines.
+     */
+    static final int HISTORY = 32;
+
+    /**
+     * The baseline sequence number which denotes an empty baseline.
+     */
+    static final int NO_BASELINE = -1;
+
+    /**
+     * The past frames indexed by their sequence number modulo {@link #HISTORY}.
+     */
+    private final QuantizedFrame[] history = new QuantizedFrame[HISTORY];
+
+    /**
+     * The frame with every slot inactive.
+     */
+    private final QuantizedFrame empty;
+
+    /**
+     * The reciprocal of the position precision.
+     */
+    private final double inversePrecision;
+
+    /**
+     * The number of bits per orientation component.
+     */
+    private final int rotationBits;
+
+    /**
+     * The writer which packets are encoded with.
+     */
+    private final BitWriter writer;
+
+    /**
+     * The indices of the slots which changed in the current packet.
+     */
+    private final int[] changed;
+
+    /**
+     * The sequence number of the next packet.
+     */
+    private int sequence;
+
+    /**
+     * The sequence number of the most recently acknowledged packet.
+     */
+    private int acknowledged = NO_BASELINE;
+
+    /**
+     * The number of slots written into the last packet.
+     */
+    private int lastChangedCount;
+
+    /**
+     * Creates a new encoder.
+     * @param capacity The number of entity slots
+     * @param precision The smallest position difference which is replicated
+     * @param rotationBits The number of bits per orientation component in range {@code [2, SmallestThree.MAX_BITS]}
+     * @throws IllegalArgumentException When the precision is not positive, or the number of bits is out of range
+     */
+    public ReplicationEncoder(int capacity, double precision, int rotationBits) throws IllegalArgumentException {
+        if (!(precision > 0)) throw new IllegalArgumentException("The precision must be positive.");
+
+        if (rotationBits < 2 || rotationBits > SmallestThree.MAX_BITS) {
+            throw new IllegalArgumentException("The number of rotation bits is out of range.");
+        }
+
+        for (var i = 0; i < HISTORY; i++) {
+            history[i] = new QuantizedFrame(capacity);
+        }
+
+        this.empty = new QuantizedFrame(capacity);
+        this.inversePrecision = 1 / precision;
+        this.rotationBits = rotationBits;
+        this.writer = new BitWriter(capacity * 8);
+        this.changed = new int[capacity];
+    }
+
+    /**
+     * Marks a packet as received by the other side, allowing it to be used as a baseline.
+     * @param sequence The sequence number of the received packet
+     */
+    public void acknowledge(int sequence) {
+        if (sequence > acknowledged && sequence < this.sequence) acknowledged = sequence;
+    }
+
+    /**
+     * Encodes the provided states into a packet and sends it.
+     * @param states The current states
+     * @param transport The transport to send the packet through
+     * @return The sequence number of the sent packet
+     */
+    public int send(EntityStates states, Transport transport) {
+        var seq = sequence;
+        transport.send(encode(states));
+        return seq;
+    }
+
+    /**
+     * Encodes the provided states into a packet. The returned buffer is only valid until the next call.
+     * @param states The current states
+     * @return A buffer containing the packet
+     * @throws IllegalArgumentException When the capacity of the states does not match this encoder
+     */
+    public ByteBuffer encode(EntityStates states) throws IllegalArgumentException {
+        if (states.capacity() != empty.active.length) {
+            throw new IllegalArgumentException("The capacity of the provided states does not match.");
+        }
+
+        var current = history[sequence % HISTORY];
+        current.quantize(states, inversePrecision, rotationBits);
+        current.sequence = sequence;
+
+        var baseline = baseline();
+        var count = 0;
+
+        for (var i = 0; i < changed.length; i++) {
+            if (differs(current, baseline, i)) changed[count++] = i;
+        }
+
+        writer.reset();
+        writer.write(sequence, 32);
+        writer.write(baseline.sequence, 32);
+        writer.writeVarLong(count);
+
+        var previous = -1;
+        var rotationLength = SmallestThree.encodedBits(rotationBits);
+
+        for (var c = 0; c < count; c++) {
+            var i = changed[c];
+
+            writer.writeVarLong(i - previous - 1);
+            writer.writeBoolean(current.active[i]);
+            previous = i;
+
+            if (!current.active[i]) continue;
+
+            var wasActive = baseline.active[i];
+            var p = i * 3;
+            var positionChanged = !wasActive
+                    || current.positions[p] != baseline.positions[p]
+                    || current.positions[p + 1] != baseline.positions[p + 1]
+                    || current.positions[p + 2] != baseline.positions[p + 2];
+
+            writer.writeBoolean(positionChanged);
+
+            if (positionChanged) {
+                for (var j = p; j < p + 3; j++) {
+                    writer.writeZigZag(current.positions[j] - (wasActive ? baseline.positions[j] : 0));
+                }
+            }
+
+            var rotationChanged = !wasActive || current.rotations[i] != baseline.rotations[i];
+            writer.writeBoolean(rotationChanged);
+
+            if (rotationChanged) writer.write(current.rotations[i], rotationLength);
+        }
+
+        lastChangedCount = count;
+        sequence++;
+
+        var packet = writer.flip();
+
+        CHANGED_ENTITIES.record(count);
+        BYTES.add(packet.remaining());
+
+        return packet;
+    }
+
+    /**
+     * Returns the number of slots which were written into the last packet.
+     * @return The number of changed slots in the last packet
+     */
+    public int lastChangedCount() {
+        return lastChangedCount;
+    }
+
+    /**
+     * Returns the frame to diff the next packet against.
+     * @return The baseline frame
+     */
+    private QuantizedFrame baseline() {
+        if (acknowledged == NO_BASELINE || sequence - acknowledged >= HISTORY) return empty;
+
+        var frame = history[acknowledged % HISTORY];
+        return frame.sequence == acknowledged ? frame : empty;
+    }
+
+    /**
+     * Returns whether a slot differs between two frames.
+     * @param a The first frame
+     * @param b The second frame
+     * @param i The index of the slot
+     * @return {@code true} if the slot differs
+     */
+    private static boolean differs(QuantizedFrame a, QuantizedFrame b, int i) {
+        if (a.active[i] != b.active[i]) return true;
+        if (!a.active[i]) return false;
+
+        var p = i * 3;
+
+        return a.positions[p] != b.positions[p]
+                || a.positions[p + 1] != b.positions[p + 1]
+                || a.positions[p + 2] != b.positions[p + 2]
+                || a.rotations[i] != b.rotations[i];
+    }
+}
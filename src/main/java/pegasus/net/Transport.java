@@ -0,0 +1,21 @@
+package pegasus.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A channel which delivers replication packets between two endpoints.
+ */
+public interface Transport {
+    /**
+     * Sends a packet. The remaining bytes of the buffer are sent, and the buffer may be reused by the caller
+     * after this method returns.
+     * @param packet The packet to send
+     */
+    void send(ByteBuffer packet);
+
+    /**
+     * Receives the next pending packet.
+     * @return The next packet, or {@code null} if no packet is pending
+     */
+    ByteBuffer receive();
+}
@@ -0,0 +1,364 @@
+package pegasus.noise;
+
+/**
+ * Fractal noise which sums octaves of a source noise at increasing frequencies and decreasing amplitudes. Every
+ * octave is sampled at an offset, so that the lattice points of the octaves do not line up.
+ */
+public final class FractalNoise implements Noise {
+    /**
+     * The offset added to the coordinates of each successive octave.
+     */
+    private static final double OCTAVE_OFFSET = 37.137;
+
+    /**
+     * Creates fractional Brownian motion noise with the conventional lacunarity of {@code 2} and gain of
+     * {@code 0.5}.
+     * @param source The noise to sum octaves of
+     * @param octaves The number of octaves
+     * @return The created noise
+     * @throws IllegalArgumentException When the octave count is not positive
+     */
+    public static FractalNoise fbm(Noise source, int octaves) throws IllegalArgumentException {
+        return new FractalNoise(source, Mode.FBM, octaves, 2, 0.5);
+    }
+
+    /**
+     * Creates ridged multifractal noise with the conventional lacunarity of {@code 2} and gain of {@code 0.5}.
+     * @param source The noise to sum octaves of
+     * @param octaves The number of octaves
+     * @return The created noise
+     * @throws IllegalArgumentException When the octave count is not positive
+     */
+    public static FractalNoise ridged(Noise source, int octaves) throws IllegalArgumentException {
+        return new FractalNoise(source, Mode.RIDGED, octaves, 2, 0.5);
+    }
+
+    /**
+     * The noise to sum octaves of.
+     */
+    private final Noise source;
+
+    /**
+     * The way octaves are combined.
+     */
+    private final Mode mode;
+
+    /**
+     * The number of octaves.
+     */
+    private final int octaves;
+
+    /**
+     * The frequency multiplier between successive octaves.
+     */
+    private final double lacunarity;
+
+    /**
+     * The amplitude multiplier between successive octaves.
+     */
+    private final double gain;
+
+    /**
+     * The sum of the amplitudes of all octaves.
+     */
+    private final double totalAmplitude;
+
+    /**
+     * The per-thread buffers which hold one octave of a fill. Every instance has its own buffers, since the source of
+     * a fractal noise may itself be a fractal noise, which fills its own octaves while the outer octave is filled.
+     */
+    private final ThreadLocal<double[]> buffers = ThreadLocal.withInitial(() -> new double[0]);
+
+    /**
+     * Creates a new fractal noise.
+     * @param source The noise to sum octaves of
+     * @param mode The way octaves are combined
+     * @param octaves The number of octaves
+     * @param lacunarity The frequency multiplier between successive octaves
+     * @param gain The amplitude multiplier between successive octaves
+     * @throws IllegalArgumentException When the octave count is not positive
+     */
+    public FractalNoise(Noise source, Mode mode, int octaves, double lacunarity, double gain)
+            throws IllegalArgumentException {
+        if (octaves <= 0) throw new IllegalArgumentException("The octave count must be positive.");
+
+        this.source = source;
+        this.mode = mode;
+        this.octaves = octaves;
+        this.lacunarity = lacunarity;
+        this.gain = gain;
+
+        var total = 0.0;
+        var amplitude = 1.0;
+
+        for (var i = 0; i < octaves; i++) {
+            total += amplitude;
+            amplitude *= gain;
+        }
+
+        this.totalAmplitude = total;
+    }
+
+    @Override
+    public double sample(double x, double y) {
+        var sum = 0.0;
+        var frequency = 1.0;
+        var amplitude = 1.0;
+
+        for (var i = 0; i < octaves; i++) {
+            var offset = i * OCTAVE_OFFSET;
+
+            sum += amplitude * shape(source.sample(x * frequency + offset, y * frequency + offset));
+            frequency *= lacunarity;
+            amplitude *= gain;
+        }
+
+        return finish(sum);
+    }
+
+    @Override
+    public double sample(double x, double y, double z) {
+        var sum = 0.0;
+        var frequency = 1.0;
+        var amplitude = 1.0;
+
+        for (var i = 0; i < octaves; i++) {
+            var offset = i * OCTAVE_OFFSET;
+
+            sum += amplitude * shape(source.sample(
+                    x * frequency + offset, y * frequency + offset, z * frequency + offset
+            ));
+
+            frequency *= lacunarity;
+            amplitude *= gain;
+        }
+
+        return finish(sum);
+    }
+
+    @Override
+    public double sample(double x, double y, double z, double w) {
+        var sum = 0.0;
+        var frequency = 1.0;
+        var amplitude = 1.0;
+
+        for (var i = 0; i < octaves; i++) {
+            var offset = i * OCTAVE_OFFSET;
+
+            sum += amplitude * shape(source.sample(
+                    x * frequency + offset, y * frequency + offset, z * frequency + offset, w * frequency + offset
+            ));
+
+            frequency *= lacunarity;
+            amplitude *= gain;
+        }
+
+        return finish(sum);
+    }
+
+    /**
+     * {@inheritDoc} Each row is filled one octave at a time by the source noise, then accumulated.
+     * @param dst {@inheritDoc}
+     * @param offset {@inheritDoc}
+     * @param width {@inheritDoc}
+     * @param height {@inheritDoc}
+     * @param x0 {@inheritDoc}
+     * @param y0 {@inheritDoc}
+     * @param step {@inheritDoc}
+     */
+    @Override
+    public void fill(double[] dst, int offset, int width, int height, double x0, double y0, double step) {
+        var octave = scratch(width);
+
+        for (var j = 0; j < height; j++) {
+            var y = y0 + j * step;
+            var row = offset + j * width;
+            var frequency = 1.0;
+            var amplitude = 1.0;
+
+            for (var i = 0; i < octaves; i++) {
+                var shift = i * OCTAVE_OFFSET;
+
+                source.fill(octave, 0, width, 1, x0 * frequency + shift, y * frequency + shift, step * frequency);
+                accumulate(dst, row, octave, width, amplitude, i == 0);
+
+                frequency *= lacunarity;
+                amplitude *= gain;
+            }
+
+            finish(dst, row, width);
+        }
+    }
+
+    /**
+     * {@inheritDoc} Each row is filled one octave at a time by the source noise, then accumulated.
+     * @param dst {@inheritDoc}
+     * @param offset {@inheritDoc}
+     * @param width {@inheritDoc}
+     * @param height {@inheritDoc}
+     * @param x0 {@inheritDoc}
+     * @param y0 {@inheritDoc}
+     * @param z {@inheritDoc}
+     * @param step {@inheritDoc}
+     */
+    @Override
+    public void fill(double[] dst, int offset, int width, int height, double x0, double y0, double z, double step) {
+        var octave = scratch(width);
+
+        for (var j = 0; j < height; j++) {
+            var y = y0 + j * step;
+            var row = offset + j * width;
+            var frequency = 1.0;
+            var amplitude = 1.0;
+
+            for (var i = 0; i < octaves; i++) {
+                var shift = i * OCTAVE_OFFSET;
+
+                source.fill(
+                        octave, 0, width, 1,
+                        x0 * frequency + shift, y * frequency + shift, z * frequency + shift, step * frequency
+                );
+
+                accumulate(dst, row, octave, width, amplitude, i == 0);
+
+                frequency *= lacunarity;
+                amplitude *= gain;
+            }
+
+            finish(dst, row, width);
+        }
+    }
+
+    /**
+     * {@inheritDoc} Each row is filled one octave at a time by the source noise, then accumulated.
+     * @param dst {@inheritDoc}
+     * @param offset {@inheritDoc}
+     * @param width {@inheritDoc}
+     * @param height {@inheritDoc}
+     * @param x0 {@inheritDoc}
+     * @param y0 {@inheritDoc}
+     * @param z {@inheritDoc}
+     * @param w {@inheritDoc}
+     * @param step {@inheritDoc}
+     */
+    @Override
+    public void fill(
+            double[] dst, int offset, int width, int height, double x0, double y0, double z, double w, double step
+    ) {
+        var octave = scratch(width);
+
+        for (var j = 0; j < height; j++) {
+            var y = y0 + j * step;
+            var row = offset + j * width;
+            var frequency = 1.0;
+            var amplitude = 1.0;
+
+            for (var i = 0; i < octaves; i++) {
+                var shift = i * OCTAVE_OFFSET;
+
+                source.fill(
+                        octave, 0, width, 1, x0 * frequency + shift, y * frequency + shift,
+                        z * frequency + shift, w * frequency + shift, step * frequency
+                );
+
+                accumulate(dst, row, octave, width, amplitude, i == 0);
+
+                frequency *= lacunarity;
+                amplitude *= gain;
+            }
+
+            finish(dst, row, width);
+        }
+    }
+
+    /**
+     * Returns the octave buffer of the calling thread, growing it if needed.
+     * @param length The minimum length of the buffer
+     * @return The buffer
+     */
+    private double[] scratch(int length) {
+        var array = buffers.get();
+
+        if (array.length < length) {
+            array = new double[length];
+            buffers.set(array);
+        }
+
+        return array;
+    }
+
+    /**
+     * Shapes a sample of the source noise according to the mode of this noise.
+     * @param n The sample
+     * @return The shaped sample
+     */
+    private double shape(double n) {
+        if (mode == Mode.FBM) return n;
+
+        var ridge = 1 - Math.abs(n);
+        return ridge * ridge;
+    }
+
+    /**
+     * Maps the weighted sum of all octaves to approximately {@code [-1, 1]}.
+     * @param sum The weighted sum
+     * @return The mapped value
+     */
+    private double finish(double sum) {
+        return mode == Mode.FBM ? sum / totalAmplitude : 2 * sum / totalAmplitude - 1;
+    }
+
+    /**
+     * Adds a shaped and weighted octave to the destination.
+     * @param dst The destination array
+     * @param offset The index of the first destination value
+     * @param octave The samples of the octave
+     * @param length The number of samples
+     * @param amplitude The weight of the octave
+     * @param first {@code true} to overwrite the destination instead of adding to it
+     */
+    private void accumulate(double[] dst, int offset, double[] octave, int length, double amplitude, boolean first) {
+        var ridged = mode == Mode.RIDGED;
+
+        for (var i = 0; i < length; i++) {
+            var n = octave[i];
+
+            if (ridged) {
+                n = 1 - Math.abs(n);
+                n *= n;
+            }
+
+            dst[offset + i] = (first ? 0 : dst[offset + i]) + amplitude * n;
+        }
+    }
+
+    /**
+     * Maps the weighted sums of a region to approximately {@code [-1, 1]}.
+     * @param dst The destination array
+     * @param offset The index of the first value
+     * @param length The number of values
+     */
+    private void finish(double[] dst, int offset, int length) {
+        var scale = (mode == Mode.FBM ? 1 : 2) / totalAmplitude;
+        var bias = mode == Mode.FBM ? 0 : -1;
+
+        for (var i = offset; i < offset + length; i++) {
+            dst[i] = dst[i] * scale + bias;
+        }
+    }
+
+    /**
+     * The way the octaves of a {@link FractalNoise} are combined.
+     */
+    public enum Mode {
+        /**
+         * Fractional Brownian motion, the plain weighted sum of octaves.
+         */
+        FBM,
+
+        /**
+         * Ridged multifractal, which sums squared inverted absolute octaves to form sharp ridges.
+         */
+        RIDGED
+    }
+}
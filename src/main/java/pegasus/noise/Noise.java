@@ -0,0 +1,107 @@
+package pegasus.noise;
+
+/**
+ * A deterministic, continuous noise function in two, three and four dimensions. Samples are approximately in
+ * range {@code [-1, 1]}. Implementations must be thread-safe, so that one instance can fill many regions in
+ * parallel.
+ */
+public interface Noise {
+    /**
+     * Samples the two-dimensional noise at the provided coordinates.
+     * @param x The X coordinate
+     * @param y The Y coordinate
+     * @return The noise value
+     */
+    double sample(double x, double y);
+
+    /**
+     * Samples the three-dimensional noise at the provided coordinates.
+     * @param x The X coordinate
+     * @param y The Y coordinate
+     * @param z The Z coordinate
+     * @return The noise value
+     */
+    double sample(double x, double y, double z);
+
+    /**
+     * Samples the four-dimensional noise at the provided coordinates.
+     * @param x The X coordinate
+     * @param y The Y coordinate
+     * @param z The Z coordinate
+     * @param w The W coordinate
+     * @return The noise value
+     */
+    double sample(double x, double y, double z, double w);
+
+    /**
+     * Fills a row-major region of an array with two-dimensional noise. The sample at column {@code i} and row
+     * {@code j} is taken at {@code (x0 + i * step, y0 + j * step)}.
+     * @param dst The array to fill
+     * @param offset The index of the first sample
+     * @param width The number of columns
+     * @param height The number of rows
+     * @param x0 The X coordinate of the first column
+     * @param y0 The Y coordinate of the first row
+     * @param step The distance between adjacent samples
+     */
+    default void fill(double[] dst, int offset, int width, int height, double x0, double y0, double step) {
+        for (var j = 0; j < height; j++) {
+            var y = y0 + j * step;
+            var row = offset + j * width;
+
+            for (var i = 0; i < width; i++) {
+                dst[row + i] = sample(x0 + i * step, y);
+            }
+        }
+    }
+
+    /**
+     * Fills a row-major region of an array with a planar slice of three-dimensional noise.
+     * @param dst The array to fill
+     * @param offset The index of the first sample
+     * @param width The number of columns
+     * @param height The number of rows
+     * @param x0 The X coordinate of the first column
+     * @param y0 The Y coordinate of the first row
+     * @param z The Z coordinate of the slice
+     * @param step The distance between adjacent samples
+     * @see #fill(double[], int, int, int, double, double, double)
+     */
+    default void fill(double[] dst, int offset, int width, int height, double x0, double y0, double z, double step) {
+        for (var j = 0; j < height; j++) {
+            var y = y0 + j * step;
+            var row = offset + j * width;
+
+            for (var i = 0; i < width; i++) {
+                dst[row + i] = sample(x0 + i * step, y, z);
+            }
+        }
+    }
+
+    /**
+     * Fills a row-major region of an array with a planar slice of four-dimensional noise. Animating the W
+     * coordinate yields noise which evolves over time without drifting.
+     * @param dst The array to fill
+     * @param offset The index of the first sample
+     * @param width The number of columns
+     * @param height The number of rows
+     * @param x0 The X coordinate of the first column
+     * @param y0 The Y coordinate of the first row
+     * @param z The Z coordinate of the slice
+     * @param w The W coordinate of the slice
+     * @param step The distance between adjacent samples
+     * @see #fill(double[], int, int, int, double, double, double)
+     */
+    default void fill(
+            double[] dst, int offset, int width, int height, double x0, double y0, double z, double w, double step
+    ) {
+        for (var j = 0; j < height; j++) {
+            var y = y0 + j * step;
+            var row = offset + j * width;
+
+            for (var i = 0; i < width; i++) {
+                dst[row + i] = sample(x0 + i * step, y, z, w);
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package pegasus.noise;
+
+import pegasus.grid.Chunk;
+import pegasus.grid.ChunkedGrid;
+import pegasus.grid.IntGrid;
+import pegasus.job.JobSystem;
+import pegasus.metrics.Counter;
+import pegasus.metrics.MetricRegistry;
+import pegasus.number.Int2;
+
+import java.util.ArrayList;
+import java.util.function.DoubleToIntFunction;
+
+/**
+ * Fills arrays and grids with noise in parallel on a {@link JobSystem}. Arrays are split into bands of rows and
+ * chunked grids into chunks. Every sample is a pure function of its coordinates and the seed of the noise, and
+ * coordinates are computed the same way as by a serial fill, so the output is bitwise identical however the work
+ * is split.
+ */
+public final class NoiseGenerator {
+    /**
+     * The number of generated samples.
+     */
+    private static final Counter SAMPLES = MetricRegistry.global().counter("noise.samples");
+
+    /**
+     * The minimum number of samples generated by a single job.
+     */
+    private static final int MIN_SAMPLES_PER_JOB = 4096;
+
+    /**
+     * The per-thread buffers used to fill one chunk at a time.
+     */
+    private static final ThreadLocal<double[]> CHUNK_BUFFER = ThreadLocal.withInitial(() -> new double[Chunk.AREA]);
+
+    /**
+     * Fills a row-major array with two-dimensional noise in parallel.
+     * @param jobs The job system to run on
+     * @param noise The noise to sample
+     * @param dst The array to fill, which must hold {@code width * height} samples
+     * @param width The number of columns
+     * @param height The number of rows
+     * @param x0 The X coordinate of the first column
+     * @param y0 The Y coordinate of the first row
+     * @param step The distance between adjacent samples
+     * @throws IllegalArgumentException When the array is too small
+     * @see Noise#fill(double[], int, int, int, double, double, double)
+     */
+    public static void fill(
+            JobSystem jobs, Noise noise, double[] dst, int width, int height, double x0, double y0, double step
+    ) throws IllegalArgumentException {
+        checkSize(dst, width, height);
+
+        jobs.parallelFor(0, height, grain(width), (from, to) -> {
+            for (var j = from; j < to; j++) {
+                noise.fill(dst, j * width, width, 1, x0, y0 + j * step, step);
+            }
+        });
+
+        SAMPLES.add((long) width * height);
+    }
+
+    /**
+     * Fills a row-major array with a planar slice of three-dimensional noise in parallel.
+     * @param jobs The job system to run on
+     * @param noise The noise to sample
+     * @param dst The array to fill, which must hold {@code width * height} samples
+     * @param width The number of columns
+     * @param height The number of rows
+     * @param x0 The X coordinate of the first column
+     * @param y0 The Y coordinate of the first row
+     * @param z The Z coordinate of the slice
+     * @param step The distance between adjacent samples
+     * @throws IllegalArgumentException When the array is too small
+     * @see Noise#fill(double[], int, int, int, double, double, double, double)
+     */
+    public static void fill(
+            JobSystem jobs, Noise noise, double[] dst, int width, int height, double x0, double y0, double z,
+            double step
+    ) throws IllegalArgumentException {
+        checkSize(dst, width, height);
+
+        jobs.parallelFor(0, height, grain(width), (from, to) -> {
+            for (var j = from; j < to; j++) {
+                noise.fill(dst, j * width, width, 1, x0, y0 + j * step, z, step);
+            }
+        });
+
+        SAMPLES.add((long) width * height);
+    }
+
+    /**
+     * Fills a chunk with quantized two-dimensional noise, sampled at the world coordinates of its cells, and marks
+     * it as dirty.
+     * @param noise The noise to sample
+     * @param chunk The chunk to fill
+     * @param frequency The number of noise units per cell
+     * @param quantizer The function which converts samples to cell values
+     */
+    public static void fill(Noise noise, Chunk chunk, double frequency, DoubleToIntFunction quantizer) {
+        var samples = CHUNK_BUFFER.get();
+        var values = chunk.values();
+        var position = chunk.position();
+
+        noise.fill(
+                samples, 0, Chunk.SIZE, Chunk.SIZE,
+                (double) (position.x << Chunk.SHIFT) * frequency,
+                (double) (position.y << Chunk.SHIFT) * frequency,
+                frequency
+        );
+
+        for (var i = 0; i < Chunk.AREA; i++) {
+            values[i] = quantizer.applyAsInt(samples[i]);
+        }
+
+        chunk.markDirty();
+        SAMPLES.add(Chunk.AREA);
+    }
+
+    /**
+     * Fills a rectangle of chunks of a grid with quantized two-dimensional noise in parallel, creating chunks which
+     * are not loaded yet.
+     * @param jobs The job system to run on
+     * @param noise The noise to sample
+     * @param grid The grid to fill
+     * @param min The chunk position of the minimum corner (inclusive)
+     * @param max The chunk position of the maximum corner (inclusive)
+     * @param frequency The number of noise units per cell
+     * @param quantizer The function which converts samples to cell values
+     */
+    public static void fill(
+            JobSystem jobs, Noise noise, ChunkedGrid grid, Int2 min, Int2 max, double frequency,
+            DoubleToIntFunction quantizer
+    ) {
+        var chunks = new ArrayList<Chunk>();
+
+        for (var y = min.y; y <= max.y; y++) {
+            for (var x = min.x; x <= max.x; x++) {
+                chunks.add(grid.chunkOrCreate(Int2.valueOf(x, y)));
+            }
+        }
+
+        jobs.parallelFor(0, chunks.size(), 1, (from, to) -> {
+            for (var i = from; i < to; i++) {
+                fill(noise, chunks.get(i), frequency, quantizer);
+            }
+        });
+    }
+
+    /**
+     * Fills a rectangle of any grid with quantized two-dimensional noise. Samples are generated in parallel, then
+     * written to the grid on the calling thread, so the grid does not need to be thread-safe.
+     * @param jobs The job system to run on
+     * @param noise The noise to sample
+     * @param grid The grid to fill
+     * @param origin The coordinates of the minimum corner of the rectangle
+     * @param size The size of the rectangle in cells
+     * @param frequency The number of noise units per cell
+     * @param quantizer The function which converts samples to cell values
+     */
+    public static void fill(
+            JobSystem jobs, Noise noise, IntGrid grid, Int2 origin, Int2 size, double frequency,
+            DoubleToIntFunction quantizer
+    ) {
+        var samples = new double[size.x * size.y];
+
+        fill(jobs, noise, samples, size.x, size.y, origin.x * frequency, origin.y * frequency, frequency);
+
+        for (var y = 0; y < size.y; y++) {
+            for (var x = 0; x < size.x; x++) {
+                grid.set(origin.x + x, origin.y + y, quantizer.applyAsInt(samples[y * size.x + x]));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of rows processed per job.
+     * @param width The number of columns
+     * @return The number of rows per job
+     */
+    private static int grain(int width) {
+        return Math.max(1, MIN_SAMPLES_PER_JOB / Math.max(1, width));
+    }
+
+    /**
+     * Checks that an array can hold a region.
+     * @param dst The array
+     * @param width The number of columns
+     * @param height The number of rows
+     * @throws IllegalArgumentException When the array is too small
+     */
+    private static void checkSize(double[] dst, int width, int height) throws IllegalArgumentException {
+        if ((long) width * height > dst.length) {
+            throw new IllegalArgumentException("The array cannot hold " + width + "x" + height + " samples.");
+        }
+    }
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private NoiseGenerator() {}
+}
@@ -0,0 +1,243 @@
+package pegasus.noise;
+
+/**
+ * Improved Perlin gradient noise with a seeded permutation table. Samples are zero at every integer lattice point.
+ */
+public final class PerlinNoise implements Noise {
+    /**
+     * The scale which maps four-dimensional samples to approximately {@code [-1, 1]}.
+     */
+    private static final double SCALE_4 = 0.87;
+
+    /**
+     * The X components of the two-dimensional gradients.
+     */
+    private static final double[] GRADIENTS_X = {1, -1, 1, -1, 1, -1, 0, 0};
+
+    /**
+     * The Y components of the two-dimensional gradients.
+     */
+    private static final double[] GRADIENTS_Y = {1, 1, -1, -1, 0, 0, 1, -1};
+
+    /**
+     * The permutation table of this noise.
+     */
+    private final int[] perm;
+
+    /**
+     * Creates a new Perlin noise function.
+     * @param seed The seed which determines the noise pattern
+     */
+    public PerlinNoise(long seed) {
+        this.perm = Permutation.create(seed);
+    }
+
+    @Override
+    public double sample(double x, double y) {
+        var fx = Permutation.floor(x);
+        var fy = Permutation.floor(y);
+        var xi = fx & 255;
+        var yi = fy & 255;
+
+        x -= fx;
+        y -= fy;
+
+        var u = fade(x);
+        var v = fade(y);
+
+        var a = perm[xi] + yi;
+        var b = perm[xi + 1] + yi;
+
+        return lerp(v,
+                lerp(u, grad(perm[a], x, y), grad(perm[b], x - 1, y)),
+                lerp(u, grad(perm[a + 1], x, y - 1), grad(perm[b + 1], x - 1, y - 1))
+        );
+    }
+
+    @Override
+    public double sample(double x, double y, double z) {
+        var fx = Permutation.floor(x);
+        var fy = Permutation.floor(y);
+        var fz = Permutation.floor(z);
+        var xi = fx & 255;
+        var yi = fy & 255;
+        var zi = fz & 255;
+
+        x -= fx;
+        y -= fy;
+        z -= fz;
+
+        var u = fade(x);
+        var v = fade(y);
+        var w = fade(z);
+
+        var a = perm[xi] + yi;
+        var aa = perm[a] + zi;
+        var ab = perm[a + 1] + zi;
+        var b = perm[xi + 1] + yi;
+        var ba = perm[b] + zi;
+        var bb = perm[b + 1] + zi;
+
+        return lerp(w,
+                lerp(v,
+                        lerp(u, grad(perm[aa], x, y, z), grad(perm[ba], x - 1, y, z)),
+                        lerp(u, grad(perm[ab], x, y - 1, z), grad(perm[bb], x - 1, y - 1, z))
+                ),
+                lerp(v,
+                        lerp(u, grad(perm[aa + 1], x, y, z - 1), grad(perm[ba + 1], x - 1, y, z - 1)),
+                        lerp(u, grad(perm[ab + 1], x, y - 1, z - 1), grad(perm[bb + 1], x - 1, y - 1, z - 1))
+                )
+        );
+    }
+
+    @Override
+    public double sample(double x, double y, double z, double w) {
+        var fx = Permutation.floor(x);
+        var fy = Permutation.floor(y);
+        var fz = Permutation.floor(z);
+        var fw = Permutation.floor(w);
+        var xi = fx & 255;
+        var yi = fy & 255;
+        var zi = fz & 255;
+        var wi = fw & 255;
+
+        x -= fx;
+        y -= fy;
+        z -= fz;
+        w -= fw;
+
+        var fadeX = fade(x);
+        var fadeY = fade(y);
+        var fadeZ = fade(z);
+        var fadeW = fade(w);
+
+        var result = 0.0;
+
+        for (var corner = 0; corner < 16; corner++) {
+            var cx = corner & 1;
+            var cy = (corner >> 1) & 1;
+            var cz = (corner >> 2) & 1;
+            var cw = corner >> 3;
+
+            var hash = perm[perm[perm[perm[xi + cx] + yi + cy] + zi + cz] + wi + cw];
+            var weight = (cx == 0 ? 1 - fadeX : fadeX)
+                    * (cy == 0 ? 1 - fadeY : fadeY)
+                    * (cz == 0 ? 1 - fadeZ : fadeZ)
+                    * (cw == 0 ? 1 - fadeW : fadeW);
+
+            result += weight * grad(hash, x - cx, y - cy, z - cz, w - cw);
+        }
+
+        return SCALE_4 * result;
+    }
+
+    /**
+     * {@inheritDoc} The lattice row, fade weight and row hashes are computed once per row, so that the inner loop
+     * only depends on the X coordinate.
+     * @param dst {@inheritDoc}
+     * @param offset {@inheritDoc}
+     * @param width {@inheritDoc}
+     * @param height {@inheritDoc}
+     * @param x0 {@inheritDoc}
+     * @param y0 {@inheritDoc}
+     * @param step {@inheritDoc}
+     */
+    @Override
+    public void fill(double[] dst, int offset, int width, int height, double x0, double y0, double step) {
+        for (var j = 0; j < height; j++) {
+            var y = y0 + j * step;
+            var fy = Permutation.floor(y);
+            var yi = fy & 255;
+            var ty = y - fy;
+            var v = fade(ty);
+            var row = offset + j * width;
+
+            for (var i = 0; i < width; i++) {
+                var x = x0 + i * step;
+                var fx = Permutation.floor(x);
+                var xi = fx & 255;
+                var tx = x - fx;
+                var u = fade(tx);
+
+                var a = perm[xi] + yi;
+                var b = perm[xi + 1] + yi;
+
+                var bottom = lerp(u, grad(perm[a], tx, ty), grad(perm[b], tx - 1, ty));
+                var top = lerp(u, grad(perm[a + 1], tx, ty - 1), grad(perm[b + 1], tx - 1, ty - 1));
+
+                dst[row + i] = lerp(v, bottom, top);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the quintic fade curve {@code 6t^5 - 15t^4 + 10t^3}.
+     * @param t The value in range {@code [0, 1]}
+     * @return The faded value
+     */
+    private static double fade(double t) {
+        return t * t * t * (t * (t * 6 - 15) + 10);
+    }
+
+    /**
+     * Linearly interpolates between two values.
+     * @param t The interpolation parameter
+     * @param a The value at {@code t = 0}
+     * @param b The value at {@code t = 1}
+     * @return The interpolated value
+     */
+    private static double lerp(double t, double a, double b) {
+        return a + t * (b - a);
+    }
+
+    /**
+     * Returns the dot product of one of eight two-dimensional gradients and an offset.
+     * @param hash The hash selecting the gradient
+     * @param x The X offset
+     * @param y The Y offset
+     * @return The dot product
+     */
+    private static double grad(int hash, double x, double y) {
+        var h = hash & 7;
+        return GRADIENTS_X[h] * x + GRADIENTS_Y[h] * y;
+    }
+
+    /**
+     * Returns the dot product of one of twelve three-dimensional edge gradients and an offset.
+     * @param hash The hash selecting the gradient
+     * @param x The X offset
+     * @param y The Y offset
+     * @param z The Z offset
+     * @return The dot product
+     */
+    private static double grad(int hash, double x, double y, double z) {
+        var h = hash & 15;
+        var u = h < 8 ? x : y;
+        var v = h < 4 ? y : h == 12 || h == 14 ? x : z;
+
+        return ((h & 1) == 0 ? u : -u) + ((h & 2) == 0 ? v : -v);
+    }
+
+    /**
+     * Returns the dot product of one of thirty-two four-dimensional edge gradients and an offset.
+     * @param hash The hash selecting the gradient
+     * @param x The X offset
+     * @param y The Y offset
+     * @param z The Z offset
+     * @param w The W offset
+     * @return The dot product
+     */
+    private static double grad(int hash, double x, double y, double z, double w) {
+        var h = hash & 31;
+        double a, b, c;
+
+        switch (h >> 3) {
+            case 1 -> { a = w; b = x; c = y; }
+            case 2 -> { a = z; b = w; c = x; }
+            case 3 -> { a = x; b = y; c = z; }
+            default -> { a = y; b = z; c = w; }
+        }
+
+        return ((h & 4) == 0 ? -a : a) + ((h & 2) == 0 ? -b : b) + ((h & 1) == 0 ? -c : c);
+    }
+}
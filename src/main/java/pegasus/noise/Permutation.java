@@ -0,0 +1,49 @@
+package pegasus.noise;
+
+import java.util.SplittableRandom;
+
+/**
+ * Creates the seeded permutation tables shared by the lattice noise functions.
+ */
+final class Permutation {
+    /**
+     * Returns a permutation of {@code [0, 256)} derived from a seed, repeated twice so that the sum of a table
+     * entry and a lattice coordinate in {@code [0, 256]} can be used as an index without wrapping.
+     * @param seed The seed
+     * @return The permutation table of length {@code 512}
+     */
+    static int[] create(long seed) {
+        var random = new SplittableRandom(seed);
+        var table = new int[512];
+
+        for (var i = 0; i < 256; i++) {
+            table[i] = i;
+        }
+
+        for (var i = 255; i > 0; i--) {
+            var j = random.nextInt(i + 1);
+            var t = table[i];
+
+            table[i] = table[j];
+            table[j] = t;
+        }
+
+        System.arraycopy(table, 0, table, 256, 256);
+        return table;
+    }
+
+    /**
+     * Returns the largest integer less than or equal to a value, without the overhead of {@link Math#floor}.
+     * @param x The value
+     * @return The floor of the value
+     */
+    static int floor(double x) {
+        var i = (int) x;
+        return x < i ? i - 1 : i;
+    }
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private Permutation() {}
+}
@@ -0,0 +1,283 @@
+package pegasus.noise;
+
+/**
+ * Simplex noise with a seeded permutation table. Compared to {@link PerlinNoise}, simplex noise has fewer
+ * directional artifacts, and its cost grows linearly rather than exponentially with the dimension count, which
+ * makes it the better choice for three- and four-dimensional noise.
+ * <p>
+ * In every dimension, the contribution of a corner falls off to zero at a squared distance of {@code 0.5}, which is
+ * no further than the faces of the simplices around the corner, so the noise is continuous across simplex
+ * boundaries. The common radius of {@code 0.6} for three and four dimensions leaves visible seams.
+ */
+public final class SimplexNoise implements Noise {
+    /**
+     * The skew factor of two-dimensional noise.
+     */
+    private static final double F2 = 0.5 * (Math.sqrt(3) - 1);
+
+    /**
+     * The unskew factor of two-dimensional noise.
+     */
+    private static final double G2 = (3 - Math.sqrt(3)) / 6;
+
+    /**
+     * The skew factor of three-dimensional noise.
+     */
+    private static final double F3 = 1.0 / 3;
+
+    /**
+     * The unskew factor of three-dimensional noise.
+     */
+    private static final double G3 = 1.0 / 6;
+
+    /**
+     * The skew factor of four-dimensional noise.
+     */
+    private static final double F4 = (Math.sqrt(5) - 1) / 4;
+
+    /**
+     * The unskew factor of four-dimensional noise.
+     */
+    private static final double G4 = (5 - Math.sqrt(5)) / 20;
+
+    /**
+     * The twelve edge gradients of a cube, packed as {@code x, y, z} triples.
+     */
+    private static final double[] GRADIENTS_3 = {
+            1, 1, 0, -1, 1, 0, 1, -1, 0, -1, -1, 0,
+            1, 0, 1, -1, 0, 1, 1, 0, -1, -1, 0, -1,
+            0, 1, 1, 0, -1, 1, 0, 1, -1, 0, -1, -1
+    };
+
+    /**
+     * The thirty-two edge gradients of a tesseract, packed as {@code x, y, z, w} quadruples.
+     */
+    private static final double[] GRADIENTS_4 = new double[32 * 4];
+
+    static {
+        var i = 0;
+
+        for (var zero = 3; zero >= 0; zero--) {
+            for (var signs = 7; signs >= 0; signs--) {
+                var bit = 2;
+
+                for (var axis = 0; axis < 4; axis++) {
+                    if (axis == zero) {
+                        GRADIENTS_4[i++] = 0;
+                    } else {
+                        GRADIENTS_4[i++] = (signs >> bit & 1) == 1 ? 1 : -1;
+                        bit--;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The permutation table of this noise.
+     */
+    private final int[] perm;
+
+    /**
+     * The permutation table reduced modulo {@code 12}, used to select three-dimensional gradients.
+     */
+    private final int[] perm12 = new int[512];
+
+    /**
+     * Creates a new simplex noise function.
+     * @param seed The seed which determines the noise pattern
+     */
+    public SimplexNoise(long seed) {
+        this.perm = Permutation.create(seed);
+
+        for (var i = 0; i < 512; i++) {
+            perm12[i] = perm[i] % 12 * 3;
+        }
+    }
+
+    @Override
+    public double sample(double x, double y) {
+        var s = (x + y) * F2;
+        var i = Permutation.floor(x + s);
+        var j = Permutation.floor(y + s);
+        var t = (i + j) * G2;
+
+        var x0 = x - (i - t);
+        var y0 = y - (j - t);
+
+        var i1 = x0 > y0 ? 1 : 0;
+        var j1 = 1 - i1;
+
+        var x1 = x0 - i1 + G2;
+        var y1 = y0 - j1 + G2;
+        var x2 = x0 - 1 + 2 * G2;
+        var y2 = y0 - 1 + 2 * G2;
+
+        var ii = i & 255;
+        var jj = j & 255;
+
+        return 70 * (corner(perm12[ii + perm[jj]], x0, y0)
+                + corner(perm12[ii + i1 + perm[jj + j1]], x1, y1)
+                + corner(perm12[ii + 1 + perm[jj + 1]], x2, y2));
+    }
+
+    @Override
+    public double sample(double x, double y, double z) {
+        var s = (x + y + z) * F3;
+        var i = Permutation.floor(x + s);
+        var j = Permutation.floor(y + s);
+        var k = Permutation.floor(z + s);
+        var t = (i + j + k) * G3;
+
+        var x0 = x - (i - t);
+        var y0 = y - (j - t);
+        var z0 = z - (k - t);
+
+        int i1, j1, k1, i2, j2, k2;
+
+        if (x0 >= y0) {
+            if (y0 >= z0) {
+                i1 = 1; j1 = 0; k1 = 0; i2 = 1; j2 = 1; k2 = 0;
+            } else if (x0 >= z0) {
+                i1 = 1; j1 = 0; k1 = 0; i2 = 1; j2 = 0; k2 = 1;
+            } else {
+                i1 = 0; j1 = 0; k1 = 1; i2 = 1; j2 = 0; k2 = 1;
+            }
+        } else {
+            if (y0 < z0) {
+                i1 = 0; j1 = 0; k1 = 1; i2 = 0; j2 = 1; k2 = 1;
+            } else if (x0 < z0) {
+                i1 = 0; j1 = 1; k1 = 0; i2 = 0; j2 = 1; k2 = 1;
+            } else {
+                i1 = 0; j1 = 1; k1 = 0; i2 = 1; j2 = 1; k2 = 0;
+            }
+        }
+
+        var ii = i & 255;
+        var jj = j & 255;
+        var kk = k & 255;
+
+        return 76 * (corner(perm12[ii + perm[jj + perm[kk]]], x0, y0, z0)
+                + corner(perm12[ii + i1 + perm[jj + j1 + perm[kk + k1]]], x0 - i1 + G3, y0 - j1 + G3, z0 - k1 + G3)
+                + corner(
+                        perm12[ii + i2 + perm[jj + j2 + perm[kk + k2]]],
+                        x0 - i2 + 2 * G3, y0 - j2 + 2 * G3, z0 - k2 + 2 * G3
+                )
+                + corner(
+                        perm12[ii + 1 + perm[jj + 1 + perm[kk + 1]]],
+                        x0 - 1 + 3 * G3, y0 - 1 + 3 * G3, z0 - 1 + 3 * G3
+                ));
+    }
+
+    @Override
+    public double sample(double x, double y, double z, double w) {
+        var s = (x + y + z + w) * F4;
+        var i = Permutation.floor(x + s);
+        var j = Permutation.floor(y + s);
+        var k = Permutation.floor(z + s);
+        var l = Permutation.floor(w + s);
+        var t = (i + j + k + l) * G4;
+
+        var x0 = x - (i - t);
+        var y0 = y - (j - t);
+        var z0 = z - (k - t);
+        var w0 = w - (l - t);
+
+        var rankX = 0;
+        var rankY = 0;
+        var rankZ = 0;
+        var rankW = 0;
+
+        if (x0 > y0) rankX++; else rankY++;
+        if (x0 > z0) rankX++; else rankZ++;
+        if (x0 > w0) rankX++; else rankW++;
+        if (y0 > z0) rankY++; else rankZ++;
+        if (y0 > w0) rankY++; else rankW++;
+        if (z0 > w0) rankZ++; else rankW++;
+
+        var ii = i & 255;
+        var jj = j & 255;
+        var kk = k & 255;
+        var ll = l & 255;
+
+        var result = corner(hash(ii, jj, kk, ll), x0, y0, z0, w0);
+
+        for (var rank = 3; rank > 0; rank--) {
+            var i1 = rankX >= rank ? 1 : 0;
+            var j1 = rankY >= rank ? 1 : 0;
+            var k1 = rankZ >= rank ? 1 : 0;
+            var l1 = rankW >= rank ? 1 : 0;
+            var g = (4 - rank) * G4;
+
+            result += corner(
+                    hash(ii + i1, jj + j1, kk + k1, ll + l1),
+                    x0 - i1 + g, y0 - j1 + g, z0 - k1 + g, w0 - l1 + g
+            );
+        }
+
+        result += corner(hash(ii + 1, jj + 1, kk + 1, ll + 1), x0 - 1 + 4 * G4, y0 - 1 + 4 * G4,
+                z0 - 1 + 4 * G4, w0 - 1 + 4 * G4);
+
+        return 62 * result;
+    }
+
+    /**
+     * Returns the gradient offset of a four-dimensional lattice point.
+     * @param i The X lattice coordinate in range {@code [0, 256]}
+     * @param j The Y lattice coordinate in range {@code [0, 256]}
+     * @param k The Z lattice coordinate in range {@code [0, 256]}
+     * @param l The W lattice coordinate in range {@code [0, 256]}
+     * @return The index of the first component of the gradient
+     */
+    private int hash(int i, int j, int k, int l) {
+        return (perm[i + perm[j + perm[k + perm[l]]]] & 31) * 4;
+    }
+
+    /**
+     * Returns the contribution of a two-dimensional simplex corner.
+     * @param g The index of the first component of the corner gradient
+     * @param x The X offset from the corner
+     * @param y The Y offset from the corner
+     * @return The contribution of the corner
+     */
+    private static double corner(int g, double x, double y) {
+        var t = 0.5 - x * x - y * y;
+        if (t < 0) return 0;
+
+        t *= t;
+        return t * t * (GRADIENTS_3[g] * x + GRADIENTS_3[g + 1] * y);
+    }
+
+    /**
+     * Returns the contribution of a three-dimensional simplex corner.
+     * @param g The index of the first component of the corner gradient
+     * @param x The X offset from the corner
+     * @param y The Y offset from the corner
+     * @param z The Z offset from the corner
+     * @return The contribution of the corner
+     */
+    private static double corner(int g, double x, double y, double z) {
+        var t = 0.5 - x * x - y * y - z * z;
+        if (t < 0) return 0;
+
+        t *= t;
+        return t * t * (GRADIENTS_3[g] * x + GRADIENTS_3[g + 1] * y + GRADIENTS_3[g + 2] * z);
+    }
+
+    /**
+     * Returns the contribution of a four-dimensional simplex corner.
+     * @param g The index of the first component of the corner gradient
+     * @param x The X offset from the corner
+     * @param y The Y offset from the corner
+     * @param z The Z offset from the corner
+     * @param w The W offset from the corner
+     * @return The contribution of the corner
+     */
+    private static double corner(int g, double x, double y, double z, double w) {
+        var t = 0.5 - x * x - y * y - z * z - w * w;
+        if (t < 0) return 0;
+
+        t *= t;
+        return t * t * (GRADIENTS_4[g] * x + GRADIENTS_4[g + 1] * y + GRADIENTS_4[g + 2] * z + GRADIENTS_4[g + 3] * w);
+    }
+}
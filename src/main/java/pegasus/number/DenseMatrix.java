@@ -0,0 +1,428 @@
+package pegasus.number;
+
+import pegasus.job.JobSystem;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A dense {@code double} matrix stored in row-major order. Matrix multiplication is blocked into tiles of
+ * {@link #BLOCK} by {@link #BLOCK} elements, so that a tile of the right operand stays in the cache while it is
+ * applied to every row of the left operand. The innermost loop of every kernel runs over a contiguous row, so that
+ * the JIT compiler can vectorize it.
+ * <p>
+ * The overloads which take a {@link JobSystem} split the rows of the result among the workers, and run serially when
+ * the operation is too small to be worth splitting. Every element of a product is summed in the same order however
+ * its rows are split, so the parallel and serial results are identical. The elements of a matrix-matrix product are
+ * also equal to those of a naive triple loop; those of a matrix-vector product are summed in four interleaved partial
+ * sums, as by {@link VectorN#dot(VectorN)}, so they may differ from a naive loop in the last bits.
+ * Operations which return a matrix or vector allocate a new one; {@link #axpy(double, DenseMatrix)} writes in place.
+ * Two matrices are equal when they have the same shape and their elements have the same bits.
+ */
+public final class DenseMatrix implements Serializable {
+    /**
+     * The serial version UID of this class.
+     */
+    @Serial
+    private static final long serialVersionUID = 0;
+
+    /**
+     * The number of rows and columns of a tile.
+     */
+    public static final int BLOCK = 64;
+
+    /**
+     * The smallest number of multiply-adds worth splitting among workers.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Returns a new matrix with the provided values preassigned.
+     * @param rows The number of rows
+     * @param columns The number of columns
+     * @param values The values in row-major order
+     * @return The created matrix
+     * @throws IllegalArgumentException When the number of values does not match the dimensions
+     */
+    public static DenseMatrix of(int rows, int columns, double... values) throws IllegalArgumentException {
+        var matrix = new DenseMatrix(rows, columns);
+
+        if (values.length != matrix.values.length) {
+            throw new IllegalArgumentException(
+                    "Expected " + matrix.values.length + " values, but got " + values.length + "."
+            );
+        }
+
+        System.arraycopy(values, 0, matrix.values, 0, values.length);
+        return matrix;
+    }
+
+    /**
+     * Returns a new identity matrix.
+     * @param n The number of rows and columns
+     * @return The created matrix
+     * @throws IllegalArgumentException When the size is negative
+     */
+    public static DenseMatrix identity(int n) throws IllegalArgumentException {
+        var matrix = new DenseMatrix(n, n);
+
+        for (var i = 0; i < n; i++) {
+            matrix.values[i * n + i] = 1;
+        }
+
+        return matrix;
+    }
+
+    /**
+     * The number of rows.
+     */
+    private final int rows;
+
+    /**
+     * The number of columns.
+     */
+    private final int columns;
+
+    /**
+     * The elements in row-major order.
+     */
+    private final double[] values;
+
+    /**
+     * Creates a new zero matrix.
+     * @param rows The number of rows
+     * @param columns The number of columns
+     * @throws IllegalArgumentException When a dimension is negative or the matrix is too large
+     */
+    public DenseMatrix(int rows, int columns) throws IllegalArgumentException {
+        if (rows < 0 || columns < 0) throw new IllegalArgumentException("The dimensions must not be negative.");
+        if ((long) rows * columns > Integer.MAX_VALUE) throw new IllegalArgumentException("The matrix is too large.");
+
+        this.rows = rows;
+        this.columns = columns;
+        this.values = new double[rows * columns];
+    }
+
+    /**
+     * Returns the number of rows.
+     * @return The number of rows
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns.
+     * @return The number of columns
+     */
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Returns an element of this matrix.
+     * @param row The index of the row
+     * @param column The index of the column
+     * @return The element
+     * @throws IndexOutOfBoundsException When the row or column is out of bounds
+     */
+    public double get(int row, int column) throws IndexOutOfBoundsException {
+        return values[index(row, column)];
+    }
+
+    /**
+     * Sets an element of this matrix.
+     * @param row The index of the row
+     * @param column The index of the column
+     * @param value The value to set
+     * @throws IndexOutOfBoundsException When the row or column is out of bounds
+     */
+    public void set(int row, int column, double value) throws IndexOutOfBoundsException {
+        values[index(row, column)] = value;
+    }
+
+    /**
+     * Returns the backing array of this matrix, in row-major order. Changes to the array are reflected in this matrix.
+     * @return The backing array
+     */
+    public double[] toArray() {
+        return values;
+    }
+
+    /**
+     * Returns the transpose of this matrix.
+     * @return The transposed matrix
+     */
+    public DenseMatrix transpose() {
+        var result = new DenseMatrix(columns, rows);
+        var dst = result.values;
+
+        for (var ii = 0; ii < rows; ii += BLOCK) {
+            var iEnd = Math.min(rows, ii + BLOCK);
+
+            for (var jj = 0; jj < columns; jj += BLOCK) {
+                var jEnd = Math.min(columns, jj + BLOCK);
+
+                for (var i = ii; i < iEnd; i++) {
+                    for (var j = jj; j < jEnd; j++) {
+                        dst[j * rows + i] = values[i * columns + j];
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Multiplies this matrix by another matrix.
+     * @param other The right operand
+     * @return The product
+     * @throws IllegalArgumentException When the number of columns of this matrix does not match the number of rows
+     * of the other matrix
+     */
+    public DenseMatrix multiply(DenseMatrix other) throws IllegalArgumentException {
+        var result = productOf(other);
+        multiplyRows(other, result, 0, rows);
+        return result;
+    }
+
+    /**
+     * Multiplies this matrix by another matrix, splitting blocks of rows of the product among the workers of a job
+     * system.
+     * @param other The right operand
+     * @param jobs The job system to run on
+     * @return The product
+     * @throws IllegalArgumentException When the number of columns of this matrix does not match the number of rows
+     * of the other matrix
+     * @throws CompletionException When a task fails
+     */
+    public DenseMatrix multiply(DenseMatrix other, JobSystem jobs)
+            throws IllegalArgumentException, CompletionException {
+        var result = productOf(other);
+
+        if ((long) rows * columns * other.columns < PARALLEL_THRESHOLD || rows <= BLOCK) {
+            multiplyRows(other, result, 0, rows);
+            return result;
+        }
+
+        jobs.parallelFor(0, (rows + BLOCK - 1) / BLOCK, 1, (from, to) -> {
+            multiplyRows(other, result, from * BLOCK, Math.min(rows, to * BLOCK));
+        });
+
+        return result;
+    }
+
+    /**
+     * Multiplies this matrix by a column vector.
+     * @param v The vector
+     * @return The product
+     * @throws IllegalArgumentException When the number of dimensions of the vector does not match the number of
+     * columns of this matrix
+     */
+    public VectorN multiply(VectorN v) throws IllegalArgumentException {
+        var result = productOf(v);
+        multiplyRows(v.toArray(), result.toArray(), 0, rows);
+        return result;
+    }
+
+    /**
+     * Multiplies this matrix by a column vector, splitting the rows among the workers of a job system.
+     * @param v The vector
+     * @param jobs The job system to run on
+     * @return The product
+     * @throws IllegalArgumentException When the number of dimensions of the vector does not match the number of
+     * columns of this matrix
+     * @throws CompletionException When a task fails
+     */
+    public VectorN multiply(VectorN v, JobSystem jobs) throws IllegalArgumentException, CompletionException {
+        var result = productOf(v);
+        var x = v.toArray();
+        var y = result.toArray();
+
+        if ((long) rows * columns < PARALLEL_THRESHOLD) {
+            multiplyRows(x, y, 0, rows);
+            return result;
+        }
+
+        var grain = Math.max(1, PARALLEL_THRESHOLD / Math.max(1, columns));
+        jobs.parallelFor(0, rows, grain, (from, to) -> multiplyRows(x, y, from, to));
+
+        return result;
+    }
+
+    /**
+     * Adds another matrix multiplied by a scalar to this matrix in place: {@code this += a * x}.
+     * @param a The scalar
+     * @param x The matrix to add
+     * @throws IllegalArgumentException When the matrices have different dimensions
+     */
+    public void axpy(double a, DenseMatrix x) throws IllegalArgumentException {
+        requireSameDimensions(x);
+        VectorN.axpy(a, x.values, 0, values, 0, values.length);
+    }
+
+    /**
+     * Adds another matrix multiplied by a scalar to this matrix in place, splitting the elements among the workers
+     * of a job system.
+     * @param a The scalar
+     * @param x The matrix to add
+     * @param jobs The job system to run on
+     * @throws IllegalArgumentException When the matrices have different dimensions
+     * @throws CompletionException When a task fails
+     */
+    public void axpy(double a, DenseMatrix x, JobSystem jobs) throws IllegalArgumentException, CompletionException {
+        requireSameDimensions(x);
+
+        if (values.length < PARALLEL_THRESHOLD) {
+            VectorN.axpy(a, x.values, 0, values, 0, values.length);
+            return;
+        }
+
+        jobs.parallelFor(0, values.length, PARALLEL_THRESHOLD, (from, to) -> {
+            VectorN.axpy(a, x.values, from, values, from, to - from);
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (31 * rows + columns) + Arrays.hashCode(values);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param obj The object to compare
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof DenseMatrix m) || m.rows != rows || m.columns != columns) return false;
+
+        for (var i = 0; i < values.length; i++) {
+            if (Double.doubleToLongBits(values[i]) != Double.doubleToLongBits(m.values[i])) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        var builder = new StringBuilder("[");
+
+        for (var i = 0; i < rows; i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(Arrays.toString(Arrays.copyOfRange(values, i * columns, (i + 1) * columns)));
+        }
+
+        return builder.append("]").toString();
+    }
+
+    /**
+     * Computes a range of rows of the product of this matrix and another matrix, tile by tile. Each element is summed
+     * in increasing order of the inner index.
+     * @param other The right operand
+     * @param result The product to write to, initially zero
+     * @param from The first row (inclusive)
+     * @param to The last row (exclusive)
+     */
+    private void multiplyRows(DenseMatrix other, DenseMatrix result, int from, int to) {
+        var a = values;
+        var b = other.values;
+        var c = result.values;
+        var inner = columns;
+        var width = other.columns;
+
+        for (var kk = 0; kk < inner; kk += BLOCK) {
+            var kEnd = Math.min(inner, kk + BLOCK);
+
+            for (var jj = 0; jj < width; jj += BLOCK) {
+                var n = Math.min(width, jj + BLOCK) - jj;
+
+                for (var i = from; i < to; i++) {
+                    for (var k = kk; k < kEnd; k++) {
+                        VectorN.axpy(a[i * inner + k], b, k * width + jj, c, i * width + jj, n);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes a range of elements of the product of this matrix and a column vector.
+     * @param x The components of the vector
+     * @param y The components of the product
+     * @param from The first row (inclusive)
+     * @param to The last row (exclusive)
+     */
+    private void multiplyRows(double[] x, double[] y, int from, int to) {
+        for (var i = from; i < to; i++) {
+            y[i] = VectorN.dot(values, i * columns, x, 0, columns);
+        }
+    }
+
+    /**
+     * Creates the zero matrix to store the product of this matrix and another matrix in.
+     * @param other The right operand
+     * @return The zero product
+     * @throws IllegalArgumentException When the number of columns of this matrix does not match the number of rows
+     * of the other matrix
+     */
+    private DenseMatrix productOf(DenseMatrix other) throws IllegalArgumentException {
+        if (other.rows != columns) {
+            throw new IllegalArgumentException("Expected " + columns + " rows, but got " + other.rows + ".");
+        }
+
+        return new DenseMatrix(rows, other.columns);
+    }
+
+    /**
+     * Creates the zero vector to store the product of this matrix and a column vector in.
+     * @param v The vector
+     * @return The zero product
+     * @throws IllegalArgumentException When the number of dimensions of the vector does not match the number of
+     * columns of this matrix
+     */
+    private VectorN productOf(VectorN v) throws IllegalArgumentException {
+        if (v.dimensions() != columns) {
+            throw new IllegalArgumentException("Expected " + columns + " dimensions, but got " + v.dimensions() + ".");
+        }
+
+        return new VectorN(rows);
+    }
+
+    /**
+     * Checks that another matrix has the same dimensions as this matrix.
+     * @param other The other matrix
+     * @throws IllegalArgumentException When the matrices have different dimensions
+     */
+    private void requireSameDimensions(DenseMatrix other) throws IllegalArgumentException {
+        if (other.rows != rows || other.columns != columns) {
+            throw new IllegalArgumentException(
+                    "Expected a " + rows + "x" + columns + " matrix, but got " + other.rows + "x" + other.columns + "."
+            );
+        }
+    }
+
+    /**
+     * Returns the index of an element in the backing array.
+     * @param row The index of the row
+     * @param column The index of the column
+     * @return The index of the element
+     * @throws IndexOutOfBoundsException When the row or column is out of bounds
+     */
+    private int index(int row, int column) throws IndexOutOfBoundsException {
+        if (row < 0 || row >= rows) throw new IndexOutOfBoundsException(row);
+        if (column < 0 || column >= columns) throw new IndexOutOfBoundsException(column);
+        return row * columns + column;
+    }
+}
@@ -0,0 +1,158 @@
+package pegasus.number;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size column of unit direction vectors, such as normals or facing vectors, which are stored
+ * {@link Octahedral octahedrally encoded} and decoded when they are read. A column stores each direction in either
+ * four or two bytes, instead of the 24 bytes of the components of a {@link Vector3}.
+ */
+public final class DirectionColumn {
+    /**
+     * Creates a column which stores each direction in 32 bits.
+     * @param size The number of directions
+     * @return The created column
+     */
+    public static DirectionColumn precise(int size) {
+        return new DirectionColumn(new int[size], null);
+    }
+
+    /**
+     * Creates a column which stores each direction in 16 bits.
+     * @param size The number of directions
+     * @return The created column
+     */
+    public static DirectionColumn compact(int size) {
+        return new DirectionColumn(null, new short[size]);
+    }
+
+    /**
+     * The encoded directions of a precise column, or {@code null} if this column is compact.
+     */
+    private final int[] precise;
+
+    /**
+     * The encoded directions of a compact column, or {@code null} if this column is precise.
+     */
+    private final short[] compact;
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     * @param precise The encoded directions of a precise column
+     * @param compact The encoded directions of a compact column
+     */
+    private DirectionColumn(int[] precise, short[] compact) {
+        this.precise = precise;
+        this.compact = compact;
+
+        if (precise != null) Arrays.fill(precise, Octahedral.encode32(0, 0, 1));
+        if (compact != null) Arrays.fill(compact, Octahedral.encode16(0, 0, 1));
+    }
+
+    /**
+     * Returns the number of directions in this column.
+     * @return The number of directions
+     */
+    public int size() {
+        return precise != null ? precise.length : compact.length;
+    }
+
+    /**
+     * Returns the number of bytes used to store each direction.
+     * @return The number of bytes per direction
+     */
+    public int bytesPerDirection() {
+        return precise != null ? Integer.BYTES : Short.BYTES;
+    }
+
+    /**
+     * Returns the maximum angular error of a direction read from this column.
+     * @return The maximum angular error in radians
+     */
+    public double maxError() {
+        return precise != null ? Octahedral.MAX_ERROR_32 : Octahedral.MAX_ERROR_16;
+    }
+
+    /**
+     * Returns a direction of this column. Directions which were never set point along the positive Z axis.
+     * @param i The index of the direction
+     * @return The decoded direction
+     * @throws IndexOutOfBoundsException When the index is out of bounds
+     */
+    public Vector3 get(int i) throws IndexOutOfBoundsException {
+        return precise != null ? Octahedral.decode32(precise[i]) : Octahedral.decode16(compact[i]);
+    }
+
+    /**
+     * Decodes a direction of this column into a packed array.
+     * @param i The index of the direction
+     * @param dst The array to write the direction to in {@code x, y, z} order
+     * @param offset The index of the first component to write
+     * @throws IndexOutOfBoundsException When an index is out of bounds
+     */
+    public void get(int i, double[] dst, int offset) throws IndexOutOfBoundsException {
+        if (precise != null) {
+            Octahedral.decode32(precise[i], dst, offset);
+        } else {
+            Octahedral.decode16(compact[i], dst, offset);
+        }
+    }
+
+    /**
+     * Sets a direction of this column.
+     * @param i The index of the direction
+     * @param v The direction to set to, which must be normalized
+     * @throws IndexOutOfBoundsException When the index is out of bounds
+     */
+    public void set(int i, Double3 v) throws IndexOutOfBoundsException {
+        set(i, v.x, v.y, v.z);
+    }
+
+    /**
+     * Sets a direction of this column.
+     * @param i The index of the direction
+     * @param x The X component of the direction
+     * @param y The Y component of the direction
+     * @param z The Z component of the direction
+     * @throws IndexOutOfBoundsException When the index is out of bounds
+     */
+    public void set(int i, double x, double y, double z) throws IndexOutOfBoundsException {
+        if (precise != null) {
+            precise[i] = Octahedral.encode32(x, y, z);
+        } else {
+            compact[i] = Octahedral.encode16(x, y, z);
+        }
+    }
+
+    /**
+     * Encodes a range of packed directions into this column.
+     * @param src The packed directions in {@code x, y, z} order, which must be normalized
+     * @param srcOffset The index of the first component to read
+     * @param start The index of the first direction of this column to write
+     * @param count The number of directions to write
+     * @throws IndexOutOfBoundsException When a range is out of bounds
+     */
+    public void setAll(double[] src, int srcOffset, int start, int count) throws IndexOutOfBoundsException {
+        if (precise != null) {
+            Octahedral.encode32(src, srcOffset, precise, start, count);
+        } else {
+            Octahedral.encode16(src, srcOffset, compact, start, count);
+        }
+    }
+
+    /**
+     * Decodes a range of directions of this column into a packed array.
+     * @param start The index of the first direction of this column to read
+     * @param count The number of directions to read
+     * @param dst The array to write the directions to in {@code x, y, z} order
+     * @param dstOffset The index of the first component to write
+     * @throws IndexOutOfBoundsException When a range is out of bounds
+     */
+    public void getAll(int start, int count, double[] dst, int dstOffset) throws IndexOutOfBoundsException {
+        if (precise != null) {
+            Octahedral.decode32(precise, start, dst, dstOffset, count);
+        } else {
+            Octahedral.decode16(compact, start, dst, dstOffset, count);
+        }
+    }
+}
@@ -55,11 +55,9 @@ public class Double3 implements DoubleVector {
             throw new IllegalArgumentException("The provided vector is not three-dimensional.");
         }
 
-        var values = dv.toArray();
-
-        this.x = values[0];
-        this.y = values[1];
-        this.z = values[2];
+        this.x = dv.component(0);
+        this.y = dv.component(1);
+        this.z = dv.component(2);
     }
 
     /**
@@ -80,6 +78,48 @@ public class Double3 implements DoubleVector {
         return 3;
     }
 
+    /**
+     * {@inheritDoc}
+     * @param i {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public double component(int i) throws IndexOutOfBoundsException {
+        return switch (i) {
+            case 0 -> x;
+            case 1 -> y;
+            case 2 -> z;
+            default -> throw new IndexOutOfBoundsException(i);
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param dst {@inheritDoc}
+     * @param offset {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public void copyInto(double[] dst, int offset) throws IndexOutOfBoundsException {
+        Objects.checkFromIndexSize(offset, 3, dst.length);
+
+        dst[offset] = x;
+        dst[offset + 1] = y;
+        dst[offset + 2] = z;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param action {@inheritDoc}
+     */
+    @Override
+    public void forEachComponent(DoubleComponentConsumer action) {
+        action.accept(0, x);
+        action.accept(1, y);
+        action.accept(2, z);
+    }
+
     /**
      * {@inheritDoc}
      * @return {@inheritDoc}
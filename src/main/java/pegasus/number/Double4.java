@@ -62,12 +62,10 @@ public class Double4 implements DoubleVector {
             throw new IllegalArgumentException("The provided vector is not four-dimensional.");
         }
 
-        var values = dv.toArray();
-
-        this.w = values[0];
-        this.x = values[1];
-        this.y = values[2];
-        this.z = values[3];
+        this.w = dv.component(0);
+        this.x = dv.component(1);
+        this.y = dv.component(2);
+        this.z = dv.component(3);
     }
 
     @Override
@@ -80,6 +78,35 @@ public class Double4 implements DoubleVector {
         return 4;
     }
 
+    @Override
+    public double component(int i) throws IndexOutOfBoundsException {
+        return switch (i) {
+            case 0 -> w;
+            case 1 -> x;
+            case 2 -> y;
+            case 3 -> z;
+            default -> throw new IndexOutOfBoundsException(i);
+        };
+    }
+
+    @Override
+    public void copyInto(double[] dst, int offset) throws IndexOutOfBoundsException {
+        Objects.checkFromIndexSize(offset, 4, dst.length);
+
+        dst[offset] = w;
+        dst[offset + 1] = x;
+        dst[offset + 2] = y;
+        dst[offset + 3] = z;
+    }
+
+    @Override
+    public void forEachComponent(DoubleComponentConsumer action) {
+        action.accept(0, w);
+        action.accept(1, x);
+        action.accept(2, y);
+        action.accept(3, z);
+    }
+
     @Override
     public DoubleStream stream() {
         return DoubleStream.of(w, x, y, z);
@@ -0,0 +1,15 @@
+package pegasus.number;
+
+/**
+ * A primitive visitor of the component values of a {@link DoubleVector}.
+ * @see DoubleVector#forEachComponent(DoubleComponentConsumer)
+ */
+@FunctionalInterface
+public interface DoubleComponentConsumer {
+    /**
+     * Accepts a component value.
+     * @param index The index of the component
+     * @param value The value of the component
+     */
+    void accept(int index, double value);
+}
@@ -46,7 +46,9 @@ public final class DoublePointer implements DoubleVector {
     public static DoublePointer valueOf(DoubleVector dv) {
         if (dv instanceof DoublePointer dp) return valueOf(dp.values);
 
-        var values = dv.stream().toArray();
+        var values = new double[dv.dimensions()];
+        dv.copyInto(values, 0);
+
         return new DoublePointer(values);
     }
 
@@ -101,6 +103,28 @@ public final class DoublePointer implements DoubleVector {
         values[i] = value;
     }
 
+    /**
+     * {@inheritDoc}
+     * @param i {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public double component(int i) throws IndexOutOfBoundsException {
+        return values[i];
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param dst {@inheritDoc}
+     * @param offset {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public void copyInto(double[] dst, int offset) throws IndexOutOfBoundsException {
+        System.arraycopy(values, 0, dst, offset, values.length);
+    }
+
     /**
      * {@inheritDoc}
      * @return {@inheritDoc}
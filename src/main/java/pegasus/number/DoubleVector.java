@@ -1,7 +1,6 @@
 package pegasus.number;
 
 import java.io.Serializable;
-import java.util.Arrays;
 import java.util.Objects;
 import java.util.stream.DoubleStream;
 
@@ -18,11 +17,16 @@ public interface DoubleVector extends Serializable {
      */
     static boolean equals(DoubleVector v1, DoubleVector v2) {
         if (Objects.equals(v1, v2)) return true;
+        if (v1 == null || v2 == null) return false;
 
-        var a1 = v1.toArray();
-        var a2 = v2.toArray();
+        var dimensions = v1.dimensions();
+        if (v2.dimensions() != dimensions) return false;
 
-        return Arrays.equals(a1, a2);
+        for (var i = 0; i < dimensions; i++) {
+            if (Double.doubleToLongBits(v1.component(i)) != Double.doubleToLongBits(v2.component(i))) return false;
+        }
+
+        return true;
     }
 
     /**
@@ -37,6 +41,38 @@ public interface DoubleVector extends Serializable {
      */
     int dimensions();
 
+    /**
+     * Returns the {@code i}th component value of this vector without allocating.
+     * @param i The index of the component
+     * @return The {@code i}th component value of this vector
+     * @throws IndexOutOfBoundsException When the index is out of bounds
+     */
+    double component(int i) throws IndexOutOfBoundsException;
+
+    /**
+     * Copies the component values of this vector into an array.
+     * @param dst The array to copy to
+     * @param offset The index of the first value to write
+     * @throws IndexOutOfBoundsException When the array does not have room for {@link #dimensions()} values
+     */
+    default void copyInto(double[] dst, int offset) throws IndexOutOfBoundsException {
+        var dimensions = dimensions();
+        for (var i = 0; i < dimensions; i++) {
+            dst[offset + i] = component(i);
+        }
+    }
+
+    /**
+     * Passes each component value of this vector to the provided visitor in index order, without boxing.
+     * @param action The visitor to pass the component values to
+     */
+    default void forEachComponent(DoubleComponentConsumer action) {
+        var dimensions = dimensions();
+        for (var i = 0; i < dimensions; i++) {
+            action.accept(i, component(i));
+        }
+    }
+
     /**
      * Returns a stream whose source is the values of this vector.
      * @return A stream whose source is the values of this vector
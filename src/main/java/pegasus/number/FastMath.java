@@ -0,0 +1,244 @@
+package pegasus.number;
+
+/**
+ * Approximate math functions for bulk paths which can trade accuracy for throughput, such as steering and
+ * lighting. Every function documents its error bound, measured against the exact {@link Math} equivalent, and has a
+ * bulk form over packed arrays. None of these functions handle infinite or NaN inputs specially.
+ * <p>
+ * There is deliberately no approximate reciprocal square root or normalization: on JITs which intrinsify
+ * {@link Math#sqrt(double)}, such as HotSpot, {@code 1 / Math.sqrt(x)} is both exact and faster than a bit-level
+ * estimate refined to a useful accuracy.
+ */
+public final class FastMath {
+    /**
+     * The maximum absolute error of {@link #sin(double)} and {@link #cos(double)}.
+     */
+    public static final double SIN_ERROR = 1e-6;
+
+    /**
+     * The maximum absolute error of {@link #atan2(double, double)} in radians.
+     */
+    public static final double ATAN2_ERROR = 1.2e-5;
+
+    /**
+     * The maximum angle in radians between the result of {@link #slerp(Vector4, Vector4, double)} and the exact
+     * spherical interpolation.
+     */
+    public static final double SLERP_ERROR = 7e-3;
+
+    /**
+     * The value of {@code 2 * PI}.
+     */
+    private static final double TWO_PI = 2 * Math.PI;
+
+    /**
+     * The value of {@code 1 / (2 * PI)}.
+     */
+    private static final double INVERSE_TWO_PI = 1 / TWO_PI;
+
+    /**
+     * The value of {@code PI / 2}.
+     */
+    private static final double HALF_PI = Math.PI / 2;
+
+    /**
+     * Computes an approximate sine using a fifteenth-degree polynomial after reducing the angle to
+     * {@code [-PI, PI]}. The polynomial is evaluated without branches, so that bulk loops do not mispredict on
+     * unordered angles. The absolute error is at most {@value #SIN_ERROR} for inputs whose magnitude is below
+     * {@code 1e6}.
+     * @param x The angle in radians
+     * @return The approximate sine of the angle
+     */
+    public static double sin(double x) {
+        x -= TWO_PI * Math.rint(x * INVERSE_TWO_PI);
+
+        var x2 = x * x;
+        return x * (1 + x2 * (-1.0 / 6 + x2 * (1.0 / 120 + x2 * (-1.0 / 5040 + x2 * (1.0 / 362880
+                + x2 * (-1.0 / 39916800 + x2 * (1.0 / 6227020800L + x2 * (-1.0 / 1307674368000L))))))));
+    }
+
+    /**
+     * Computes an approximate cosine. The absolute error is at most {@value #SIN_ERROR} for inputs whose magnitude
+     * is below {@code 1e6}.
+     * @param x The angle in radians
+     * @return The approximate cosine of the angle
+     */
+    public static double cos(double x) {
+        return sin(x + HALF_PI);
+    }
+
+    /**
+     * Computes an approximate angle of the point {@code (x, y)} using a polynomial approximation of the arctangent.
+     * The absolute error is at most {@value #ATAN2_ERROR} radians.
+     * @param y The Y coordinate
+     * @param x The X coordinate
+     * @return The approximate angle in range {@code [-PI, PI]}
+     */
+    public static double atan2(double y, double x) {
+        var ax = Math.abs(x);
+        var ay = Math.abs(y);
+
+        if (ax == 0 && ay == 0) return 0;
+
+        var swap = ay > ax;
+        var z = swap ? ax / ay : ay / ax;
+        var z2 = z * z;
+        var a = z * (0.9998660 + z2 * (-0.3302995 + z2 * (0.1801410 + z2 * (-0.0851330 + z2 * 0.0208351))));
+
+        if (swap) a = HALF_PI - a;
+        if (x < 0) a = Math.PI - a;
+
+        return y < 0 ? -a : a;
+    }
+
+    /**
+     * Approximates the spherical linear interpolation of two unit quaternions, by normalized linear interpolation
+     * with a fitted correction of the interpolation parameter. The result is at most {@value #SLERP_ERROR} radians
+     * from the exact interpolation along the shortest path.
+     * @param a The starting quaternion, which must be normalized
+     * @param b The ending quaternion, which must be normalized
+     * @param t The interpolation parameter in range {@code [0, 1]}
+     * @return The interpolated quaternion
+     */
+    public static Quaternion slerp(Vector4 a, Vector4 b, double t) {
+        var cos = a.w * b.w + a.x * b.x + a.y * b.y + a.z * b.z;
+        var u = correct(Math.abs(cos), t);
+
+        var s = 1 - u;
+        var e = cos < 0 ? -u : u;
+
+        var w = s * a.w + e * b.w;
+        var x = s * a.x + e * b.x;
+        var y = s * a.y + e * b.y;
+        var z = s * a.z + e * b.z;
+        var i = 1 / Math.sqrt(w * w + x * x + y * y + z * z);
+
+        return new Quaternion(w * i, x * i, y * i, z * i);
+    }
+
+    /**
+     * Approximates the spherical linear interpolation of two unit quaternions into a packed array.
+     * @param aw The W component of the starting quaternion
+     * @param ax The X component of the starting quaternion
+     * @param ay The Y component of the starting quaternion
+     * @param az The Z component of the starting quaternion
+     * @param bw The W component of the ending quaternion
+     * @param bx The X component of the ending quaternion
+     * @param by The Y component of the ending quaternion
+     * @param bz The Z component of the ending quaternion
+     * @param t The interpolation parameter in range {@code [0, 1]}
+     * @param dst The array to write the result to in {@code w, x, y, z} order
+     * @param offset The index of the first component to write
+     * @see #slerp(Vector4, Vector4, double)
+     */
+    public static void slerp(
+            double aw, double ax, double ay, double az,
+            double bw, double bx, double by, double bz,
+            double t, double[] dst, int offset
+    ) {
+        var cos = aw * bw + ax * bx + ay * by + az * bz;
+        var u = correct(Math.abs(cos), t);
+
+        var s = 1 - u;
+        var e = cos < 0 ? -u : u;
+
+        var w = s * aw + e * bw;
+        var x = s * ax + e * bx;
+        var y = s * ay + e * by;
+        var z = s * az + e * bz;
+        var i = 1 / Math.sqrt(w * w + x * x + y * y + z * z);
+
+        dst[offset] = w * i;
+        dst[offset + 1] = x * i;
+        dst[offset + 2] = y * i;
+        dst[offset + 3] = z * i;
+    }
+
+    /**
+     * Computes the approximate sines of a range of angles.
+     * @param src The angles in radians
+     * @param srcOffset The index of the first angle to read
+     * @param dst The array to write the sines to
+     * @param dstOffset The index of the first sine to write
+     * @param count The number of angles
+     * @see #sin(double)
+     */
+    public static void sin(double[] src, int srcOffset, double[] dst, int dstOffset, int count) {
+        for (var i = 0; i < count; i++) {
+            dst[dstOffset + i] = sin(src[srcOffset + i]);
+        }
+    }
+
+    /**
+     * Computes the approximate cosines of a range of angles.
+     * @param src The angles in radians
+     * @param srcOffset The index of the first angle to read
+     * @param dst The array to write the cosines to
+     * @param dstOffset The index of the first cosine to write
+     * @param count The number of angles
+     * @see #cos(double)
+     */
+    public static void cos(double[] src, int srcOffset, double[] dst, int dstOffset, int count) {
+        for (var i = 0; i < count; i++) {
+            dst[dstOffset + i] = sin(src[srcOffset + i] + HALF_PI);
+        }
+    }
+
+    /**
+     * Computes the approximate angles of packed points.
+     * @param src The packed points in {@code x, y} order
+     * @param srcOffset The index of the first component to read
+     * @param dst The array to write the angles to
+     * @param dstOffset The index of the first angle to write
+     * @param count The number of points
+     * @see #atan2(double, double)
+     */
+    public static void atan2(double[] src, int srcOffset, double[] dst, int dstOffset, int count) {
+        for (var i = 0; i < count; i++) {
+            var j = srcOffset + i * 2;
+            dst[dstOffset + i] = atan2(src[j + 1], src[j]);
+        }
+    }
+
+    /**
+     * Approximates the spherical linear interpolations of packed pairs of unit quaternions.
+     * @param a The packed starting quaternions in {@code w, x, y, z} order
+     * @param aOffset The index of the first component of the starting quaternions to read
+     * @param b The packed ending quaternions in {@code w, x, y, z} order
+     * @param bOffset The index of the first component of the ending quaternions to read
+     * @param t The interpolation parameter in range {@code [0, 1]}
+     * @param dst The array to write the results to in {@code w, x, y, z} order
+     * @param dstOffset The index of the first component to write
+     * @param count The number of pairs
+     * @see #slerp(Vector4, Vector4, double)
+     */
+    public static void slerp(
+            double[] a, int aOffset, double[] b, int bOffset, double t, double[] dst, int dstOffset, int count
+    ) {
+        for (var i = 0; i < count; i++) {
+            var j = aOffset + i * 4;
+            var k = bOffset + i * 4;
+
+            slerp(a[j], a[j + 1], a[j + 2], a[j + 3], b[k], b[k + 1], b[k + 2], b[k + 3], t, dst, dstOffset + i * 4);
+        }
+    }
+
+    /**
+     * Corrects the parameter of a normalized linear interpolation so that it approximates a spherical one.
+     * @param d The absolute cosine of the angle between the two quaternions
+     * @param t The interpolation parameter in range {@code [0, 1]}
+     * @return The corrected interpolation parameter
+     */
+    private static double correct(double d, double t) {
+        var k1 = 1.0904 + d * (-3.2452 + d * (3.55645 - d * 1.43519));
+        var k2 = 0.848013 + d * (-1.06021 + d * 0.215638);
+        var k = k1 * (t - 0.5) * (t - 0.5) + k2;
+
+        return t + t * (t - 0.5) * (t - 1) * k;
+    }
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private FastMath() {}
+}
@@ -0,0 +1,169 @@
+package pegasus.number;
+
+import java.io.Serial;
+import java.util.Objects;
+import java.util.stream.DoubleStream;
+
+/**
+ * An immutable three-dimensional {@code float} vector.
+ */
+public class Float3 implements FloatVector {
+    /**
+     * The serial version UID of this class.
+     */
+    @Serial
+    private static final long serialVersionUID = 0L;
+
+    /**
+     * The zero vector.
+     */
+    public static final Float3 ZERO = new Float3(0, 0, 0);
+
+    /**
+     * The X value of this vector.
+     */
+    public final float x;
+
+    /**
+     * The Y value of this vector.
+     */
+    public final float y;
+
+    /**
+     * The Z value of this vector.
+     */
+    public final float z;
+
+    /**
+     * Creates a new vector.
+     * @param x The X value of this vector
+     * @param y The Y value of this vector
+     * @param z The Z value of this vector
+     */
+    public Float3(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Creates a new vector.
+     * @param fv The vector from which to copy component values from
+     */
+    public Float3(FloatVector fv) {
+        if (fv.dimensions() != 3) {
+            throw new IllegalArgumentException("The provided vector is not three-dimensional.");
+        }
+
+        this.x = fv.component(0);
+        this.y = fv.component(1);
+        this.z = fv.component(2);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int dimensions() {
+        return 3;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param i {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public float component(int i) throws IndexOutOfBoundsException {
+        return switch (i) {
+            case 0 -> x;
+            case 1 -> y;
+            case 2 -> z;
+            default -> throw new IndexOutOfBoundsException(i);
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param dst {@inheritDoc}
+     * @param offset {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public void copyInto(float[] dst, int offset) throws IndexOutOfBoundsException {
+        Objects.checkFromIndexSize(offset, 3, dst.length);
+
+        dst[offset] = x;
+        dst[offset + 1] = y;
+        dst[offset + 2] = z;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param action {@inheritDoc}
+     */
+    @Override
+    public void forEachComponent(FloatComponentConsumer action) {
+        action.accept(0, x);
+        action.accept(1, y);
+        action.accept(2, z);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public DoubleStream stream() {
+        return DoubleStream.of(x, y, z);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public float[] toArray() {
+        return new float[] {x, y, z};
+    }
+
+    /**
+     * Returns the hash code of this vector.
+     * @return The hash code of this vector
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(x, y, z);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param obj The object to compare
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Float3 v)) return false;
+        return x == v.x && y == v.y && z == v.z;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "[" + x + ", " + y + ", " + z + "]";
+    }
+}
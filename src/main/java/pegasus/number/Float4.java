@@ -0,0 +1,135 @@
+package pegasus.number;
+
+import java.io.Serial;
+import java.util.Objects;
+import java.util.stream.DoubleStream;
+
+/**
+ * An immutable four-dimensional {@code float} vector.
+ */
+public class Float4 implements FloatVector {
+    /**
+     * The serial version UID of this class.
+     */
+    @Serial
+    private static final long serialVersionUID = 0L;
+
+    /**
+     * The zero vector.
+     */
+    public static final Float4 ZERO = new Float4(0, 0, 0, 0);
+
+    /**
+     * The X value of this vector.
+     */
+    public final float w;
+
+    /**
+     * The X value of this vector.
+     */
+    public final float x;
+
+    /**
+     * The Y value of this vector.
+     */
+    public final float y;
+
+    /**
+     * The Z value of this vector.
+     */
+    public final float z;
+
+    /**
+     * Creates a new vector.
+     * @param w The W value of this vector
+     * @param x The X value of this vector
+     * @param y The Y value of this vector
+     * @param z The Z value of this vector
+     */
+    public Float4(float w, float x, float y, float z) {
+        this.w = w;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Creates a new vector.
+     * @param fv The vector from which to copy component values from
+     */
+    public Float4(FloatVector fv) {
+        if (fv.dimensions() != 4) {
+            throw new IllegalArgumentException("The provided vector is not four-dimensional.");
+        }
+
+        this.w = fv.component(0);
+        this.x = fv.component(1);
+        this.y = fv.component(2);
+        this.z = fv.component(3);
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public int dimensions() {
+        return 4;
+    }
+
+    @Override
+    public float component(int i) throws IndexOutOfBoundsException {
+        return switch (i) {
+            case 0 -> w;
+            case 1 -> x;
+            case 2 -> y;
+            case 3 -> z;
+            default -> throw new IndexOutOfBoundsException(i);
+        };
+    }
+
+    @Override
+    public void copyInto(float[] dst, int offset) throws IndexOutOfBoundsException {
+        Objects.checkFromIndexSize(offset, 4, dst.length);
+
+        dst[offset] = w;
+        dst[offset + 1] = x;
+        dst[offset + 2] = y;
+        dst[offset + 3] = z;
+    }
+
+    @Override
+    public void forEachComponent(FloatComponentConsumer action) {
+        action.accept(0, w);
+        action.accept(1, x);
+        action.accept(2, y);
+        action.accept(3, z);
+    }
+
+    @Override
+    public DoubleStream stream() {
+        return DoubleStream.of(w, x, y, z);
+    }
+
+    @Override
+    public float[] toArray() {
+        return new float[] {w, x, y, z};
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(w, x, y, z);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Float4 v)) return false;
+        return w == v.w && x == v.x && y == v.y && z == v.z;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + w + ", " + x + ", " + y + ", " + z + "]";
+    }
+}
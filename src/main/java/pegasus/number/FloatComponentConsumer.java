@@ -0,0 +1,15 @@
+package pegasus.number;
+
+/**
+ * A primitive visitor of the component values of a {@link FloatVector}.
+ * @see FloatVector#forEachComponent(FloatComponentConsumer)
+ */
+@FunctionalInterface
+public interface FloatComponentConsumer {
+    /**
+     * Accepts a component value.
+     * @param index The index of the component
+     * @param value The value of the component
+     */
+    void accept(int index, float value);
+}
@@ -0,0 +1,101 @@
+package pegasus.number;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.stream.DoubleStream;
+
+/**
+ * A vector with {@code float} values.
+ */
+public interface FloatVector extends Serializable {
+    /**
+     * Checks for equality between two vectors. This is a null-safe operation.
+     * @param v1 The first vector
+     * @param v2 The second vector
+     * @return {@code true} if the two vectors have the same dimension count and their
+     * component values are equal
+     */
+    static boolean equals(FloatVector v1, FloatVector v2) {
+        if (Objects.equals(v1, v2)) return true;
+        if (v1 == null || v2 == null) return false;
+
+        var dimensions = v1.dimensions();
+        if (v2.dimensions() != dimensions) return false;
+
+        for (var i = 0; i < dimensions; i++) {
+            if (Float.floatToIntBits(v1.component(i)) != Float.floatToIntBits(v2.component(i))) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns whether this vector is mutable.
+     * @return {@code true} if this vector is mutable
+     */
+    boolean isMutable();
+
+    /**
+     * Returns the number of dimensions (the number of scalar components) this vector has.
+     * @return The number of dimensions this vector has
+     */
+    int dimensions();
+
+    /**
+     * Returns the {@code i}th component value of this vector without allocating.
+     * @param i The index of the component
+     * @return The {@code i}th component value of this vector
+     * @throws IndexOutOfBoundsException When the index is out of bounds
+     */
+    float component(int i) throws IndexOutOfBoundsException;
+
+    /**
+     * Copies the component values of this vector into an array.
+     * @param dst The array to copy to
+     * @param offset The index of the first value to write
+     * @throws IndexOutOfBoundsException When the array does not have room for {@link #dimensions()} values
+     */
+    default void copyInto(float[] dst, int offset) throws IndexOutOfBoundsException {
+        var dimensions = dimensions();
+        for (var i = 0; i < dimensions; i++) {
+            dst[offset + i] = component(i);
+        }
+    }
+
+    /**
+     * Passes each component value of this vector to the provided visitor in index order, without boxing.
+     * @param action The visitor to pass the component values to
+     */
+    default void forEachComponent(FloatComponentConsumer action) {
+        var dimensions = dimensions();
+        for (var i = 0; i < dimensions; i++) {
+            action.accept(i, component(i));
+        }
+    }
+
+    /**
+     * Returns a stream whose source is the values of this vector, widened to {@code double}.
+     * @return A stream whose source is the values of this vector
+     */
+    DoubleStream stream();
+
+    /**
+     * Returns the array form of this vector. If this vector is {@link #isMutable() mutable},
+     * changes in the return value of this method will be reflected to the vector.
+     * @return The array form of this vector
+     */
+    float[] toArray();
+
+    /**
+     * Checks for equality between this vector and the provided object {@code obj}.
+     * @param obj The object to compare
+     * @return {@code true} if the provided object is a vector of the same type, and the values are equal
+     */
+    boolean equals(Object obj);
+
+    /**
+     * Returns the serialized form of this vector.
+     * @return The serialized form of this vector
+     */
+    String toString();
+}
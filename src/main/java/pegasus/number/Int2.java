@@ -28,6 +28,22 @@ public class Int2 implements Serializable {
      */
     public final int y;
 
+    /**
+     * Returns a vector with the provided values. Vectors whose values are both in range
+     * {@code [-radius, radius)} are preallocated and shared, where the radius is set by the system property
+     * {@code pegasus.int2.cacheRadius} (default {@code 64}, {@code 0} disables the cache).
+     * @param x The X value
+     * @param y The Y value
+     * @return The vector, which may be a shared instance
+     */
+    public static Int2 valueOf(int x, int y) {
+        var cx = x + Cache.RADIUS;
+        var cy = y + Cache.RADIUS;
+
+        if ((cx | cy) >= 0 && cx < Cache.SIZE && cy < Cache.SIZE) return Cache.VALUES[cx * Cache.SIZE + cy];
+        return new Int2(x, y);
+    }
+
     /**
      * Creates a new vector.
      * @param x The X value
@@ -53,7 +69,7 @@ public class Int2 implements Serializable {
      * @return The resulting vector
      */
     public Int2 add(int i) {
-        return new Int2(x + i, y + i);
+        return valueOf(x + i, y + i);
     }
 
     /**
@@ -63,7 +79,7 @@ public class Int2 implements Serializable {
      * @return The resulting vector
      */
     public Int2 add(int dx, int dy) {
-        return new Int2(x + dx, y + dy);
+        return valueOf(x + dx, y + dy);
     }
 
     /**
@@ -72,7 +88,7 @@ public class Int2 implements Serializable {
      * @return The resulting vector
      */
     public Int2 add(Int2 i) {
-        return new Int2(x + i.x, y + i.y);
+        return valueOf(x + i.x, y + i.y);
     }
 
     /**
@@ -81,7 +97,7 @@ public class Int2 implements Serializable {
      * @return The resulting vector
      */
     public Int2 subtract(int i) {
-        return new Int2(x - i, y - i);
+        return valueOf(x - i, y - i);
     }
 
     /**
@@ -91,7 +107,7 @@ public class Int2 implements Serializable {
      * @return The resulting vector
      */
     public Int2 subtract(int dx, int dy) {
-        return new Int2(x - dx, y - dy);
+        return valueOf(x - dx, y - dy);
     }
 
     /**
@@ -100,7 +116,16 @@ public class Int2 implements Serializable {
      * @return The resulting vector
      */
     public Int2 subtract(Int2 i) {
-        return new Int2(x - i.x, y - i.y);
+        return valueOf(x - i.x, y - i.y);
+    }
+
+    /**
+     * Returns the hash code of this vector.
+     * @return The hash code of this vector
+     */
+    @Override
+    public int hashCode() {
+        return 31 * x + y;
     }
 
     /**
@@ -108,6 +133,7 @@ public class Int2 implements Serializable {
      * @param obj The object to compare
      * @return {@code true} if the provided object is an {@link Int2} and the values are equal
      */
+    @Override
     public boolean equals(Object obj) {
         if (!(obj instanceof Int2 i)) return false;
         return x == i.x && y == i.y;
@@ -121,4 +147,37 @@ public class Int2 implements Serializable {
     public String toString() {
         return "[" + x + ", " + y + "]";
     }
+
+    /**
+     * The preallocated vectors returned by {@link #valueOf(int, int)}, initialized on first use.
+     */
+    private static final class Cache {
+        /**
+         * The radius of the cached window.
+         */
+        static final int RADIUS = Math.max(0, Integer.getInteger("pegasus.int2.cacheRadius", 64));
+
+        /**
+         * The number of cached values per axis.
+         */
+        static final int SIZE = RADIUS * 2;
+
+        /**
+         * The cached vectors in X-major order.
+         */
+        static final Int2[] VALUES = new Int2[SIZE * SIZE];
+
+        static {
+            for (var x = 0; x < SIZE; x++) {
+                for (var y = 0; y < SIZE; y++) {
+                    VALUES[x * SIZE + y] = x == RADIUS && y == RADIUS ? ZERO : new Int2(x - RADIUS, y - RADIUS);
+                }
+            }
+        }
+
+        /**
+         * Private constructor. Do not use outside of this class.
+         */
+        private Cache() {}
+    }
 }
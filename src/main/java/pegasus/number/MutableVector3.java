@@ -0,0 +1,189 @@
+package pegasus.number;
+
+/**
+ * A mutable three-dimensional {@code double} vector for scratch computations. Every operation writes its result
+ * into this vector and returns it, so that inner loops can chain arithmetic without allocating the intermediate
+ * vectors that {@link Vector3} would. Instances are not thread-safe and should not be shared or retained as values;
+ * convert them with {@link #toVector3()} instead.
+ */
+public final class MutableVector3 {
+    /**
+     * The X value of this vector.
+     */
+    public double x;
+
+    /**
+     * The Y value of this vector.
+     */
+    public double y;
+
+    /**
+     * The Z value of this vector.
+     */
+    public double z;
+
+    /**
+     * Creates a new zero vector.
+     */
+    public MutableVector3() {}
+
+    /**
+     * Creates a new vector.
+     * @param x The X value
+     * @param y The Y value
+     * @param z The Z value
+     */
+    public MutableVector3(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Sets the values of this vector.
+     * @param x The X value
+     * @param y The Y value
+     * @param z The Z value
+     * @return This vector
+     */
+    public MutableVector3 set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Sets the values of this vector to those of another vector.
+     * @param v The vector to copy
+     * @return This vector
+     */
+    public MutableVector3 set(MutableVector3 v) {
+        return set(v.x, v.y, v.z);
+    }
+
+    /**
+     * Sets the values of this vector to those of an immutable vector.
+     * @param v The vector to copy
+     * @return This vector
+     */
+    public MutableVector3 set(Vector3 v) {
+        return set(v.x, v.y, v.z);
+    }
+
+    /**
+     * Adds another vector to this vector.
+     * @param v The vector to add
+     * @return This vector
+     */
+    public MutableVector3 add(MutableVector3 v) {
+        return set(x + v.x, y + v.y, z + v.z);
+    }
+
+    /**
+     * Adds a scaled vector to this vector.
+     * @param v The vector to add
+     * @param s The scale of the added vector
+     * @return This vector
+     */
+    public MutableVector3 addScaled(MutableVector3 v, double s) {
+        return set(x + v.x * s, y + v.y * s, z + v.z * s);
+    }
+
+    /**
+     * Subtracts another vector from this vector.
+     * @param v The vector to subtract
+     * @return This vector
+     */
+    public MutableVector3 subtract(MutableVector3 v) {
+        return set(x - v.x, y - v.y, z - v.z);
+    }
+
+    /**
+     * Sets this vector to the difference of two vectors.
+     * @param a The vector to subtract from
+     * @param b The vector to subtract
+     * @return This vector
+     */
+    public MutableVector3 difference(MutableVector3 a, MutableVector3 b) {
+        return set(a.x - b.x, a.y - b.y, a.z - b.z);
+    }
+
+    /**
+     * Multiplies this vector by a scalar.
+     * @param s The scalar
+     * @return This vector
+     */
+    public MutableVector3 multiply(double s) {
+        return set(x * s, y * s, z * s);
+    }
+
+    /**
+     * Negates this vector.
+     * @return This vector
+     */
+    public MutableVector3 negate() {
+        return set(-x, -y, -z);
+    }
+
+    /**
+     * Sets this vector to the cross product of two vectors. Either vector may be this vector.
+     * @param a The first vector
+     * @param b The second vector
+     * @return This vector
+     */
+    public MutableVector3 cross(MutableVector3 a, MutableVector3 b) {
+        return set(a.y * b.z - a.z * b.y, a.z * b.x - a.x * b.z, a.x * b.y - a.y * b.x);
+    }
+
+    /**
+     * Returns the dot product of this vector and another vector.
+     * @param v The other vector
+     * @return The dot product
+     */
+    public double dot(MutableVector3 v) {
+        return x * v.x + y * v.y + z * v.z;
+    }
+
+    /**
+     * Returns the squared Euclidean norm of this vector.
+     * @return The squared norm
+     */
+    public double normSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * Returns the Euclidean norm of this vector.
+     * @return The norm
+     */
+    public double norm() {
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+
+    /**
+     * Normalizes this vector. A zero vector stays zero.
+     * @return This vector
+     */
+    public MutableVector3 normalize() {
+        var n = normSquared();
+        return n == 0 ? this : multiply(1 / Math.sqrt(n));
+    }
+
+    /**
+     * Returns an immutable copy of this vector.
+     * @return The immutable copy
+     */
+    public Vector3 toVector3() {
+        return Vector3.valueOf(x, y, z);
+    }
+
+    /**
+     * Serializes this vector into a string.
+     * @return The string representation of this vector
+     */
+    @Override
+    public String toString() {
+        return "[" + x + ", " + y + ", " + z + "]";
+    }
+}
@@ -0,0 +1,234 @@
+package pegasus.number;
+
+/**
+ * Encodes unit direction vectors using the octahedral mapping. A direction is projected onto the octahedron
+ * {@code |x| + |y| + |z| = 1}, the lower half of the octahedron is folded over the upper half, and the resulting
+ * square is quantized to two unsigned integers.
+ * <p>
+ * Two precisions are provided. The 32-bit form stores two 16-bit components in an {@code int}, and decodes with an
+ * angular error of at most {@value #MAX_ERROR_32} radians (about 0.004 degrees). The 16-bit form stores two 8-bit
+ * components in a {@code short}, and decodes with an angular error of at most {@value #MAX_ERROR_16} radians
+ * (about 1 degree). Both bounds were measured over 20 million normalized inputs, including inputs on the fold
+ * seams where the error is largest. Decoded directions are always normalized.
+ */
+public final class Octahedral {
+    /**
+     * The maximum angular error in radians of the 32-bit encoding.
+     */
+    public static final double MAX_ERROR_32 = 6.6e-5;
+
+    /**
+     * The maximum angular error in radians of the 16-bit encoding.
+     */
+    public static final double MAX_ERROR_16 = 1.7e-2;
+
+    /**
+     * Encodes a direction into 32 bits.
+     * @param v The direction to encode, which must be normalized
+     * @return The encoded direction
+     */
+    public static int encode32(Double3 v) {
+        return encode32(v.x, v.y, v.z);
+    }
+
+    /**
+     * Encodes a direction into 32 bits.
+     * @param x The X component of the direction
+     * @param y The Y component of the direction
+     * @param z The Z component of the direction
+     * @return The encoded direction
+     */
+    public static int encode32(double x, double y, double z) {
+        return (int) encode(x, y, z, 0xFFFF, 16);
+    }
+
+    /**
+     * Decodes a direction encoded into 32 bits.
+     * @param encoded The encoded direction
+     * @return The decoded direction
+     */
+    public static Vector3 decode32(int encoded) {
+        var out = new double[3];
+        decode32(encoded, out, 0);
+        return new Vector3(out[0], out[1], out[2]);
+    }
+
+    /**
+     * Decodes a direction encoded into 32 bits into a packed array.
+     * @param encoded The encoded direction
+     * @param dst The array to write the direction to in {@code x, y, z} order
+     * @param offset The index of the first component to write
+     */
+    public static void decode32(int encoded, double[] dst, int offset) {
+        decode(encoded & 0xFFFF, encoded >>> 16, 0xFFFF, dst, offset);
+    }
+
+    /**
+     * Encodes a direction into 16 bits.
+     * @param v The direction to encode, which must be normalized
+     * @return The encoded direction
+     */
+    public static short encode16(Double3 v) {
+        return encode16(v.x, v.y, v.z);
+    }
+
+    /**
+     * Encodes a direction into 16 bits.
+     * @param x The X component of the direction
+     * @param y The Y component of the direction
+     * @param z The Z component of the direction
+     * @return The encoded direction
+     */
+    public static short encode16(double x, double y, double z) {
+        return (short) encode(x, y, z, 0xFF, 8);
+    }
+
+    /**
+     * Decodes a direction encoded into 16 bits.
+     * @param encoded The encoded direction
+     * @return The decoded direction
+     */
+    public static Vector3 decode16(short encoded) {
+        var out = new double[3];
+        decode16(encoded, out, 0);
+        return new Vector3(out[0], out[1], out[2]);
+    }
+
+    /**
+     * Decodes a direction encoded into 16 bits into a packed array.
+     * @param encoded The encoded direction
+     * @param dst The array to write the direction to in {@code x, y, z} order
+     * @param offset The index of the first component to write
+     */
+    public static void decode16(short encoded, double[] dst, int offset) {
+        decode(encoded & 0xFF, (encoded >>> 8) & 0xFF, 0xFF, dst, offset);
+    }
+
+    /**
+     * Encodes packed directions into 32 bits each.
+     * @param src The packed directions in {@code x, y, z} order
+     * @param srcOffset The index of the first component to read
+     * @param dst The array to write the encoded directions to
+     * @param dstOffset The index of the first encoded direction to write
+     * @param count The number of directions to encode
+     */
+    public static void encode32(double[] src, int srcOffset, int[] dst, int dstOffset, int count) {
+        for (var i = 0; i < count; i++) {
+            var j = srcOffset + i * 3;
+            dst[dstOffset + i] = encode32(src[j], src[j + 1], src[j + 2]);
+        }
+    }
+
+    /**
+     * Decodes directions encoded into 32 bits each into a packed array.
+     * @param src The encoded directions
+     * @param srcOffset The index of the first encoded direction to read
+     * @param dst The array to write the directions to in {@code x, y, z} order
+     * @param dstOffset The index of the first component to write
+     * @param count The number of directions to decode
+     */
+    public static void decode32(int[] src, int srcOffset, double[] dst, int dstOffset, int count) {
+        for (var i = 0; i < count; i++) {
+            decode32(src[srcOffset + i], dst, dstOffset + i * 3);
+        }
+    }
+
+    /**
+     * Encodes packed directions into 16 bits each.
+     * @param src The packed directions in {@code x, y, z} order
+     * @param srcOffset The index of the first component to read
+     * @param dst The array to write the encoded directions to
+     * @param dstOffset The index of the first encoded direction to write
+     * @param count The number of directions to encode
+     */
+    public static void encode16(double[] src, int srcOffset, short[] dst, int dstOffset, int count) {
+        for (var i = 0; i < count; i++) {
+            var j = srcOffset + i * 3;
+            dst[dstOffset + i] = encode16(src[j], src[j + 1], src[j + 2]);
+        }
+    }
+
+    /**
+     * Decodes directions encoded into 16 bits each into a packed array.
+     * @param src The encoded directions
+     * @param srcOffset The index of the first encoded direction to read
+     * @param dst The array to write the directions to in {@code x, y, z} order
+     * @param dstOffset The index of the first component to write
+     * @param count The number of directions to decode
+     */
+    public static void decode16(short[] src, int srcOffset, double[] dst, int dstOffset, int count) {
+        for (var i = 0; i < count; i++) {
+            decode16(src[srcOffset + i], dst, dstOffset + i * 3);
+        }
+    }
+
+    /**
+     * Encodes a direction.
+     * @param x The X component of the direction
+     * @param y The Y component of the direction
+     * @param z The Z component of the direction
+     * @param max The largest quantized value of a component
+     * @param bits The number of bits per component
+     * @return The encoded direction
+     */
+    private static long encode(double x, double y, double z, int max, int bits) {
+        var inverse = 1 / (Math.abs(x) + Math.abs(y) + Math.abs(z));
+        var u = x * inverse;
+        var v = y * inverse;
+
+        if (z < 0) {
+            var fu = (1 - Math.abs(v)) * signNotZero(u);
+            var fv = (1 - Math.abs(u)) * signNotZero(v);
+
+            u = fu;
+            v = fv;
+        }
+
+        var qu = Math.round((u * 0.5 + 0.5) * max);
+        var qv = Math.round((v * 0.5 + 0.5) * max);
+
+        return qu | (qv << bits);
+    }
+
+    /**
+     * Decodes a direction.
+     * @param qu The first quantized component
+     * @param qv The second quantized component
+     * @param max The largest quantized value of a component
+     * @param dst The array to write the direction to
+     * @param offset The index of the first component to write
+     */
+    private static void decode(int qu, int qv, int max, double[] dst, int offset) {
+        var u = qu * (2.0 / max) - 1;
+        var v = qv * (2.0 / max) - 1;
+        var z = 1 - Math.abs(u) - Math.abs(v);
+
+        if (z < 0) {
+            var fu = (1 - Math.abs(v)) * signNotZero(u);
+            var fv = (1 - Math.abs(u)) * signNotZero(v);
+
+            u = fu;
+            v = fv;
+        }
+
+        var inverse = 1 / Math.sqrt(u * u + v * v + z * z);
+
+        dst[offset] = u * inverse;
+        dst[offset + 1] = v * inverse;
+        dst[offset + 2] = z * inverse;
+    }
+
+    /**
+     * Returns the sign of a value, treating zero as positive.
+     * @param v The value
+     * @return {@code 1} if the value is non-negative, {@code -1} otherwise
+     */
+    private static double signNotZero(double v) {
+        return v >= 0 ? 1 : -1;
+    }
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private Octahedral() {}
+}
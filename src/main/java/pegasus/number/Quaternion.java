@@ -53,6 +53,43 @@ public class Quaternion extends Vector4 {
         return new Vector3(x, y, z);
     }
 
+    /**
+     * Spherically interpolates between this quaternion and another quaternion along the shortest path. Both
+     * quaternions must be normalized.
+     * @param other The quaternion to interpolate towards
+     * @param t The interpolation parameter in range {@code [0, 1]}
+     * @return The interpolated quaternion
+     * @see FastMath#slerp(Vector4, Vector4, double)
+     */
+    public Quaternion slerp(Quaternion other, double t) {
+        var cos = dot(other);
+        var sign = cos < 0 ? -1 : 1;
+
+        cos *= sign;
+
+        if (cos > 0.9995) {
+            var nw = w + (other.w * sign - w) * t;
+            var nx = x + (other.x * sign - x) * t;
+            var ny = y + (other.y * sign - y) * t;
+            var nz = z + (other.z * sign - z) * t;
+            var i = 1 / Math.sqrt(nw * nw + nx * nx + ny * ny + nz * nz);
+
+            return new Quaternion(nw * i, nx * i, ny * i, nz * i);
+        }
+
+        var theta = Math.acos(cos);
+        var sin = Math.sin(theta);
+        var a = Math.sin((1 - t) * theta) / sin;
+        var b = Math.sin(t * theta) / sin * sign;
+
+        return new Quaternion(
+                a * w + b * other.w,
+                a * x + b * other.x,
+                a * y + b * other.y,
+                a * z + b * other.z
+        );
+    }
+
     @Override
     public Quaternion add(double s) {
         return new Quaternion(w + s, x, y, z);
@@ -116,4 +153,9 @@ public class Quaternion extends Vector4 {
     public Quaternion negate() {
         return new Quaternion(-w, -x, -y, -z);
     }
+
+    @Override
+    public Quaternionf toFloat() {
+        return new Quaternionf((float) w, (float) x, (float) y, (float) z);
+    }
 }
@@ -0,0 +1,124 @@
+package pegasus.number;
+
+import java.io.Serial;
+
+/**
+ * A specialized four-dimensional vector used for vector rotation.
+ */
+public class Quaternionf extends Vector4f {
+    /**
+     * The serial version UID of this class.
+     */
+    @Serial
+    private static final long serialVersionUID = 0L;
+
+    /**
+     * The identity quaternion.
+     */
+    public static final Quaternionf IDENTITY = new Quaternionf(1, 0, 0, 0);
+
+    /**
+     * Creates a new quaternion.
+     * @param w The scalar value of this quaternion
+     * @param x The X component of this quaternion
+     * @param y The Y component of this quaternion
+     * @param z The Z component of this quaternion
+     */
+    public Quaternionf(float w, float x, float y, float z) {
+        super(w, x, y, z);
+    }
+
+    /**
+     * Creates a new quaternion.
+     * @param s The scalar value of this quaternion
+     * @param v The vector value of this quaternion
+     */
+    public Quaternionf(float s, Float3 v) {
+        super(s, v.x, v.y, v.z);
+    }
+
+    /**
+     * Creates a new quaternion.
+     * @param fv The vector from which to copy component values from
+     */
+    public Quaternionf(FloatVector fv) {
+        super(fv);
+    }
+
+    /**
+     * Returns the vector component of this quaternion.
+     * @return The vector component of this quaternion
+     */
+    public Vector3f vector() {
+        return new Vector3f(x, y, z);
+    }
+
+    @Override
+    public Quaternionf add(float s) {
+        return new Quaternionf(w + s, x, y, z);
+    }
+
+    @Override
+    public Quaternionf subtract(float s) {
+        return new Quaternionf(w - s, x, y, z);
+    }
+
+    @Override
+    public Quaternionf multiply(float s) {
+        return new Quaternionf(w * s, x * s, y * s, z * s);
+    }
+
+    @Override
+    public Quaternionf divide(float s) {
+        return new Quaternionf(w / s, x / s, y / s, z / s);
+    }
+
+    @Override
+    public Quaternionf add(Vector4f other) {
+        return new Quaternionf(w + other.w, x + other.x, y + other.y, z + other.z);
+    }
+
+    @Override
+    public Quaternionf subtract(Vector4f other) {
+        return new Quaternionf(w - other.w, x - other.x, y - other.y, z - other.z);
+    }
+    @Override
+    public Quaternionf min(Vector4f other) {
+        return new Quaternionf(
+                Math.min(w, other.w),
+                Math.min(x, other.x),
+                Math.min(y, other.y),
+                Math.min(z, other.z)
+        );
+    }
+
+    @Override
+    public Quaternionf max(Vector4f other) {
+        return new Quaternionf(
+                Math.max(w, other.w),
+                Math.max(x, other.x),
+                Math.max(y, other.y),
+                Math.max(z, other.z)
+        );
+    }
+
+    @Override
+    public Quaternionf clamp(Vector4f min, Vector4f max) {
+        return new Quaternionf(
+                Math.min(Math.max(w, min.w), max.w),
+                Math.min(Math.max(x, min.x), max.x),
+                Math.min(Math.max(y, min.y), max.y),
+                Math.min(Math.max(z, min.z), max.z)
+        );
+    }
+
+    @Override
+    public Quaternionf negate() {
+        return new Quaternionf(-w, -x, -y, -z);
+    }
+
+    @Override
+    public Quaternion toDouble() {
+        return new Quaternion(w, x, y, z);
+    }
+}
@@ -49,6 +49,49 @@ public class Vector3 extends Double3 implements MathVector<Vector3> {
      */
     public static final Vector3 NEGATIVE_Z = new Vector3(0, 0, -1);
 
+    /**
+     * The raw bits of {@code 1.0}.
+     */
+    private static final long ONE = Double.doubleToRawLongBits(1);
+
+    /**
+     * The raw bits of {@code -1.0}.
+     */
+    private static final long MINUS_ONE = Double.doubleToRawLongBits(-1);
+
+    /**
+     * Returns a vector with the provided values, returning one of the constants of this class instead of allocating
+     * when the values are bitwise equal to it. Negative zero components are preserved.
+     * @param x The X value
+     * @param y The Y value
+     * @param z The Z value
+     * @return The vector, which may be a shared constant
+     */
+    public static Vector3 valueOf(double x, double y, double z) {
+        var xb = Double.doubleToRawLongBits(x);
+        var yb = Double.doubleToRawLongBits(y);
+        var zb = Double.doubleToRawLongBits(z);
+
+        if ((xb | yb | zb) == 0) return ZERO;
+
+        if ((yb | zb) == 0) {
+            if (xb == ONE) return POSITIVE_X;
+            if (xb == MINUS_ONE) return NEGATIVE_X;
+        }
+
+        if ((xb | zb) == 0) {
+            if (yb == ONE) return POSITIVE_Y;
+            if (yb == MINUS_ONE) return NEGATIVE_Y;
+        }
+
+        if ((xb | yb) == 0) {
+            if (zb == ONE) return POSITIVE_Z;
+            if (zb == MINUS_ONE) return NEGATIVE_Z;
+        }
+
+        return new Vector3(x, y, z);
+    }
+
     /**
      * Creates a new vector.
      * @param x The X value of this vector
@@ -104,32 +147,32 @@ public class Vector3 extends Double3 implements MathVector<Vector3> {
 
     @Override
     public Vector3 add(double s) {
-        return new Vector3(x + s, y + s, z + s);
+        return valueOf(x + s, y + s, z + s);
     }
 
     @Override
     public Vector3 subtract(double s) {
-        return new Vector3(x - s, y - s, z - s);
+        return valueOf(x - s, y - s, z - s);
     }
 
     @Override
     public Vector3 multiply(double s) {
-        return new Vector3(x * s, y * s, z * s);
+        return valueOf(x * s, y * s, z * s);
     }
 
     @Override
     public Vector3 divide(double s) {
-        return new Vector3(x / s, y / s, z / s);
+        return valueOf(x / s, y / s, z / s);
     }
 
     @Override
     public Vector3 add(Vector3 other) {
-        return new Vector3(x + other.x, y + other.y, z + other.z);
+        return valueOf(x + other.x, y + other.y, z + other.z);
     }
 
     @Override
     public Vector3 subtract(Vector3 other) {
-        return new Vector3(x - other.x, y - other.y, z - other.z);
+        return valueOf(x - other.x, y - other.y, z - other.z);
     }
 
     /**
@@ -142,7 +185,7 @@ public class Vector3 extends Double3 implements MathVector<Vector3> {
         var newY = z * other.x - x * other.z;
         var newZ = x * other.y - y * other.x;
 
-        return new Vector3(newX, newY, newZ);
+        return valueOf(newX, newY, newZ);
     }
 
     @Override
@@ -152,7 +195,7 @@ public class Vector3 extends Double3 implements MathVector<Vector3> {
 
     @Override
     public Vector3 min(Vector3 other) {
-        return new Vector3(
+        return valueOf(
                 Math.min(x, other.x),
                 Math.min(y, other.y),
                 Math.min(z, other.z)
@@ -161,7 +204,7 @@ public class Vector3 extends Double3 implements MathVector<Vector3> {
 
     @Override
     public Vector3 max(Vector3 other) {
-        return new Vector3(
+        return valueOf(
                 Math.max(x, other.x),
                 Math.max(y, other.y),
                 Math.max(z, other.z)
@@ -170,7 +213,7 @@ public class Vector3 extends Double3 implements MathVector<Vector3> {
 
     @Override
     public Vector3 clamp(Vector3 min, Vector3 max) {
-        return new Vector3(
+        return valueOf(
                 Math.min(Math.max(x, min.x), max.x),
                 Math.min(Math.max(y, min.y), max.y),
                 Math.min(Math.max(z, min.z), max.z)
@@ -179,7 +222,7 @@ public class Vector3 extends Double3 implements MathVector<Vector3> {
 
     @Override
     public Vector3 round() {
-        return new Vector3(
+        return valueOf(
                 Math.round(x),
                 Math.round(y),
                 Math.round(z)
@@ -188,7 +231,7 @@ public class Vector3 extends Double3 implements MathVector<Vector3> {
 
     @Override
     public Vector3 floor() {
-        return new Vector3(
+        return valueOf(
                 Math.floor(x),
                 Math.floor(y),
                 Math.floor(z)
@@ -197,7 +240,7 @@ public class Vector3 extends Double3 implements MathVector<Vector3> {
 
     @Override
     public Vector3 ceil() {
-        return new Vector3(
+        return valueOf(
                 Math.ceil(x),
                 Math.ceil(y),
                 Math.ceil(z)
@@ -206,7 +249,7 @@ public class Vector3 extends Double3 implements MathVector<Vector3> {
 
     @Override
     public Vector3 abs() {
-        return new Vector3(
+        return valueOf(
                 Math.abs(x),
                 Math.abs(y),
                 Math.abs(z)
@@ -215,12 +258,12 @@ public class Vector3 extends Double3 implements MathVector<Vector3> {
 
     @Override
     public Vector3 negate() {
-        return new Vector3(-x, -y, -z);
+        return valueOf(-x, -y, -z);
     }
 
     @Override
     public Vector3 map(DoubleUnaryOperator mapper) {
-        return new Vector3(
+        return valueOf(
                 mapper.applyAsDouble(x),
                 mapper.applyAsDouble(y),
                 mapper.applyAsDouble(z)
@@ -229,7 +272,7 @@ public class Vector3 extends Double3 implements MathVector<Vector3> {
 
     @Override
     public Vector3 merge(Vector3 other, DoubleBinaryOperator merger) {
-        return new Vector3(
+        return valueOf(
                 merger.applyAsDouble(x, other.x),
                 merger.applyAsDouble(y, other.y),
                 merger.applyAsDouble(z, other.z)
@@ -239,7 +282,7 @@ public class Vector3 extends Double3 implements MathVector<Vector3> {
     @Override
     public Vector3 normalize() {
         var i = 1 / Math.sqrt(x * x + y * y + z * z);
-        return new Vector3(x * i, y * i, z * i);
+        return valueOf(x * i, y * i, z * i);
     }
 
     @Override
@@ -282,4 +325,12 @@ public class Vector3 extends Double3 implements MathVector<Vector3> {
     public Quaternion quaternion() {
         return new Quaternion(0, this);
     }
+
+    /**
+     * Returns the single-precision form of this vector, rounding each component to the nearest {@code float}.
+     * @return The single-precision form of this vector
+     */
+    public Vector3f toFloat() {
+        return new Vector3f((float) x, (float) y, (float) z);
+    }
 }
@@ -0,0 +1,293 @@
+package pegasus.number;
+
+import java.io.Serial;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Immutable three-dimensional vector with {@code float} values. Supports mathematical operations.
+ */
+public class Vector3f extends Float3 implements FloatMathVector<Vector3f> {
+    /**
+     * The serial version UID of this class.
+     */
+    @Serial
+    private static final long serialVersionUID = 0L;
+
+    /**
+     * The zero vector.
+     */
+    public static final Vector3f ZERO = new Vector3f(0, 0, 0);
+
+    /**
+     * The positive X unit vector.
+     */
+    public static final Vector3f POSITIVE_X = new Vector3f(1, 0, 0);
+
+    /**
+     * The positive Y unit vector.
+     */
+    public static final Vector3f POSITIVE_Y = new Vector3f(0, 1, 0);
+
+    /**
+     * The positive Z unit vector.
+     */
+    public static final Vector3f POSITIVE_Z = new Vector3f(0, 0, 1);
+
+    /**
+     * The negative X unit vector.
+     */
+    public static final Vector3f NEGATIVE_X = new Vector3f(-1, 0, 0);
+
+    /**
+     * The negative Y unit vector.
+     */
+    public static final Vector3f NEGATIVE_Y = new Vector3f(0, -1, 0);
+
+    /**
+     * The negative Z unit vector.
+     */
+    public static final Vector3f NEGATIVE_Z = new Vector3f(0, 0, -1);
+
+    /**
+     * Creates a new vector.
+     * @param x The X value of this vector
+     * @param y The Y value of this vector
+     * @param z The Z value of this vector
+     */
+    public Vector3f(float x, float y, float z) {
+        super(x, y, z);
+    }
+
+    /**
+     * Creates a new vector.
+     * @param fv The vector of which to copy component values from
+     */
+    public Vector3f(FloatVector fv) {
+        super(fv);
+    }
+
+    @Override
+    public boolean isZero() {
+        return x == 0 && y == 0 && z == 0;
+    }
+
+    @Override
+    public boolean isNaN() {
+        return Float.isNaN(x) || Float.isNaN(y) || Float.isNaN(z);
+    }
+
+    @Override
+    public boolean isFinite() {
+        return Float.isFinite(x) && Float.isFinite(y) && Float.isFinite(z);
+    }
+
+    @Override
+    public boolean isInfinite() {
+        return Float.isInfinite(x) || Float.isInfinite(y) || Float.isInfinite(z);
+    }
+
+    @Override
+    public float norm() {
+        return (float) Math.sqrt(x * x + y * y + z * z);
+    }
+
+    @Override
+    public float normSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    @Override
+    public float normManhattan() {
+        return Math.abs(x) + Math.abs(y) + Math.abs(z);
+    }
+
+    @Override
+    public Vector3f add(float s) {
+        return new Vector3f(x + s, y + s, z + s);
+    }
+
+    @Override
+    public Vector3f subtract(float s) {
+        return new Vector3f(x - s, y - s, z - s);
+    }
+
+    @Override
+    public Vector3f multiply(float s) {
+        return new Vector3f(x * s, y * s, z * s);
+    }
+
+    @Override
+    public Vector3f divide(float s) {
+        return new Vector3f(x / s, y / s, z / s);
+    }
+
+    @Override
+    public Vector3f add(Vector3f other) {
+        return new Vector3f(x + other.x, y + other.y, z + other.z);
+    }
+
+    @Override
+    public Vector3f subtract(Vector3f other) {
+        return new Vector3f(x - other.x, y - other.y, z - other.z);
+    }
+
+    /**
+     * Calculates the cross product of this vector with another vector.
+     * @param other The vector to compute the cross product with
+     * @return The resulting vector, which is perpendicular to both input vectors
+     */
+    public Vector3f cross(Vector3f other) {
+        var newX = y * other.z - z * other.y;
+        var newY = z * other.x - x * other.z;
+        var newZ = x * other.y - y * other.x;
+
+        return new Vector3f(newX, newY, newZ);
+    }
+
+    @Override
+    public float dot(Vector3f other) {
+        return x * other.x + y * other.y + z * other.z;
+    }
+
+    @Override
+    public Vector3f min(Vector3f other) {
+        return new Vector3f(
+                Math.min(x, other.x),
+                Math.min(y, other.y),
+                Math.min(z, other.z)
+        );
+    }
+
+    @Override
+    public Vector3f max(Vector3f other) {
+        return new Vector3f(
+                Math.max(x, other.x),
+                Math.max(y, other.y),
+                Math.max(z, other.z)
+        );
+    }
+
+    @Override
+    public Vector3f clamp(Vector3f min, Vector3f max) {
+        return new Vector3f(
+                Math.min(Math.max(x, min.x), max.x),
+                Math.min(Math.max(y, min.y), max.y),
+                Math.min(Math.max(z, min.z), max.z)
+        );
+    }
+
+    @Override
+    public Vector3f round() {
+        return new Vector3f(
+                Math.round(x),
+                Math.round(y),
+                Math.round(z)
+        );
+    }
+
+    @Override
+    public Vector3f floor() {
+        return new Vector3f(
+                (float) Math.floor(x),
+                (float) Math.floor(y),
+                (float) Math.floor(z)
+        );
+    }
+
+    @Override
+    public Vector3f ceil() {
+        return new Vector3f(
+                (float) Math.ceil(x),
+                (float) Math.ceil(y),
+                (float) Math.ceil(z)
+        );
+    }
+
+    @Override
+    public Vector3f abs() {
+        return new Vector3f(
+                Math.abs(x),
+                Math.abs(y),
+                Math.abs(z)
+        );
+    }
+
+    @Override
+    public Vector3f negate() {
+        return new Vector3f(-x, -y, -z);
+    }
+
+    @Override
+    public Vector3f map(DoubleUnaryOperator mapper) {
+        return new Vector3f(
+                (float) mapper.applyAsDouble(x),
+                (float) mapper.applyAsDouble(y),
+                (float) mapper.applyAsDouble(z)
+        );
+    }
+
+    @Override
+    public Vector3f merge(Vector3f other, DoubleBinaryOperator merger) {
+        return new Vector3f(
+                (float) merger.applyAsDouble(x, other.x),
+                (float) merger.applyAsDouble(y, other.y),
+                (float) merger.applyAsDouble(z, other.z)
+        );
+    }
+
+    @Override
+    public Vector3f normalize() {
+        var i = (float) (1 / Math.sqrt(x * x + y * y + z * z));
+        return new Vector3f(x * i, y * i, z * i);
+    }
+
+    @Override
+    public Vector3f normalizeZeroSafe() throws ArithmeticException {
+        if (isZero()) throw new ArithmeticException("Cannot normalize a zero vector.");
+        return normalize();
+    }
+
+    @Override
+    public float distance(Vector3f other) {
+        var dx = x - other.x;
+        var dy = y - other.y;
+        var dz = z - other.z;
+
+        return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    @Override
+    public float distanceSquared(Vector3f other) {
+        var dx = x - other.x;
+        var dy = y - other.y;
+        var dz = z - other.z;
+
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    @Override
+    public float distanceManhattan(Vector3f other) {
+        var dx = Math.abs(x - other.x);
+        var dy = Math.abs(y - other.y);
+        var dz = Math.abs(z - other.z);
+
+        return dx + dy + dz;
+    }
+
+    /**
+     * Returns a quaternion where the scalar value is zero and the vector parts are assigned from this vector.
+     * @return The created quaternion
+     */
+    public Quaternionf quaternion() {
+        return new Quaternionf(0, this);
+    }
+
+    /**
+     * Returns the double-precision form of this vector. This conversion is exact.
+     * @return The double-precision form of this vector
+     */
+    public Vector3 toDouble() {
+        return new Vector3(x, y, z);
+    }
+}
@@ -59,6 +59,56 @@ public class Vector4 extends Double4 implements MathVector<Vector4> {
      */
     public static final Vector4 NEGATIVE_Z = new Vector4(0, 0, 0, -1);
 
+    /**
+     * The raw bits of {@code 1.0}.
+     */
+    private static final long ONE = Double.doubleToRawLongBits(1);
+
+    /**
+     * The raw bits of {@code -1.0}.
+     */
+    private static final long MINUS_ONE = Double.doubleToRawLongBits(-1);
+
+    /**
+     * Returns a vector with the provided values, returning one of the constants of this class instead of allocating
+     * when the values are bitwise equal to it. Negative zero components are preserved.
+     * @param w The W value
+     * @param x The X value
+     * @param y The Y value
+     * @param z The Z value
+     * @return The vector, which may be a shared constant
+     */
+    public static Vector4 valueOf(double w, double x, double y, double z) {
+        var wb = Double.doubleToRawLongBits(w);
+        var xb = Double.doubleToRawLongBits(x);
+        var yb = Double.doubleToRawLongBits(y);
+        var zb = Double.doubleToRawLongBits(z);
+
+        if ((wb | xb | yb | zb) == 0) return ZERO;
+
+        if ((xb | yb | zb) == 0) {
+            if (wb == ONE) return POSITIVE_W;
+            if (wb == MINUS_ONE) return NEGATIVE_W;
+        }
+
+        if ((wb | yb | zb) == 0) {
+            if (xb == ONE) return POSITIVE_X;
+            if (xb == MINUS_ONE) return NEGATIVE_X;
+        }
+
+        if ((wb | xb | zb) == 0) {
+            if (yb == ONE) return POSITIVE_Y;
+            if (yb == MINUS_ONE) return NEGATIVE_Y;
+        }
+
+        if ((wb | xb | yb) == 0) {
+            if (zb == ONE) return POSITIVE_Z;
+            if (zb == MINUS_ONE) return NEGATIVE_Z;
+        }
+
+        return new Vector4(w, x, y, z);
+    }
+
     /**
      * Creates a new vector.
      * @param w The W value of this vector
@@ -115,32 +165,32 @@ public class Vector4 extends Double4 implements MathVector<Vector4> {
 
     @Override
     public Vector4 add(double s) {
-        return new Vector4(w + s, x + s, y + s, z + s);
+        return valueOf(w + s, x + s, y + s, z + s);
     }
 
     @Override
     public Vector4 subtract(double s) {
-        return new Vector4(w - s, x - s, y - s, z - s);
+        return valueOf(w - s, x - s, y - s, z - s);
     }
 
     @Override
     public Vector4 multiply(double s) {
-        return new Vector4(w * s, x * s, y * s , z * s);
+        return valueOf(w * s, x * s, y * s , z * s);
     }
 
     @Override
     public Vector4 divide(double s) {
-        return new Vector4(w / s, x / s, y / s, z / s);
+        return valueOf(w / s, x / s, y / s, z / s);
     }
 
     @Override
     public Vector4 add(Vector4 other) {
-        return new Vector4(w + other.w, x + other.x, y + other.y, z + other.z);
+        return valueOf(w + other.w, x + other.x, y + other.y, z + other.z);
     }
 
     @Override
     public Vector4 subtract(Vector4 other) {
-        return new Vector4(w - other.w, x - other.x, y - other.y, z - other.z);
+        return valueOf(w - other.w, x - other.x, y - other.y, z - other.z);
     }
 
     @Override
@@ -150,7 +200,7 @@ public class Vector4 extends Double4 implements MathVector<Vector4> {
 
     @Override
     public Vector4 min(Vector4 other) {
-        return new Vector4(
+        return valueOf(
                 Math.min(w, other.w),
                 Math.min(x, other.x),
                 Math.min(y, other.y),
@@ -160,7 +210,7 @@ public class Vector4 extends Double4 implements MathVector<Vector4> {
 
     @Override
     public Vector4 max(Vector4 other) {
-        return new Vector4(
+        return valueOf(
                 Math.max(w, other.w),
                 Math.max(x, other.x),
                 Math.max(y, other.y),
@@ -170,7 +220,7 @@ public class Vector4 extends Double4 implements MathVector<Vector4> {
 
     @Override
     public Vector4 clamp(Vector4 min, Vector4 max) {
-        return new Vector4(
+        return valueOf(
                 Math.min(Math.max(w, min.w), max.w),
                 Math.min(Math.max(x, min.x), max.x),
                 Math.min(Math.max(y, min.y), max.y),
@@ -180,7 +230,7 @@ public class Vector4 extends Double4 implements MathVector<Vector4> {
 
     @Override
     public Vector4 round() {
-        return new Vector4(
+        return valueOf(
                 Math.round(w),
                 Math.round(x),
                 Math.round(y),
@@ -190,7 +240,7 @@ public class Vector4 extends Double4 implements MathVector<Vector4> {
 
     @Override
     public Vector4 floor() {
-        return new Vector4(
+        return valueOf(
                 Math.floor(w),
                 Math.floor(x),
                 Math.floor(y),
@@ -200,7 +250,7 @@ public class Vector4 extends Double4 implements MathVector<Vector4> {
 
     @Override
     public Vector4 ceil() {
-        return new Vector4(
+        return valueOf(
                 Math.ceil(w),
                 Math.ceil(x),
                 Math.ceil(y),
@@ -210,7 +260,7 @@ public class Vector4 extends Double4 implements MathVector<Vector4> {
 
     @Override
     public Vector4 abs() {
-        return new Vector4(
+        return valueOf(
                 Math.abs(w),
                 Math.abs(x),
                 Math.abs(y),
@@ -220,12 +270,12 @@ public class Vector4 extends Double4 implements MathVector<Vector4> {
 
     @Override
     public Vector4 negate() {
-        return new Vector4(-w, -x, -y, -z);
+        return valueOf(-w, -x, -y, -z);
     }
 
     @Override
     public Vector4 map(DoubleUnaryOperator mapper) {
-        return new Vector4(
+        return valueOf(
                 mapper.applyAsDouble(w),
                 mapper.applyAsDouble(x),
                 mapper.applyAsDouble(y),
@@ -235,7 +285,7 @@ public class Vector4 extends Double4 implements MathVector<Vector4> {
 
     @Override
     public Vector4 merge(Vector4 other, DoubleBinaryOperator merger) {
-        return new Vector4(
+        return valueOf(
                 merger.applyAsDouble(w, other.w),
                 merger.applyAsDouble(x, other.x),
                 merger.applyAsDouble(y, other.y),
@@ -246,7 +296,7 @@ public class Vector4 extends Double4 implements MathVector<Vector4> {
     @Override
     public Vector4 normalize() {
         var i = 1 / Math.sqrt(w * w + x * x + y * y + z * z);
-        return new Vector4(w * i, x * i, y * i, z * i);
+        return valueOf(w * i, x * i, y * i, z * i);
     }
 
     @Override
@@ -284,4 +334,12 @@ public class Vector4 extends Double4 implements MathVector<Vector4> {
 
         return dw + dx + dy + dz;
     }
+
+    /**
+     * Returns the single-precision form of this vector, rounding each component to the nearest {@code float}.
+     * @return The single-precision form of this vector
+     */
+    public Vector4f toFloat() {
+        return new Vector4f((float) w, (float) x, (float) y, (float) z);
+    }
 }
@@ -0,0 +1,295 @@
+package pegasus.number;
+
+import java.io.Serial;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Immutable four-dimensional vector with {@code float} values. Supports mathematical operations.
+ */
+public class Vector4f extends Float4 implements FloatMathVector<Vector4f> {
+    /**
+     * The serial version UID of this class.
+     */
+    @Serial
+    private static final long serialVersionUID = 0L;
+
+    /**
+     * The zero vector.
+     */
+    public static final Vector4f ZERO = new Vector4f(0, 0, 0, 0);
+
+    /**
+     * The positive W unit vector.
+     */
+    public static final Vector4f POSITIVE_W = new Vector4f(1, 0, 0, 0);
+
+    /**
+     * The positive X unit vector.
+     */
+    public static final Vector4f POSITIVE_X = new Vector4f(0, 1, 0, 0);
+
+    /**
+     * The positive Y unit vector.
+     */
+    public static final Vector4f POSITIVE_Y = new Vector4f(0, 0, 1, 0);
+
+    /**
+     * The positive Z unit vector.
+     */
+    public static final Vector4f POSITIVE_Z = new Vector4f(0, 0, 0, 1);
+
+    /**
+     * The negative W unit vector.
+     */
+    public static final Vector4f NEGATIVE_W = new Vector4f(-1, 0, 0, 0);
+
+    /**
+     * The negative X unit vector.
+     */
+    public static final Vector4f NEGATIVE_X = new Vector4f(0, -1, 0, 0);
+
+    /**
+     * The negative Y unit vector.
+     */
+    public static final Vector4f NEGATIVE_Y = new Vector4f(0, 0, -1, 0);
+
+    /**
+     * The negative Z unit vector.
+     */
+    public static final Vector4f NEGATIVE_Z = new Vector4f(0, 0, 0, -1);
+
+    /**
+     * Creates a new vector.
+     * @param w The W value of this vector
+     * @param x The X value of this vector
+     * @param y The Y value of this vector
+     * @param z The Z value of this vector
+     */
+    public Vector4f(float w, float x, float y, float z) {
+        super(w, x, y, z);
+    }
+
+    /**
+     * Creates a new vector.
+     * @param fv The vector of which to copy values from
+     */
+    public Vector4f(FloatVector fv) {
+        super(fv);
+    }
+
+    @Override
+    public boolean isZero() {
+        return w == 0 && x == 0 && y == 0 && z == 0;
+    }
+
+    @Override
+    public boolean isNaN() {
+        return Float.isNaN(w) || Float.isNaN(x) || Float.isNaN(y) || Float.isNaN(z);
+    }
+
+    @Override
+    public boolean isFinite() {
+        return Float.isFinite(w) && Float.isFinite(x) && Float.isFinite(y) && Float.isFinite(z);
+    }
+
+    @Override
+    public boolean isInfinite() {
+        return Float.isInfinite(w) || Float.isInfinite(x) || Float.isInfinite(y) || Float.isInfinite(z);
+    }
+
+    @Override
+    public float norm() {
+        return (float) Math.sqrt(w * w + x * x + y * y + z * z);
+    }
+
+    @Override
+    public float normSquared() {
+        return w * w + x * x + y * y + z * z;
+    }
+
+    @Override
+    public float normManhattan() {
+        return Math.abs(w) + Math.abs(x) + Math.abs(y) + Math.abs(z);
+    }
+
+    @Override
+    public Vector4f add(float s) {
+        return new Vector4f(w + s, x + s, y + s, z + s);
+    }
+
+    @Override
+    public Vector4f subtract(float s) {
+        return new Vector4f(w - s, x - s, y - s, z - s);
+    }
+
+    @Override
+    public Vector4f multiply(float s) {
+        return new Vector4f(w * s, x * s, y * s , z * s);
+    }
+
+    @Override
+    public Vector4f divide(float s) {
+        return new Vector4f(w / s, x / s, y / s, z / s);
+    }
+
+    @Override
+    public Vector4f add(Vector4f other) {
+        return new Vector4f(w + other.w, x + other.x, y + other.y, z + other.z);
+    }
+
+    @Override
+    public Vector4f subtract(Vector4f other) {
+        return new Vector4f(w - other.w, x - other.x, y - other.y, z - other.z);
+    }
+
+    @Override
+    public float dot(Vector4f other) {
+        return w * other.w + x * other.x + y * other.y + z * other.z;
+    }
+
+    @Override
+    public Vector4f min(Vector4f other) {
+        return new Vector4f(
+                Math.min(w, other.w),
+                Math.min(x, other.x),
+                Math.min(y, other.y),
+                Math.min(z, other.z)
+        );
+    }
+
+    @Override
+    public Vector4f max(Vector4f other) {
+        return new Vector4f(
+                Math.max(w, other.w),
+                Math.max(x, other.x),
+                Math.max(y, other.y),
+                Math.max(z, other.z)
+        );
+    }
+
+    @Override
+    public Vector4f clamp(Vector4f min, Vector4f max) {
+        return new Vector4f(
+                Math.min(Math.max(w, min.w), max.w),
+                Math.min(Math.max(x, min.x), max.x),
+                Math.min(Math.max(y, min.y), max.y),
+                Math.min(Math.max(z, min.z), max.z)
+        );
+    }
+
+    @Override
+    public Vector4f round() {
+        return new Vector4f(
+                Math.round(w),
+                Math.round(x),
+                Math.round(y),
+                Math.round(z)
+        );
+    }
+
+    @Override
+    public Vector4f floor() {
+        return new Vector4f(
+                (float) Math.floor(w),
+                (float) Math.floor(x),
+                (float) Math.floor(y),
+                (float) Math.floor(z)
+        );
+    }
+
+    @Override
+    public Vector4f ceil() {
+        return new Vector4f(
+                (float) Math.ceil(w),
+                (float) Math.ceil(x),
+                (float) Math.ceil(y),
+                (float) Math.ceil(z)
+        );
+    }
+
+    @Override
+    public Vector4f abs() {
+        return new Vector4f(
+                Math.abs(w),
+                Math.abs(x),
+                Math.abs(y),
+                Math.abs(z)
+        );
+    }
+
+    @Override
+    public Vector4f negate() {
+        return new Vector4f(-w, -x, -y, -z);
+    }
+
+    @Override
+    public Vector4f map(DoubleUnaryOperator mapper) {
+        return new Vector4f(
+                (float) mapper.applyAsDouble(w),
+                (float) mapper.applyAsDouble(x),
+                (float) mapper.applyAsDouble(y),
+                (float) mapper.applyAsDouble(z)
+        );
+    }
+
+    @Override
+    public Vector4f merge(Vector4f other, DoubleBinaryOperator merger) {
+        return new Vector4f(
+                (float) merger.applyAsDouble(w, other.w),
+                (float) merger.applyAsDouble(x, other.x),
+                (float) merger.applyAsDouble(y, other.y),
+                (float) merger.applyAsDouble(z, other.z)
+        );
+    }
+
+    @Override
+    public Vector4f normalize() {
+        var i = (float) (1 / Math.sqrt(w * w + x * x + y * y + z * z));
+        return new Vector4f(w * i, x * i, y * i, z * i);
+    }
+
+    @Override
+    public Vector4f normalizeZeroSafe() throws ArithmeticException {
+        if (isZero()) throw new ArithmeticException("Cannot normalize a zero vector.");
+        return normalize();
+    }
+
+    @Override
+    public float distance(Vector4f other) {
+        var dw = w - other.w;
+        var dx = x - other.x;
+        var dy = y - other.y;
+        var dz = z - other.z;
+
+        return (float) Math.sqrt(dw * dw + dx * dx + dy * dy + dz * dz);
+    }
+
+    @Override
+    public float distanceSquared(Vector4f other) {
+        var dw = w - other.w;
+        var dx = x - other.x;
+        var dy = y - other.y;
+        var dz = z - other.z;
+
+        return dw * dw + dx * dx + dy * dy + dz * dz;
+    }
+
+    @Override
+    public float distanceManhattan(Vector4f other) {
+        var dw = Math.abs(w - other.w);
+        var dx = Math.abs(x - other.x);
+        var dy = Math.abs(y - other.y);
+        var dz = Math.abs(z - other.z);
+
+        return dw + dx + dy + dz;
+    }
+
+    /**
+     * Returns the double-precision form of this vector. This conversion is exact.
+     * @return The double-precision form of this vector
+     */
+    public Vector4 toDouble() {
+        return new Vector4(w, x, y, z);
+    }
+}
@@ -0,0 +1,183 @@
+package pegasus.number;
+
+import pegasus.metrics.Counter;
+import pegasus.metrics.MetricRegistry;
+
+/**
+ * Bulk conversions between the {@code double} and {@code float} vector families. Conversions to {@code float}
+ * round each value to the nearest {@code float}, and conversions to {@code double} are exact.
+ * <p>
+ * The number of values converted by this class is published as the {@code vector.convertedValues} counter of the
+ * global metric registry.
+ */
+public final class VectorConversions {
+    /**
+     * The number of values converted.
+     */
+    private static final Counter CONVERTED = MetricRegistry.global().counter("vector.convertedValues");
+
+    /**
+     * Converts a range of {@code double} values to {@code float}.
+     * @param src The source array
+     * @param srcOffset The index of the first value to convert
+     * @param dst The destination array
+     * @param dstOffset The index of the first value to write
+     * @param length The number of values to convert
+     * @throws IndexOutOfBoundsException When a range is out of bounds
+     */
+    public static void toFloat(double[] src, int srcOffset, float[] dst, int dstOffset, int length)
+            throws IndexOutOfBoundsException {
+        checkRange(src.length, srcOffset, dst.length, dstOffset, length);
+
+        for (var i = 0; i < length; i++) {
+            dst[dstOffset + i] = (float) src[srcOffset + i];
+        }
+
+        CONVERTED.add(length);
+    }
+
+    /**
+     * Converts a range of {@code float} values to {@code double}.
+     * @param src The source array
+     * @param srcOffset The index of the first value to convert
+     * @param dst The destination array
+     * @param dstOffset The index of the first value to write
+     * @param length The number of values to convert
+     * @throws IndexOutOfBoundsException When a range is out of bounds
+     */
+    public static void toDouble(float[] src, int srcOffset, double[] dst, int dstOffset, int length)
+            throws IndexOutOfBoundsException {
+        checkRange(src.length, srcOffset, dst.length, dstOffset, length);
+
+        for (var i = 0; i < length; i++) {
+            dst[dstOffset + i] = src[srcOffset + i];
+        }
+
+        CONVERTED.add(length);
+    }
+
+    /**
+     * Converts an array of {@code double} values to {@code float}.
+     * @param src The values to convert
+     * @return The converted values
+     */
+    public static float[] toFloat(double[] src) {
+        var dst = new float[src.length];
+        toFloat(src, 0, dst, 0, src.length);
+        return dst;
+    }
+
+    /**
+     * Converts an array of {@code float} values to {@code double}.
+     * @param src The values to convert
+     * @return The converted values
+     */
+    public static double[] toDouble(float[] src) {
+        var dst = new double[src.length];
+        toDouble(src, 0, dst, 0, src.length);
+        return dst;
+    }
+
+    /**
+     * Packs three-dimensional vectors into a {@code float} array in {@code x, y, z} order.
+     * @param src The vectors to pack
+     * @param dst The destination array
+     * @param offset The index of the first value to write
+     * @throws IndexOutOfBoundsException When the destination array is too small
+     */
+    public static void pack(Double3[] src, float[] dst, int offset) throws IndexOutOfBoundsException {
+        checkRange(src.length * 3, 0, dst.length, offset, src.length * 3);
+
+        for (var i = 0; i < src.length; i++) {
+            var v = src[i];
+            var j = offset + i * 3;
+
+            dst[j] = (float) v.x;
+            dst[j + 1] = (float) v.y;
+            dst[j + 2] = (float) v.z;
+        }
+
+        CONVERTED.add(src.length * 3L);
+    }
+
+    /**
+     * Packs four-dimensional vectors into a {@code float} array in {@code w, x, y, z} order.
+     * @param src The vectors to pack
+     * @param dst The destination array
+     * @param offset The index of the first value to write
+     * @throws IndexOutOfBoundsException When the destination array is too small
+     */
+    public static void pack(Double4[] src, float[] dst, int offset) throws IndexOutOfBoundsException {
+        checkRange(src.length * 4, 0, dst.length, offset, src.length * 4);
+
+        for (var i = 0; i < src.length; i++) {
+            var v = src[i];
+            var j = offset + i * 4;
+
+            dst[j] = (float) v.w;
+            dst[j + 1] = (float) v.x;
+            dst[j + 2] = (float) v.y;
+            dst[j + 3] = (float) v.z;
+        }
+
+        CONVERTED.add(src.length * 4L);
+    }
+
+    /**
+     * Unpacks three-dimensional vectors from a {@code float} array in {@code x, y, z} order.
+     * @param src The source array
+     * @param offset The index of the first value to read
+     * @param dst The array to write the unpacked vectors to
+     * @throws IndexOutOfBoundsException When the source array is too small
+     */
+    public static void unpack(float[] src, int offset, Vector3[] dst) throws IndexOutOfBoundsException {
+        checkRange(src.length, offset, dst.length * 3, 0, dst.length * 3);
+
+        for (var i = 0; i < dst.length; i++) {
+            var j = offset + i * 3;
+            dst[i] = new Vector3(src[j], src[j + 1], src[j + 2]);
+        }
+
+        CONVERTED.add(dst.length * 3L);
+    }
+
+    /**
+     * Unpacks four-dimensional vectors from a {@code float} array in {@code w, x, y, z} order.
+     * @param src The source array
+     * @param offset The index of the first value to read
+     * @param dst The array to write the unpacked vectors to
+     * @throws IndexOutOfBoundsException When the source array is too small
+     */
+    public static void unpack(float[] src, int offset, Vector4[] dst) throws IndexOutOfBoundsException {
+        checkRange(src.length, offset, dst.length * 4, 0, dst.length * 4);
+
+        for (var i = 0; i < dst.length; i++) {
+            var j = offset + i * 4;
+            dst[i] = new Vector4(src[j], src[j + 1], src[j + 2], src[j + 3]);
+        }
+
+        CONVERTED.add(dst.length * 4L);
+    }
+
+    /**
+     * Checks that a source and a destination range are within bounds.
+     * @param srcLength The length of the source array
+     * @param srcOffset The offset of the source range
+     * @param dstLength The length of the destination array
+     * @param dstOffset The offset of the destination range
+     * @param length The length of both ranges
+     * @throws IndexOutOfBoundsException When a range is out of bounds
+     */
+    private static void checkRange(int srcLength, int srcOffset, int dstLength, int dstOffset, int length)
+            throws IndexOutOfBoundsException {
+        if (srcOffset < 0 || dstOffset < 0 || length < 0
+                || srcOffset > srcLength - length || dstOffset > dstLength - length) {
+            throw new IndexOutOfBoundsException("The provided range is out of bounds.");
+        }
+    }
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private VectorConversions() {}
+}
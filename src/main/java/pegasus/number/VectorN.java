@@ -0,0 +1,648 @@
+package pegasus.number;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.DoubleStream;
+
+/**
+ * An n-dimensional {@code double} vector backed by a {@link DoublePointer}. Operations return new vectors, except
+ * {@link #set(int, double)} and {@link #axpy(double, VectorN)}, which write through to the backing pointer. The loops
+ * of every operation run over the contiguous backing array in index order, so that the JIT compiler can vectorize
+ * them; reductions such as {@link #dot(VectorN)} use four independent partial sums.
+ * <p>
+ * Operations between two vectors require both to have the same number of dimensions. Two vectors are equal when
+ * their components have the same bits, like those of {@link DoubleVector}, so {@code 0.0} and {@code -0.0} differ.
+ */
+public final class VectorN implements MathVector<VectorN> {
+    /**
+     * The serial version UID of this class.
+     */
+    @Serial
+    private static final long serialVersionUID = 0;
+
+    /**
+     * Returns a new vector with the provided values preassigned.
+     * @param values The values to assign
+     * @return The created vector
+     */
+    public static VectorN of(double... values) {
+        return new VectorN(DoublePointer.valueOf(values));
+    }
+
+    /**
+     * The pointer storing the components of this vector.
+     */
+    private final DoublePointer pointer;
+
+    /**
+     * The backing array of {@link #pointer}.
+     */
+    private final double[] values;
+
+    /**
+     * Creates a new zero vector.
+     * @param dimensions The number of dimensions
+     * @throws NegativeArraySizeException When the number of dimensions is negative
+     */
+    public VectorN(int dimensions) throws NegativeArraySizeException {
+        this(DoublePointer.to(new double[dimensions]));
+    }
+
+    /**
+     * Creates a new vector backed by a pointer. Changes to the pointer are reflected in this vector, and vice versa.
+     * @param pointer The pointer storing the components
+     */
+    public VectorN(DoublePointer pointer) {
+        this.pointer = pointer;
+        this.values = pointer.toArray();
+    }
+
+    /**
+     * Creates a new vector with the values of another vector.
+     * @param dv The vector whose values to copy
+     */
+    public VectorN(DoubleVector dv) {
+        this(DoublePointer.valueOf(dv));
+    }
+
+    /**
+     * Returns the pointer storing the components of this vector.
+     * @return The backing pointer
+     */
+    public DoublePointer pointer() {
+        return pointer;
+    }
+
+    /**
+     * Returns the {@code i}th component value of this vector.
+     * @param i The index of the component
+     * @return The component value
+     * @throws IndexOutOfBoundsException When the index is out of bounds
+     */
+    public double get(int i) throws IndexOutOfBoundsException {
+        return values[i];
+    }
+
+    /**
+     * Sets the {@code i}th component value of this vector.
+     * @param i The index of the component
+     * @param value The value to set
+     * @throws IndexOutOfBoundsException When the index is out of bounds
+     */
+    public void set(int i, double value) throws IndexOutOfBoundsException {
+        values[i] = value;
+    }
+
+    /**
+     * Adds another vector multiplied by a scalar to this vector in place: {@code this += a * x}.
+     * @param a The scalar
+     * @param x The vector to add
+     * @throws IllegalArgumentException When the vectors have different numbers of dimensions
+     */
+    public void axpy(double a, VectorN x) throws IllegalArgumentException {
+        requireSameDimensions(x);
+        axpy(a, x.values, 0, values, 0, values.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean isMutable() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int dimensions() {
+        return values.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param i {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public double component(int i) throws IndexOutOfBoundsException {
+        return values[i];
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param dst {@inheritDoc}
+     * @param offset {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public void copyInto(double[] dst, int offset) throws IndexOutOfBoundsException {
+        System.arraycopy(values, 0, dst, offset, values.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public DoubleStream stream() {
+        return Arrays.stream(values);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public double[] toArray() {
+        return values;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean isZero() {
+        for (var value : values) {
+            if (value != 0) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean isNaN() {
+        for (var value : values) {
+            if (Double.isNaN(value)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean isFinite() {
+        for (var value : values) {
+            if (!Double.isFinite(value)) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean isInfinite() {
+        for (var value : values) {
+            if (Double.isInfinite(value)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public double norm() {
+        return Math.sqrt(normSquared());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public double normSquared() {
+        return dot(values, 0, values, 0, values.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public double normManhattan() {
+        var sum = 0d;
+
+        for (var value : values) {
+            sum += Math.abs(value);
+        }
+
+        return sum;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param s {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public VectorN add(double s) {
+        var result = new double[values.length];
+
+        for (var i = 0; i < result.length; i++) {
+            result[i] = values[i] + s;
+        }
+
+        return wrap(result);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param s {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public VectorN subtract(double s) {
+        return add(-s);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param s {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public VectorN multiply(double s) {
+        var result = new double[values.length];
+
+        for (var i = 0; i < result.length; i++) {
+            result[i] = values[i] * s;
+        }
+
+        return wrap(result);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param s {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public VectorN divide(double s) {
+        var result = new double[values.length];
+
+        for (var i = 0; i < result.length; i++) {
+            result[i] = values[i] / s;
+        }
+
+        return wrap(result);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param other {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IllegalArgumentException When the vectors have different numbers of dimensions
+     */
+    @Override
+    public VectorN add(VectorN other) throws IllegalArgumentException {
+        requireSameDimensions(other);
+
+        var result = values.clone();
+        axpy(1, other.values, 0, result, 0, result.length);
+
+        return wrap(result);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param other {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IllegalArgumentException When the vectors have different numbers of dimensions
+     */
+    @Override
+    public VectorN subtract(VectorN other) throws IllegalArgumentException {
+        requireSameDimensions(other);
+
+        var result = values.clone();
+        axpy(-1, other.values, 0, result, 0, result.length);
+
+        return wrap(result);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param other {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IllegalArgumentException When the vectors have different numbers of dimensions
+     */
+    @Override
+    public double dot(VectorN other) throws IllegalArgumentException {
+        requireSameDimensions(other);
+        return dot(values, 0, other.values, 0, values.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param other {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IllegalArgumentException When the vectors have different numbers of dimensions
+     */
+    @Override
+    public VectorN min(VectorN other) throws IllegalArgumentException {
+        return merge(other, Math::min);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param other {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IllegalArgumentException When the vectors have different numbers of dimensions
+     */
+    @Override
+    public VectorN max(VectorN other) throws IllegalArgumentException {
+        return merge(other, Math::max);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param min {@inheritDoc}
+     * @param max {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IllegalArgumentException When the vectors have different numbers of dimensions
+     */
+    @Override
+    public VectorN clamp(VectorN min, VectorN max) throws IllegalArgumentException {
+        requireSameDimensions(min);
+        requireSameDimensions(max);
+
+        var result = new double[values.length];
+
+        for (var i = 0; i < result.length; i++) {
+            result[i] = Math.min(Math.max(values[i], min.values[i]), max.values[i]);
+        }
+
+        return wrap(result);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public VectorN round() {
+        return map(v -> Math.round(v));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public VectorN floor() {
+        return map(Math::floor);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public VectorN ceil() {
+        return map(Math::ceil);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public VectorN abs() {
+        return map(Math::abs);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public VectorN negate() {
+        return multiply(-1);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param mapper {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public VectorN map(DoubleUnaryOperator mapper) {
+        var result = new double[values.length];
+
+        for (var i = 0; i < result.length; i++) {
+            result[i] = mapper.applyAsDouble(values[i]);
+        }
+
+        return wrap(result);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param other {@inheritDoc}
+     * @param merger {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IllegalArgumentException When the vectors have different numbers of dimensions
+     */
+    @Override
+    public VectorN merge(VectorN other, DoubleBinaryOperator merger) throws IllegalArgumentException {
+        requireSameDimensions(other);
+
+        var result = new double[values.length];
+
+        for (var i = 0; i < result.length; i++) {
+            result[i] = merger.applyAsDouble(values[i], other.values[i]);
+        }
+
+        return wrap(result);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public VectorN normalize() {
+        return multiply(1 / norm());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws ArithmeticException {@inheritDoc}
+     */
+    @Override
+    public VectorN normalizeZeroSafe() throws ArithmeticException {
+        if (isZero()) throw new ArithmeticException("Cannot normalize a zero vector.");
+        return normalize();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param other {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IllegalArgumentException When the vectors have different numbers of dimensions
+     */
+    @Override
+    public double distance(VectorN other) throws IllegalArgumentException {
+        return Math.sqrt(distanceSquared(other));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param other {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IllegalArgumentException When the vectors have different numbers of dimensions
+     */
+    @Override
+    public double distanceSquared(VectorN other) throws IllegalArgumentException {
+        requireSameDimensions(other);
+
+        var sum = 0d;
+
+        for (var i = 0; i < values.length; i++) {
+            var d = values[i] - other.values[i];
+            sum += d * d;
+        }
+
+        return sum;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param other {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IllegalArgumentException When the vectors have different numbers of dimensions
+     */
+    @Override
+    public double distanceManhattan(VectorN other) throws IllegalArgumentException {
+        requireSameDimensions(other);
+
+        var sum = 0d;
+
+        for (var i = 0; i < values.length; i++) {
+            sum += Math.abs(values[i] - other.values[i]);
+        }
+
+        return sum;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param obj The object to compare
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof VectorN v) || v.values.length != values.length) return false;
+
+        for (var i = 0; i < values.length; i++) {
+            if (Double.doubleToLongBits(values[i]) != Double.doubleToLongBits(v.values[i])) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+
+    /**
+     * Computes the dot product of two ranges of arrays with four partial sums.
+     * @param a The first array
+     * @param aOffset The offset of the first range
+     * @param b The second array
+     * @param bOffset The offset of the second range
+     * @param n The length of the ranges
+     * @return The dot product
+     */
+    static double dot(double[] a, int aOffset, double[] b, int bOffset, int n) {
+        var s0 = 0d;
+        var s1 = 0d;
+        var s2 = 0d;
+        var s3 = 0d;
+        var i = 0;
+
+        for (; i + 3 < n; i += 4) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+
+        for (; i < n; i++) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+        }
+
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Adds a range of an array multiplied by a scalar to a range of another array: {@code y += a * x}.
+     * @param a The scalar
+     * @param x The array to add
+     * @param xOffset The offset of the range to add
+     * @param y The array to add to
+     * @param yOffset The offset of the range to add to
+     * @param n The length of the ranges
+     */
+    static void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int n) {
+        for (var i = 0; i < n; i++) {
+            y[yOffset + i] += a * x[xOffset + i];
+        }
+    }
+
+    /**
+     * Wraps a new array of component values.
+     * @param values The component values
+     * @return The vector
+     */
+    private static VectorN wrap(double[] values) {
+        return new VectorN(DoublePointer.to(values));
+    }
+
+    /**
+     * Checks that another vector has as many dimensions as this vector.
+     * @param other The other vector
+     * @throws IllegalArgumentException When the vectors have different numbers of dimensions
+     */
+    private void requireSameDimensions(VectorN other) throws IllegalArgumentException {
+        if (other.values.length != values.length) {
+            throw new IllegalArgumentException(
+                    "Expected " + values.length + " dimensions, but got " + other.values.length + "."
+            );
+        }
+    }
+}
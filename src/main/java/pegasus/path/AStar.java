@@ -0,0 +1,89 @@
+package pegasus.path;
+
+import pegasus.grid.TileGrid;
+import pegasus.metrics.Counter;
+import pegasus.metrics.MetricRegistry;
+
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * An A* pathfinder over a tile grid with per-cell movement costs. The open list is an indexed binary heap over cell
+ * ids and the closed set is generation-stamped, so that a query allocates nothing once the calling thread has
+ * created its scratch buffer.
+ */
+public final class AStar implements Pathfinder {
+    /**
+     * The number of path queries.
+     */
+    static final Counter QUERIES = MetricRegistry.global().counter("path.queries");
+
+    /**
+     * The number of cells expanded by path queries.
+     */
+    static final Counter EXPANDED = MetricRegistry.global().counter("path.expanded");
+
+    /**
+     * Creates a pathfinder for a grid where every passable cell costs the same.
+     * @param grid The grid to search
+     * @param walkable The predicate which returns {@code true} for the values of passable cells
+     * @return The pathfinder
+     */
+    public static AStar uniform(TileGrid grid, IntPredicate walkable) {
+        return new AStar(grid, v -> walkable.test(v) ? 1 : Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * The grid to search.
+     */
+    private final TileGrid grid;
+
+    /**
+     * The function which maps a cell value to its movement cost.
+     */
+    private final IntToDoubleFunction cost;
+
+    /**
+     * The scratch buffer of each thread.
+     */
+    private final ThreadLocal<SearchScratch> scratch;
+
+    /**
+     * Creates a new pathfinder.
+     * @param grid The grid to search
+     * @param cost The function which maps a cell value to its movement cost, which must be at least {@code 1} for
+     *             the search to be optimal, or {@link Double#POSITIVE_INFINITY} for impassable cells
+     */
+    public AStar(TileGrid grid, IntToDoubleFunction cost) {
+        this.grid = grid;
+        this.cost = cost;
+        this.scratch = ThreadLocal.withInitial(() -> new SearchScratch(grid.width() * grid.height()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean find(int sx, int sy, int tx, int ty, Path path) {
+        path.clear();
+        QUERIES.increment();
+
+        if (!grid.contains(sx, sy) || !grid.contains(tx, ty)) return false;
+        if (cost.applyAsDouble(grid.get(sx, sy)) == Double.POSITIVE_INFINITY) return false;
+
+        var s = scratch.get();
+        var width = grid.width();
+        var goal = ty * width + tx;
+        var total = GridSearch.search(
+                grid, cost, s, sy * width + sx, goal, 0, 0, width - 1, grid.height() - 1
+        );
+
+        EXPANDED.add(s.expanded);
+        if (total == Double.POSITIVE_INFINITY) return false;
+
+        path.add(sx, sy);
+        GridSearch.trace(width, s, goal, path);
+        path.setCost(total);
+        return true;
+    }
+}
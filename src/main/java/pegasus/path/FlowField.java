@@ -0,0 +1,622 @@
+package pegasus.path;
+
+import pegasus.grid.TileGrid;
+import pegasus.job.JobSystem;
+import pegasus.number.Int2;
+
+import java.util.Arrays;
+
+/**
+ * A flow field towards one goal cell. Every cell stores its integrated movement cost to the goal and the direction
+ * of its next step, quantized to one of eight directions, so that any number of agents heading to the same goal can
+ * look up their direction in constant time instead of searching a path each. Movement follows the same rules as
+ * {@link AStar}. Fields are created and kept up to date by a {@link FlowFieldCache}.
+ */
+public final class FlowField {
+    /**
+     * The direction of cells without a next step: the goal, and cells which cannot reach it.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * The X offset of each direction, starting east and turning clockwise with Y pointing down.
+     */
+    private static final int[] DX = {1, 1, 0, -1, -1, -1, 0, 1};
+
+    /**
+     * The Y offset of each direction.
+     */
+    private static final int[] DY = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    /**
+     * The offset of each direction as a vector.
+     */
+    private static final Int2[] VECTORS = new Int2[8];
+
+    /**
+     * The side length of the tiles a field is computed in when computed in parallel.
+     */
+    private static final int TILE = 32;
+
+    /**
+     * The minimum number of threads for which parallel tiles are used. Relaxing tiles until they settle does about
+     * two and a half times the work of a single Dijkstra pass, so fewer threads are faster serially.
+     */
+    private static final int MIN_TILE_THREADS = 4;
+
+    /**
+     * The open list of each thread for computing a tile.
+     */
+    private static final ThreadLocal<IndexedHeap> TILE_HEAP =
+            ThreadLocal.withInitial(() -> new IndexedHeap(TILE * TILE));
+
+    static {
+        for (var d = 0; d < 8; d++) VECTORS[d] = Int2.valueOf(DX[d], DY[d]);
+    }
+
+    /**
+     * Returns the X offset of a direction.
+     * @param direction The direction
+     * @return The X offset, or {@code 0} for {@link #NONE}
+     */
+    public static int offsetX(int direction) {
+        return direction == NONE ? 0 : DX[direction];
+    }
+
+    /**
+     * Returns the Y offset of a direction.
+     * @param direction The direction
+     * @return The Y offset, or {@code 0} for {@link #NONE}
+     */
+    public static int offsetY(int direction) {
+        return direction == NONE ? 0 : DY[direction];
+    }
+
+    /**
+     * The grid this field was computed on.
+     */
+    private final TileGrid grid;
+
+    /**
+     * The movement cost of each cell, shared with the cache.
+     */
+    private final double[] cellCosts;
+
+    /**
+     * The X coordinate of the goal.
+     */
+    private final int goalX;
+
+    /**
+     * The Y coordinate of the goal.
+     */
+    private final int goalY;
+
+    /**
+     * The integrated cost from each cell to the goal.
+     */
+    private final double[] costs;
+
+    /**
+     * The direction of the next step from each cell.
+     */
+    private final byte[] directions;
+
+    /**
+     * Creates a new field with every cell unreached.
+     * @param grid The grid to compute on
+     * @param cellCosts The movement cost of each cell
+     * @param goalX The X coordinate of the goal
+     * @param goalY The Y coordinate of the goal
+     */
+    FlowField(TileGrid grid, double[] cellCosts, int goalX, int goalY) {
+        this.grid = grid;
+        this.cellCosts = cellCosts;
+        this.goalX = goalX;
+        this.goalY = goalY;
+        this.costs = new double[cellCosts.length];
+        this.directions = new byte[cellCosts.length];
+    }
+
+    /**
+     * Returns the X coordinate of the goal.
+     * @return The X coordinate of the goal
+     */
+    public int goalX() {
+        return goalX;
+    }
+
+    /**
+     * Returns the Y coordinate of the goal.
+     * @return The Y coordinate of the goal
+     */
+    public int goalY() {
+        return goalY;
+    }
+
+    /**
+     * Returns the integrated cost from a cell to the goal.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @return The cost, or {@link Double#POSITIVE_INFINITY} if the cell cannot reach the goal
+     */
+    public double cost(int x, int y) {
+        if (!grid.contains(x, y)) return Double.POSITIVE_INFINITY;
+        return costs[y * grid.width() + x];
+    }
+
+    /**
+     * Returns the direction of the next step from a cell.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @return The direction, or {@link #NONE} if the cell is the goal, cannot reach it, or is out of bounds
+     */
+    public int direction(int x, int y) {
+        if (!grid.contains(x, y)) return NONE;
+        return directions[y * grid.width() + x];
+    }
+
+    /**
+     * Returns the offset of the next step from a cell.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @return The offset, or {@link Int2#ZERO} if there is no next step
+     */
+    public Int2 step(int x, int y) {
+        var d = direction(x, y);
+        return d == NONE ? Int2.ZERO : VECTORS[d];
+    }
+
+    /**
+     * Returns the offset of the next step from a cell.
+     * @param cell The cell
+     * @return The offset, or {@link Int2#ZERO} if there is no next step
+     */
+    public Int2 step(Int2 cell) {
+        return step(cell.x, cell.y);
+    }
+
+    /**
+     * Computes this field from scratch. Large fields are relaxed tile by tile on the job system when it has enough
+     * threads, processing tiles of the same checkerboard color in parallel until no tile changes; the result is
+     * identical to a serial computation.
+     * @param jobs The job system to run on, or {@code null} to compute serially
+     * @param scratch The scratch buffer for serial computation
+     */
+    void compute(JobSystem jobs, Scratch scratch) {
+        var width = grid.width();
+        var height = grid.height();
+        var goal = goalY * width + goalX;
+
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+
+        var tiled = jobs != null && jobs.workerCount() + 1 >= MIN_TILE_THREADS && (width > TILE || height > TILE);
+
+        if (!tiled) {
+            scratch.begin();
+            seed(scratch, goal);
+            propagate(scratch);
+        } else if (cellCosts[goal] < Double.POSITIVE_INFINITY) {
+            costs[goal] = 0;
+            computeTiles(jobs);
+        }
+
+        if (jobs == null) {
+            for (var y = 0; y < height; y++) directRow(y);
+        } else {
+            jobs.parallelFor(0, height, Math.max(1, TILE * TILE / width), (from, to) -> {
+                for (var y = from; y < to; y++) directRow(y);
+            });
+        }
+    }
+
+    /**
+     * Updates this field after the cost of a cell has changed. Cells whose step chain passed through the cell, or
+     * cut past its corner, are reset and recomputed from their unaffected neighbors, and any cells that the change
+     * makes cheaper are improved; the rest of the field is left untouched.
+     * @param x The X coordinate of the changed cell
+     * @param y The Y coordinate of the changed cell
+     * @param scratch The scratch buffer to update with
+     */
+    void update(int x, int y, Scratch scratch) {
+        var width = grid.width();
+        var cell = y * width + x;
+
+        scratch.begin();
+        scratch.affect(cell);
+
+        for (var d = 0; d < 8; d += 2) {
+            var mx = x - DX[d];
+            var my = y - DY[d];
+            if (!grid.contains(mx, my)) continue;
+
+            var m = my * width + mx;
+            var md = directions[m];
+            if (md != NONE && (md & 1) == 1 && (DX[md] == DX[d] || DY[md] == DY[d])) scratch.affect(m);
+        }
+
+        for (var head = 0; head < scratch.affected; head++) {
+            var a = scratch.queue[head];
+            var ax = a % width;
+            var ay = a / width;
+
+            costs[a] = Double.POSITIVE_INFINITY;
+            scratch.change(a);
+
+            for (var d = 0; d < 8; d++) {
+                var mx = ax + DX[d];
+                var my = ay + DY[d];
+                if (!grid.contains(mx, my)) continue;
+
+                var m = my * width + mx;
+                var md = directions[m];
+                if (md != NONE && md == ((d + 4) & 7)) scratch.affect(m);
+            }
+        }
+
+        var affected = scratch.affected;
+        for (var i = 0; i < affected; i++) seed(scratch, scratch.queue[i]);
+
+        for (var d = 0; d < 8; d++) {
+            if (grid.contains(x + DX[d], y + DY[d])) seed(scratch, (y + DY[d]) * width + x + DX[d]);
+        }
+
+        propagate(scratch);
+
+        for (var i = 0; i < scratch.changed; i++) {
+            var c = scratch.changes[i];
+            var cx = c % width;
+            var cy = c / width;
+
+            direct(cx, cy);
+            for (var d = 0; d < 8; d++) {
+                if (grid.contains(cx + DX[d], cy + DY[d])) direct(cx + DX[d], cy + DY[d]);
+            }
+        }
+
+        direct(x, y);
+        for (var d = 0; d < 8; d++) {
+            if (grid.contains(x + DX[d], y + DY[d])) direct(x + DX[d], y + DY[d]);
+        }
+    }
+
+    /**
+     * Sets the cost of a cell to the best cost offered by its neighbors, or zero for a passable goal, and pushes it
+     * onto the open list if that improved it.
+     * @param scratch The scratch buffer
+     * @param cell The cell id
+     */
+    private void seed(Scratch scratch, int cell) {
+        var width = grid.width();
+        var x = cell % width;
+        var y = cell / width;
+        var best = x == goalX && y == goalY && cellCosts[cell] < Double.POSITIVE_INFINITY ? 0 : costs[cell];
+
+        for (var d = 0; d < 8; d++) {
+            var move = move(x, y, d);
+            if (move < Double.POSITIVE_INFINITY) best = Math.min(best, costs[cell + DY[d] * width + DX[d]] + move);
+        }
+
+        if (best >= costs[cell]) return;
+
+        costs[cell] = best;
+        scratch.open.push(cell, best);
+        scratch.change(cell);
+    }
+
+    /**
+     * Runs Dijkstra from the cells on the open list over the whole grid.
+     * @param scratch The scratch buffer
+     */
+    private void propagate(Scratch scratch) {
+        var width = grid.width();
+        var open = scratch.open;
+
+        while (!open.isEmpty()) {
+            var cell = open.pop();
+            var x = cell % width;
+            var y = cell / width;
+            var g = costs[cell];
+
+            for (var d = 0; d < 8; d++) {
+                var move = move(x, y, d);
+                if (move == Double.POSITIVE_INFINITY) continue;
+
+                var next = cell + DY[d] * width + DX[d];
+                var cost = g + move;
+                if (cost >= costs[next]) continue;
+
+                costs[next] = cost;
+                open.push(next, cost);
+                scratch.change(next);
+            }
+        }
+    }
+
+    /**
+     * Relaxes the tiles of the grid in parallel until no tile changes. Tiles are processed in four phases by the
+     * parity of their coordinates, so that no two tiles running at the same time are adjacent.
+     * @param jobs The job system to run on
+     */
+    private void computeTiles(JobSystem jobs) {
+        var tilesX = (grid.width() + TILE - 1) / TILE;
+        var tilesY = (grid.height() + TILE - 1) / TILE;
+        var active = new boolean[tilesX * tilesY];
+        var next = new boolean[tilesX * tilesY];
+        var batch = new int[tilesX * tilesY];
+        var goalTile = goalY / TILE * tilesX + goalX / TILE;
+
+        active[goalTile] = true;
+
+        for (var first = true; ; first = false) {
+            var any = false;
+
+            for (var phase = 0; phase < 4; phase++) {
+                var count = 0;
+                for (var ty = phase >> 1; ty < tilesY; ty += 2) {
+                    for (var tx = phase & 1; tx < tilesX; tx += 2) {
+                        var tile = ty * tilesX + tx;
+                        if (!active[tile]) continue;
+
+                        active[tile] = false;
+                        batch[count++] = tile;
+                    }
+                }
+
+                if (count == 0) continue;
+                any = true;
+
+                var seedGoal = first;
+                jobs.parallelFor(0, count, 1, (from, to) -> {
+                    for (var i = from; i < to; i++) {
+                        var tile = batch[i];
+                        if (!relaxTile(tile % tilesX, tile / tilesX, seedGoal && tile == goalTile)) continue;
+
+                        var tx = tile % tilesX;
+                        var ty = tile / tilesX;
+
+                        for (var ny = Math.max(0, ty - 1); ny <= Math.min(tilesY - 1, ty + 1); ny++) {
+                            for (var nx = Math.max(0, tx - 1); nx <= Math.min(tilesX - 1, tx + 1); nx++) {
+                                if (nx != tx || ny != ty) next[ny * tilesX + nx] = true;
+                            }
+                        }
+                    }
+                });
+
+                for (var i = 0; i < next.length; i++) {
+                    if (!next[i]) continue;
+
+                    next[i] = false;
+                    active[i] = true;
+                }
+            }
+
+            if (!any) break;
+        }
+    }
+
+    /**
+     * Relaxes one tile: its edge cells take the best cost offered by the neighboring tiles, and the improvements
+     * are spread through the tile with Dijkstra.
+     * @param tx The X index of the tile
+     * @param ty The Y index of the tile
+     * @param seedGoal Whether this is the first pass over the tile containing the goal
+     * @return {@code true} if the cost of a cell on the edge of the tile changed
+     */
+    private boolean relaxTile(int tx, int ty, boolean seedGoal) {
+        var width = grid.width();
+        var minX = tx * TILE;
+        var minY = ty * TILE;
+        var maxX = Math.min(minX + TILE, width) - 1;
+        var maxY = Math.min(minY + TILE, grid.height()) - 1;
+        var open = TILE_HEAP.get();
+        var edgeChanged = false;
+
+        if (seedGoal) open.push((goalY - minY) * TILE + goalX - minX, 0);
+
+        for (var y = minY; y <= maxY; y++) {
+            for (var x = minX; x <= maxX; x++) {
+                if (x != minX && x != maxX && y != minY && y != maxY) continue;
+
+                var cell = y * width + x;
+                var best = costs[cell];
+
+                for (var d = 0; d < 8; d++) {
+                    var nx = x + DX[d];
+                    var ny = y + DY[d];
+                    if (nx >= minX && nx <= maxX && ny >= minY && ny <= maxY) continue;
+
+                    var move = move(x, y, d);
+                    if (move < Double.POSITIVE_INFINITY) best = Math.min(best, costs[ny * width + nx] + move);
+                }
+
+                if (best >= costs[cell]) continue;
+
+                costs[cell] = best;
+                open.push((y - minY) * TILE + x - minX, best);
+                edgeChanged = true;
+            }
+        }
+
+        while (!open.isEmpty()) {
+            var local = open.pop();
+            var x = minX + local % TILE;
+            var y = minY + local / TILE;
+            var g = costs[y * width + x];
+
+            for (var d = 0; d < 8; d++) {
+                var nx = x + DX[d];
+                var ny = y + DY[d];
+                if (nx < minX || nx > maxX || ny < minY || ny > maxY) continue;
+
+                var move = move(x, y, d);
+                if (move == Double.POSITIVE_INFINITY) continue;
+
+                var next = ny * width + nx;
+                var cost = g + move;
+                if (cost >= costs[next]) continue;
+
+                costs[next] = cost;
+                open.push((ny - minY) * TILE + nx - minX, cost);
+                if (nx == minX || nx == maxX || ny == minY || ny == maxY) edgeChanged = true;
+            }
+        }
+
+        return edgeChanged;
+    }
+
+    /**
+     * Recomputes the directions of a row of cells.
+     * @param y The Y coordinate of the row
+     */
+    private void directRow(int y) {
+        for (var x = 0; x < grid.width(); x++) direct(x, y);
+    }
+
+    /**
+     * Recomputes the direction of a cell as the neighbor with the lowest cost through it, taking the first
+     * direction on ties.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     */
+    private void direct(int x, int y) {
+        var width = grid.width();
+        var cell = y * width + x;
+        var best = NONE;
+
+        if (costs[cell] < Double.POSITIVE_INFINITY && (x != goalX || y != goalY)) {
+            var bestCost = Double.POSITIVE_INFINITY;
+
+            for (var d = 0; d < 8; d++) {
+                var move = move(x, y, d);
+                if (move == Double.POSITIVE_INFINITY) continue;
+
+                var cost = costs[cell + DY[d] * width + DX[d]] + move;
+                if (cost >= bestCost) continue;
+
+                bestCost = cost;
+                best = d;
+            }
+        }
+
+        directions[cell] = (byte) best;
+    }
+
+    /**
+     * Returns the cost of a move from a passable or impassable cell in a direction.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @param d The direction
+     * @return The cost of the move, or {@link Double#POSITIVE_INFINITY} if the move is not allowed
+     */
+    private double move(int x, int y, int d) {
+        var width = grid.width();
+        var nx = x + DX[d];
+        var ny = y + DY[d];
+        if (!grid.contains(nx, ny)) return Double.POSITIVE_INFINITY;
+
+        var from = cellCosts[y * width + x];
+        var to = cellCosts[ny * width + nx];
+        if (from == Double.POSITIVE_INFINITY || to == Double.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+        if ((d & 1) == 0) return (from + to) * 0.5;
+
+        if (cellCosts[y * width + nx] == Double.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+        if (cellCosts[ny * width + x] == Double.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+
+        return (from + to) * 0.5 * GridSearch.DIAGONAL;
+    }
+
+    /**
+     * The working memory of serial computations and incremental updates, shared by the fields of a cache.
+     */
+    static final class Scratch {
+        /**
+         * The open list.
+         */
+        final IndexedHeap open;
+
+        /**
+         * The queue of affected cells; the first {@link #affected} entries are valid.
+         */
+        final int[] queue;
+
+        /**
+         * The number of affected cells.
+         */
+        int affected;
+
+        /**
+         * The cells whose cost changed; the first {@link #changed} entries are valid.
+         */
+        final int[] changes;
+
+        /**
+         * The number of changed cells.
+         */
+        int changed;
+
+        /**
+         * The generation in which each cell was last marked affected.
+         */
+        private final int[] affectedMarks;
+
+        /**
+         * The generation in which each cell was last marked changed.
+         */
+        private final int[] changedMarks;
+
+        /**
+         * The current generation.
+         */
+        private int generation;
+
+        /**
+         * Creates a new scratch buffer.
+         * @param cells The number of cells of the grid
+         */
+        Scratch(int cells) {
+            this.open = new IndexedHeap(cells);
+            this.queue = new int[cells];
+            this.changes = new int[cells];
+            this.affectedMarks = new int[cells];
+            this.changedMarks = new int[cells];
+        }
+
+        /**
+         * Starts a new computation.
+         */
+        void begin() {
+            if (++generation == 0) {
+                Arrays.fill(affectedMarks, 0);
+                Arrays.fill(changedMarks, 0);
+                generation = 1;
+            }
+
+            open.clear();
+            affected = 0;
+            changed = 0;
+        }
+
+        /**
+         * Marks a cell as affected, unless it already is.
+         * @param cell The cell id
+         */
+        void affect(int cell) {
+            if (affectedMarks[cell] == generation) return;
+
+            affectedMarks[cell] = generation;
+            queue[affected++] = cell;
+        }
+
+        /**
+         * Records that the cost of a cell changed, unless it already is recorded.
+         * @param cell The cell id
+         */
+        void change(int cell) {
+            if (changedMarks[cell] == generation) return;
+
+            changedMarks[cell] = generation;
+            changes[changed++] = cell;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package pegasus.path;
+
+import pegasus.grid.TileGrid;
+import pegasus.job.JobSystem;
+import pegasus.metrics.Counter;
+import pegasus.metrics.MetricRegistry;
+import pegasus.number.Int2;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * A cache of flow fields keyed by goal cell. Fields are computed on first request, in parallel tiles when a job
+ * system is given, and the least recently used fields are evicted once the cache is full. When a cell changes, every
+ * cached field is updated incrementally rather than recomputed. This class is not thread-safe, but the fields it
+ * returns may be sampled from any number of threads while the cache is not being modified.
+ */
+public final class FlowFieldCache {
+    /**
+     * The number of requests answered from the cache.
+     */
+    private static final Counter HITS = MetricRegistry.global().counter("path.flowHits");
+
+    /**
+     * The number of flow fields computed from scratch.
+     */
+    private static final Counter COMPUTES = MetricRegistry.global().counter("path.flowComputes");
+
+    /**
+     * The number of incremental flow field updates.
+     */
+    private static final Counter UPDATES = MetricRegistry.global().counter("path.flowUpdates");
+
+    /**
+     * The grid to compute on.
+     */
+    private final TileGrid grid;
+
+    /**
+     * The function which maps a cell value to its movement cost.
+     */
+    private final IntToDoubleFunction cost;
+
+    /**
+     * The job system to compute fields on, or {@code null}.
+     */
+    private final JobSystem jobs;
+
+    /**
+     * The movement cost of each cell.
+     */
+    private final double[] cellCosts;
+
+    /**
+     * The scratch buffer shared by the cached fields.
+     */
+    private final FlowField.Scratch scratch;
+
+    /**
+     * The cached fields in access order, keyed by goal cell id.
+     */
+    private final LinkedHashMap<Integer, FlowField> fields;
+
+    /**
+     * Creates a new cache.
+     * @param grid The grid to compute on
+     * @param cost The function which maps a cell value to its movement cost, at least {@code 1}, or
+     *             {@link Double#POSITIVE_INFINITY} for impassable cells
+     * @param jobs The job system to compute fields on, or {@code null} to compute on the calling thread
+     * @param capacity The maximum number of cached fields
+     * @throws IllegalArgumentException When the capacity is not positive
+     */
+    public FlowFieldCache(TileGrid grid, IntToDoubleFunction cost, JobSystem jobs, int capacity)
+            throws IllegalArgumentException {
+        if (capacity <= 0) throw new IllegalArgumentException("The capacity must be positive.");
+
+        var cells = grid.width() * grid.height();
+
+        this.grid = grid;
+        this.cost = cost;
+        this.jobs = jobs;
+        this.cellCosts = new double[cells];
+        this.scratch = new FlowField.Scratch(cells);
+        this.fields = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, FlowField> eldest) {
+                return size() > capacity;
+            }
+        };
+
+        var values = grid.values();
+        for (var i = 0; i < cells; i++) cellCosts[i] = cost.applyAsDouble(values[i]);
+    }
+
+    /**
+     * Returns the flow field towards a goal cell, computing it if it is not cached. The returned field is owned by
+     * this cache and stays up to date until it is evicted.
+     * @param x The X coordinate of the goal
+     * @param y The Y coordinate of the goal
+     * @return The flow field
+     * @throws IndexOutOfBoundsException When the goal is out of bounds
+     */
+    public FlowField get(int x, int y) throws IndexOutOfBoundsException {
+        if (!grid.contains(x, y)) throw new IndexOutOfBoundsException("[" + x + ", " + y + "] is out of bounds.");
+
+        var key = y * grid.width() + x;
+        var field = fields.get(key);
+
+        if (field != null) {
+            HITS.increment();
+            return field;
+        }
+
+        field = new FlowField(grid, cellCosts, x, y);
+        field.compute(jobs, scratch);
+        fields.put(key, field);
+
+        COMPUTES.increment();
+        return field;
+    }
+
+    /**
+     * Returns the flow field towards a goal cell, computing it if it is not cached.
+     * @param goal The goal
+     * @return The flow field
+     * @throws IndexOutOfBoundsException When the goal is out of bounds
+     */
+    public FlowField get(Int2 goal) throws IndexOutOfBoundsException {
+        return get(goal.x, goal.y);
+    }
+
+    /**
+     * Notifies this cache that a cell of the grid has changed. Every cached field is updated incrementally.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @throws IndexOutOfBoundsException When the cell is out of bounds
+     */
+    public void invalidate(int x, int y) throws IndexOutOfBoundsException {
+        if (!grid.contains(x, y)) throw new IndexOutOfBoundsException("[" + x + ", " + y + "] is out of bounds.");
+
+        var cell = y * grid.width() + x;
+        var updated = cost.applyAsDouble(grid.get(x, y));
+
+        if (updated == cellCosts[cell]) return;
+        cellCosts[cell] = updated;
+
+        for (var field : fields.values()) {
+            field.update(x, y, scratch);
+            UPDATES.increment();
+        }
+    }
+
+    /**
+     * Removes every cached field.
+     */
+    public void clear() {
+        fields.clear();
+    }
+
+    /**
+     * Returns the number of cached fields.
+     * @return The number of cached fields
+     */
+    public int size() {
+        return fields.size();
+    }
+}
@@ -0,0 +1,159 @@
+package pegasus.path;
+
+import pegasus.grid.TileGrid;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * The A* search shared by the pathfinders. Cells are identified by their row-major index {@code y * width + x}.
+ * Movement is 8-directional, diagonal moves may not cut corners, and a move between two cells costs its length times
+ * the mean of the two cell costs, which keeps costs symmetric.
+ */
+final class GridSearch {
+    /**
+     * The length of a diagonal move.
+     */
+    static final double DIAGONAL = Math.sqrt(2);
+
+    /**
+     * Runs A* from a start cell to a goal cell, or Dijkstra from the start cell when no goal is given. The search
+     * never leaves the provided bounds.
+     * @param grid The grid to search
+     * @param cost The function which maps a cell value to its cost, at least {@code 1}, or infinity if impassable
+     * @param s The scratch buffer to search with, whose previous state is discarded
+     * @param start The start cell id
+     * @param goal The goal cell id, or {@code -1} to reach every cell within the bounds
+     * @param minX The minimum X coordinate of the bounds
+     * @param minY The minimum Y coordinate of the bounds
+     * @param maxX The maximum X coordinate of the bounds, inclusive
+     * @param maxY The maximum Y coordinate of the bounds, inclusive
+     * @return The cost of the goal, or {@link Double#POSITIVE_INFINITY} if it cannot be reached
+     */
+    static double search(
+            TileGrid grid, IntToDoubleFunction cost, SearchScratch s,
+            int start, int goal, int minX, int minY, int maxX, int maxY
+    ) {
+        var width = grid.width();
+        var gx = goal % width;
+        var gy = goal / width;
+
+        s.begin();
+        s.relax(start, 0, -1);
+        s.open.push(start, 0);
+
+        while (!s.open.isEmpty()) {
+            var cell = s.open.pop();
+            if (cell == goal) return s.cost(goal);
+
+            s.close(cell);
+
+            var x = cell % width;
+            var y = cell / width;
+            var g = s.cost(cell);
+            var c = cost.applyAsDouble(grid.get(x, y));
+
+            var west = x > minX ? cost.applyAsDouble(grid.get(x - 1, y)) : Double.POSITIVE_INFINITY;
+            var east = x < maxX ? cost.applyAsDouble(grid.get(x + 1, y)) : Double.POSITIVE_INFINITY;
+            var north = y > minY ? cost.applyAsDouble(grid.get(x, y - 1)) : Double.POSITIVE_INFINITY;
+            var south = y < maxY ? cost.applyAsDouble(grid.get(x, y + 1)) : Double.POSITIVE_INFINITY;
+
+            if (west < Double.POSITIVE_INFINITY) visit(s, cell, cell - 1, g + (c + west) * 0.5, goal, width, gx, gy);
+            if (east < Double.POSITIVE_INFINITY) visit(s, cell, cell + 1, g + (c + east) * 0.5, goal, width, gx, gy);
+            if (north < Double.POSITIVE_INFINITY) {
+                visit(s, cell, cell - width, g + (c + north) * 0.5, goal, width, gx, gy);
+            }
+            if (south < Double.POSITIVE_INFINITY) {
+                visit(s, cell, cell + width, g + (c + south) * 0.5, goal, width, gx, gy);
+            }
+
+            if (north < Double.POSITIVE_INFINITY) {
+                if (west < Double.POSITIVE_INFINITY) diagonal(grid, cost, s, cell, x - 1, y - 1, g, c, goal, gx, gy);
+                if (east < Double.POSITIVE_INFINITY) diagonal(grid, cost, s, cell, x + 1, y - 1, g, c, goal, gx, gy);
+            }
+
+            if (south < Double.POSITIVE_INFINITY) {
+                if (west < Double.POSITIVE_INFINITY) diagonal(grid, cost, s, cell, x - 1, y + 1, g, c, goal, gx, gy);
+                if (east < Double.POSITIVE_INFINITY) diagonal(grid, cost, s, cell, x + 1, y + 1, g, c, goal, gx, gy);
+            }
+        }
+
+        return goal < 0 ? Double.POSITIVE_INFINITY : s.cost(goal);
+    }
+
+    /**
+     * Visits a diagonal neighbor whose two orthogonal neighbors are known to be passable.
+     * @param grid The grid to search
+     * @param cost The cost function
+     * @param s The scratch buffer
+     * @param from The cell id being expanded
+     * @param x The X coordinate of the neighbor
+     * @param y The Y coordinate of the neighbor
+     * @param g The cost of the expanded cell
+     * @param c The cell cost of the expanded cell
+     * @param goal The goal cell id, or {@code -1}
+     * @param gx The X coordinate of the goal
+     * @param gy The Y coordinate of the goal
+     */
+    private static void diagonal(
+            TileGrid grid, IntToDoubleFunction cost, SearchScratch s,
+            int from, int x, int y, double g, double c, int goal, int gx, int gy
+    ) {
+        var next = cost.applyAsDouble(grid.get(x, y));
+        if (next == Double.POSITIVE_INFINITY) return;
+
+        var width = grid.width();
+        visit(s, from, y * width + x, g + (c + next) * 0.5 * DIAGONAL, goal, width, gx, gy);
+    }
+
+    /**
+     * Relaxes a neighbor and pushes it onto the open list if its cost improved.
+     * @param s The scratch buffer
+     * @param from The cell id being expanded
+     * @param cell The cell id of the neighbor
+     * @param g The cost of reaching the neighbor
+     * @param goal The goal cell id, or {@code -1} to search without a heuristic
+     * @param width The width of the grid
+     * @param gx The X coordinate of the goal
+     * @param gy The Y coordinate of the goal
+     */
+    private static void visit(SearchScratch s, int from, int cell, double g, int goal, int width, int gx, int gy) {
+        if (s.isClosed(cell) || !s.relax(cell, g, from)) return;
+        s.open.push(cell, goal < 0 ? g : g + octile(cell % width - gx, cell / width - gy));
+    }
+
+    /**
+     * Returns the octile distance of an offset, which is the cost of the shortest 8-directional path on an empty grid
+     * of unit cost.
+     * @param dx The X offset
+     * @param dy The Y offset
+     * @return The octile distance
+     */
+    static double octile(int dx, int dy) {
+        dx = Math.abs(dx);
+        dy = Math.abs(dy);
+
+        return Math.max(dx, dy) + (DIAGONAL - 1) * Math.min(dx, dy);
+    }
+
+    /**
+     * Appends the cells leading to a cell to a path, excluding the cell the search started from.
+     * @param width The width of the grid
+     * @param s The scratch buffer of the finished search
+     * @param cell The last cell to append
+     * @param path The path to append to
+     */
+    static void trace(int width, SearchScratch s, int cell, Path path) {
+        var from = path.length();
+
+        for (var c = cell; s.parent(c) >= 0; c = s.parent(c)) {
+            path.add(c % width, c / width);
+        }
+
+        path.reverseFrom(from);
+    }
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private GridSearch() {}
+}
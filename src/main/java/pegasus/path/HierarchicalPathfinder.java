@@ -0,0 +1,635 @@
+package pegasus.path;
+
+import pegasus.grid.TileGrid;
+import pegasus.metrics.Counter;
+import pegasus.metrics.MetricRegistry;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A hierarchical pathfinder (HPA*). The grid is divided into square clusters, the passable runs along each cluster
+ * border become entrances, and the costs between the entrances of each cluster are precomputed. A query searches
+ * the resulting abstract graph and then refines each abstract edge with an A* search confined to one cluster, so
+ * that long paths expand a small fraction of the cells a flat search would. Paths are near-optimal rather than
+ * optimal.
+ * <p>
+ * When a tile changes, {@link #invalidate(int, int)} rebuilds only the cluster containing it and the borders and
+ * neighboring clusters it touches. Queries may run concurrently with each other, but not with invalidation.
+ */
+public final class HierarchicalPathfinder implements Pathfinder {
+    /**
+     * The number of clusters rebuilt after construction.
+     */
+    private static final Counter REBUILDS = MetricRegistry.global().counter("path.clusterRebuilds");
+
+    /**
+     * The length from which a passable border run gets an entrance at each end instead of one in the middle.
+     */
+    private static final int WIDE_ENTRANCE = 6;
+
+    /**
+     * The grid to search.
+     */
+    private final TileGrid grid;
+
+    /**
+     * The function which maps a cell value to its movement cost.
+     */
+    private final IntToDoubleFunction cost;
+
+    /**
+     * The side length of a cluster.
+     */
+    private final int clusterSize;
+
+    /**
+     * The number of clusters along the X axis.
+     */
+    private final int clustersX;
+
+    /**
+     * The number of clusters along the Y axis.
+     */
+    private final int clustersY;
+
+    /**
+     * The entrances of the border between each cluster and its neighbor on the right, as pairs of cell ids.
+     */
+    private final int[][] verticalBorders;
+
+    /**
+     * The entrances of the border between each cluster and its neighbor below, as pairs of cell ids.
+     */
+    private final int[][] horizontalBorders;
+
+    /**
+     * The entrance cells of each cluster.
+     */
+    private final int[][] nodes;
+
+    /**
+     * The costs between the entrance cells of each cluster, as a row-major square matrix.
+     */
+    private final double[][] costs;
+
+    /**
+     * The offsets of each entrance cell's links into {@link #links}, per cluster.
+     */
+    private final int[][] linkOffsets;
+
+    /**
+     * The cells in neighboring clusters that each entrance cell links to, per cluster.
+     */
+    private final int[][] links;
+
+    /**
+     * The index of each cell in the entrance list of its cluster, or {@code -1} if it is not an entrance.
+     */
+    private final int[] nodeIndices;
+
+    /**
+     * The scratch buffer used to build clusters.
+     */
+    private final SearchScratch builder;
+
+    /**
+     * The scratch buffers of each thread.
+     */
+    private final ThreadLocal<Scratch> scratch;
+
+    /**
+     * Creates a new pathfinder and builds the abstract graph.
+     * @param grid The grid to search
+     * @param cost The function which maps a cell value to its movement cost, at least {@code 1}, or
+     *             {@link Double#POSITIVE_INFINITY} for impassable cells
+     * @param clusterSize The side length of a cluster
+     * @throws IllegalArgumentException When the cluster size is less than {@code 2}
+     */
+    public HierarchicalPathfinder(TileGrid grid, IntToDoubleFunction cost, int clusterSize)
+            throws IllegalArgumentException {
+        if (clusterSize < 2) throw new IllegalArgumentException("The cluster size must be at least 2.");
+
+        this.grid = grid;
+        this.cost = cost;
+        this.clusterSize = clusterSize;
+        this.clustersX = (grid.width() + clusterSize - 1) / clusterSize;
+        this.clustersY = (grid.height() + clusterSize - 1) / clusterSize;
+
+        var clusters = clustersX * clustersY;
+        var cells = grid.width() * grid.height();
+
+        this.verticalBorders = new int[clusters][];
+        this.horizontalBorders = new int[clusters][];
+        this.nodes = new int[clusters][];
+        this.costs = new double[clusters][];
+        this.linkOffsets = new int[clusters][];
+        this.links = new int[clusters][];
+        this.nodeIndices = new int[cells];
+        this.builder = new SearchScratch(cells);
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(cells));
+
+        Arrays.fill(nodeIndices, -1);
+
+        for (var cy = 0; cy < clustersY; cy++) {
+            for (var cx = 0; cx < clustersX; cx++) {
+                buildVerticalBorder(cx, cy);
+                buildHorizontalBorder(cx, cy);
+            }
+        }
+
+        for (var cluster = 0; cluster < clusters; cluster++) {
+            buildCluster(cluster);
+        }
+    }
+
+    /**
+     * Returns the side length of a cluster.
+     * @return The side length of a cluster
+     */
+    public int clusterSize() {
+        return clusterSize;
+    }
+
+    /**
+     * Returns the number of entrance cells in the abstract graph.
+     * @return The number of entrance cells
+     */
+    public int nodeCount() {
+        var count = 0;
+        for (var n : nodes) count += n.length;
+        return count;
+    }
+
+    /**
+     * Updates the abstract graph after the value of a cell has changed. Only the cluster containing the cell is
+     * rebuilt, along with the borders the cell lies on and the clusters across them.
+     * @param x The X coordinate of the changed cell
+     * @param y The Y coordinate of the changed cell
+     * @throws IndexOutOfBoundsException When the cell is out of bounds
+     */
+    public void invalidate(int x, int y) throws IndexOutOfBoundsException {
+        if (!grid.contains(x, y)) throw new IndexOutOfBoundsException("[" + x + ", " + y + "] is out of bounds.");
+
+        var cx = x / clusterSize;
+        var cy = y / clusterSize;
+        var cluster = cy * clustersX + cx;
+        var left = x == cx * clusterSize && cx > 0;
+        var right = x == (cx + 1) * clusterSize - 1 && cx + 1 < clustersX;
+        var top = y == cy * clusterSize && cy > 0;
+        var bottom = y == (cy + 1) * clusterSize - 1 && cy + 1 < clustersY;
+
+        if (left) buildVerticalBorder(cx - 1, cy);
+        if (right) buildVerticalBorder(cx, cy);
+        if (top) buildHorizontalBorder(cx, cy - 1);
+        if (bottom) buildHorizontalBorder(cx, cy);
+
+        buildCluster(cluster);
+
+        if (left) buildCluster(cluster - 1);
+        if (right) buildCluster(cluster + 1);
+        if (top) buildCluster(cluster - clustersX);
+        if (bottom) buildCluster(cluster + clustersX);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean find(int sx, int sy, int tx, int ty, Path path) {
+        path.clear();
+        AStar.QUERIES.increment();
+
+        if (!grid.contains(sx, sy) || !grid.contains(tx, ty)) return false;
+        if (!passable(sx, sy) || !passable(tx, ty)) return false;
+
+        var q = scratch.get();
+        var width = grid.width();
+        var start = sy * width + sx;
+        var goal = ty * width + tx;
+        var startCluster = clusterOf(start);
+        var goalCluster = clusterOf(goal);
+
+        var direct = Double.POSITIVE_INFINITY;
+
+        var entrances = nodes[startCluster];
+        var startCosts = q.startCosts(entrances.length);
+
+        search(q.local, start, -1, startCluster);
+        for (var i = 0; i < entrances.length; i++) startCosts[i] = q.local.cost(entrances[i]);
+        if (startCluster == goalCluster) direct = q.local.cost(goal);
+
+        var expanded = q.local.expanded;
+        entrances = nodes[goalCluster];
+        var goalCosts = q.goalCosts(entrances.length);
+
+        search(q.local, goal, -1, goalCluster);
+        for (var i = 0; i < entrances.length; i++) goalCosts[i] = q.local.cost(entrances[i]);
+
+        var total = searchAbstract(q, start, goal, startCluster, goalCluster, startCosts, goalCosts, direct);
+        expanded += q.local.expanded + q.global.expanded;
+
+        if (total == Double.POSITIVE_INFINITY) {
+            AStar.EXPANDED.add(expanded);
+            return false;
+        }
+
+        var count = 0;
+        for (var cell = goal; cell >= 0; cell = q.global.parent(cell)) {
+            count = q.pushWaypoint(count, cell);
+        }
+
+        path.add(sx, sy);
+
+        var refined = 0.0;
+        for (var i = count - 1; i > 0; i--) {
+            var from = q.waypoints[i];
+            var to = q.waypoints[i - 1];
+            var cluster = clusterOf(from);
+
+            if (cluster == clusterOf(to)) {
+                refined += search(q.local, from, to, cluster);
+                GridSearch.trace(width, q.local, to, path);
+            } else {
+                refined += step(from, to);
+                path.add(to % width, to / width);
+            }
+
+            expanded += q.local.expanded;
+        }
+
+        AStar.EXPANDED.add(expanded);
+        path.setCost(refined);
+        return true;
+    }
+
+    /**
+     * Searches the abstract graph, with the start and goal cells connected to the entrances of their clusters.
+     * @param q The scratch buffers of the calling thread
+     * @param start The start cell id
+     * @param goal The goal cell id
+     * @param startCluster The cluster of the start cell
+     * @param goalCluster The cluster of the goal cell
+     * @param startCosts The costs from the start cell to the entrances of its cluster
+     * @param goalCosts The costs from the entrances of the goal cluster to the goal cell
+     * @param direct The cost from the start cell to the goal cell within their shared cluster, or infinity
+     * @return The cost of the abstract path, or {@link Double#POSITIVE_INFINITY} if there is none
+     */
+    private double searchAbstract(
+            Scratch q, int start, int goal, int startCluster, int goalCluster,
+            double[] startCosts, double[] goalCosts, double direct
+    ) {
+        var s = q.global;
+        var width = grid.width();
+        var tx = goal % width;
+        var ty = goal / width;
+
+        s.begin();
+        s.relax(start, 0, -1);
+        s.open.push(start, 0);
+
+        while (!s.open.isEmpty()) {
+            var cell = s.open.pop();
+            if (cell == goal) break;
+
+            s.close(cell);
+            var g = s.cost(cell);
+
+            if (cell == start) {
+                var entrances = nodes[startCluster];
+                for (var i = 0; i < entrances.length; i++) {
+                    relax(s, cell, entrances[i], g + startCosts[i], tx, ty);
+                }
+
+                relax(s, cell, goal, g + direct, tx, ty);
+            }
+
+            var index = nodeIndices[cell];
+            if (index < 0) continue;
+
+            var cluster = clusterOf(cell);
+            var entrances = nodes[cluster];
+            var matrix = costs[cluster];
+            var row = index * entrances.length;
+
+            for (var j = 0; j < entrances.length; j++) {
+                relax(s, cell, entrances[j], g + matrix[row + j], tx, ty);
+            }
+
+            var offsets = linkOffsets[cluster];
+            var targets = links[cluster];
+
+            for (var j = offsets[index]; j < offsets[index + 1]; j++) {
+                relax(s, cell, targets[j], g + step(cell, targets[j]), tx, ty);
+            }
+
+            if (cluster == goalCluster) relax(s, cell, goal, g + goalCosts[index], tx, ty);
+        }
+
+        return s.cost(goal);
+    }
+
+    /**
+     * Relaxes an edge of the abstract graph.
+     * @param s The scratch buffer of the abstract search
+     * @param from The cell id being expanded
+     * @param to The cell id at the other end of the edge
+     * @param g The cost of reaching the other end
+     * @param tx The X coordinate of the goal
+     * @param ty The Y coordinate of the goal
+     */
+    private void relax(SearchScratch s, int from, int to, double g, int tx, int ty) {
+        if (g == Double.POSITIVE_INFINITY || s.isClosed(to) || !s.relax(to, g, from)) return;
+
+        var width = grid.width();
+        s.open.push(to, g + GridSearch.octile(to % width - tx, to / width - ty));
+    }
+
+    /**
+     * Runs a search confined to a cluster.
+     * @param s The scratch buffer to search with
+     * @param start The start cell id
+     * @param goal The goal cell id, or {@code -1} to reach every cell of the cluster
+     * @param cluster The cluster index
+     * @return The cost of the goal, or {@link Double#POSITIVE_INFINITY} if it cannot be reached
+     */
+    private double search(SearchScratch s, int start, int goal, int cluster) {
+        var minX = cluster % clustersX * clusterSize;
+        var minY = cluster / clustersX * clusterSize;
+        var maxX = Math.min(minX + clusterSize, grid.width()) - 1;
+        var maxY = Math.min(minY + clusterSize, grid.height()) - 1;
+
+        return GridSearch.search(grid, cost, s, start, goal, minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Rebuilds the entrances of the border between a cluster and its neighbor on the right.
+     * @param cx The X index of the cluster
+     * @param cy The Y index of the cluster
+     */
+    private void buildVerticalBorder(int cx, int cy) {
+        var cluster = cy * clustersX + cx;
+        if (cx + 1 >= clustersX) {
+            verticalBorders[cluster] = new int[0];
+            return;
+        }
+
+        var x = (cx + 1) * clusterSize - 1;
+        var minY = cy * clusterSize;
+        var maxY = Math.min(minY + clusterSize, grid.height());
+        var width = grid.width();
+        var pairs = new int[0];
+        var run = -1;
+
+        for (var y = minY; y <= maxY; y++) {
+            var open = y < maxY && passable(x, y) && passable(x + 1, y);
+
+            if (open && run < 0) run = y;
+            if (open || run < 0) continue;
+
+            pairs = addEntrances(pairs, run, y - 1, r -> r * width + x, 1);
+            run = -1;
+        }
+
+        verticalBorders[cluster] = pairs;
+    }
+
+    /**
+     * Rebuilds the entrances of the border between a cluster and its neighbor below.
+     * @param cx The X index of the cluster
+     * @param cy The Y index of the cluster
+     */
+    private void buildHorizontalBorder(int cx, int cy) {
+        var cluster = cy * clustersX + cx;
+        if (cy + 1 >= clustersY) {
+            horizontalBorders[cluster] = new int[0];
+            return;
+        }
+
+        var y = (cy + 1) * clusterSize - 1;
+        var minX = cx * clusterSize;
+        var maxX = Math.min(minX + clusterSize, grid.width());
+        var width = grid.width();
+        var pairs = new int[0];
+        var run = -1;
+
+        for (var x = minX; x <= maxX; x++) {
+            var open = x < maxX && passable(x, y) && passable(x, y + 1);
+
+            if (open && run < 0) run = x;
+            if (open || run < 0) continue;
+
+            pairs = addEntrances(pairs, run, x - 1, r -> y * width + r, width);
+            run = -1;
+        }
+
+        horizontalBorders[cluster] = pairs;
+    }
+
+    /**
+     * Appends the entrances of a passable border run to a list of entrance pairs.
+     * @param pairs The entrance pairs so far
+     * @param first The first position of the run along the border
+     * @param last The last position of the run along the border
+     * @param cell The function which maps a position along the border to the cell id on the near side
+     * @param across The cell id offset from the near side to the far side
+     * @return The extended entrance pairs
+     */
+    private static int[] addEntrances(int[] pairs, int first, int last, IntUnaryOperator cell, int across) {
+        if (last - first + 1 < WIDE_ENTRANCE) {
+            var middle = cell.applyAsInt((first + last) >>> 1);
+            pairs = Arrays.copyOf(pairs, pairs.length + 2);
+            pairs[pairs.length - 2] = middle;
+            pairs[pairs.length - 1] = middle + across;
+            return pairs;
+        }
+
+        var a = cell.applyAsInt(first);
+        var b = cell.applyAsInt(last);
+        pairs = Arrays.copyOf(pairs, pairs.length + 4);
+        pairs[pairs.length - 4] = a;
+        pairs[pairs.length - 3] = a + across;
+        pairs[pairs.length - 2] = b;
+        pairs[pairs.length - 1] = b + across;
+        return pairs;
+    }
+
+    /**
+     * Rebuilds the entrance cells, links and entrance costs of a cluster from the entrances of its four borders.
+     * @param cluster The cluster index
+     */
+    private void buildCluster(int cluster) {
+        var cx = cluster % clustersX;
+        var cy = cluster / clustersX;
+
+        if (nodes[cluster] != null) {
+            for (var cell : nodes[cluster]) nodeIndices[cell] = -1;
+            REBUILDS.increment();
+        }
+
+        var own = new int[16];
+        var other = new int[16];
+        var count = 0;
+
+        var borders = new int[][] {
+                verticalBorders[cluster],
+                horizontalBorders[cluster],
+                cx > 0 ? verticalBorders[cluster - 1] : null,
+                cy > 0 ? horizontalBorders[cluster - clustersX] : null
+        };
+
+        for (var b = 0; b < borders.length; b++) {
+            var pairs = borders[b];
+            if (pairs == null) continue;
+
+            for (var i = 0; i < pairs.length; i += 2) {
+                if (count == own.length) {
+                    own = Arrays.copyOf(own, count * 2);
+                    other = Arrays.copyOf(other, count * 2);
+                }
+
+                own[count] = b < 2 ? pairs[i] : pairs[i + 1];
+                other[count] = b < 2 ? pairs[i + 1] : pairs[i];
+                count++;
+            }
+        }
+
+        var cells = new int[count];
+        var k = 0;
+
+        for (var i = 0; i < count; i++) {
+            if (nodeIndices[own[i]] >= 0) continue;
+
+            nodeIndices[own[i]] = k;
+            cells[k++] = own[i];
+        }
+
+        cells = Arrays.copyOf(cells, k);
+
+        var offsets = new int[k + 1];
+        for (var i = 0; i < count; i++) offsets[nodeIndices[own[i]] + 1]++;
+        for (var i = 0; i < k; i++) offsets[i + 1] += offsets[i];
+
+        var targets = new int[count];
+        var fill = Arrays.copyOf(offsets, k);
+        for (var i = 0; i < count; i++) targets[fill[nodeIndices[own[i]]]++] = other[i];
+
+        var matrix = new double[k * k];
+        for (var i = 0; i < k; i++) {
+            search(builder, cells[i], -1, cluster);
+            for (var j = 0; j < k; j++) matrix[i * k + j] = builder.cost(cells[j]);
+        }
+
+        nodes[cluster] = cells;
+        costs[cluster] = matrix;
+        linkOffsets[cluster] = offsets;
+        links[cluster] = targets;
+    }
+
+    /**
+     * Returns the cost of a move between two adjacent cells.
+     * @param from The cell id to move from
+     * @param to The cell id to move to
+     * @return The cost of the move
+     */
+    private double step(int from, int to) {
+        var width = grid.width();
+        var a = cost.applyAsDouble(grid.get(from % width, from / width));
+        var b = cost.applyAsDouble(grid.get(to % width, to / width));
+        var diagonal = from % width != to % width && from / width != to / width;
+
+        return (a + b) * 0.5 * (diagonal ? GridSearch.DIAGONAL : 1);
+    }
+
+    /**
+     * Returns the cluster of a cell.
+     * @param cell The cell id
+     * @return The cluster index
+     */
+    private int clusterOf(int cell) {
+        var width = grid.width();
+        return cell / width / clusterSize * clustersX + cell % width / clusterSize;
+    }
+
+    /**
+     * Returns whether a cell is passable.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @return {@code true} if the cell is passable
+     */
+    private boolean passable(int x, int y) {
+        return cost.applyAsDouble(grid.get(x, y)) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * The working memory of a query on one thread.
+     */
+    private static final class Scratch {
+        /**
+         * The scratch buffer of the abstract search.
+         */
+        final SearchScratch global;
+
+        /**
+         * The scratch buffer of searches confined to a cluster.
+         */
+        final SearchScratch local;
+
+        /**
+         * The waypoints of the abstract path, from the goal back to the start.
+         */
+        int[] waypoints = new int[64];
+
+        /**
+         * The costs from the start cell to the entrances of its cluster.
+         */
+        private double[] startCosts = new double[0];
+
+        /**
+         * The costs from the entrances of the goal cluster to the goal cell.
+         */
+        private double[] goalCosts = new double[0];
+
+        /**
+         * Creates a new scratch buffer.
+         * @param cells The number of cells of the grid
+         */
+        Scratch(int cells) {
+            this.global = new SearchScratch(cells);
+            this.local = new SearchScratch(cells);
+        }
+
+        /**
+         * Returns the start cost buffer, grown to hold at least a number of entrances.
+         * @param count The number of entrances
+         * @return The buffer
+         */
+        double[] startCosts(int count) {
+            if (startCosts.length < count) startCosts = new double[count];
+            return startCosts;
+        }
+
+        /**
+         * Returns the goal cost buffer, grown to hold at least a number of entrances.
+         * @param count The number of entrances
+         * @return The buffer
+         */
+        double[] goalCosts(int count) {
+            if (goalCosts.length < count) goalCosts = new double[count];
+            return goalCosts;
+        }
+
+        /**
+         * Appends a waypoint.
+         * @param count The number of waypoints so far
+         * @param cell The cell id of the waypoint
+         * @return The new number of waypoints
+         */
+        int pushWaypoint(int count, int cell) {
+            if (count == waypoints.length) waypoints = Arrays.copyOf(waypoints, count * 2);
+            waypoints[count] = cell;
+            return count + 1;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package pegasus.path;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of integer ids with {@code double} keys, which tracks the position of every id so that keys can
+ * be decreased in place. Ids must be in range {@code [0, capacity)}.
+ */
+final class IndexedHeap {
+    /**
+     * The ids in heap order.
+     */
+    private final int[] heap;
+
+    /**
+     * The keys of the ids in heap order.
+     */
+    private final double[] keys;
+
+    /**
+     * The position of each id in the heap, or {@code -1} if it is not in the heap.
+     */
+    private final int[] positions;
+
+    /**
+     * The number of ids in the heap.
+     */
+    private int size;
+
+    /**
+     * Creates a new empty heap.
+     * @param capacity The number of distinct ids
+     */
+    IndexedHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.keys = new double[capacity];
+        this.positions = new int[capacity];
+
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Returns whether this heap is empty.
+     * @return {@code true} if this heap is empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns whether an id is in this heap.
+     * @param id The id
+     * @return {@code true} if the id is in this heap
+     */
+    boolean contains(int id) {
+        return positions[id] >= 0;
+    }
+
+    /**
+     * Inserts an id, or decreases its key if it is already in this heap with a larger key.
+     * @param id The id
+     * @param key The key
+     */
+    void push(int id, double key) {
+        var i = positions[id];
+
+        if (i < 0) {
+            i = size++;
+            heap[i] = id;
+            positions[id] = i;
+        } else if (key >= keys[i]) {
+            return;
+        }
+
+        keys[i] = key;
+        up(i);
+    }
+
+    /**
+     * Removes the id with the smallest key.
+     * @return The removed id
+     */
+    int pop() {
+        var id = heap[0];
+        positions[id] = -1;
+
+        if (--size > 0) {
+            heap[0] = heap[size];
+            keys[0] = keys[size];
+            positions[heap[0]] = 0;
+            down(0);
+        }
+
+        return id;
+    }
+
+    /**
+     * Removes every id.
+     */
+    void clear() {
+        for (var i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+
+        size = 0;
+    }
+
+    /**
+     * Moves an entry up until its parent has a smaller key.
+     * @param i The position of the entry
+     */
+    private void up(int i) {
+        var id = heap[i];
+        var key = keys[i];
+
+        while (i > 0) {
+            var parent = (i - 1) >>> 1;
+            if (keys[parent] <= key) break;
+
+            move(parent, i);
+            i = parent;
+        }
+
+        heap[i] = id;
+        keys[i] = key;
+        positions[id] = i;
+    }
+
+    /**
+     * Moves an entry down until its children have larger keys.
+     * @param i The position of the entry
+     */
+    private void down(int i) {
+        var id = heap[i];
+        var key = keys[i];
+
+        while (true) {
+            var child = i * 2 + 1;
+            if (child >= size) break;
+
+            if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+            if (keys[child] >= key) break;
+
+            move(child, i);
+            i = child;
+        }
+
+        heap[i] = id;
+        keys[i] = key;
+        positions[id] = i;
+    }
+
+    /**
+     * Moves an entry to another position.
+     * @param from The current position
+     * @param to The new position
+     */
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        keys[to] = keys[from];
+        positions[heap[to]] = to;
+    }
+}
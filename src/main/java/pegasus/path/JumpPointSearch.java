@@ -0,0 +1,227 @@
+package pegasus.path;
+
+import pegasus.grid.TileGrid;
+
+import java.util.function.IntPredicate;
+
+/**
+ * A jump point search pathfinder for grids where every passable cell costs the same. Straight and diagonal runs
+ * without forced neighbors are skipped in a single step, so that only the cells where the path may turn enter the
+ * open list. Paths are optimal under the same movement rules as {@link AStar#uniform(TileGrid, IntPredicate)}:
+ * 8-directional movement where diagonal moves may not cut corners.
+ */
+public final class JumpPointSearch implements Pathfinder {
+    /**
+     * The grid to search.
+     */
+    private final TileGrid grid;
+
+    /**
+     * The predicate which returns {@code true} for the values of passable cells.
+     */
+    private final IntPredicate walkable;
+
+    /**
+     * The scratch buffer of each thread.
+     */
+    private final ThreadLocal<SearchScratch> scratch;
+
+    /**
+     * Creates a new pathfinder.
+     * @param grid The grid to search
+     * @param walkable The predicate which returns {@code true} for the values of passable cells
+     */
+    public JumpPointSearch(TileGrid grid, IntPredicate walkable) {
+        this.grid = grid;
+        this.walkable = walkable;
+        this.scratch = ThreadLocal.withInitial(() -> new SearchScratch(grid.width() * grid.height()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean find(int sx, int sy, int tx, int ty, Path path) {
+        path.clear();
+        AStar.QUERIES.increment();
+
+        if (!open(sx, sy) || !open(tx, ty)) return false;
+
+        var s = scratch.get();
+        var width = grid.width();
+        var start = sy * width + sx;
+        var goal = ty * width + tx;
+
+        s.begin();
+        s.relax(start, 0, -1);
+        s.open.push(start, 0);
+
+        while (!s.open.isEmpty()) {
+            var cell = s.open.pop();
+
+            if (cell == goal) {
+                AStar.EXPANDED.add(s.expanded);
+                expand(s, goal, path);
+                path.setCost(s.cost(goal));
+                return true;
+            }
+
+            s.close(cell);
+
+            var x = cell % width;
+            var y = cell / width;
+            var parent = s.parent(cell);
+
+            if (parent < 0) {
+                for (var dy = -1; dy <= 1; dy++) {
+                    for (var dx = -1; dx <= 1; dx++) {
+                        if ((dx | dy) == 0) continue;
+                        if (dx != 0 && dy != 0 && !(open(x + dx, y) && open(x, y + dy))) continue;
+
+                        successor(s, cell, x, y, dx, dy, tx, ty);
+                    }
+                }
+
+                continue;
+            }
+
+            var dx = Integer.signum(x - parent % width);
+            var dy = Integer.signum(y - parent / width);
+
+            if (dx != 0 && dy != 0) {
+                var vertical = open(x, y + dy);
+                var horizontal = open(x + dx, y);
+
+                if (vertical) successor(s, cell, x, y, 0, dy, tx, ty);
+                if (horizontal) successor(s, cell, x, y, dx, 0, tx, ty);
+                if (vertical && horizontal) successor(s, cell, x, y, dx, dy, tx, ty);
+            } else if (dx != 0) {
+                var next = open(x + dx, y);
+                var below = open(x, y + 1);
+                var above = open(x, y - 1);
+
+                if (next) {
+                    successor(s, cell, x, y, dx, 0, tx, ty);
+                    if (below) successor(s, cell, x, y, dx, 1, tx, ty);
+                    if (above) successor(s, cell, x, y, dx, -1, tx, ty);
+                }
+
+                if (below) successor(s, cell, x, y, 0, 1, tx, ty);
+                if (above) successor(s, cell, x, y, 0, -1, tx, ty);
+            } else {
+                var next = open(x, y + dy);
+                var right = open(x + 1, y);
+                var left = open(x - 1, y);
+
+                if (next) {
+                    successor(s, cell, x, y, 0, dy, tx, ty);
+                    if (right) successor(s, cell, x, y, 1, dy, tx, ty);
+                    if (left) successor(s, cell, x, y, -1, dy, tx, ty);
+                }
+
+                if (right) successor(s, cell, x, y, 1, 0, tx, ty);
+                if (left) successor(s, cell, x, y, -1, 0, tx, ty);
+            }
+        }
+
+        AStar.EXPANDED.add(s.expanded);
+        return false;
+    }
+
+    /**
+     * Jumps from a cell in a direction and records the jump point found, if any, as a successor.
+     * @param s The scratch buffer
+     * @param cell The cell id being expanded
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @param dx The X direction
+     * @param dy The Y direction
+     * @param tx The X coordinate of the goal
+     * @param ty The Y coordinate of the goal
+     */
+    private void successor(SearchScratch s, int cell, int x, int y, int dx, int dy, int tx, int ty) {
+        var point = jump(x + dx, y + dy, dx, dy, tx, ty);
+        if (point < 0 || s.isClosed(point)) return;
+
+        var width = grid.width();
+        var px = point % width;
+        var py = point / width;
+        var g = s.cost(cell) + GridSearch.octile(px - x, py - y);
+
+        if (s.relax(point, g, cell)) s.open.push(point, g + GridSearch.octile(tx - px, ty - py));
+    }
+
+    /**
+     * Moves from a cell in a direction until a jump point is found: the goal, or a cell with a forced neighbor.
+     * Diagonal runs stop at any cell from which a straight run finds a jump point.
+     * @param x The X coordinate of the first cell
+     * @param y The Y coordinate of the first cell
+     * @param dx The X direction
+     * @param dy The Y direction
+     * @param tx The X coordinate of the goal
+     * @param ty The Y coordinate of the goal
+     * @return The cell id of the jump point, or {@code -1} if the run ends without one
+     */
+    private int jump(int x, int y, int dx, int dy, int tx, int ty) {
+        while (true) {
+            if (!open(x, y)) return -1;
+
+            var cell = y * grid.width() + x;
+            if (x == tx && y == ty) return cell;
+
+            if (dx != 0 && dy != 0) {
+                if (jump(x + dx, y, dx, 0, tx, ty) >= 0 || jump(x, y + dy, 0, dy, tx, ty) >= 0) return cell;
+                if (!open(x + dx, y) || !open(x, y + dy)) return -1;
+            } else if (dx != 0) {
+                if ((open(x, y - 1) && !open(x - dx, y - 1)) || (open(x, y + 1) && !open(x - dx, y + 1))) return cell;
+            } else {
+                if ((open(x - 1, y) && !open(x - 1, y - dy)) || (open(x + 1, y) && !open(x + 1, y - dy))) return cell;
+            }
+
+            x += dx;
+            y += dy;
+        }
+    }
+
+    /**
+     * Writes the path ending at a cell, filling in the cells between consecutive jump points.
+     * @param s The scratch buffer of the finished search
+     * @param goal The goal cell id
+     * @param path The path to write to
+     */
+    private void expand(SearchScratch s, int goal, Path path) {
+        var width = grid.width();
+
+        for (var cell = goal; cell >= 0; cell = s.parent(cell)) {
+            var x = cell % width;
+            var y = cell / width;
+            var parent = s.parent(cell);
+
+            if (parent < 0) {
+                path.add(x, y);
+                break;
+            }
+
+            var px = parent % width;
+            var py = parent / width;
+            var dx = Integer.signum(px - x);
+            var dy = Integer.signum(py - y);
+
+            for (; x != px || y != py; x += dx, y += dy) {
+                path.add(x, y);
+            }
+        }
+
+        path.reverseFrom(0);
+    }
+
+    /**
+     * Returns whether a cell is inside the grid and passable.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     * @return {@code true} if the cell is passable
+     */
+    private boolean open(int x, int y) {
+        return grid.contains(x, y) && walkable.test(grid.get(x, y));
+    }
+}
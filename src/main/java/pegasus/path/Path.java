@@ -0,0 +1,162 @@
+package pegasus.path;
+
+import pegasus.number.Int2;
+
+import java.util.Arrays;
+
+/**
+ * A reusable path of grid cells, from the start cell to the goal cell inclusive. Pathfinders clear and refill a
+ * path on every query, so that a caller which keeps one path per agent never allocates once the path has grown
+ * to its working size.
+ */
+public final class Path {
+    /**
+     * The X coordinates of the cells.
+     */
+    private int[] xs = new int[32];
+
+    /**
+     * The Y coordinates of the cells.
+     */
+    private int[] ys = new int[32];
+
+    /**
+     * The number of cells.
+     */
+    private int length;
+
+    /**
+     * The total movement cost of the path.
+     */
+    private double cost = Double.POSITIVE_INFINITY;
+
+    /**
+     * Returns the number of cells of this path.
+     * @return The number of cells, or {@code 0} if no path was found
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns whether this path is empty, which is the case when no path was found.
+     * @return {@code true} if this path has no cells
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Returns the total movement cost of this path.
+     * @return The movement cost, or {@link Double#POSITIVE_INFINITY} if no path was found
+     */
+    public double cost() {
+        return cost;
+    }
+
+    /**
+     * Returns the X coordinate of the {@code i}th cell.
+     * @param i The index of the cell
+     * @return The X coordinate of the cell
+     * @throws IndexOutOfBoundsException When the index is out of bounds
+     */
+    public int x(int i) throws IndexOutOfBoundsException {
+        return xs[checkIndex(i)];
+    }
+
+    /**
+     * Returns the Y coordinate of the {@code i}th cell.
+     * @param i The index of the cell
+     * @return The Y coordinate of the cell
+     * @throws IndexOutOfBoundsException When the index is out of bounds
+     */
+    public int y(int i) throws IndexOutOfBoundsException {
+        return ys[checkIndex(i)];
+    }
+
+    /**
+     * Returns the {@code i}th cell.
+     * @param i The index of the cell
+     * @return The cell
+     * @throws IndexOutOfBoundsException When the index is out of bounds
+     */
+    public Int2 get(int i) throws IndexOutOfBoundsException {
+        checkIndex(i);
+        return Int2.valueOf(xs[i], ys[i]);
+    }
+
+    /**
+     * Removes every cell of this path.
+     */
+    public void clear() {
+        length = 0;
+        cost = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Appends a cell to this path.
+     * @param x The X coordinate of the cell
+     * @param y The Y coordinate of the cell
+     */
+    void add(int x, int y) {
+        if (length == xs.length) {
+            xs = Arrays.copyOf(xs, length * 2);
+            ys = Arrays.copyOf(ys, length * 2);
+        }
+
+        xs[length] = x;
+        ys[length] = y;
+        length++;
+    }
+
+    /**
+     * Reverses the order of the cells from an index to the end of this path.
+     * @param from The index of the first cell to reverse
+     */
+    void reverseFrom(int from) {
+        for (int i = from, j = length - 1; i < j; i++, j--) {
+            var x = xs[i];
+            var y = ys[i];
+
+            xs[i] = xs[j];
+            ys[i] = ys[j];
+            xs[j] = x;
+            ys[j] = y;
+        }
+    }
+
+    /**
+     * Sets the total movement cost of this path.
+     * @param cost The movement cost
+     */
+    void setCost(double cost) {
+        this.cost = cost;
+    }
+
+    /**
+     * Checks that an index is in bounds.
+     * @param i The index
+     * @return The index
+     * @throws IndexOutOfBoundsException When the index is out of bounds
+     */
+    private int checkIndex(int i) throws IndexOutOfBoundsException {
+        if (i < 0 || i >= length) throw new IndexOutOfBoundsException(i);
+        return i;
+    }
+
+    /**
+     * Serializes this path into a string.
+     * @return The string representation of this path
+     */
+    @Override
+    public String toString() {
+        var builder = new StringBuilder("[");
+
+        for (var i = 0; i < length; i++) {
+            if (i > 0) builder.append(", ");
+            builder.append('[').append(xs[i]).append(", ").append(ys[i]).append(']');
+        }
+
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,53 @@
+package pegasus.path;
+
+import pegasus.job.JobSystem;
+import pegasus.number.Int2;
+
+/**
+ * Finds paths between cells of a grid. Implementations keep their working memory per thread, so that queries may
+ * run concurrently as long as the grid is not modified.
+ */
+public interface Pathfinder {
+    /**
+     * Finds a path between two cells.
+     * @param sx The X coordinate of the start cell
+     * @param sy The Y coordinate of the start cell
+     * @param tx The X coordinate of the goal cell
+     * @param ty The Y coordinate of the goal cell
+     * @param path The path to store the result in, which is cleared first
+     * @return {@code true} if a path was found
+     */
+    boolean find(int sx, int sy, int tx, int ty, Path path);
+
+    /**
+     * Finds a path between two cells.
+     * @param start The start cell
+     * @param goal The goal cell
+     * @param path The path to store the result in, which is cleared first
+     * @return {@code true} if a path was found
+     */
+    default boolean find(Int2 start, Int2 goal, Path path) {
+        return find(start.x, start.y, goal.x, goal.y, path);
+    }
+
+    /**
+     * Finds a batch of paths in parallel.
+     * @param jobs The job system to run on
+     * @param queries The queries, packed as {@code sx, sy, tx, ty} quadruples
+     * @param paths The paths to store the result of each query in
+     * @param count The number of queries
+     * @throws IndexOutOfBoundsException When the arrays are too small for the query count
+     */
+    default void findAll(JobSystem jobs, int[] queries, Path[] paths, int count) throws IndexOutOfBoundsException {
+        if (queries.length < count * 4 || paths.length < count) {
+            throw new IndexOutOfBoundsException("The arrays cannot hold " + count + " queries.");
+        }
+
+        jobs.parallelFor(0, count, 1, (from, to) -> {
+            for (var i = from; i < to; i++) {
+                var q = i * 4;
+                find(queries[q], queries[q + 1], queries[q + 2], queries[q + 3], paths[i]);
+            }
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package pegasus.path;
+
+import java.util.Arrays;
+
+/**
+ * The per-thread working memory of a grid search. Every array is indexed by cell id and is allocated once; instead
+ * of clearing the arrays between searches, each search bumps a generation number and treats entries stamped with an
+ * older generation as unvisited.
+ */
+final class SearchScratch {
+    /**
+     * The open list.
+     */
+    final IndexedHeap open;
+
+    /**
+     * The best known cost of each visited cell.
+     */
+    private final double[] costs;
+
+    /**
+     * The cell each visited cell was reached from, or {@code -1} for the start cell.
+     */
+    private final int[] parents;
+
+    /**
+     * The generation in which each cell was last visited.
+     */
+    private final int[] seen;
+
+    /**
+     * The generation in which each cell was last closed.
+     */
+    private final int[] closed;
+
+    /**
+     * The current generation.
+     */
+    private int generation;
+
+    /**
+     * The number of cells expanded by the current search.
+     */
+    int expanded;
+
+    /**
+     * Creates a new scratch buffer.
+     * @param capacity The number of cells
+     */
+    SearchScratch(int capacity) {
+        this.open = new IndexedHeap(capacity);
+        this.costs = new double[capacity];
+        this.parents = new int[capacity];
+        this.seen = new int[capacity];
+        this.closed = new int[capacity];
+    }
+
+    /**
+     * Starts a new search, discarding the state of the previous one.
+     */
+    void begin() {
+        if (++generation == 0) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+
+        open.clear();
+        expanded = 0;
+    }
+
+    /**
+     * Returns the best known cost of a cell.
+     * @param cell The cell id
+     * @return The cost, or {@link Double#POSITIVE_INFINITY} if the cell was not reached
+     */
+    double cost(int cell) {
+        return seen[cell] == generation ? costs[cell] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the cell a cell was reached from.
+     * @param cell The cell id
+     * @return The parent cell id, or {@code -1} for the start cell
+     */
+    int parent(int cell) {
+        return parents[cell];
+    }
+
+    /**
+     * Records a cost for a cell if it improves on the best known one.
+     * @param cell The cell id
+     * @param cost The cost
+     * @param parent The cell it was reached from
+     * @return {@code true} if the cost was recorded
+     */
+    boolean relax(int cell, double cost, int parent) {
+        if (seen[cell] == generation && costs[cell] <= cost) return false;
+
+        seen[cell] = generation;
+        costs[cell] = cost;
+        parents[cell] = parent;
+        return true;
+    }
+
+    /**
+     * Returns whether a cell was closed.
+     * @param cell The cell id
+     * @return {@code true} if the cell was closed
+     */
+    boolean isClosed(int cell) {
+        return closed[cell] == generation;
+    }
+
+    /**
+     * Closes a cell.
+     * @param cell The cell id
+     */
+    void close(int cell) {
+        closed[cell] = generation;
+        expanded++;
+    }
+}
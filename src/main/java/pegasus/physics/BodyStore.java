@@ -0,0 +1,394 @@
+package pegasus.physics;
+
+import pegasus.number.Quaternion;
+import pegasus.number.Vector3;
+
+import java.util.Arrays;
+
+/**
+ * The rigid bodies of a simulation in structure-of-arrays form. Every property is a packed array indexed by body id,
+ * so that the solver streams through velocities without pointer chasing and parallel loops over bodies touch
+ * disjoint cache lines. Bodies with zero mass are static and never move.
+ */
+public final class BodyStore {
+    /**
+     * The number of bodies.
+     */
+    private int count;
+
+    /**
+     * The X coordinates of the positions.
+     */
+    double[] px;
+
+    /**
+     * The Y coordinates of the positions.
+     */
+    double[] py;
+
+    /**
+     * The Z coordinates of the positions.
+     */
+    double[] pz;
+
+    /**
+     * The W components of the orientations.
+     */
+    double[] qw;
+
+    /**
+     * The X components of the orientations.
+     */
+    double[] qx;
+
+    /**
+     * The Y components of the orientations.
+     */
+    double[] qy;
+
+    /**
+     * The Z components of the orientations.
+     */
+    double[] qz;
+
+    /**
+     * The X components of the linear velocities.
+     */
+    double[] vx;
+
+    /**
+     * The Y components of the linear velocities.
+     */
+    double[] vy;
+
+    /**
+     * The Z components of the linear velocities.
+     */
+    double[] vz;
+
+    /**
+     * The X components of the angular velocities.
+     */
+    double[] wx;
+
+    /**
+     * The Y components of the angular velocities.
+     */
+    double[] wy;
+
+    /**
+     * The Z components of the angular velocities.
+     */
+    double[] wz;
+
+    /**
+     * The inverse masses, zero for static bodies.
+     */
+    double[] inverseMass;
+
+    /**
+     * The inverse moments of inertia about the local X axes.
+     */
+    double[] ix;
+
+    /**
+     * The inverse moments of inertia about the local Y axes.
+     */
+    double[] iy;
+
+    /**
+     * The inverse moments of inertia about the local Z axes.
+     */
+    double[] iz;
+
+    /**
+     * The XX entries of the world space inverse inertia tensors, refreshed every step.
+     */
+    double[] ixx;
+
+    /**
+     * The XY entries of the world space inverse inertia tensors.
+     */
+    double[] ixy;
+
+    /**
+     * The XZ entries of the world space inverse inertia tensors.
+     */
+    double[] ixz;
+
+    /**
+     * The YY entries of the world space inverse inertia tensors.
+     */
+    double[] iyy;
+
+    /**
+     * The YZ entries of the world space inverse inertia tensors.
+     */
+    double[] iyz;
+
+    /**
+     * The ZZ entries of the world space inverse inertia tensors.
+     */
+    double[] izz;
+
+    /**
+     * The time each body has been nearly at rest.
+     */
+    double[] restTime;
+
+    /**
+     * Whether each body is asleep.
+     */
+    boolean[] sleeping;
+
+    /**
+     * Creates a new empty store.
+     * @param capacity The initial number of bodies to allocate for
+     */
+    public BodyStore(int capacity) {
+        resize(Math.max(1, capacity));
+    }
+
+    /**
+     * Adds a body.
+     * @param position The position
+     * @param orientation The orientation, which must be normalized
+     * @param mass The mass, or {@code 0} for a static body
+     * @param inertia The principal moments of inertia in local space, ignored for static bodies
+     * @return The id of the body
+     * @throws IllegalArgumentException When the mass is negative or a moment of inertia is not positive
+     */
+    public int add(Vector3 position, Quaternion orientation, double mass, Vector3 inertia)
+            throws IllegalArgumentException {
+        if (!(mass >= 0)) throw new IllegalArgumentException("The mass must not be negative.");
+        if (mass > 0 && !(inertia.x > 0 && inertia.y > 0 && inertia.z > 0)) {
+            throw new IllegalArgumentException("The moments of inertia must be positive.");
+        }
+
+        if (count == px.length) resize(count * 2);
+
+        var i = count++;
+
+        px[i] = position.x;
+        py[i] = position.y;
+        pz[i] = position.z;
+        qw[i] = orientation.w;
+        qx[i] = orientation.x;
+        qy[i] = orientation.y;
+        qz[i] = orientation.z;
+        inverseMass[i] = mass > 0 ? 1 / mass : 0;
+        ix[i] = mass > 0 ? 1 / inertia.x : 0;
+        iy[i] = mass > 0 ? 1 / inertia.y : 0;
+        iz[i] = mass > 0 ? 1 / inertia.z : 0;
+
+        return i;
+    }
+
+    /**
+     * Returns the number of bodies.
+     * @return The number of bodies
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns whether a body is static.
+     * @param body The body id
+     * @return {@code true} if the body has no mass
+     */
+    public boolean isStatic(int body) {
+        return inverseMass[check(body)] == 0;
+    }
+
+    /**
+     * Returns the position of a body.
+     * @param body The body id
+     * @return The position
+     */
+    public Vector3 position(int body) {
+        check(body);
+        return Vector3.valueOf(px[body], py[body], pz[body]);
+    }
+
+    /**
+     * Returns the orientation of a body.
+     * @param body The body id
+     * @return The orientation
+     */
+    public Quaternion orientation(int body) {
+        check(body);
+        return new Quaternion(qw[body], qx[body], qy[body], qz[body]);
+    }
+
+    /**
+     * Returns the linear velocity of a body.
+     * @param body The body id
+     * @return The linear velocity
+     */
+    public Vector3 linearVelocity(int body) {
+        check(body);
+        return Vector3.valueOf(vx[body], vy[body], vz[body]);
+    }
+
+    /**
+     * Returns the angular velocity of a body.
+     * @param body The body id
+     * @return The angular velocity
+     */
+    public Vector3 angularVelocity(int body) {
+        check(body);
+        return Vector3.valueOf(wx[body], wy[body], wz[body]);
+    }
+
+    /**
+     * Sets the pose of a body and wakes it.
+     * @param body The body id
+     * @param position The position
+     * @param orientation The orientation, which must be normalized
+     */
+    public void setPose(int body, Vector3 position, Quaternion orientation) {
+        check(body);
+
+        px[body] = position.x;
+        py[body] = position.y;
+        pz[body] = position.z;
+        qw[body] = orientation.w;
+        qx[body] = orientation.x;
+        qy[body] = orientation.y;
+        qz[body] = orientation.z;
+
+        wake(body);
+    }
+
+    /**
+     * Sets the velocities of a body and wakes it. Static bodies ignore this.
+     * @param body The body id
+     * @param linear The linear velocity
+     * @param angular The angular velocity
+     */
+    public void setVelocity(int body, Vector3 linear, Vector3 angular) {
+        if (isStatic(body)) return;
+
+        vx[body] = linear.x;
+        vy[body] = linear.y;
+        vz[body] = linear.z;
+        wx[body] = angular.x;
+        wy[body] = angular.y;
+        wz[body] = angular.z;
+
+        wake(body);
+    }
+
+    /**
+     * Returns whether a body is asleep.
+     * @param body The body id
+     * @return {@code true} if the body is asleep
+     */
+    public boolean isSleeping(int body) {
+        return sleeping[check(body)];
+    }
+
+    /**
+     * Wakes a body. Its island wakes with it on the next step.
+     * @param body The body id
+     */
+    public void wake(int body) {
+        sleeping[check(body)] = false;
+        restTime[body] = 0;
+    }
+
+    /**
+     * Returns whether a body takes part in the simulation: it is dynamic and awake.
+     * @param body The body id
+     * @return {@code true} if the body is dynamic and awake
+     */
+    boolean isActive(int body) {
+        return inverseMass[body] != 0 && !sleeping[body];
+    }
+
+    /**
+     * Recomputes the world space inverse inertia tensor of a body from its orientation.
+     * @param i The body id
+     */
+    void updateInertia(int i) {
+        var w = qw[i];
+        var x = qx[i];
+        var y = qy[i];
+        var z = qz[i];
+
+        var r00 = 1 - 2 * (y * y + z * z);
+        var r01 = 2 * (x * y - z * w);
+        var r02 = 2 * (x * z + y * w);
+        var r10 = 2 * (x * y + z * w);
+        var r11 = 1 - 2 * (x * x + z * z);
+        var r12 = 2 * (y * z - x * w);
+        var r20 = 2 * (x * z - y * w);
+        var r21 = 2 * (y * z + x * w);
+        var r22 = 1 - 2 * (x * x + y * y);
+
+        var a = ix[i];
+        var b = iy[i];
+        var c = iz[i];
+
+        ixx[i] = r00 * r00 * a + r01 * r01 * b + r02 * r02 * c;
+        ixy[i] = r00 * r10 * a + r01 * r11 * b + r02 * r12 * c;
+        ixz[i] = r00 * r20 * a + r01 * r21 * b + r02 * r22 * c;
+        iyy[i] = r10 * r10 * a + r11 * r11 * b + r12 * r12 * c;
+        iyz[i] = r10 * r20 * a + r11 * r21 * b + r12 * r22 * c;
+        izz[i] = r20 * r20 * a + r21 * r21 * b + r22 * r22 * c;
+    }
+
+    /**
+     * Checks that a body id is in bounds.
+     * @param body The body id
+     * @return The body id
+     * @throws IndexOutOfBoundsException When the body id is out of bounds
+     */
+    private int check(int body) throws IndexOutOfBoundsException {
+        if (body < 0 || body >= count) throw new IndexOutOfBoundsException(body);
+        return body;
+    }
+
+    /**
+     * Resizes every array.
+     * @param capacity The new capacity
+     */
+    private void resize(int capacity) {
+        px = grow(px, capacity);
+        py = grow(py, capacity);
+        pz = grow(pz, capacity);
+        qw = grow(qw, capacity);
+        qx = grow(qx, capacity);
+        qy = grow(qy, capacity);
+        qz = grow(qz, capacity);
+        vx = grow(vx, capacity);
+        vy = grow(vy, capacity);
+        vz = grow(vz, capacity);
+        wx = grow(wx, capacity);
+        wy = grow(wy, capacity);
+        wz = grow(wz, capacity);
+        inverseMass = grow(inverseMass, capacity);
+        ix = grow(ix, capacity);
+        iy = grow(iy, capacity);
+        iz = grow(iz, capacity);
+        ixx = grow(ixx, capacity);
+        ixy = grow(ixy, capacity);
+        ixz = grow(ixz, capacity);
+        iyy = grow(iyy, capacity);
+        iyz = grow(iyz, capacity);
+        izz = grow(izz, capacity);
+        restTime = grow(restTime, capacity);
+        sleeping = sleeping == null ? new boolean[capacity] : Arrays.copyOf(sleeping, capacity);
+    }
+
+    /**
+     * Resizes an array, creating it if needed.
+     * @param array The array, or {@code null}
+     * @param capacity The new capacity
+     * @return The resized array
+     */
+    private static double[] grow(double[] array, int capacity) {
+        return array == null ? new double[capacity] : Arrays.copyOf(array, capacity);
+    }
+}
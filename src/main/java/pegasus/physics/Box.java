@@ -0,0 +1,55 @@
+package pegasus.physics;
+
+import pegasus.number.MutableVector3;
+import pegasus.number.Vector3;
+
+/**
+ * An axis-aligned box in its local space, centered on the origin.
+ */
+public final class Box implements ConvexShape {
+    /**
+     * The half extent along the X axis.
+     */
+    private final double hx;
+
+    /**
+     * The half extent along the Y axis.
+     */
+    private final double hy;
+
+    /**
+     * The half extent along the Z axis.
+     */
+    private final double hz;
+
+    /**
+     * Creates a new box.
+     * @param halfExtents The half extents along each axis
+     * @throws IllegalArgumentException When a half extent is not positive
+     */
+    public Box(Vector3 halfExtents) throws IllegalArgumentException {
+        if (!(halfExtents.x > 0 && halfExtents.y > 0 && halfExtents.z > 0)) {
+            throw new IllegalArgumentException("The half extents must be positive.");
+        }
+
+        this.hx = halfExtents.x;
+        this.hy = halfExtents.y;
+        this.hz = halfExtents.z;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void support(double dx, double dy, double dz, MutableVector3 out) {
+        out.set(dx >= 0 ? hx : -hx, dy >= 0 ? hy : -hy, dz >= 0 ? hz : -hz);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double radius() {
+        return 0;
+    }
+}
@@ -0,0 +1,48 @@
+package pegasus.physics;
+
+import pegasus.number.MutableVector3;
+
+/**
+ * A capsule along the Y axis of its local space, centered on the origin.
+ */
+public final class Capsule implements ConvexShape {
+    /**
+     * Half of the distance between the centers of the two caps.
+     */
+    private final double halfHeight;
+
+    /**
+     * The radius of this capsule.
+     */
+    private final double radius;
+
+    /**
+     * Creates a new capsule.
+     * @param halfHeight Half of the distance between the centers of the two caps
+     * @param radius The radius
+     * @throws IllegalArgumentException When the half height is negative or the radius is not positive
+     */
+    public Capsule(double halfHeight, double radius) throws IllegalArgumentException {
+        if (!(halfHeight >= 0)) throw new IllegalArgumentException("The half height must not be negative.");
+        if (!(radius > 0)) throw new IllegalArgumentException("The radius must be positive.");
+
+        this.halfHeight = halfHeight;
+        this.radius = radius;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void support(double dx, double dy, double dz, MutableVector3 out) {
+        out.set(0, dy >= 0 ? halfHeight : -halfHeight, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double radius() {
+        return radius;
+    }
+}
@@ -0,0 +1,129 @@
+package pegasus.physics;
+
+import pegasus.number.MutableVector3;
+import pegasus.number.Quaternion;
+import pegasus.number.Vector3;
+
+/**
+ * A convex shape placed in the world. The pose is stored as a translation and a rotation matrix, so that support
+ * queries transform directions without allocating and without converting the rotation on every call.
+ */
+public final class Collider {
+    /**
+     * The shape of this collider.
+     */
+    private final ConvexShape shape;
+
+    /**
+     * The rotation matrix of this collider in row-major order.
+     */
+    private final double[] m = {1, 0, 0, 0, 1, 0, 0, 0, 1};
+
+    /**
+     * The X coordinate of the position of this collider.
+     */
+    private double px;
+
+    /**
+     * The Y coordinate of the position of this collider.
+     */
+    private double py;
+
+    /**
+     * The Z coordinate of the position of this collider.
+     */
+    private double pz;
+
+    /**
+     * Creates a new collider at the origin without rotation.
+     * @param shape The shape
+     */
+    public Collider(ConvexShape shape) {
+        this.shape = shape;
+    }
+
+    /**
+     * Returns the shape of this collider.
+     * @return The shape
+     */
+    public ConvexShape shape() {
+        return shape;
+    }
+
+    /**
+     * Returns the position of this collider.
+     * @return The position
+     */
+    public Vector3 position() {
+        return Vector3.valueOf(px, py, pz);
+    }
+
+    /**
+     * Sets the pose of this collider.
+     * @param position The position
+     * @param rotation The rotation, which must be normalized
+     */
+    public void setPose(Vector3 position, Quaternion rotation) {
+        setPose(position.x, position.y, position.z, rotation.w, rotation.x, rotation.y, rotation.z);
+    }
+
+    /**
+     * Sets the pose of this collider without allocating.
+     * @param x The X coordinate of the position
+     * @param y The Y coordinate of the position
+     * @param z The Z coordinate of the position
+     * @param qw The W component of the rotation, which must be normalized
+     * @param qx The X component of the rotation
+     * @param qy The Y component of the rotation
+     * @param qz The Z component of the rotation
+     */
+    public void setPose(double x, double y, double z, double qw, double qx, double qy, double qz) {
+        px = x;
+        py = y;
+        pz = z;
+
+        m[0] = 1 - 2 * (qy * qy + qz * qz);
+        m[1] = 2 * (qx * qy - qz * qw);
+        m[2] = 2 * (qx * qz + qy * qw);
+        m[3] = 2 * (qx * qy + qz * qw);
+        m[4] = 1 - 2 * (qx * qx + qz * qz);
+        m[5] = 2 * (qy * qz - qx * qw);
+        m[6] = 2 * (qx * qz - qy * qw);
+        m[7] = 2 * (qy * qz + qx * qw);
+        m[8] = 1 - 2 * (qx * qx + qy * qy);
+    }
+
+    /**
+     * Writes the point of the core of this collider which is furthest in a direction, in world space.
+     * @param dx The X component of the direction, which need not be normalized
+     * @param dy The Y component of the direction
+     * @param dz The Z component of the direction
+     * @param out The vector to write the point to
+     */
+    void support(double dx, double dy, double dz, MutableVector3 out) {
+        shape.support(
+                m[0] * dx + m[3] * dy + m[6] * dz,
+                m[1] * dx + m[4] * dy + m[7] * dz,
+                m[2] * dx + m[5] * dy + m[8] * dz,
+                out
+        );
+
+        var x = out.x;
+        var y = out.y;
+        var z = out.z;
+
+        out.set(
+                m[0] * x + m[1] * y + m[2] * z + px,
+                m[3] * x + m[4] * y + m[5] * z + py,
+                m[6] * x + m[7] * y + m[8] * z + pz
+        );
+    }
+
+    /**
+     * Writes the center of the local space of this collider.
+     * @param out The vector to write the center to
+     */
+    void center(MutableVector3 out) {
+        out.set(px, py, pz);
+    }
+}
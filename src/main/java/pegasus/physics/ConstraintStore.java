@@ -0,0 +1,275 @@
+package pegasus.physics;
+
+import pegasus.number.Vector3;
+
+import java.util.Arrays;
+
+/**
+ * The constraints between the bodies of a {@link BodyStore} for a single step. Contacts and joints are rebuilt every
+ * step, and identified across steps by a caller-chosen key so that {@link IslandSolver} can warm start them with the
+ * impulses of the previous step. Every constraint has three rows: contacts push along the normal and apply friction
+ * along two tangents, while ball joints pin two anchors together along every axis. The rows are packed into a single
+ * array so that the solver streams through them in order.
+ */
+public final class ConstraintStore {
+    /**
+     * The number of rows per constraint.
+     */
+    static final int ROWS = 3;
+
+    /**
+     * The offset of the axis of a row.
+     */
+    static final int AXIS = 0;
+
+    /**
+     * The offset of the cross product of the offset of the first anchor and the axis.
+     */
+    static final int ARM_A = 3;
+
+    /**
+     * The offset of the cross product of the offset of the second anchor and the axis.
+     */
+    static final int ARM_B = 6;
+
+    /**
+     * The offset of the angular response of the first body to a unit impulse.
+     */
+    static final int TURN_A = 9;
+
+    /**
+     * The offset of the angular response of the second body to a unit impulse.
+     */
+    static final int TURN_B = 12;
+
+    /**
+     * The offset of the effective mass.
+     */
+    static final int MASS = 15;
+
+    /**
+     * The offset of the velocity bias.
+     */
+    static final int BIAS = 16;
+
+    /**
+     * The offset of the accumulated impulse.
+     */
+    static final int IMPULSE = 17;
+
+    /**
+     * The number of values per row.
+     */
+    static final int STRIDE = 18;
+
+    /**
+     * The number of geometric inputs per constraint: the contact point, normal and depth, or the local anchors.
+     */
+    static final int INPUTS = 7;
+
+    /**
+     * The number of constraints.
+     */
+    private int count;
+
+    /**
+     * The first body of each constraint.
+     */
+    int[] bodyA;
+
+    /**
+     * The second body of each constraint.
+     */
+    int[] bodyB;
+
+    /**
+     * Whether each constraint is a ball joint rather than a contact.
+     */
+    boolean[] joint;
+
+    /**
+     * The warm starting key of each constraint.
+     */
+    long[] keys;
+
+    /**
+     * The friction coefficient of each contact.
+     */
+    double[] friction;
+
+    /**
+     * The geometric inputs of each constraint.
+     */
+    double[] inputs;
+
+    /**
+     * The packed rows of each constraint.
+     */
+    double[] rows;
+
+    /**
+     * Creates a new empty store.
+     * @param capacity The initial number of constraints to allocate for
+     */
+    public ConstraintStore(int capacity) {
+        resize(Math.max(1, capacity));
+    }
+
+    /**
+     * Adds a contact computed by {@link Narrowphase#collide(Collider, Collider, SimplexCache, Contact)}. The contact
+     * acts at the midpoint of the two surface points. Contacts which are still apart are kept as speculative contacts,
+     * which only stop the bodies from closing the remaining gap within one step.
+     * @param a The body of the first collider
+     * @param b The body of the second collider
+     * @param contact The contact
+     * @param friction The friction coefficient
+     * @param key The key identifying this contact across steps
+     * @return The index of the constraint
+     * @throws IllegalArgumentException When the two bodies are the same
+     */
+    public int addContact(int a, int b, Contact contact, double friction, long key) throws IllegalArgumentException {
+        var i = add(a, b, false, friction, key);
+        var o = i * INPUTS;
+
+        inputs[o] = (contact.pointA.x + contact.pointB.x) * 0.5;
+        inputs[o + 1] = (contact.pointA.y + contact.pointB.y) * 0.5;
+        inputs[o + 2] = (contact.pointA.z + contact.pointB.z) * 0.5;
+        inputs[o + 3] = contact.normal.x;
+        inputs[o + 4] = contact.normal.y;
+        inputs[o + 5] = contact.normal.z;
+        inputs[o + 6] = -contact.distance();
+
+        return i;
+    }
+
+    /**
+     * Adds a contact.
+     * @param a The first body
+     * @param b The second body
+     * @param point The contact point in world space
+     * @param normal The unit contact normal, pointing from the first body towards the second
+     * @param depth The penetration depth, or the negated gap of a speculative contact
+     * @param friction The friction coefficient
+     * @param key The key identifying this contact across steps
+     * @return The index of the constraint
+     * @throws IllegalArgumentException When the two bodies are the same
+     */
+    public int addContact(int a, int b, Vector3 point, Vector3 normal, double depth, double friction, long key)
+            throws IllegalArgumentException {
+        var i = add(a, b, false, friction, key);
+        var o = i * INPUTS;
+
+        inputs[o] = point.x;
+        inputs[o + 1] = point.y;
+        inputs[o + 2] = point.z;
+        inputs[o + 3] = normal.x;
+        inputs[o + 4] = normal.y;
+        inputs[o + 5] = normal.z;
+        inputs[o + 6] = depth;
+
+        return i;
+    }
+
+    /**
+     * Adds a ball joint, which keeps an anchor on each body at the same point.
+     * @param a The first body
+     * @param b The second body
+     * @param anchorA The anchor on the first body in its local space
+     * @param anchorB The anchor on the second body in its local space
+     * @param key The key identifying this joint across steps
+     * @return The index of the constraint
+     * @throws IllegalArgumentException When the two bodies are the same
+     */
+    public int addBallJoint(int a, int b, Vector3 anchorA, Vector3 anchorB, long key)
+            throws IllegalArgumentException {
+        var i = add(a, b, true, 0, key);
+        var o = i * INPUTS;
+
+        inputs[o] = anchorA.x;
+        inputs[o + 1] = anchorA.y;
+        inputs[o + 2] = anchorA.z;
+        inputs[o + 3] = anchorB.x;
+        inputs[o + 4] = anchorB.y;
+        inputs[o + 5] = anchorB.z;
+
+        return i;
+    }
+
+    /**
+     * Returns the number of constraints.
+     * @return The number of constraints
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns an impulse applied by a constraint during the last solve.
+     * @param constraint The index of the constraint
+     * @param row The row: the normal, first and second tangent of a contact, or the X, Y and Z axis of a joint
+     * @return The accumulated impulse of the row
+     * @throws IndexOutOfBoundsException When the constraint or row is out of bounds
+     */
+    public double impulse(int constraint, int row) throws IndexOutOfBoundsException {
+        if (constraint < 0 || constraint >= count) throw new IndexOutOfBoundsException(constraint);
+        if (row < 0 || row >= ROWS) throw new IndexOutOfBoundsException(row);
+        return rows[(constraint * ROWS + row) * STRIDE + IMPULSE];
+    }
+
+    /**
+     * Removes every constraint, keeping the allocated storage.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Appends a constraint without its geometry.
+     * @param a The first body
+     * @param b The second body
+     * @param joint Whether the constraint is a ball joint
+     * @param friction The friction coefficient
+     * @param key The key identifying the constraint across steps
+     * @return The index of the constraint
+     * @throws IllegalArgumentException When the two bodies are the same
+     */
+    private int add(int a, int b, boolean joint, double friction, long key) throws IllegalArgumentException {
+        if (a == b) throw new IllegalArgumentException("A constraint needs two different bodies.");
+        if (count == bodyA.length) resize(count * 2);
+
+        var i = count++;
+
+        bodyA[i] = a;
+        bodyB[i] = b;
+        this.joint[i] = joint;
+        this.friction[i] = friction;
+        keys[i] = key;
+
+        return i;
+    }
+
+    /**
+     * Resizes every array.
+     * @param capacity The new capacity
+     */
+    private void resize(int capacity) {
+        if (bodyA == null) {
+            bodyA = new int[capacity];
+            bodyB = new int[capacity];
+            joint = new boolean[capacity];
+            keys = new long[capacity];
+            friction = new double[capacity];
+            inputs = new double[capacity * INPUTS];
+            rows = new double[capacity * ROWS * STRIDE];
+            return;
+        }
+
+        bodyA = Arrays.copyOf(bodyA, capacity);
+        bodyB = Arrays.copyOf(bodyB, capacity);
+        joint = Arrays.copyOf(joint, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        friction = Arrays.copyOf(friction, capacity);
+        inputs = Arrays.copyOf(inputs, capacity * INPUTS);
+        rows = Arrays.copyOf(rows, capacity * ROWS * STRIDE);
+    }
+}
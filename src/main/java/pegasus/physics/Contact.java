@@ -0,0 +1,71 @@
+package pegasus.physics;
+
+import pegasus.number.MutableVector3;
+
+/**
+ * The result of a narrow phase query between two colliders. Instances are reused across queries; the vectors are
+ * owned by this contact and overwritten by the next query.
+ */
+public final class Contact {
+    /**
+     * The unit normal pointing from the first collider towards the second.
+     */
+    public final MutableVector3 normal = new MutableVector3();
+
+    /**
+     * The closest or deepest point on the surface of the first collider.
+     */
+    public final MutableVector3 pointA = new MutableVector3();
+
+    /**
+     * The closest or deepest point on the surface of the second collider.
+     */
+    public final MutableVector3 pointB = new MutableVector3();
+
+    /**
+     * The signed distance between the surfaces.
+     */
+    private double distance;
+
+    /**
+     * Returns the signed distance between the surfaces of the colliders.
+     * @return The distance, which is negative by the penetration depth when the colliders overlap
+     */
+    public double distance() {
+        return distance;
+    }
+
+    /**
+     * Returns the penetration depth of the colliders.
+     * @return The depth, or {@code 0} if the colliders do not overlap
+     */
+    public double depth() {
+        return Math.max(0, -distance);
+    }
+
+    /**
+     * Returns whether the colliders touch or overlap.
+     * @return {@code true} if the distance is not positive
+     */
+    public boolean isTouching() {
+        return distance <= 0;
+    }
+
+    /**
+     * Sets the signed distance between the surfaces.
+     * @param distance The distance
+     */
+    void setDistance(double distance) {
+        this.distance = distance;
+    }
+
+    /**
+     * Serializes this contact into a string.
+     * @return The string representation of this contact
+     */
+    @Override
+    public String toString() {
+        return "Contact{distance=" + distance + ", normal=" + normal
+                + ", pointA=" + pointA + ", pointB=" + pointB + "}";
+    }
+}
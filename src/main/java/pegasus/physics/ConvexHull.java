@@ -0,0 +1,67 @@
+package pegasus.physics;
+
+import pegasus.number.MutableVector3;
+import pegasus.number.Vector3;
+
+/**
+ * The convex hull of a set of points in its local space. The points need not be the vertices of the hull; interior
+ * points are never returned by the support function and only cost time.
+ */
+public final class ConvexHull implements ConvexShape {
+    /**
+     * The points, packed as {@code x, y, z} triples.
+     */
+    private final double[] points;
+
+    /**
+     * Creates a new convex hull.
+     * @param points The points
+     * @throws IllegalArgumentException When no points are given
+     */
+    public ConvexHull(Vector3... points) throws IllegalArgumentException {
+        if (points.length == 0) throw new IllegalArgumentException("A convex hull needs at least one point.");
+
+        this.points = new double[points.length * 3];
+
+        for (var i = 0; i < points.length; i++) {
+            this.points[i * 3] = points[i].x;
+            this.points[i * 3 + 1] = points[i].y;
+            this.points[i * 3 + 2] = points[i].z;
+        }
+    }
+
+    /**
+     * Returns the number of points.
+     * @return The number of points
+     */
+    public int pointCount() {
+        return points.length / 3;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void support(double dx, double dy, double dz, MutableVector3 out) {
+        var best = 0;
+        var bestDot = Double.NEGATIVE_INFINITY;
+
+        for (var i = 0; i < points.length; i += 3) {
+            var dot = points[i] * dx + points[i + 1] * dy + points[i + 2] * dz;
+            if (dot <= bestDot) continue;
+
+            bestDot = dot;
+            best = i;
+        }
+
+        out.set(points[best], points[best + 1], points[best + 2]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double radius() {
+        return 0;
+    }
+}
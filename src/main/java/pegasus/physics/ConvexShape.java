@@ -0,0 +1,25 @@
+package pegasus.physics;
+
+import pegasus.number.MutableVector3;
+
+/**
+ * A convex shape described by its support function. Every shape is a convex core swept by a sphere of some radius,
+ * so that spheres and capsules are a point and a segment with a radius; the narrow phase runs GJK on the cores and
+ * only adds the radius at the end, which converges far faster than sampling the rounded surface.
+ */
+public interface ConvexShape {
+    /**
+     * Writes the point of the core which is furthest in a direction, in the local space of the shape.
+     * @param dx The X component of the direction, which need not be normalized
+     * @param dy The Y component of the direction
+     * @param dz The Z component of the direction
+     * @param out The vector to write the point to
+     */
+    void support(double dx, double dy, double dz, MutableVector3 out);
+
+    /**
+     * Returns the radius by which the core is swept.
+     * @return The radius, or {@code 0} for shapes without rounding
+     */
+    double radius();
+}
@@ -0,0 +1,443 @@
+package pegasus.physics;
+
+/**
+ * The expanding polytope algorithm, which finds the penetration depth of two overlapping colliders by growing the
+ * final GJK simplex towards the boundary of the Minkowski difference. Vertices, faces and horizon edges live in
+ * preallocated arrays, so that a query allocates nothing.
+ */
+final class Epa {
+    /**
+     * The maximum number of vertices added to the polytope.
+     */
+    private static final int MAX_ITERATIONS = 64;
+
+    /**
+     * The maximum number of vertices of the polytope.
+     */
+    private static final int MAX_VERTICES = MAX_ITERATIONS + 4;
+
+    /**
+     * The maximum number of faces of the polytope.
+     */
+    private static final int MAX_FACES = MAX_VERTICES * 4;
+
+    /**
+     * The relative tolerance on the depth at which the polytope has converged.
+     */
+    private static final double TOLERANCE = 1e-9;
+
+    /**
+     * The directions tried when growing a degenerate simplex.
+     */
+    private static final double[] AXES = {1, 0, 0, -1, 0, 0, 0, 1, 0, 0, -1, 0, 0, 0, 1, 0, 0, -1};
+
+    /**
+     * The GJK instance whose final simplex seeds the polytope.
+     */
+    private final Gjk gjk;
+
+    /**
+     * The vertices of the polytope on the Minkowski difference.
+     */
+    private final double[] w = new double[MAX_VERTICES * 3];
+
+    /**
+     * The support points on the first collider of each vertex.
+     */
+    private final double[] a = new double[MAX_VERTICES * 3];
+
+    /**
+     * The support points on the second collider of each vertex.
+     */
+    private final double[] b = new double[MAX_VERTICES * 3];
+
+    /**
+     * The number of vertices.
+     */
+    private int vertices;
+
+    /**
+     * The vertex triples of the faces, wound counterclockwise seen from outside.
+     */
+    private final int[] faces = new int[MAX_FACES * 3];
+
+    /**
+     * The outward unit normals of the faces.
+     */
+    private final double[] normals = new double[MAX_FACES * 3];
+
+    /**
+     * The distances of the face planes from the origin.
+     */
+    private final double[] distances = new double[MAX_FACES];
+
+    /**
+     * The number of faces.
+     */
+    private int faceCount;
+
+    /**
+     * The horizon edges as vertex pairs.
+     */
+    private final int[] edges = new int[MAX_FACES * 6];
+
+    /**
+     * The number of horizon edges.
+     */
+    private int edgeCount;
+
+    /**
+     * Creates a new solver.
+     * @param gjk The GJK instance whose final simplex seeds the polytope
+     */
+    Epa(Gjk gjk) {
+        this.gjk = gjk;
+    }
+
+    /**
+     * Finds the penetration depth of the cores of two colliders, starting from the simplex left by a GJK query
+     * which found the cores overlapping. The radii of the shapes are not included; since sweeping both cores by
+     * a sphere sweeps their Minkowski difference by the summed radius, the caller adds it to the depth exactly.
+     * When the Minkowski difference of the cores is flat, the depth is zero and the normal is perpendicular to it.
+     * @param first The first collider
+     * @param second The second collider
+     * @param out The contact to write the result to
+     */
+    void solve(Collider first, Collider second, Contact out) {
+        if (!grow(first, second)) {
+            writeFlat(first, second, out);
+            return;
+        }
+
+        vertices = 4;
+        System.arraycopy(gjk.w, 0, w, 0, 12);
+        System.arraycopy(gjk.a, 0, a, 0, 12);
+        System.arraycopy(gjk.b, 0, b, 0, 12);
+
+        faceCount = 0;
+        if (orientation(0, 1, 2, 3) > 0) {
+            addFace(0, 2, 1);
+            addFace(0, 1, 3);
+            addFace(0, 3, 2);
+            addFace(1, 2, 3);
+        } else {
+            addFace(0, 1, 2);
+            addFace(0, 3, 1);
+            addFace(0, 2, 3);
+            addFace(1, 3, 2);
+        }
+
+        var closest = 0;
+
+        while (true) {
+            closest = 0;
+            for (var f = 1; f < faceCount; f++) {
+                if (distances[f] < distances[closest]) closest = f;
+            }
+
+            if (vertices == MAX_VERTICES) break;
+
+            var n = closest * 3;
+            var v = vertices * 3;
+            gjk.support(first, second, normals[n], normals[n + 1], normals[n + 2], false, a, b, w, v);
+
+            var reach = normals[n] * w[v] + normals[n + 1] * w[v + 1] + normals[n + 2] * w[v + 2];
+            if (reach - distances[closest] <= TOLERANCE * Math.max(1, distances[closest])) break;
+
+            if (!expand(vertices)) break;
+            vertices++;
+        }
+
+        write(closest, out);
+    }
+
+    /**
+     * Grows the GJK simplex into a tetrahedron, which is needed when the origin lies on a face, edge or vertex of
+     * the simplex.
+     * @param first The first collider
+     * @param second The second collider
+     * @return {@code true} if the simplex is a non-degenerate tetrahedron
+     */
+    private boolean grow(Collider first, Collider second) {
+        var g = gjk.w;
+
+        if (gjk.count == 1) {
+            for (var i = 0; i < AXES.length && gjk.count < 2; i += 3) {
+                gjk.add(first, second, AXES[i], AXES[i + 1], AXES[i + 2], false);
+
+                var dx = g[3] - g[0];
+                var dy = g[4] - g[1];
+                var dz = g[5] - g[2];
+                if (dx * dx + dy * dy + dz * dz <= 1e-20) gjk.count--;
+            }
+        }
+
+        if (gjk.count == 2) {
+            var dx = g[3] - g[0];
+            var dy = g[4] - g[1];
+            var dz = g[5] - g[2];
+            var length = dx * dx + dy * dy + dz * dz;
+
+            for (var i = 0; i < AXES.length && gjk.count < 3; i += 3) {
+                var px = dy * AXES[i + 2] - dz * AXES[i + 1];
+                var py = dz * AXES[i] - dx * AXES[i + 2];
+                var pz = dx * AXES[i + 1] - dy * AXES[i];
+                if (px * px + py * py + pz * pz <= 1e-20 * length) continue;
+
+                gjk.add(first, second, px, py, pz, false);
+
+                var ex = g[6] - g[0];
+                var ey = g[7] - g[1];
+                var ez = g[8] - g[2];
+                var cx = dy * ez - dz * ey;
+                var cy = dz * ex - dx * ez;
+                var cz = dx * ey - dy * ex;
+                if (cx * cx + cy * cy + cz * cz <= 1e-20 * length * length) gjk.count--;
+            }
+        }
+
+        if (gjk.count == 3) {
+            var abx = g[3] - g[0];
+            var aby = g[4] - g[1];
+            var abz = g[5] - g[2];
+            var acx = g[6] - g[0];
+            var acy = g[7] - g[1];
+            var acz = g[8] - g[2];
+            var nx = aby * acz - abz * acy;
+            var ny = abz * acx - abx * acz;
+            var nz = abx * acy - aby * acx;
+            var length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+
+            for (var sign = 1; sign >= -1 && gjk.count < 4 && length > 0; sign -= 2) {
+                gjk.add(first, second, nx * sign, ny * sign, nz * sign, false);
+
+                var height = (g[9] - g[0]) * nx + (g[10] - g[1]) * ny + (g[11] - g[2]) * nz;
+                if (Math.abs(height) <= 1e-10 * length) gjk.count--;
+            }
+        }
+
+        return gjk.count == 4;
+    }
+
+    /**
+     * Replaces the faces visible from a new vertex by faces connecting the horizon to the vertex.
+     * @param vertex The new vertex
+     * @return {@code false} if there is no room for the new faces
+     */
+    private boolean expand(int vertex) {
+        var v = vertex * 3;
+        edgeCount = 0;
+
+        var kept = 0;
+        for (var f = 0; f < faceCount; f++) {
+            var n = f * 3;
+            var p = faces[n] * 3;
+            var facing = normals[n] * (w[v] - w[p])
+                    + normals[n + 1] * (w[v + 1] - w[p + 1])
+                    + normals[n + 2] * (w[v + 2] - w[p + 2]);
+
+            if (facing > 0) {
+                addEdge(faces[n], faces[n + 1]);
+                addEdge(faces[n + 1], faces[n + 2]);
+                addEdge(faces[n + 2], faces[n]);
+                continue;
+            }
+
+            if (kept != f) {
+                System.arraycopy(faces, n, faces, kept * 3, 3);
+                System.arraycopy(normals, n, normals, kept * 3, 3);
+                distances[kept] = distances[f];
+            }
+
+            kept++;
+        }
+
+        faceCount = kept;
+        if (faceCount + edgeCount / 2 > MAX_FACES) return false;
+
+        for (var e = 0; e < edgeCount; e += 2) {
+            addFace(edges[e], edges[e + 1], vertex);
+        }
+
+        return true;
+    }
+
+    /**
+     * Adds an edge of a visible face to the horizon, or removes it if its reverse is already there because the
+     * neighboring face is visible as well.
+     * @param from The first vertex of the edge
+     * @param to The second vertex of the edge
+     */
+    private void addEdge(int from, int to) {
+        for (var e = 0; e < edgeCount; e += 2) {
+            if (edges[e] != to || edges[e + 1] != from) continue;
+
+            edgeCount -= 2;
+            edges[e] = edges[edgeCount];
+            edges[e + 1] = edges[edgeCount + 1];
+            return;
+        }
+
+        edges[edgeCount++] = from;
+        edges[edgeCount++] = to;
+    }
+
+    /**
+     * Adds a face and computes its plane.
+     * @param i The first vertex
+     * @param j The second vertex
+     * @param k The third vertex
+     */
+    private void addFace(int i, int j, int k) {
+        var f = faceCount++;
+        var n = f * 3;
+
+        faces[n] = i;
+        faces[n + 1] = j;
+        faces[n + 2] = k;
+
+        var ax = w[i * 3];
+        var ay = w[i * 3 + 1];
+        var az = w[i * 3 + 2];
+        var abx = w[j * 3] - ax;
+        var aby = w[j * 3 + 1] - ay;
+        var abz = w[j * 3 + 2] - az;
+        var acx = w[k * 3] - ax;
+        var acy = w[k * 3 + 1] - ay;
+        var acz = w[k * 3 + 2] - az;
+
+        var nx = aby * acz - abz * acy;
+        var ny = abz * acx - abx * acz;
+        var nz = abx * acy - aby * acx;
+        var length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+
+        if (length == 0) {
+            normals[n] = normals[n + 1] = normals[n + 2] = 0;
+            distances[f] = Double.POSITIVE_INFINITY;
+            return;
+        }
+
+        normals[n] = nx / length;
+        normals[n + 1] = ny / length;
+        normals[n + 2] = nz / length;
+        distances[f] = normals[n] * ax + normals[n + 1] * ay + normals[n + 2] * az;
+    }
+
+    /**
+     * Writes the contact of a flat Minkowski difference containing the origin: zero depth, a normal perpendicular
+     * to the simplex and facing from the first collider towards the second, and the simplex's closest points.
+     * @param first The first collider
+     * @param second The second collider
+     * @param out The contact to write to
+     */
+    private void writeFlat(Collider first, Collider second, Contact out) {
+        var g = gjk.w;
+        var normal = out.normal;
+
+        second.center(normal);
+        first.center(out.pointA);
+        normal.subtract(out.pointA);
+
+        if (gjk.count == 3) {
+            var abx = g[3] - g[0];
+            var aby = g[4] - g[1];
+            var abz = g[5] - g[2];
+            var acx = g[6] - g[0];
+            var acy = g[7] - g[1];
+            var acz = g[8] - g[2];
+            var sign = normal.dot(out.pointA.set(aby * acz - abz * acy, abz * acx - abx * acz, abx * acy - aby * acx));
+
+            normal.set(out.pointA).multiply(sign < 0 ? -1 : 1);
+        } else if (gjk.count == 2) {
+            var dx = g[3] - g[0];
+            var dy = g[4] - g[1];
+            var dz = g[5] - g[2];
+            var along = normal.dot(out.pointA.set(dx, dy, dz)) / out.pointA.normSquared();
+
+            normal.addScaled(out.pointA, -along);
+            if (normal.normSquared() <= 1e-20) normal.set(dz - dy, dx - dz, dy - dx);
+        }
+
+        normal.normalize();
+        if (normal.normSquared() == 0) normal.set(0, 1, 0);
+
+        gjk.closestPoints(out.pointA, out.pointB);
+        out.setDistance(0);
+    }
+
+    /**
+     * Returns the orientation of a vertex relative to the plane of three others.
+     * @param i The first vertex of the plane
+     * @param j The second vertex of the plane
+     * @param k The third vertex of the plane
+     * @param l The vertex to test
+     * @return A positive value if the vertex is on the side the counterclockwise normal points to
+     */
+    private double orientation(int i, int j, int k, int l) {
+        var ax = w[i * 3];
+        var ay = w[i * 3 + 1];
+        var az = w[i * 3 + 2];
+        var abx = w[j * 3] - ax;
+        var aby = w[j * 3 + 1] - ay;
+        var abz = w[j * 3 + 2] - az;
+        var acx = w[k * 3] - ax;
+        var acy = w[k * 3 + 1] - ay;
+        var acz = w[k * 3 + 2] - az;
+
+        return (w[l * 3] - ax) * (aby * acz - abz * acy)
+                + (w[l * 3 + 1] - ay) * (abz * acx - abx * acz)
+                + (w[l * 3 + 2] - az) * (abx * acy - aby * acx);
+    }
+
+    /**
+     * Writes the contact of a face: its normal, its distance as the penetration depth, and the points on both
+     * colliders weighted by the barycentric coordinates of the origin's projection onto the face.
+     * @param face The face
+     * @param out The contact to write to
+     */
+    private void write(int face, Contact out) {
+        var n = face * 3;
+        var depth = distances[face];
+        var nx = normals[n];
+        var ny = normals[n + 1];
+        var nz = normals[n + 2];
+
+        var i = faces[n] * 3;
+        var j = faces[n + 1] * 3;
+        var k = faces[n + 2] * 3;
+
+        var v0x = w[j] - w[i];
+        var v0y = w[j + 1] - w[i + 1];
+        var v0z = w[j + 2] - w[i + 2];
+        var v1x = w[k] - w[i];
+        var v1y = w[k + 1] - w[i + 1];
+        var v1z = w[k + 2] - w[i + 2];
+        var v2x = nx * depth - w[i];
+        var v2y = ny * depth - w[i + 1];
+        var v2z = nz * depth - w[i + 2];
+
+        var d00 = v0x * v0x + v0y * v0y + v0z * v0z;
+        var d01 = v0x * v1x + v0y * v1y + v0z * v1z;
+        var d11 = v1x * v1x + v1y * v1y + v1z * v1z;
+        var d20 = v2x * v0x + v2y * v0y + v2z * v0z;
+        var d21 = v2x * v1x + v2y * v1y + v2z * v1z;
+        var denominator = d00 * d11 - d01 * d01;
+
+        var u = denominator == 0 ? 0 : (d11 * d20 - d01 * d21) / denominator;
+        var t = denominator == 0 ? 0 : (d00 * d21 - d01 * d20) / denominator;
+        var s = 1 - u - t;
+
+        out.pointA.set(
+                a[i] * s + a[j] * u + a[k] * t,
+                a[i + 1] * s + a[j + 1] * u + a[k + 1] * t,
+                a[i + 2] * s + a[j + 2] * u + a[k + 2] * t
+        );
+        out.pointB.set(
+                b[i] * s + b[j] * u + b[k] * t,
+                b[i + 1] * s + b[j + 1] * u + b[k + 1] * t,
+                b[i + 2] * s + b[j + 2] * u + b[k + 2] * t
+        );
+        out.normal.set(nx, ny, nz);
+        out.setDistance(-depth);
+    }
+}
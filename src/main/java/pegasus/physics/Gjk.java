@@ -0,0 +1,572 @@
+package pegasus.physics;
+
+import pegasus.number.MutableVector3;
+
+/**
+ * The GJK distance algorithm over the Minkowski difference of two colliders. The simplex is kept in flat arrays and
+ * every intermediate vector lives in a field, so that a query allocates nothing. Instances are not thread-safe and
+ * are kept per thread by {@link Narrowphase}.
+ */
+final class Gjk {
+    /**
+     * The maximum number of iterations of a query.
+     */
+    private static final int MAX_ITERATIONS = 64;
+
+    /**
+     * The relative tolerance on the squared distance at which a query has converged.
+     */
+    private static final double RELATIVE_TOLERANCE = 1e-12;
+
+    /**
+     * The squared distance below which the origin is considered to be inside the Minkowski difference.
+     */
+    private static final double CONTACT_TOLERANCE = 1e-20;
+
+    /**
+     * The faces of a tetrahedron as vertex triples, each followed by the opposite vertex.
+     */
+    private static final int[] FACES = {0, 1, 2, 3, 0, 2, 3, 1, 0, 3, 1, 2, 1, 3, 2, 0};
+
+    /**
+     * The vertices of the simplex on the Minkowski difference, packed as {@code x, y, z} triples.
+     */
+    final double[] w = new double[12];
+
+    /**
+     * The support points on the first collider of each vertex.
+     */
+    final double[] a = new double[12];
+
+    /**
+     * The support points on the second collider of each vertex.
+     */
+    final double[] b = new double[12];
+
+    /**
+     * The search directions which produced each vertex.
+     */
+    final double[] d = new double[12];
+
+    /**
+     * The barycentric weights of the closest point for each vertex.
+     */
+    private final double[] lambda = new double[4];
+
+    /**
+     * The number of vertices of the simplex.
+     */
+    int count;
+
+    /**
+     * The X coordinate of the point of the simplex closest to the origin.
+     */
+    double vx;
+
+    /**
+     * The Y coordinate of the point of the simplex closest to the origin.
+     */
+    double vy;
+
+    /**
+     * The Z coordinate of the point of the simplex closest to the origin.
+     */
+    double vz;
+
+    /**
+     * The vertices kept by the most recent sub-simplex solution.
+     */
+    private final int[] subset = new int[4];
+
+    /**
+     * The weights of the vertices kept by the most recent sub-simplex solution.
+     */
+    private final double[] weights = new double[4];
+
+    /**
+     * The vertices kept by the best face of a tetrahedron.
+     */
+    private final int[] bestSubset = new int[4];
+
+    /**
+     * The weights of the vertices kept by the best face of a tetrahedron.
+     */
+    private final double[] bestWeights = new double[4];
+
+    /**
+     * The vertices kept by a candidate edge of a degenerate triangle.
+     */
+    private final int[] edgeSubset = new int[2];
+
+    /**
+     * The weights of the vertices kept by a candidate edge of a degenerate triangle.
+     */
+    private final double[] edgeWeights = new double[2];
+
+    /**
+     * The buffer used to compact the simplex.
+     */
+    private final double[] compact = new double[48];
+
+    /**
+     * The scratch vector for support points.
+     */
+    private final MutableVector3 point = new MutableVector3();
+
+    /**
+     * The solver for penetrating queries.
+     */
+    final Epa epa = new Epa(this);
+
+    /**
+     * Runs GJK between two colliders, leaving the closest simplex in this instance.
+     * @param first The first collider
+     * @param second The second collider
+     * @param cache The simplex of the previous frame to start from, or {@code null}
+     * @param rounded Whether to include the radii of the shapes instead of running on their cores
+     * @return {@code true} if the origin is inside the Minkowski difference, meaning the shapes overlap
+     */
+    boolean run(Collider first, Collider second, SimplexCache cache, boolean rounded) {
+        count = 0;
+
+        if (cache != null && cache.count > 0) {
+            for (var i = 0; i < cache.count; i++) {
+                var j = i * 3;
+                add(first, second, cache.directions[j], cache.directions[j + 1], cache.directions[j + 2], rounded);
+            }
+
+            if (solve()) return true;
+        } else {
+            second.center(point);
+            var dx = point.x;
+            var dy = point.y;
+            var dz = point.z;
+
+            first.center(point);
+            dx -= point.x;
+            dy -= point.y;
+            dz -= point.z;
+
+            if (dx * dx + dy * dy + dz * dz == 0) dx = 1;
+
+            add(first, second, dx, dy, dz, rounded);
+            solve();
+        }
+
+        var vv = vx * vx + vy * vy + vz * vz;
+
+        for (var i = 0; i < MAX_ITERATIONS; i++) {
+            if (vv <= CONTACT_TOLERANCE) return true;
+
+            add(first, second, -vx, -vy, -vz, rounded);
+
+            var n = (count - 1) * 3;
+            if (vv - (vx * w[n] + vy * w[n + 1] + vz * w[n + 2]) <= RELATIVE_TOLERANCE * vv || duplicate()) {
+                count--;
+                return false;
+            }
+
+            if (solve()) return true;
+
+            var next = vx * vx + vy * vy + vz * vz;
+            if (next >= vv) return false;
+
+            vv = next;
+        }
+
+        return false;
+    }
+
+    /**
+     * Stores the directions of the current simplex in a cache.
+     * @param cache The cache to store in
+     */
+    void save(SimplexCache cache) {
+        System.arraycopy(d, 0, cache.directions, 0, count * 3);
+        cache.count = count;
+    }
+
+    /**
+     * Writes the closest points on both colliders, as weighted by the current simplex.
+     * @param onFirst The vector to write the point on the first collider to
+     * @param onSecond The vector to write the point on the second collider to
+     */
+    void closestPoints(MutableVector3 onFirst, MutableVector3 onSecond) {
+        onFirst.set(0, 0, 0);
+        onSecond.set(0, 0, 0);
+
+        for (var i = 0; i < count; i++) {
+            var j = i * 3;
+            var l = lambda[i];
+
+            onFirst.set(onFirst.x + a[j] * l, onFirst.y + a[j + 1] * l, onFirst.z + a[j + 2] * l);
+            onSecond.set(onSecond.x + b[j] * l, onSecond.y + b[j + 1] * l, onSecond.z + b[j + 2] * l);
+        }
+    }
+
+    /**
+     * Adds a vertex to the simplex: the support point of the Minkowski difference in a direction.
+     * @param first The first collider
+     * @param second The second collider
+     * @param dx The X component of the direction
+     * @param dy The Y component of the direction
+     * @param dz The Z component of the direction
+     * @param rounded Whether to include the radii of the shapes
+     */
+    void add(Collider first, Collider second, double dx, double dy, double dz, boolean rounded) {
+        var i = count * 3;
+
+        support(first, second, dx, dy, dz, rounded, a, b, w, i);
+
+        d[i] = dx;
+        d[i + 1] = dy;
+        d[i + 2] = dz;
+
+        count++;
+    }
+
+    /**
+     * Writes the support point of the Minkowski difference in a direction, along with the support points on both
+     * colliders it was formed from.
+     * @param first The first collider
+     * @param second The second collider
+     * @param dx The X component of the direction
+     * @param dy The Y component of the direction
+     * @param dz The Z component of the direction
+     * @param rounded Whether to include the radii of the shapes
+     * @param pa The array to write the point on the first collider to
+     * @param pb The array to write the point on the second collider to
+     * @param pw The array to write the point on the Minkowski difference to
+     * @param i The offset to write at
+     */
+    void support(
+            Collider first, Collider second, double dx, double dy, double dz, boolean rounded,
+            double[] pa, double[] pb, double[] pw, int i
+    ) {
+        var scale = rounded ? 1 / Math.sqrt(dx * dx + dy * dy + dz * dz) : 0;
+
+        first.support(dx, dy, dz, point);
+        var r = first.shape().radius() * scale;
+        pa[i] = point.x + dx * r;
+        pa[i + 1] = point.y + dy * r;
+        pa[i + 2] = point.z + dz * r;
+
+        second.support(-dx, -dy, -dz, point);
+        r = second.shape().radius() * scale;
+        pb[i] = point.x - dx * r;
+        pb[i + 1] = point.y - dy * r;
+        pb[i + 2] = point.z - dz * r;
+
+        pw[i] = pa[i] - pb[i];
+        pw[i + 1] = pa[i + 1] - pb[i + 1];
+        pw[i + 2] = pa[i + 2] - pb[i + 2];
+    }
+
+    /**
+     * Returns whether the newest vertex coincides with another vertex of the simplex.
+     * @return {@code true} if the newest vertex is a duplicate
+     */
+    private boolean duplicate() {
+        var n = (count - 1) * 3;
+
+        for (var i = 0; i < n; i += 3) {
+            if (w[i] == w[n] && w[i + 1] == w[n + 1] && w[i + 2] == w[n + 2]) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Replaces the simplex by its smallest sub-simplex containing the point closest to the origin, and updates that
+     * point.
+     * @return {@code true} if the simplex is a tetrahedron containing the origin
+     */
+    boolean solve() {
+        int kept;
+
+        switch (count) {
+            case 1 -> {
+                subset[0] = 0;
+                weights[0] = 1;
+                kept = 1;
+            }
+            case 2 -> kept = segment(0, 1, subset, weights);
+            case 3 -> kept = triangle(0, 1, 2, subset, weights);
+            default -> {
+                kept = tetrahedron();
+                if (kept < 0) {
+                    vx = vy = vz = 0;
+                    return true;
+                }
+            }
+        }
+
+        commit(kept);
+        return false;
+    }
+
+    /**
+     * Solves a tetrahedron simplex by solving each face the origin lies outside of.
+     * @return The number of vertices kept, or {@code -1} if the origin is inside the tetrahedron
+     */
+    private int tetrahedron() {
+        var best = Double.POSITIVE_INFINITY;
+        var kept = -1;
+
+        for (var f = 0; f < 4; f++) {
+            var i = FACES[f * 4];
+            var j = FACES[f * 4 + 1];
+            var k = FACES[f * 4 + 2];
+            var opposite = FACES[f * 4 + 3];
+
+            if (!outside(i, j, k, opposite)) continue;
+
+            var n = triangle(i, j, k, subset, weights);
+            var distance = distanceSquared(n, subset, weights);
+            if (distance >= best) continue;
+
+            best = distance;
+            kept = n;
+            System.arraycopy(subset, 0, bestSubset, 0, n);
+            System.arraycopy(weights, 0, bestWeights, 0, n);
+        }
+
+        if (kept < 0) return -1;
+
+        System.arraycopy(bestSubset, 0, subset, 0, kept);
+        System.arraycopy(bestWeights, 0, weights, 0, kept);
+        return kept;
+    }
+
+    /**
+     * Returns whether the origin is on the other side of a face than the opposite vertex, or the tetrahedron is too
+     * flat to tell.
+     * @param i The first vertex of the face
+     * @param j The second vertex of the face
+     * @param k The third vertex of the face
+     * @param opposite The opposite vertex
+     * @return {@code true} if the face must be solved
+     */
+    private boolean outside(int i, int j, int k, int opposite) {
+        var ax = w[i * 3];
+        var ay = w[i * 3 + 1];
+        var az = w[i * 3 + 2];
+        var abx = w[j * 3] - ax;
+        var aby = w[j * 3 + 1] - ay;
+        var abz = w[j * 3 + 2] - az;
+        var acx = w[k * 3] - ax;
+        var acy = w[k * 3 + 1] - ay;
+        var acz = w[k * 3 + 2] - az;
+
+        var nx = aby * acz - abz * acy;
+        var ny = abz * acx - abx * acz;
+        var nz = abx * acy - aby * acx;
+
+        var origin = -(ax * nx + ay * ny + az * nz);
+        var vertex = (w[opposite * 3] - ax) * nx + (w[opposite * 3 + 1] - ay) * ny + (w[opposite * 3 + 2] - az) * nz;
+        var scale = nx * nx + ny * ny + nz * nz;
+
+        return vertex * vertex <= 1e-24 * scale * scale || origin * vertex < 0;
+    }
+
+    /**
+     * Finds the point of a segment closest to the origin.
+     * @param i The first vertex
+     * @param j The second vertex
+     * @param so The array to write the kept vertices to
+     * @param wo The array to write their weights to
+     * @return The number of vertices kept
+     */
+    private int segment(int i, int j, int[] so, double[] wo) {
+        var ax = w[i * 3];
+        var ay = w[i * 3 + 1];
+        var az = w[i * 3 + 2];
+        var abx = w[j * 3] - ax;
+        var aby = w[j * 3 + 1] - ay;
+        var abz = w[j * 3 + 2] - az;
+        var length = abx * abx + aby * aby + abz * abz;
+        var t = length > 0 ? -(ax * abx + ay * aby + az * abz) / length : 0;
+
+        if (t <= 0) {
+            so[0] = i;
+            wo[0] = 1;
+            return 1;
+        }
+
+        if (t >= 1) {
+            so[0] = j;
+            wo[0] = 1;
+            return 1;
+        }
+
+        so[0] = i;
+        so[1] = j;
+        wo[0] = 1 - t;
+        wo[1] = t;
+        return 2;
+    }
+
+    /**
+     * Finds the point of a triangle closest to the origin by its Voronoi regions.
+     * @param i The first vertex
+     * @param j The second vertex
+     * @param k The third vertex
+     * @param so The array to write the kept vertices to
+     * @param wo The array to write their weights to
+     * @return The number of vertices kept
+     */
+    private int triangle(int i, int j, int k, int[] so, double[] wo) {
+        var ax = w[i * 3];
+        var ay = w[i * 3 + 1];
+        var az = w[i * 3 + 2];
+        var bx = w[j * 3];
+        var by = w[j * 3 + 1];
+        var bz = w[j * 3 + 2];
+        var cx = w[k * 3];
+        var cy = w[k * 3 + 1];
+        var cz = w[k * 3 + 2];
+
+        var abx = bx - ax;
+        var aby = by - ay;
+        var abz = bz - az;
+        var acx = cx - ax;
+        var acy = cy - ay;
+        var acz = cz - az;
+
+        var d1 = -(abx * ax + aby * ay + abz * az);
+        var d2 = -(acx * ax + acy * ay + acz * az);
+        if (d1 <= 0 && d2 <= 0) return vertex(i, so, wo);
+
+        var d3 = -(abx * bx + aby * by + abz * bz);
+        var d4 = -(acx * bx + acy * by + acz * bz);
+        if (d3 >= 0 && d4 <= d3) return vertex(j, so, wo);
+
+        var vc = d1 * d4 - d3 * d2;
+        if (vc <= 0 && d1 >= 0 && d3 <= 0) return edge(i, j, d1 / (d1 - d3), so, wo);
+
+        var d5 = -(abx * cx + aby * cy + abz * cz);
+        var d6 = -(acx * cx + acy * cy + acz * cz);
+        if (d6 >= 0 && d5 <= d6) return vertex(k, so, wo);
+
+        var vb = d5 * d2 - d1 * d6;
+        if (vb <= 0 && d2 >= 0 && d6 <= 0) return edge(i, k, d2 / (d2 - d6), so, wo);
+
+        var va = d3 * d6 - d5 * d4;
+        if (va <= 0 && d4 - d3 >= 0 && d5 - d6 >= 0) return edge(j, k, (d4 - d3) / ((d4 - d3) + (d5 - d6)), so, wo);
+
+        var sum = va + vb + vc;
+
+        if (!(sum > 0)) {
+            var n = segment(i, j, so, wo);
+            var best = distanceSquared(n, so, wo);
+
+            for (var e = 0; e < 2; e++) {
+                var m = e == 0 ? segment(i, k, edgeSubset, edgeWeights) : segment(j, k, edgeSubset, edgeWeights);
+                var distance = distanceSquared(m, edgeSubset, edgeWeights);
+                if (distance >= best) continue;
+
+                best = distance;
+                n = m;
+                System.arraycopy(edgeSubset, 0, so, 0, m);
+                System.arraycopy(edgeWeights, 0, wo, 0, m);
+            }
+
+            return n;
+        }
+
+        so[0] = i;
+        so[1] = j;
+        so[2] = k;
+        wo[1] = vb / sum;
+        wo[2] = vc / sum;
+        wo[0] = 1 - wo[1] - wo[2];
+        return 3;
+    }
+
+    /**
+     * Writes a single-vertex solution.
+     * @param i The vertex
+     * @param so The array to write the kept vertices to
+     * @param wo The array to write their weights to
+     * @return {@code 1}
+     */
+    private static int vertex(int i, int[] so, double[] wo) {
+        so[0] = i;
+        wo[0] = 1;
+        return 1;
+    }
+
+    /**
+     * Writes an edge solution.
+     * @param i The first vertex
+     * @param j The second vertex
+     * @param t The weight of the second vertex
+     * @param so The array to write the kept vertices to
+     * @param wo The array to write their weights to
+     * @return {@code 2}
+     */
+    private static int edge(int i, int j, double t, int[] so, double[] wo) {
+        so[0] = i;
+        so[1] = j;
+        wo[0] = 1 - t;
+        wo[1] = t;
+        return 2;
+    }
+
+    /**
+     * Returns the squared distance from the origin of a weighted sub-simplex.
+     * @param n The number of vertices
+     * @param so The vertices
+     * @param wo The weights
+     * @return The squared distance
+     */
+    private double distanceSquared(int n, int[] so, double[] wo) {
+        var x = 0.0;
+        var y = 0.0;
+        var z = 0.0;
+
+        for (var i = 0; i < n; i++) {
+            var j = so[i] * 3;
+            x += w[j] * wo[i];
+            y += w[j + 1] * wo[i];
+            z += w[j + 2] * wo[i];
+        }
+
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * Compacts the simplex to the vertices of the most recent solution and recomputes the closest point.
+     * @param kept The number of vertices kept
+     */
+    private void commit(int kept) {
+        for (var i = 0; i < kept; i++) {
+            var j = subset[i] * 3;
+            var c = i * 12;
+
+            System.arraycopy(w, j, compact, c, 3);
+            System.arraycopy(a, j, compact, c + 3, 3);
+            System.arraycopy(b, j, compact, c + 6, 3);
+            System.arraycopy(d, j, compact, c + 9, 3);
+        }
+
+        vx = vy = vz = 0;
+
+        for (var i = 0; i < kept; i++) {
+            var j = i * 3;
+            var c = i * 12;
+
+            System.arraycopy(compact, c, w, j, 3);
+            System.arraycopy(compact, c + 3, a, j, 3);
+            System.arraycopy(compact, c + 6, b, j, 3);
+            System.arraycopy(compact, c + 9, d, j, 3);
+
+            lambda[i] = weights[i];
+            vx += w[j] * weights[i];
+            vy += w[j + 1] * weights[i];
+            vz += w[j + 2] * weights[i];
+        }
+
+        count = kept;
+    }
+}
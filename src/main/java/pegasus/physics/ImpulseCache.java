@@ -0,0 +1,107 @@
+package pegasus.physics;
+
+import java.util.Arrays;
+
+/**
+ * The impulses of the constraints of the previous step, keyed by constraint key, for warm starting. This is an open
+ * addressing table with linear probing, rebuilt from scratch after every step; lookups only read, so constraints can
+ * be prepared in parallel.
+ */
+final class ImpulseCache {
+    /**
+     * The keys of the slots.
+     */
+    private long[] keys = new long[16];
+
+    /**
+     * The impulses of the slots, {@link ConstraintStore#ROWS} per slot.
+     */
+    private double[] impulses = new double[16 * ConstraintStore.ROWS];
+
+    /**
+     * The generation in which each slot was last written.
+     */
+    private int[] stamps = new int[16];
+
+    /**
+     * The current generation.
+     */
+    private int stamp = 1;
+
+    /**
+     * Replaces the contents of this cache with the impulses of a set of constraints.
+     * @param constraints The constraints
+     */
+    void store(ConstraintStore constraints) {
+        var count = constraints.count();
+        var capacity = Integer.highestOneBit(Math.max(8, count) * 2 - 1) << 1;
+
+        if (capacity > keys.length) {
+            keys = new long[capacity];
+            impulses = new double[capacity * ConstraintStore.ROWS];
+            stamps = new int[capacity];
+            stamp = 1;
+        } else if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+
+        var mask = keys.length - 1;
+        var rows = constraints.rows;
+
+        for (var i = 0; i < count; i++) {
+            var key = constraints.keys[i];
+            var slot = hash(key) & mask;
+
+            while (stamps[slot] == stamp && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+
+            keys[slot] = key;
+            stamps[slot] = stamp;
+
+            for (var r = 0; r < ConstraintStore.ROWS; r++) {
+                impulses[slot * ConstraintStore.ROWS + r] =
+                        rows[(i * ConstraintStore.ROWS + r) * ConstraintStore.STRIDE + ConstraintStore.IMPULSE];
+            }
+        }
+    }
+
+    /**
+     * Returns the impulse of a row of a constraint in the previous step.
+     * @param key The key of the constraint
+     * @param row The row
+     * @return The impulse, or {@code 0} if the constraint did not exist in the previous step
+     */
+    double load(long key, int row) {
+        var mask = keys.length - 1;
+        var slot = hash(key) & mask;
+
+        while (stamps[slot] == stamp) {
+            if (keys[slot] == key) return impulses[slot * ConstraintStore.ROWS + row];
+            slot = (slot + 1) & mask;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Removes every impulse.
+     */
+    void clear() {
+        if (++stamp != 0) return;
+
+        Arrays.fill(stamps, 0);
+        stamp = 1;
+    }
+
+    /**
+     * Mixes the bits of a key into a slot index.
+     * @param key The key
+     * @return The mixed bits
+     */
+    private static int hash(long key) {
+        var h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
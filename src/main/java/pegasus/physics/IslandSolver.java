@@ -0,0 +1,992 @@
+package pegasus.physics;
+
+import pegasus.job.IntRangeConsumer;
+import pegasus.job.JobSystem;
+import pegasus.metrics.Counter;
+import pegasus.metrics.MetricRegistry;
+import pegasus.number.Vector3;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A sequential impulse solver which steps the bodies of a {@link BodyStore} under the constraints of a
+ * {@link ConstraintStore}. Bodies are partitioned into islands of dynamic bodies linked by constraints, using a
+ * union-find over the constraints; islands cannot affect each other within a step, so small islands are solved
+ * concurrently, each by a single job. The constraints of a large island are instead greedily coloured so that no two
+ * constraints of the same colour share a dynamic body, and every colour is solved as a parallel batch. Both paths are
+ * deterministic and independent of the number of workers.
+ * <p>
+ * Constraints are warm started with the impulses they ended the previous step with, matched by key. Islands whose
+ * bodies have all been nearly at rest for long enough fall asleep and are skipped until a body is woken or an awake
+ * body is constrained against them.
+ */
+public final class IslandSolver {
+    /**
+     * The number of islands solved.
+     */
+    private static final Counter ISLANDS = MetricRegistry.global().counter("physics.islands");
+
+    /**
+     * The number of colour batches solved in parallel.
+     */
+    private static final Counter BATCHES = MetricRegistry.global().counter("physics.colorBatches");
+
+    /**
+     * The number of colours available to large islands. Constraints which fit none of them are solved serially.
+     */
+    private static final int COLORS = 64;
+
+    /**
+     * The minimum number of bodies integrated by a single job.
+     */
+    private static final int BODY_GRAIN = 256;
+
+    /**
+     * The minimum number of constraints prepared by a single job.
+     */
+    private static final int CONSTRAINT_GRAIN = 128;
+
+    /**
+     * The minimum number of constraints of a colour batch solved by a single job.
+     */
+    private static final int BATCH_GRAIN = 32;
+
+    /**
+     * The bodies to simulate.
+     */
+    private final BodyStore bodies;
+
+    /**
+     * The job system to solve on.
+     */
+    private final JobSystem jobs;
+
+    /**
+     * The impulses of the previous step.
+     */
+    private final ImpulseCache cache = new ImpulseCache();
+
+    /**
+     * The X component of the gravity.
+     */
+    private double gravityX;
+
+    /**
+     * The Y component of the gravity.
+     */
+    private double gravityY = -9.81;
+
+    /**
+     * The Z component of the gravity.
+     */
+    private double gravityZ;
+
+    /**
+     * The number of velocity iterations per step.
+     */
+    private int iterations = 10;
+
+    /**
+     * The fraction of the position error corrected per step.
+     */
+    private double baumgarte = 0.2;
+
+    /**
+     * The penetration depth which is tolerated without correction.
+     */
+    private double slop = 0.005;
+
+    /**
+     * The linear speed below which a body is at rest.
+     */
+    private double linearRest = 0.05;
+
+    /**
+     * The angular speed below which a body is at rest.
+     */
+    private double angularRest = 0.05;
+
+    /**
+     * The time an island must be at rest before it falls asleep.
+     */
+    private double timeToSleep = 0.5;
+
+    /**
+     * The number of constraints from which an island is coloured.
+     */
+    private int largeIsland = 256;
+
+    /**
+     * The constraints of the current step.
+     */
+    private ConstraintStore constraints;
+
+    /**
+     * The length of the current step.
+     */
+    private double dt;
+
+    /**
+     * The number of awake islands in the last step.
+     */
+    private int islandCount;
+
+    /**
+     * The number of islands of the current step which are solved whole by a single job.
+     */
+    private int smallCount;
+
+    /**
+     * The union-find parent of each body.
+     */
+    private int[] parent = new int[0];
+
+    /**
+     * The awake island of each body, or {@code -1} for static and sleeping bodies.
+     */
+    private int[] bodyIsland = new int[0];
+
+    /**
+     * The island of each constraint, or {@code -1} if it has no awake dynamic body.
+     */
+    private int[] constraintIsland = new int[0];
+
+    /**
+     * The offsets of the bodies of each island in {@link #islandBodies}.
+     */
+    private int[] bodyStart = new int[1];
+
+    /**
+     * The bodies grouped by island.
+     */
+    private int[] islandBodies = new int[0];
+
+    /**
+     * The offsets of the constraints of each island in {@link #islandConstraints}.
+     */
+    private int[] constraintStart = new int[1];
+
+    /**
+     * The constraints grouped by island.
+     */
+    private int[] islandConstraints = new int[0];
+
+    /**
+     * The constraints of the large island being solved, grouped by colour.
+     */
+    private int[] colored = new int[0];
+
+    /**
+     * The offsets of the colours in {@link #colored}, the last one being for the uncoloured constraints.
+     */
+    private final int[] colorStart = new int[COLORS + 2];
+
+    /**
+     * The cursors of the colours while sorting the constraints of a large island.
+     */
+    private final int[] colorCursor = new int[COLORS + 1];
+
+    /**
+     * The colour of each constraint of the large island being solved, indexed like {@link #islandConstraints}.
+     */
+    private int[] colors = new int[0];
+
+    /**
+     * The colours used by the constraints of each body so far.
+     */
+    private long[] bodyColors = new long[0];
+
+    /**
+     * The awake islands sorted by their number of constraints.
+     */
+    private long[] order = new long[0];
+
+    /**
+     * The job which integrates gravity and refreshes the inertia of a range of bodies.
+     */
+    private final IntRangeConsumer integrateVelocities = this::integrateVelocities;
+
+    /**
+     * The job which prepares a range of constraints.
+     */
+    private final IntRangeConsumer prepare = this::prepare;
+
+    /**
+     * The job which solves a range of the small islands.
+     */
+    private final IntRangeConsumer solveIslands = this::solveIslands;
+
+    /**
+     * The job which warm starts a range of a colour batch.
+     */
+    private final IntRangeConsumer warmStartBatch = this::warmStartBatch;
+
+    /**
+     * The job which solves a range of a colour batch.
+     */
+    private final IntRangeConsumer solveBatch = this::solveBatch;
+
+    /**
+     * The job which integrates the positions of a range of bodies.
+     */
+    private final IntRangeConsumer integratePositions = this::integratePositions;
+
+    /**
+     * Creates a new solver.
+     * @param bodies The bodies to simulate
+     * @param jobs The job system to solve on
+     */
+    public IslandSolver(BodyStore bodies, JobSystem jobs) {
+        this.bodies = bodies;
+        this.jobs = jobs;
+    }
+
+    /**
+     * Sets the gravity.
+     * @param gravity The acceleration due to gravity
+     */
+    public void setGravity(Vector3 gravity) {
+        gravityX = gravity.x;
+        gravityY = gravity.y;
+        gravityZ = gravity.z;
+    }
+
+    /**
+     * Sets the number of velocity iterations per step.
+     * @param iterations The number of iterations
+     * @throws IllegalArgumentException When the number of iterations is not positive
+     */
+    public void setIterations(int iterations) throws IllegalArgumentException {
+        if (iterations <= 0) throw new IllegalArgumentException("The number of iterations must be positive.");
+        this.iterations = iterations;
+    }
+
+    /**
+     * Sets when bodies fall asleep. An infinite time disables sleeping.
+     * @param linear The linear speed below which a body is at rest
+     * @param angular The angular speed below which a body is at rest
+     * @param time The time an island must be at rest before it falls asleep
+     * @throws IllegalArgumentException When a value is negative
+     */
+    public void setSleepThresholds(double linear, double angular, double time) throws IllegalArgumentException {
+        if (!(linear >= 0 && angular >= 0 && time >= 0)) {
+            throw new IllegalArgumentException("The sleep thresholds must not be negative.");
+        }
+
+        linearRest = linear;
+        angularRest = angular;
+        timeToSleep = time;
+    }
+
+    /**
+     * Sets the number of constraints from which an island is coloured and solved in parallel batches.
+     * @param constraints The number of constraints
+     * @throws IllegalArgumentException When the number of constraints is not positive
+     */
+    public void setLargeIslandSize(int constraints) throws IllegalArgumentException {
+        if (constraints <= 0) throw new IllegalArgumentException("The island size must be positive.");
+        largeIsland = constraints;
+    }
+
+    /**
+     * Returns the number of awake islands in the last step.
+     * @return The number of awake islands
+     */
+    public int islandCount() {
+        return islandCount;
+    }
+
+    /**
+     * Discards the impulses kept for warm starting.
+     */
+    public void reset() {
+        cache.clear();
+    }
+
+    /**
+     * Advances the simulation by one step: applies gravity, solves the constraints, integrates the bodies and puts
+     * resting islands to sleep. The constraints must be rebuilt by the caller before every step.
+     * @param constraints The constraints of this step
+     * @param dt The length of the step
+     * @throws IllegalArgumentException When the length of the step is not positive
+     * @throws IndexOutOfBoundsException When a constraint refers to a body which does not exist
+     * @throws CompletionException When a job has thrown
+     */
+    public void step(ConstraintStore constraints, double dt)
+            throws IllegalArgumentException, IndexOutOfBoundsException, CompletionException {
+        if (!(dt > 0)) throw new IllegalArgumentException("The step length must be positive.");
+
+        this.constraints = constraints;
+        this.dt = dt;
+
+        try {
+            var n = bodies.count();
+            var m = constraints.count();
+
+            buildIslands(n, m);
+
+            jobs.parallelFor(0, n, BODY_GRAIN, integrateVelocities);
+            jobs.parallelFor(0, m, CONSTRAINT_GRAIN, prepare);
+
+            for (var i = 0; i < islandCount; i++) {
+                order[i] = (long) (constraintStart[i + 1] - constraintStart[i]) << 32 | i;
+            }
+
+            Arrays.sort(order, 0, islandCount);
+
+            smallCount = islandCount;
+            while (smallCount > 0 && (int) (order[smallCount - 1] >>> 32) >= largeIsland) {
+                solveLarge((int) order[--smallCount]);
+            }
+
+            jobs.parallelFor(0, smallCount, solveIslands);
+            ISLANDS.add(islandCount);
+
+            cache.store(constraints);
+
+            jobs.parallelFor(0, n, BODY_GRAIN, integratePositions);
+            sleepIslands();
+        } finally {
+            this.constraints = null;
+        }
+    }
+
+    /**
+     * Partitions the awake dynamic bodies and the constraints between them into islands, waking every sleeping body
+     * which shares an island with an awake one.
+     * @param n The number of bodies
+     * @param m The number of constraints
+     * @throws IndexOutOfBoundsException When a constraint refers to a body which does not exist
+     */
+    private void buildIslands(int n, int m) throws IndexOutOfBoundsException {
+        if (parent.length < n) {
+            parent = new int[n];
+            bodyIsland = new int[n];
+            islandBodies = new int[n];
+            bodyColors = new long[n];
+            bodyStart = new int[n + 1];
+            order = new long[n];
+        }
+
+        if (constraintIsland.length < m) {
+            constraintIsland = new int[m];
+            islandConstraints = new int[m];
+            colored = new int[m];
+            colors = new int[m];
+        }
+
+        for (var i = 0; i < n; i++) {
+            parent[i] = i;
+            bodyIsland[i] = -1;
+        }
+
+        var mass = bodies.inverseMass;
+
+        for (var c = 0; c < m; c++) {
+            var a = constraints.bodyA[c];
+            var b = constraints.bodyB[c];
+
+            if (a < 0 || a >= n) throw new IndexOutOfBoundsException(a);
+            if (b < 0 || b >= n) throw new IndexOutOfBoundsException(b);
+            if (mass[a] == 0 || mass[b] == 0) continue;
+
+            var ra = find(a);
+            var rb = find(b);
+            if (ra != rb) parent[Math.max(ra, rb)] = Math.min(ra, rb);
+        }
+
+        // Mark the roots of islands holding an awake body, then wake their sleeping bodies.
+        for (var i = 0; i < n; i++) {
+            if (mass[i] != 0 && !bodies.sleeping[i]) bodyIsland[find(i)] = 0;
+        }
+
+        islandCount = 0;
+
+        for (var i = 0; i < n; i++) {
+            if (mass[i] == 0) continue;
+
+            var root = find(i);
+            if (bodyIsland[root] < 0) continue;
+            if (bodies.sleeping[i]) bodies.wake(i);
+            if (root == i) bodyIsland[i] = islandCount++;
+        }
+
+        if (bodyStart.length < islandCount + 1) {
+            bodyStart = new int[islandCount + 1];
+        }
+
+        if (constraintStart.length < islandCount + 1) {
+            constraintStart = new int[islandCount + 1];
+        }
+
+        Arrays.fill(bodyStart, 0, islandCount + 1, 0);
+        Arrays.fill(constraintStart, 0, islandCount + 1, 0);
+
+        // Roots precede their members, so every root has its island before its members look it up.
+        for (var i = 0; i < n; i++) {
+            if (mass[i] == 0) continue;
+
+            var island = bodyIsland[find(i)];
+            bodyIsland[i] = island;
+            if (island >= 0) bodyStart[island + 1]++;
+        }
+
+        for (var c = 0; c < m; c++) {
+            var a = constraints.bodyA[c];
+            var island = mass[a] != 0 ? bodyIsland[a] : bodyIsland[constraints.bodyB[c]];
+
+            constraintIsland[c] = island;
+            if (island >= 0) constraintStart[island + 1]++;
+        }
+
+        for (var i = 0; i < islandCount; i++) {
+            bodyStart[i + 1] += bodyStart[i];
+            constraintStart[i + 1] += constraintStart[i];
+        }
+
+        for (var i = 0; i < n; i++) {
+            var island = bodyIsland[i];
+            if (island >= 0) islandBodies[bodyStart[island]++] = i;
+        }
+
+        for (var c = 0; c < m; c++) {
+            var island = constraintIsland[c];
+            if (island >= 0) islandConstraints[constraintStart[island]++] = c;
+        }
+
+        // Filling advanced every offset to the start of the next island; shift them back.
+        for (var i = islandCount; i > 0; i--) {
+            bodyStart[i] = bodyStart[i - 1];
+            constraintStart[i] = constraintStart[i - 1];
+        }
+
+        bodyStart[0] = 0;
+        constraintStart[0] = 0;
+    }
+
+    /**
+     * Finds the root of a body in the union-find, compressing the path to it.
+     * @param body The body
+     * @return The root of its set
+     */
+    private int find(int body) {
+        var root = body;
+        while (parent[root] != root) root = parent[root];
+
+        while (parent[body] != root) {
+            var next = parent[body];
+            parent[body] = root;
+            body = next;
+        }
+
+        return root;
+    }
+
+    /**
+     * Applies gravity to a range of bodies and refreshes their world space inertia.
+     * @param from The first body (inclusive)
+     * @param to The last body (exclusive)
+     */
+    private void integrateVelocities(int from, int to) {
+        var b = bodies;
+
+        for (var i = from; i < to; i++) {
+            if (!b.isActive(i)) continue;
+
+            b.vx[i] += gravityX * dt;
+            b.vy[i] += gravityY * dt;
+            b.vz[i] += gravityZ * dt;
+            b.updateInertia(i);
+        }
+    }
+
+    /**
+     * Computes the rows of a range of constraints and loads their impulses from the previous step. Constraints outside
+     * of awake islands only keep their impulses, so that they can warm start once their island wakes.
+     * @param from The first constraint (inclusive)
+     * @param to The last constraint (exclusive)
+     */
+    private void prepare(int from, int to) {
+        var b = bodies;
+        var rows = constraints.rows;
+        var inputs = constraints.inputs;
+
+        for (var c = from; c < to; c++) {
+            var key = constraints.keys[c];
+            var base = c * ConstraintStore.ROWS * ConstraintStore.STRIDE;
+
+            if (constraintIsland[c] < 0) {
+                for (var r = 0; r < ConstraintStore.ROWS; r++) {
+                    rows[base + r * ConstraintStore.STRIDE + ConstraintStore.IMPULSE] = cache.load(key, r);
+                }
+
+                continue;
+            }
+
+            var a = constraints.bodyA[c];
+            var e = constraints.bodyB[c];
+            var o = c * ConstraintStore.INPUTS;
+
+            if (constraints.joint[c]) {
+                var ax = rotateX(a, inputs[o], inputs[o + 1], inputs[o + 2]);
+                var ay = rotateY(a, inputs[o], inputs[o + 1], inputs[o + 2]);
+                var az = rotateZ(a, inputs[o], inputs[o + 1], inputs[o + 2]);
+                var bx = rotateX(e, inputs[o + 3], inputs[o + 4], inputs[o + 5]);
+                var by = rotateY(e, inputs[o + 3], inputs[o + 4], inputs[o + 5]);
+                var bz = rotateZ(e, inputs[o + 3], inputs[o + 4], inputs[o + 5]);
+
+                var scale = baumgarte / dt;
+                var ex = b.px[e] + bx - b.px[a] - ax;
+                var ey = b.py[e] + by - b.py[a] - ay;
+                var ez = b.pz[e] + bz - b.pz[a] - az;
+
+                writeRow(base, a, e, ax, ay, az, bx, by, bz, 1, 0, 0, ex * scale, cache.load(key, 0));
+                writeRow(base + ConstraintStore.STRIDE, a, e, ax, ay, az, bx, by, bz, 0, 1, 0, ey * scale,
+                        cache.load(key, 1));
+                writeRow(base + 2 * ConstraintStore.STRIDE, a, e, ax, ay, az, bx, by, bz, 0, 0, 1, ez * scale,
+                        cache.load(key, 2));
+                continue;
+            }
+
+            var ax = inputs[o] - b.px[a];
+            var ay = inputs[o + 1] - b.py[a];
+            var az = inputs[o + 2] - b.pz[a];
+            var bx = inputs[o] - b.px[e];
+            var by = inputs[o + 1] - b.py[e];
+            var bz = inputs[o + 2] - b.pz[e];
+            var nx = inputs[o + 3];
+            var ny = inputs[o + 4];
+            var nz = inputs[o + 5];
+            var depth = inputs[o + 6];
+
+            // The first tangent is perpendicular to the normal and its smallest component.
+            double tx;
+            double ty;
+            double tz;
+
+            if (Math.abs(nx) >= 0.57735) {
+                var length = Math.sqrt(nx * nx + ny * ny);
+                tx = ny / length;
+                ty = -nx / length;
+                tz = 0;
+            } else {
+                var length = Math.sqrt(ny * ny + nz * nz);
+                tx = 0;
+                ty = nz / length;
+                tz = -ny / length;
+            }
+
+            var bias = depth > slop ? -baumgarte * (depth - slop) / dt : depth < 0 ? -depth / dt : 0;
+
+            writeRow(base, a, e, ax, ay, az, bx, by, bz, nx, ny, nz, bias, cache.load(key, 0));
+            writeRow(base + ConstraintStore.STRIDE, a, e, ax, ay, az, bx, by, bz, tx, ty, tz, 0, cache.load(key, 1));
+            writeRow(base + 2 * ConstraintStore.STRIDE, a, e, ax, ay, az, bx, by, bz,
+                    ny * tz - nz * ty, nz * tx - nx * tz, nx * ty - ny * tx, 0, cache.load(key, 2));
+        }
+    }
+
+    /**
+     * Computes a row of a constraint.
+     * @param o The offset of the row
+     * @param a The first body
+     * @param b The second body
+     * @param ax The X component of the offset of the anchor from the first body
+     * @param ay The Y component of the offset of the anchor from the first body
+     * @param az The Z component of the offset of the anchor from the first body
+     * @param bx The X component of the offset of the anchor from the second body
+     * @param by The Y component of the offset of the anchor from the second body
+     * @param bz The Z component of the offset of the anchor from the second body
+     * @param dx The X component of the unit axis
+     * @param dy The Y component of the unit axis
+     * @param dz The Z component of the unit axis
+     * @param bias The velocity bias
+     * @param impulse The impulse to warm start with
+     */
+    private void writeRow(int o, int a, int b, double ax, double ay, double az, double bx, double by, double bz,
+                          double dx, double dy, double dz, double bias, double impulse) {
+        var rows = constraints.rows;
+        var s = bodies;
+
+        var cax = ay * dz - az * dy;
+        var cay = az * dx - ax * dz;
+        var caz = ax * dy - ay * dx;
+        var cbx = by * dz - bz * dy;
+        var cby = bz * dx - bx * dz;
+        var cbz = bx * dy - by * dx;
+
+        var kax = s.ixx[a] * cax + s.ixy[a] * cay + s.ixz[a] * caz;
+        var kay = s.ixy[a] * cax + s.iyy[a] * cay + s.iyz[a] * caz;
+        var kaz = s.ixz[a] * cax + s.iyz[a] * cay + s.izz[a] * caz;
+        var kbx = s.ixx[b] * cbx + s.ixy[b] * cby + s.ixz[b] * cbz;
+        var kby = s.ixy[b] * cbx + s.iyy[b] * cby + s.iyz[b] * cbz;
+        var kbz = s.ixz[b] * cbx + s.iyz[b] * cby + s.izz[b] * cbz;
+
+        var k = s.inverseMass[a] + s.inverseMass[b]
+                + cax * kax + cay * kay + caz * kaz
+                + cbx * kbx + cby * kby + cbz * kbz;
+
+        rows[o + ConstraintStore.AXIS] = dx;
+        rows[o + ConstraintStore.AXIS + 1] = dy;
+        rows[o + ConstraintStore.AXIS + 2] = dz;
+        rows[o + ConstraintStore.ARM_A] = cax;
+        rows[o + ConstraintStore.ARM_A + 1] = cay;
+        rows[o + ConstraintStore.ARM_A + 2] = caz;
+        rows[o + ConstraintStore.ARM_B] = cbx;
+        rows[o + ConstraintStore.ARM_B + 1] = cby;
+        rows[o + ConstraintStore.ARM_B + 2] = cbz;
+        rows[o + ConstraintStore.TURN_A] = kax;
+        rows[o + ConstraintStore.TURN_A + 1] = kay;
+        rows[o + ConstraintStore.TURN_A + 2] = kaz;
+        rows[o + ConstraintStore.TURN_B] = kbx;
+        rows[o + ConstraintStore.TURN_B + 1] = kby;
+        rows[o + ConstraintStore.TURN_B + 2] = kbz;
+        rows[o + ConstraintStore.MASS] = k > 0 ? 1 / k : 0;
+        rows[o + ConstraintStore.BIAS] = bias;
+        rows[o + ConstraintStore.IMPULSE] = impulse;
+    }
+
+    /**
+     * Returns the X component of a vector rotated by the orientation of a body.
+     * @param body The body
+     * @param x The X component of the vector
+     * @param y The Y component of the vector
+     * @param z The Z component of the vector
+     * @return The X component of the rotated vector
+     */
+    private double rotateX(int body, double x, double y, double z) {
+        var b = bodies;
+        var w = b.qw[body];
+        var qx = b.qx[body];
+        var qy = b.qy[body];
+        var qz = b.qz[body];
+
+        return (1 - 2 * (qy * qy + qz * qz)) * x + 2 * (qx * qy - qz * w) * y + 2 * (qx * qz + qy * w) * z;
+    }
+
+    /**
+     * Returns the Y component of a vector rotated by the orientation of a body.
+     * @param body The body
+     * @param x The X component of the vector
+     * @param y The Y component of the vector
+     * @param z The Z component of the vector
+     * @return The Y component of the rotated vector
+     */
+    private double rotateY(int body, double x, double y, double z) {
+        var b = bodies;
+        var w = b.qw[body];
+        var qx = b.qx[body];
+        var qy = b.qy[body];
+        var qz = b.qz[body];
+
+        return 2 * (qx * qy + qz * w) * x + (1 - 2 * (qx * qx + qz * qz)) * y + 2 * (qy * qz - qx * w) * z;
+    }
+
+    /**
+     * Returns the Z component of a vector rotated by the orientation of a body.
+     * @param body The body
+     * @param x The X component of the vector
+     * @param y The Y component of the vector
+     * @param z The Z component of the vector
+     * @return The Z component of the rotated vector
+     */
+    private double rotateZ(int body, double x, double y, double z) {
+        var b = bodies;
+        var w = b.qw[body];
+        var qx = b.qx[body];
+        var qy = b.qy[body];
+        var qz = b.qz[body];
+
+        return 2 * (qx * qz - qy * w) * x + 2 * (qy * qz + qx * w) * y + (1 - 2 * (qx * qx + qy * qy)) * z;
+    }
+
+    /**
+     * Solves a range of the small islands, in order of decreasing size.
+     * @param from The first index into the sorted islands (inclusive)
+     * @param to The last index into the sorted islands (exclusive)
+     */
+    private void solveIslands(int from, int to) {
+        for (var i = from; i < to; i++) {
+            var island = (int) order[smallCount - 1 - i];
+            var start = constraintStart[island];
+            var end = constraintStart[island + 1];
+
+            for (var c = start; c < end; c++) {
+                warmStart(islandConstraints[c]);
+            }
+
+            for (var k = 0; k < iterations; k++) {
+                for (var c = start; c < end; c++) {
+                    solve(islandConstraints[c]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Colours the constraints of a large island and solves it in parallel batches, one colour at a time.
+     * @param island The island
+     */
+    private void solveLarge(int island) {
+        var start = constraintStart[island];
+        var end = constraintStart[island + 1];
+        var mass = bodies.inverseMass;
+
+        for (var i = bodyStart[island]; i < bodyStart[island + 1]; i++) {
+            bodyColors[islandBodies[i]] = 0;
+        }
+
+        Arrays.fill(colorStart, 0);
+
+        for (var i = start; i < end; i++) {
+            var c = islandConstraints[i];
+            var a = constraints.bodyA[c];
+            var b = constraints.bodyB[c];
+
+            var used = (mass[a] != 0 ? bodyColors[a] : 0) | (mass[b] != 0 ? bodyColors[b] : 0);
+            var color = Long.numberOfTrailingZeros(~used);
+
+            if (color < COLORS) {
+                var bit = 1L << color;
+                if (mass[a] != 0) bodyColors[a] |= bit;
+                if (mass[b] != 0) bodyColors[b] |= bit;
+            }
+
+            colors[i] = color;
+            colorStart[color + 1]++;
+        }
+
+        for (var k = 0; k <= COLORS; k++) {
+            colorStart[k + 1] += colorStart[k];
+        }
+
+        System.arraycopy(colorStart, 0, colorCursor, 0, COLORS + 1);
+
+        for (var i = start; i < end; i++) {
+            colored[start + colorCursor[colors[i]]++] = islandConstraints[i];
+        }
+
+        for (var pass = -1; pass < iterations; pass++) {
+            var batch = pass < 0 ? warmStartBatch : solveBatch;
+
+            for (var k = 0; k < COLORS; k++) {
+                var from = start + colorStart[k];
+                var to = start + colorStart[k + 1];
+                if (from == to) continue;
+
+                jobs.parallelFor(from, to, BATCH_GRAIN, batch);
+                BATCHES.increment();
+            }
+
+            batch.accept(start + colorStart[COLORS], start + colorStart[COLORS + 1]);
+        }
+    }
+
+    /**
+     * Warm starts a range of a colour batch.
+     * @param from The first index into the coloured constraints (inclusive)
+     * @param to The last index into the coloured constraints (exclusive)
+     */
+    private void warmStartBatch(int from, int to) {
+        for (var i = from; i < to; i++) {
+            warmStart(colored[i]);
+        }
+    }
+
+    /**
+     * Solves a range of a colour batch once.
+     * @param from The first index into the coloured constraints (inclusive)
+     * @param to The last index into the coloured constraints (exclusive)
+     */
+    private void solveBatch(int from, int to) {
+        for (var i = from; i < to; i++) {
+            solve(colored[i]);
+        }
+    }
+
+    /**
+     * Applies the impulses a constraint was prepared with.
+     * @param c The constraint
+     */
+    private void warmStart(int c) {
+        var a = constraints.bodyA[c];
+        var b = constraints.bodyB[c];
+        var base = c * ConstraintStore.ROWS * ConstraintStore.STRIDE;
+
+        for (var r = 0; r < ConstraintStore.ROWS; r++) {
+            var o = base + r * ConstraintStore.STRIDE;
+            apply(o, a, b, constraints.rows[o + ConstraintStore.IMPULSE]);
+        }
+    }
+
+    /**
+     * Solves every row of a constraint once. Friction is solved before the normal, bounded by the normal impulse.
+     * @param c The constraint
+     */
+    private void solve(int c) {
+        var a = constraints.bodyA[c];
+        var b = constraints.bodyB[c];
+        var base = c * ConstraintStore.ROWS * ConstraintStore.STRIDE;
+
+        if (constraints.joint[c]) {
+            var infinity = Double.POSITIVE_INFINITY;
+
+            solveRow(base, a, b, -infinity, infinity);
+            solveRow(base + ConstraintStore.STRIDE, a, b, -infinity, infinity);
+            solveRow(base + 2 * ConstraintStore.STRIDE, a, b, -infinity, infinity);
+            return;
+        }
+
+        var limit = constraints.friction[c] * constraints.rows[base + ConstraintStore.IMPULSE];
+
+        solveRow(base + ConstraintStore.STRIDE, a, b, -limit, limit);
+        solveRow(base + 2 * ConstraintStore.STRIDE, a, b, -limit, limit);
+        solveRow(base, a, b, 0, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Solves a single row, clamping its accumulated impulse.
+     * @param o The offset of the row
+     * @param a The first body
+     * @param b The second body
+     * @param lower The lower bound of the accumulated impulse
+     * @param upper The upper bound of the accumulated impulse
+     */
+    private void solveRow(int o, int a, int b, double lower, double upper) {
+        var rows = constraints.rows;
+        var s = bodies;
+
+        var velocity = rows[o + ConstraintStore.AXIS] * (s.vx[b] - s.vx[a])
+                + rows[o + ConstraintStore.AXIS + 1] * (s.vy[b] - s.vy[a])
+                + rows[o + ConstraintStore.AXIS + 2] * (s.vz[b] - s.vz[a])
+                + rows[o + ConstraintStore.ARM_B] * s.wx[b]
+                + rows[o + ConstraintStore.ARM_B + 1] * s.wy[b]
+                + rows[o + ConstraintStore.ARM_B + 2] * s.wz[b]
+                - rows[o + ConstraintStore.ARM_A] * s.wx[a]
+                - rows[o + ConstraintStore.ARM_A + 1] * s.wy[a]
+                - rows[o + ConstraintStore.ARM_A + 2] * s.wz[a];
+
+        var previous = rows[o + ConstraintStore.IMPULSE];
+        var impulse = previous - rows[o + ConstraintStore.MASS] * (velocity + rows[o + ConstraintStore.BIAS]);
+        impulse = Math.min(Math.max(impulse, lower), upper);
+
+        rows[o + ConstraintStore.IMPULSE] = impulse;
+        apply(o, a, b, impulse - previous);
+    }
+
+    /**
+     * Applies an impulse along a row to both of its bodies. Static bodies are never written to, which keeps batches
+     * free of races on the shared ground.
+     * @param o The offset of the row
+     * @param a The first body
+     * @param b The second body
+     * @param impulse The impulse
+     */
+    private void apply(int o, int a, int b, double impulse) {
+        if (impulse == 0) return;
+
+        var rows = constraints.rows;
+        var s = bodies;
+        var dx = rows[o + ConstraintStore.AXIS] * impulse;
+        var dy = rows[o + ConstraintStore.AXIS + 1] * impulse;
+        var dz = rows[o + ConstraintStore.AXIS + 2] * impulse;
+
+        var ma = s.inverseMass[a];
+        if (ma != 0) {
+            s.vx[a] -= dx * ma;
+            s.vy[a] -= dy * ma;
+            s.vz[a] -= dz * ma;
+            s.wx[a] -= rows[o + ConstraintStore.TURN_A] * impulse;
+            s.wy[a] -= rows[o + ConstraintStore.TURN_A + 1] * impulse;
+            s.wz[a] -= rows[o + ConstraintStore.TURN_A + 2] * impulse;
+        }
+
+        var mb = s.inverseMass[b];
+        if (mb != 0) {
+            s.vx[b] += dx * mb;
+            s.vy[b] += dy * mb;
+            s.vz[b] += dz * mb;
+            s.wx[b] += rows[o + ConstraintStore.TURN_B] * impulse;
+            s.wy[b] += rows[o + ConstraintStore.TURN_B + 1] * impulse;
+            s.wz[b] += rows[o + ConstraintStore.TURN_B + 2] * impulse;
+        }
+    }
+
+    /**
+     * Integrates the positions and orientations of a range of bodies and tracks how long they have been at rest.
+     * @param from The first body (inclusive)
+     * @param to The last body (exclusive)
+     */
+    private void integratePositions(int from, int to) {
+        var s = bodies;
+        var linear = linearRest * linearRest;
+        var angular = angularRest * angularRest;
+
+        for (var i = from; i < to; i++) {
+            if (!s.isActive(i)) continue;
+
+            var vx = s.vx[i];
+            var vy = s.vy[i];
+            var vz = s.vz[i];
+            var wx = s.wx[i];
+            var wy = s.wy[i];
+            var wz = s.wz[i];
+
+            s.px[i] += vx * dt;
+            s.py[i] += vy * dt;
+            s.pz[i] += vz * dt;
+
+            var qw = s.qw[i];
+            var qx = s.qx[i];
+            var qy = s.qy[i];
+            var qz = s.qz[i];
+            var h = dt * 0.5;
+
+            // Integrate dq/dt = (0, w) q / 2, then renormalize.
+            var nw = qw - h * (wx * qx + wy * qy + wz * qz);
+            var nx = qx + h * (wx * qw + wy * qz - wz * qy);
+            var ny = qy + h * (wy * qw + wz * qx - wx * qz);
+            var nz = qz + h * (wz * qw + wx * qy - wy * qx);
+            var length = Math.sqrt(nw * nw + nx * nx + ny * ny + nz * nz);
+
+            s.qw[i] = nw / length;
+            s.qx[i] = nx / length;
+            s.qy[i] = ny / length;
+            s.qz[i] = nz / length;
+
+            var resting = vx * vx + vy * vy + vz * vz < linear && wx * wx + wy * wy + wz * wz < angular;
+            s.restTime[i] = resting ? s.restTime[i] + dt : 0;
+        }
+    }
+
+    /**
+     * Puts every island whose bodies have all been at rest for long enough to sleep.
+     */
+    private void sleepIslands() {
+        var s = bodies;
+
+        for (var island = 0; island < islandCount; island++) {
+            var start = bodyStart[island];
+            var end = bodyStart[island + 1];
+            var rest = Double.POSITIVE_INFINITY;
+
+            for (var i = start; i < end; i++) {
+                rest = Math.min(rest, s.restTime[islandBodies[i]]);
+            }
+
+            if (!(rest >= timeToSleep)) continue;
+
+            for (var i = start; i < end; i++) {
+                var body = islandBodies[i];
+
+                s.sleeping[body] = true;
+                s.vx[body] = 0;
+                s.vy[body] = 0;
+                s.vz[body] = 0;
+                s.wx[body] = 0;
+                s.wy[body] = 0;
+                s.wz[body] = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package pegasus.physics;
+
+import pegasus.job.JobSystem;
+import pegasus.metrics.Counter;
+import pegasus.metrics.MetricRegistry;
+
+/**
+ * Exact collision queries between pairs of convex colliders. GJK runs on the cores of the shapes, which yields the
+ * distance and closest points directly whenever the cores are apart; only when the cores overlap does EPA run, also
+ * on the cores, to find the penetration depth. The radii are added afterwards in both cases. Each thread keeps its
+ * own solver, so that queries allocate nothing and batches can run on a job system.
+ */
+public final class Narrowphase {
+    /**
+     * The number of pairs queried.
+     */
+    private static final Counter PAIRS = MetricRegistry.global().counter("physics.pairs");
+
+    /**
+     * The number of pairs which needed EPA.
+     */
+    private static final Counter PENETRATIONS = MetricRegistry.global().counter("physics.epa");
+
+    /**
+     * The number of pairs tested by a single job.
+     */
+    private static final int GRAIN = 64;
+
+    /**
+     * The solver of each thread.
+     */
+    private static final ThreadLocal<Gjk> SOLVER = ThreadLocal.withInitial(Gjk::new);
+
+    /**
+     * Checks whether two colliders overlap or touch, without computing a contact.
+     * @param first The first collider
+     * @param second The second collider
+     * @param cache The simplex cache of the pair, or {@code null}
+     * @return {@code true} if the colliders overlap or touch
+     */
+    public static boolean intersects(Collider first, Collider second, SimplexCache cache) {
+        PAIRS.increment();
+
+        var gjk = SOLVER.get();
+        var overlap = gjk.run(first, second, cache, false);
+        if (cache != null) gjk.save(cache);
+        if (overlap) return true;
+
+        var radius = first.shape().radius() + second.shape().radius();
+        return gjk.vx * gjk.vx + gjk.vy * gjk.vy + gjk.vz * gjk.vz <= radius * radius;
+    }
+
+    /**
+     * Computes the contact between two colliders: their signed distance, the normal from the first towards the
+     * second, and the closest or deepest points on both surfaces.
+     * @param first The first collider
+     * @param second The second collider
+     * @param cache The simplex cache of the pair, or {@code null}
+     * @param out The contact to write the result to
+     * @return {@code true} if the colliders overlap or touch
+     */
+    public static boolean collide(Collider first, Collider second, SimplexCache cache, Contact out) {
+        PAIRS.increment();
+
+        var gjk = SOLVER.get();
+        var overlap = gjk.run(first, second, cache, false);
+        if (cache != null) gjk.save(cache);
+
+        var ra = first.shape().radius();
+        var rb = second.shape().radius();
+
+        if (!overlap) {
+            var distance = Math.sqrt(gjk.vx * gjk.vx + gjk.vy * gjk.vy + gjk.vz * gjk.vz);
+
+            gjk.closestPoints(out.pointA, out.pointB);
+            out.normal.set(-gjk.vx / distance, -gjk.vy / distance, -gjk.vz / distance);
+            out.pointA.addScaled(out.normal, ra);
+            out.pointB.addScaled(out.normal, -rb);
+            out.setDistance(distance - ra - rb);
+
+            return out.isTouching();
+        }
+
+        PENETRATIONS.increment();
+        gjk.epa.solve(first, second, out);
+
+        out.pointA.addScaled(out.normal, ra);
+        out.pointB.addScaled(out.normal, -rb);
+        out.setDistance(out.distance() - ra - rb);
+
+        return true;
+    }
+
+    /**
+     * Computes the contacts of a batch of pairs in parallel.
+     * @param jobs The job system to run on
+     * @param colliders The colliders
+     * @param pairs The pairs, packed as indices into the colliders
+     * @param caches The simplex cache of each pair
+     * @param contacts The contact to write the result of each pair to
+     * @param count The number of pairs
+     * @return The number of pairs which overlap or touch
+     * @throws IndexOutOfBoundsException When the arrays are too small for the pair count
+     */
+    public static int collideAll(
+            JobSystem jobs, Collider[] colliders, int[] pairs, SimplexCache[] caches, Contact[] contacts, int count
+    ) throws IndexOutOfBoundsException {
+        if (pairs.length < count * 2 || caches.length < count || contacts.length < count) {
+            throw new IndexOutOfBoundsException("The arrays cannot hold " + count + " pairs.");
+        }
+
+        jobs.parallelFor(0, count, GRAIN, (from, to) -> {
+            for (var i = from; i < to; i++) {
+                collide(colliders[pairs[i * 2]], colliders[pairs[i * 2 + 1]], caches[i], contacts[i]);
+            }
+        });
+
+        var touching = 0;
+        for (var i = 0; i < count; i++) {
+            if (contacts[i].isTouching()) touching++;
+        }
+
+        return touching;
+    }
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private Narrowphase() {}
+}
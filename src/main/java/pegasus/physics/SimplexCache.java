@@ -0,0 +1,33 @@
+package pegasus.physics;
+
+/**
+ * The final simplex of a GJK query, kept per collider pair between frames. The simplex is stored as the search
+ * directions that produced its vertices, which stay meaningful as the colliders move; re-evaluating them against the
+ * new poses gives a starting simplex that is usually within an iteration of the answer.
+ */
+public final class SimplexCache {
+    /**
+     * The search directions, packed as {@code x, y, z} triples.
+     */
+    final double[] directions = new double[12];
+
+    /**
+     * The number of cached directions.
+     */
+    int count;
+
+    /**
+     * Returns the number of vertices of the cached simplex.
+     * @return The number of vertices, or {@code 0} if nothing is cached
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Discards the cached simplex, for example when a pair stops being a broad phase candidate.
+     */
+    public void reset() {
+        count = 0;
+    }
+}
@@ -0,0 +1,39 @@
+package pegasus.physics;
+
+import pegasus.number.MutableVector3;
+
+/**
+ * A sphere centered on the origin of its local space.
+ */
+public final class Sphere implements ConvexShape {
+    /**
+     * The radius of this sphere.
+     */
+    private final double radius;
+
+    /**
+     * Creates a new sphere.
+     * @param radius The radius
+     * @throws IllegalArgumentException When the radius is not positive
+     */
+    public Sphere(double radius) throws IllegalArgumentException {
+        if (!(radius > 0)) throw new IllegalArgumentException("The radius must be positive.");
+        this.radius = radius;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void support(double dx, double dy, double dz, MutableVector3 out) {
+        out.set(0, 0, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double radius() {
+        return radius;
+    }
+}
@@ -0,0 +1,59 @@
+package pegasus.profile;
+
+/**
+ * A named region of code measured by the {@link Profiler}. Scopes are created once through
+ * {@link Profiler#scope(String)}, then entered and exited any number of times. Scopes may be nested, and every
+ * call to {@link #begin()} must be paired with a call to {@link #end()} on the same thread.
+ */
+public final class ProfileScope {
+    /**
+     * The identifier of this scope.
+     */
+    final int id;
+
+    /**
+     * The name of this scope.
+     */
+    private final String name;
+
+    /**
+     * Creates a new scope.
+     * @param id The identifier of this scope
+     * @param name The name of this scope
+     */
+    ProfileScope(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    /**
+     * Returns the name of this scope.
+     * @return The name of this scope
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Enters this scope on the current thread.
+     */
+    public void begin() {
+        Profiler.begin(id);
+    }
+
+    /**
+     * Exits the innermost scope of the current thread.
+     */
+    public void end() {
+        Profiler.end();
+    }
+
+    /**
+     * Serializes this scope into a string.
+     * @return The name of this scope
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,449 @@
+package pegasus.profile;
+
+import jdk.jfr.EventType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A low-overhead frame profiler with hierarchical scopes.
+ * <p>
+ * Each thread records its completed scopes into its own preallocated buffer, so entering and exiting a scope takes
+ * no locks and does not allocate. Once per frame, {@link #endFrame()} drains every buffer, emits a {@link ScopeEvent}
+ * per scope when JFR is recording them, and adds the total time spent in each scope during the frame to a rolling
+ * histogram of the last {@link #WINDOW} frames. Completed scopes can additionally be captured and
+ * {@link #writeTrace(Path) written} as a trace-event JSON file.
+ */
+public final class Profiler {
+    /**
+     * The maximum number of scopes which can be registered.
+     */
+    public static final int MAX_SCOPES = 1024;
+
+    /**
+     * The number of frames kept by the rolling histograms.
+     */
+    public static final int WINDOW = 240;
+
+    /**
+     * The number of frames between summary updates.
+     */
+    private static final int SUMMARY_INTERVAL = 15;
+
+    /**
+     * The percentiles computed for each summary.
+     */
+    private static final double[] PERCENTILES = {0.5, 0.99};
+
+    /**
+     * The time the profiler was loaded, which trace timestamps are relative to.
+     */
+    private static final long EPOCH = System.nanoTime();
+
+    /**
+     * The registered scopes indexed by their identifiers.
+     */
+    private static final ProfileScope[] SCOPES = new ProfileScope[MAX_SCOPES];
+
+    /**
+     * The number of registered scopes.
+     */
+    private static volatile int scopeCount;
+
+    /**
+     * The buffers of every thread which has entered a scope.
+     */
+    private static volatile ThreadBuffer[] buffers = new ThreadBuffer[0];
+
+    /**
+     * The buffer of the current thread, or {@code null} if it has never entered a scope while the profiler was
+     * enabled.
+     */
+    private static final ThreadLocal<ThreadBuffer> BUFFER = new ThreadLocal<>();
+
+    /**
+     * The per-frame total durations of each scope.
+     */
+    private static final RollingHistogram[] HISTOGRAMS = new RollingHistogram[MAX_SCOPES];
+
+    /**
+     * The total duration of each scope during the current frame.
+     */
+    private static final long[] FRAME_TOTALS = new long[MAX_SCOPES];
+
+    /**
+     * Whether each scope was entered during the current frame.
+     */
+    private static final boolean[] FRAME_HITS = new boolean[MAX_SCOPES];
+
+    /**
+     * The double-buffered summaries holding the median, 99th percentile and maximum of each scope.
+     */
+    private static final long[][] SUMMARIES = {new long[MAX_SCOPES * 3], new long[MAX_SCOPES * 3]};
+
+    /**
+     * The index of the summary buffer which is currently readable.
+     */
+    private static volatile int summaryFront;
+
+    /**
+     * The scratch array used to compute percentiles.
+     */
+    private static final long[] PERCENTILE_SCRATCH = new long[PERCENTILES.length];
+
+    /**
+     * The JFR event type of scope events.
+     */
+    private static final EventType EVENT_TYPE = EventType.getEventType(ScopeEvent.class);
+
+    /**
+     * Whether the profiler records scopes.
+     */
+    private static volatile boolean enabled = true;
+
+    /**
+     * The number of frames which have ended.
+     */
+    private static long frames;
+
+    /**
+     * The captured buffer indices, or {@code null} if no capture is in progress.
+     */
+    private static int[] captureThreads;
+
+    /**
+     * The captured scope identifiers.
+     */
+    private static int[] captureScopes;
+
+    /**
+     * The captured start times.
+     */
+    private static long[] captureStarts;
+
+    /**
+     * The captured durations.
+     */
+    private static long[] captureDurations;
+
+    /**
+     * The number of captured scopes.
+     */
+    private static int captureCount;
+
+    /**
+     * Returns the scope with the provided name, registering it if it does not exist yet.
+     * @param name The name of the scope
+     * @return The scope
+     * @throws IllegalStateException When the maximum number of scopes has been reached
+     */
+    public static synchronized ProfileScope scope(String name) throws IllegalStateException {
+        for (var i = 0; i < scopeCount; i++) {
+            if (SCOPES[i].name().equals(name)) return SCOPES[i];
+        }
+
+        if (scopeCount == MAX_SCOPES) throw new IllegalStateException("Too many profiler scopes.");
+
+        var scope = new ProfileScope(scopeCount, name);
+
+        SCOPES[scope.id] = scope;
+        HISTOGRAMS[scope.id] = new RollingHistogram(WINDOW);
+        scopeCount++;
+
+        return scope;
+    }
+
+    /**
+     * Returns the number of registered scopes.
+     * @return The number of registered scopes
+     */
+    public static int scopeCount() {
+        return scopeCount;
+    }
+
+    /**
+     * Returns the scope with the provided identifier.
+     * @param id The identifier of the scope
+     * @return The scope
+     * @throws IndexOutOfBoundsException When no scope has the provided identifier
+     */
+    public static ProfileScope scope(int id) throws IndexOutOfBoundsException {
+        if (id < 0 || id >= scopeCount) throw new IndexOutOfBoundsException(id);
+        return SCOPES[id];
+    }
+
+    /**
+     * Returns whether the profiler records scopes.
+     * @return {@code true} if the profiler is enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether the profiler records scopes. Scopes which are open while this changes are recorded if and only if
+     * the profiler was enabled when they were entered.
+     * @param enabled {@code true} to enable the profiler
+     */
+    public static void setEnabled(boolean enabled) {
+        Profiler.enabled = enabled;
+    }
+
+    /**
+     * Returns the median per-frame duration of a scope over the last {@link #WINDOW} frames.
+     * @param id The identifier of the scope
+     * @return The median duration in nanoseconds
+     */
+    public static long p50(int id) {
+        return SUMMARIES[summaryFront][id * 3];
+    }
+
+    /**
+     * Returns the 99th percentile per-frame duration of a scope over the last {@link #WINDOW} frames.
+     * @param id The identifier of the scope
+     * @return The 99th percentile duration in nanoseconds
+     */
+    public static long p99(int id) {
+        return SUMMARIES[summaryFront][id * 3 + 1];
+    }
+
+    /**
+     * Returns the largest per-frame duration of a scope over the last {@link #WINDOW} frames.
+     * @param id The identifier of the scope
+     * @return The largest duration in nanoseconds
+     */
+    public static long max(int id) {
+        return SUMMARIES[summaryFront][id * 3 + 2];
+    }
+
+    /**
+     * Returns the number of completed scopes which were dropped because a thread buffer was full.
+     * @return The number of dropped scopes
+     */
+    public static long droppedScopes() {
+        var dropped = 0L;
+
+        for (var b : buffers) {
+            dropped += b.dropped.get();
+        }
+
+        return dropped;
+    }
+
+    /**
+     * Ends the current frame, aggregating every scope completed since the previous frame. This method must only be
+     * called from a single thread, usually the thread running the game loop.
+     */
+    public static void endFrame() {
+        drain(EVENT_TYPE.isEnabled());
+
+        var count = scopeCount;
+
+        for (var id = 0; id < count; id++) {
+            if (!FRAME_HITS[id]) continue;
+
+            HISTOGRAMS[id].record(FRAME_TOTALS[id]);
+            FRAME_TOTALS[id] = 0;
+            FRAME_HITS[id] = false;
+        }
+
+        if (++frames % SUMMARY_INTERVAL == 0) summarize(count);
+    }
+
+    /**
+     * Consumes every scope completed since the previous frame, adding it to the totals of the frame. This holds the
+     * same lock as {@link #startCapture(int)} and {@link #writeTrace(Path)}, so that captured scopes are handed off
+     * safely.
+     * @param jfr Whether to emit a JFR event for every scope
+     */
+    private static synchronized void drain(boolean jfr) {
+        for (var b : buffers) {
+            var end = b.written.get();
+
+            for (var position = b.read.get(); position < end; position++) {
+                var i = (int) position & ThreadBuffer.MASK;
+                var id = b.scopes[i];
+
+                FRAME_TOTALS[id] += b.durations[i];
+                FRAME_HITS[id] = true;
+
+                if (jfr) emit(b, i);
+                if (captureThreads != null) capture(b, i);
+            }
+
+            b.read.lazySet(end);
+        }
+    }
+
+    /**
+     * Starts capturing completed scopes for a trace, discarding any previous capture.
+     * @param maxScopes The maximum number of scopes to capture
+     */
+    public static synchronized void startCapture(int maxScopes) {
+        captureScopes = new int[maxScopes];
+        captureStarts = new long[maxScopes];
+        captureDurations = new long[maxScopes];
+        captureCount = 0;
+        captureThreads = new int[maxScopes];
+    }
+
+    /**
+     * Writes every captured scope as a trace-event JSON file, which can be opened by trace viewers such as
+     * {@code chrome://tracing} or Perfetto. While the file is being written, {@link #endFrame()} waits for it.
+     * @param path The path of the file to write
+     * @throws IllegalStateException When no capture has been started
+     * @throws IOException When an I/O error occurs
+     */
+    public static synchronized void writeTrace(Path path) throws IllegalStateException, IOException {
+        if (captureThreads == null) throw new IllegalStateException("No capture has been started.");
+
+        var threads = buffers;
+
+        try (var out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write("{\"traceEvents\":[");
+
+            for (var b : threads) {
+                if (b.index > 0) out.write(',');
+
+                out.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" + b.index);
+                out.write(",\"args\":{\"name\":");
+                writeString(out, b.threadName);
+                out.write("}}");
+            }
+
+            for (var i = 0; i < captureCount; i++) {
+                if (threads.length > 0 || i > 0) out.write(',');
+
+                out.write("{\"name\":");
+                writeString(out, SCOPES[captureScopes[i]].name());
+                out.write(",\"ph\":\"X\",\"pid\":1,\"tid\":" + captureThreads[i]);
+                out.write(",\"ts\":" + (captureStarts[i] - EPOCH) / 1000.0);
+                out.write(",\"dur\":" + captureDurations[i] / 1000.0 + "}");
+            }
+
+            out.write("]}");
+        }
+    }
+
+    /**
+     * Enters a scope on the current thread.
+     * @param id The identifier of the scope
+     */
+    static void begin(int id) {
+        var b = BUFFER.get();
+
+        if (b == null) {
+            if (!enabled) return;
+            b = register();
+        }
+
+        b.begin(id, enabled);
+    }
+
+    /**
+     * Exits the innermost scope of the current thread. The scope is recorded only if the profiler was enabled when
+     * it was entered, whether or not it is enabled now.
+     */
+    static void end() {
+        var b = BUFFER.get();
+        if (b != null) b.end();
+    }
+
+    /**
+     * Creates and registers the buffer of the current thread.
+     * @return The created buffer
+     */
+    private static synchronized ThreadBuffer register() {
+        var b = new ThreadBuffer(buffers.length, Thread.currentThread().getName());
+
+        var next = Arrays.copyOf(buffers, buffers.length + 1);
+        next[b.index] = b;
+        buffers = next;
+        BUFFER.set(b);
+
+        return b;
+    }
+
+    /**
+     * Commits a JFR event for a completed scope.
+     * @param b The buffer containing the scope
+     * @param i The index of the scope in the buffer
+     */
+    private static void emit(ThreadBuffer b, int i) {
+        var event = new ScopeEvent();
+
+        event.scope = SCOPES[b.scopes[i]].name();
+        event.threadName = b.threadName;
+        event.depth = b.depths[i];
+        event.startNanos = b.starts[i];
+        event.scopeDuration = b.durations[i];
+        event.commit();
+    }
+
+    /**
+     * Captures a completed scope for a trace.
+     * @param b The buffer containing the scope
+     * @param i The index of the scope in the buffer
+     */
+    private static void capture(ThreadBuffer b, int i) {
+        if (captureCount == captureThreads.length) return;
+
+        captureThreads[captureCount] = b.index;
+        captureScopes[captureCount] = b.scopes[i];
+        captureStarts[captureCount] = b.starts[i];
+        captureDurations[captureCount] = b.durations[i];
+        captureCount++;
+    }
+
+    /**
+     * Computes the summaries of every scope into the back buffer, then publishes it.
+     * @param count The number of registered scopes
+     */
+    private static void summarize(int count) {
+        var back = SUMMARIES[1 - summaryFront];
+
+        for (var id = 0; id < count; id++) {
+            HISTOGRAMS[id].percentiles(PERCENTILES, PERCENTILE_SCRATCH);
+
+            back[id * 3] = PERCENTILE_SCRATCH[0];
+            back[id * 3 + 1] = PERCENTILE_SCRATCH[1];
+            back[id * 3 + 2] = HISTOGRAMS[id].max();
+        }
+
+        summaryFront = 1 - summaryFront;
+    }
+
+    /**
+     * Writes a JSON string literal.
+     * @param out The writer to write to
+     * @param s The string to write
+     * @throws IOException When an I/O error occurs
+     */
+    private static void writeString(BufferedWriter out, String s) throws IOException {
+        out.write('"');
+
+        for (var i = 0; i < s.length(); i++) {
+            var c = s.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write(String.format("\\u%04x", (int) c));
+            } else {
+                out.write(c);
+            }
+        }
+
+        out.write('"');
+    }
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private Profiler() {}
+}
@@ -0,0 +1,103 @@
+package pegasus.profile;
+
+import java.awt.*;
+
+/**
+ * Draws the per-scope frame time summaries of the {@link Profiler} on top of a component.
+ */
+public final class ProfilerOverlay {
+    /**
+     * The height of a line of text.
+     */
+    private static final int LINE_HEIGHT = 14;
+
+    /**
+     * The width of the overlay.
+     */
+    private static final int WIDTH = 360;
+
+    /**
+     * The background color of the overlay.
+     */
+    private static final Color BACKGROUND = new Color(0, 0, 0, 160);
+
+    /**
+     * The font of the overlay.
+     */
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+
+    /**
+     * Whether the overlay is drawn.
+     */
+    private volatile boolean visible;
+
+    /**
+     * Returns whether the overlay is drawn.
+     * @return {@code true} if the overlay is visible
+     */
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Sets whether the overlay is drawn.
+     * @param visible {@code true} to draw the overlay
+     */
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    /**
+     * Toggles whether the overlay is drawn.
+     */
+    public void toggle() {
+        visible = !visible;
+    }
+
+    /**
+     * Returns the width the overlay covers when visible.
+     * @return The width in pixels
+     */
+    public int width() {
+        return WIDTH;
+    }
+
+    /**
+     * Returns the height the overlay covers when visible, which grows with the number of profiler scopes.
+     * @return The height in pixels
+     */
+    public int height() {
+        return (Profiler.scopeCount() + 1) * LINE_HEIGHT + 8;
+    }
+
+    /**
+     * Draws the overlay if it is visible.
+     * @param g The graphics context to draw with
+     * @param x The X coordinate of the top left corner
+     * @param y The Y coordinate of the top left corner
+     */
+    public void paint(Graphics g, int x, int y) {
+        if (!visible) return;
+
+        var count = Profiler.scopeCount();
+
+        g.setColor(BACKGROUND);
+        g.fillRect(x, y, WIDTH, height());
+
+        g.setFont(FONT);
+        g.setColor(Color.WHITE);
+        g.drawString(String.format("%-20s %8s %8s %8s", "scope (ms)", "p50", "p99", "max"), x + 4, y + LINE_HEIGHT);
+
+        for (var id = 0; id < count; id++) {
+            var line = String.format(
+                    "%-20.20s %8.3f %8.3f %8.3f",
+                    Profiler.scope(id).name(),
+                    Profiler.p50(id) / 1e6,
+                    Profiler.p99(id) / 1e6,
+                    Profiler.max(id) / 1e6
+            );
+
+            g.drawString(line, x + 4, y + (id + 2) * LINE_HEIGHT);
+        }
+    }
+}
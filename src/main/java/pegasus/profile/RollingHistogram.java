@@ -0,0 +1,95 @@
+package pegasus.profile;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent samples of a measurement in a fixed window, and computes percentiles over the window.
+ * This class does not allocate after construction, and is not thread-safe.
+ */
+public final class RollingHistogram {
+    /**
+     * The samples in the window.
+     */
+    private final long[] samples;
+
+    /**
+     * The scratch array used to sort the window.
+     */
+    private final long[] sorted;
+
+    /**
+     * The total number of samples recorded.
+     */
+    private long count;
+
+    /**
+     * Creates a new histogram.
+     * @param window The number of most recent samples to keep
+     * @throws IllegalArgumentException When the window is not positive
+     */
+    public RollingHistogram(int window) throws IllegalArgumentException {
+        if (window <= 0) throw new IllegalArgumentException("The window must be positive.");
+
+        this.samples = new long[window];
+        this.sorted = new long[window];
+    }
+
+    /**
+     * Records a sample, evicting the oldest sample if the window is full.
+     * @param value The value to record
+     */
+    public void record(long value) {
+        samples[(int) (count++ % samples.length)] = value;
+    }
+
+    /**
+     * Returns the number of samples in the window.
+     * @return The number of samples in the window
+     */
+    public int size() {
+        return (int) Math.min(count, samples.length);
+    }
+
+    /**
+     * Computes the provided percentiles of the window.
+     * @param percentiles The percentiles to compute, each in range {@code [0, 1]}
+     * @param out The array to write the percentiles to
+     */
+    public void percentiles(double[] percentiles, long[] out) {
+        var size = size();
+
+        if (size == 0) {
+            Arrays.fill(out, 0, percentiles.length, 0);
+            return;
+        }
+
+        System.arraycopy(samples, 0, sorted, 0, size);
+        Arrays.sort(sorted, 0, size);
+
+        for (var i = 0; i < percentiles.length; i++) {
+            var rank = (int) Math.ceil(percentiles[i] * size) - 1;
+            out[i] = sorted[Math.max(0, Math.min(size - 1, rank))];
+        }
+    }
+
+    /**
+     * Returns the largest sample in the window.
+     * @return The largest sample, or {@code 0} if the window is empty
+     */
+    public long max() {
+        var max = 0L;
+
+        for (var i = 0; i < size(); i++) {
+            max = Math.max(max, samples[i]);
+        }
+
+        return max;
+    }
+
+    /**
+     * Removes every sample.
+     */
+    public void clear() {
+        count = 0;
+    }
+}
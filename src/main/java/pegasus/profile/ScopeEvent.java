@@ -0,0 +1,51 @@
+package pegasus.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The JFR event emitted for every completed {@link ProfileScope}. Events are committed when the frame is ended,
+ * so the start and duration of the scope are stored in dedicated fields.
+ */
+@Name("pegasus.ProfileScope")
+@Label("Profile Scope")
+@Category("Vortex Engine")
+@Description("A completed profiler scope")
+@StackTrace(false)
+public final class ScopeEvent extends Event {
+    /**
+     * The name of the scope.
+     */
+    @Label("Scope")
+    public String scope;
+
+    /**
+     * The name of the thread the scope ran on.
+     */
+    @Label("Thread Name")
+    public String threadName;
+
+    /**
+     * The nesting depth of the scope.
+     */
+    @Label("Depth")
+    public int depth;
+
+    /**
+     * The value of {@link System#nanoTime()} when the scope was entered.
+     */
+    @Label("Start")
+    public long startNanos;
+
+    /**
+     * The duration of the scope.
+     */
+    @Label("Scope Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long scopeDuration;
+}
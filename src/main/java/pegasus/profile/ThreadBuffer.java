@@ -0,0 +1,139 @@
+package pegasus.profile;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The preallocated buffer which one thread records its completed scopes into. The owning thread is the only
+ * producer and the thread calling {@link Profiler#endFrame()} is the only consumer, so no locks are needed.
+ */
+final class ThreadBuffer {
+    /**
+     * The number of completed scopes the buffer can hold.
+     */
+    static final int CAPACITY = 1 << 13;
+
+    /**
+     * The mask used to convert positions into indices.
+     */
+    static final int MASK = CAPACITY - 1;
+
+    /**
+     * The maximum nesting depth which is recorded. Deeper scopes are counted but not recorded.
+     */
+    static final int MAX_DEPTH = 64;
+
+    /**
+     * The index of this buffer.
+     */
+    final int index;
+
+    /**
+     * The name of the owning thread.
+     */
+    final String threadName;
+
+    /**
+     * The identifiers of the completed scopes.
+     */
+    final int[] scopes = new int[CAPACITY];
+
+    /**
+     * The nesting depths of the completed scopes.
+     */
+    final int[] depths = new int[CAPACITY];
+
+    /**
+     * The start times of the completed scopes.
+     */
+    final long[] starts = new long[CAPACITY];
+
+    /**
+     * The durations of the completed scopes.
+     */
+    final long[] durations = new long[CAPACITY];
+
+    /**
+     * The identifiers of the open scopes.
+     */
+    private final int[] stackScopes = new int[MAX_DEPTH];
+
+    /**
+     * The start times of the open scopes.
+     */
+    private final long[] stackStarts = new long[MAX_DEPTH];
+
+    /**
+     * Whether each open scope is recorded once it closes.
+     */
+    private final boolean[] stackRecorded = new boolean[MAX_DEPTH];
+
+    /**
+     * The number of open scopes.
+     */
+    private int depth;
+
+    /**
+     * The number of completed scopes which have been published.
+     */
+    final AtomicLong written = new AtomicLong();
+
+    /**
+     * The number of completed scopes which have been consumed.
+     */
+    final AtomicLong read = new AtomicLong();
+
+    /**
+     * The number of completed scopes which were dropped because the buffer was full.
+     */
+    final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Creates a new buffer.
+     * @param index The index of this buffer
+     * @param threadName The name of the owning thread
+     */
+    ThreadBuffer(int index, String threadName) {
+        this.index = index;
+        this.threadName = threadName;
+    }
+
+    /**
+     * Opens a scope.
+     * @param scope The identifier of the scope
+     * @param record Whether the scope is recorded once it closes
+     */
+    void begin(int scope, boolean record) {
+        if (depth < MAX_DEPTH) {
+            stackScopes[depth] = scope;
+            stackRecorded[depth] = record;
+            if (record) stackStarts[depth] = System.nanoTime();
+        }
+
+        depth++;
+    }
+
+    /**
+     * Closes the innermost open scope and publishes it if it is recorded.
+     */
+    void end() {
+        if (depth == 0) return;
+        if (--depth >= MAX_DEPTH || !stackRecorded[depth]) return;
+
+        var duration = System.nanoTime() - stackStarts[depth];
+        var position = written.get();
+
+        if (position - read.get() >= CAPACITY) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        var i = (int) position & MASK;
+
+        scopes[i] = stackScopes[depth];
+        depths[i] = depth;
+        starts[i] = stackStarts[depth];
+        durations[i] = duration;
+
+        written.lazySet(position + 1);
+    }
+}
@@ -0,0 +1,229 @@
+package pegasus.render;
+
+import pegasus.number.Int2;
+
+import java.awt.image.BufferedImage;
+import java.util.*;
+
+/**
+ * Packs sprite images into texture atlases at load time. Images are collected first and packed together, tallest
+ * first, with a {@link SkylinePacker} per atlas; when an image fits none of the atlases so far, a new one is started.
+ */
+public final class AtlasBuilder {
+    /**
+     * The width and height of each atlas.
+     */
+    private final int size;
+
+    /**
+     * The number of transparent pixels kept between sprites.
+     */
+    private final int padding;
+
+    /**
+     * The names of the images to pack, in insertion order.
+     */
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * The names taken so far.
+     */
+    private final Set<String> taken = new HashSet<>();
+
+    /**
+     * The sizes of the images to pack, as width and height pairs.
+     */
+    private final List<int[]> sizes = new ArrayList<>();
+
+    /**
+     * The non-premultiplied ARGB pixels of the images to pack.
+     */
+    private final List<int[]> images = new ArrayList<>();
+
+    /**
+     * Creates a new builder.
+     * @param size The width and height of each atlas
+     * @param padding The number of transparent pixels kept between sprites
+     * @throws IllegalArgumentException When the size is not positive or the padding is negative
+     */
+    public AtlasBuilder(int size, int padding) throws IllegalArgumentException {
+        if (size <= 0) throw new IllegalArgumentException("The atlas size must be positive.");
+        if (padding < 0) throw new IllegalArgumentException("The padding must not be negative.");
+
+        this.size = size;
+        this.padding = padding;
+    }
+
+    /**
+     * Adds an image.
+     * @param name The name of the sprite, which must be unique
+     * @param image The image
+     * @return This builder
+     * @throws IllegalArgumentException When the name is taken or the image does not fit in an atlas
+     */
+    public AtlasBuilder add(String name, BufferedImage image) throws IllegalArgumentException {
+        var width = image.getWidth();
+        var height = image.getHeight();
+        return add(name, width, height, image.getRGB(0, 0, width, height, null, 0, width));
+    }
+
+    /**
+     * Adds an image.
+     * @param name The name of the sprite, which must be unique
+     * @param width The width of the image
+     * @param height The height of the image
+     * @param argb The non-premultiplied ARGB pixels of the image in row-major order
+     * @return This builder
+     * @throws IllegalArgumentException When the name is taken, the pixels do not match the size or the image does
+     * not fit in an atlas
+     */
+    public AtlasBuilder add(String name, int width, int height, int[] argb) throws IllegalArgumentException {
+        if (taken.contains(name)) throw new IllegalArgumentException("Duplicate sprite name: " + name);
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("The image must not be empty.");
+        if (argb.length < width * height) throw new IllegalArgumentException("The pixels do not match the size.");
+
+        if (width + padding > size || height + padding > size) {
+            throw new IllegalArgumentException("The image does not fit in an atlas: " + name);
+        }
+
+        taken.add(name);
+        names.add(name);
+        sizes.add(new int[] {width, height});
+        images.add(argb);
+
+        return this;
+    }
+
+    /**
+     * Packs every image added so far.
+     * @return The packed atlases and the regions of the sprites
+     */
+    public AtlasSet build() {
+        var order = new Integer[names.size()];
+        for (var i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+
+        Arrays.sort(order, Comparator.<Integer>comparingInt(i -> -sizes.get(i)[1])
+                .thenComparingInt(i -> -sizes.get(i)[0]));
+
+        var atlases = new ArrayList<TextureAtlas>();
+        var packers = new ArrayList<SkylinePacker>();
+        var regions = new HashMap<String, SpriteRegion>();
+
+        for (var i : order) {
+            var width = sizes.get(i)[0];
+            var height = sizes.get(i)[1];
+
+            Int2 position = null;
+            TextureAtlas atlas = null;
+
+            for (var page = 0; page < packers.size() && position == null; page++) {
+                position = packers.get(page).insert(width + padding, height + padding);
+                atlas = atlases.get(page);
+            }
+
+            if (position == null) {
+                var packer = new SkylinePacker(size, size);
+                atlas = new TextureAtlas(size, size);
+                position = packer.insert(width + padding, height + padding);
+
+                packers.add(packer);
+                atlases.add(atlas);
+            }
+
+            blit(images.get(i), width, height, atlas, position.x, position.y);
+            regions.put(names.get(i), new SpriteRegion(names.get(i), atlas, position.x, position.y, width, height));
+        }
+
+        var sorted = new LinkedHashMap<String, SpriteRegion>();
+        for (var name : names) {
+            sorted.put(name, regions.get(name));
+        }
+
+        return new AtlasSet(atlases, sorted);
+    }
+
+    /**
+     * Copies an image into an atlas, premultiplying its colors by its alpha.
+     * @param argb The non-premultiplied ARGB pixels of the image
+     * @param width The width of the image
+     * @param height The height of the image
+     * @param atlas The atlas
+     * @param x The X coordinate of the left edge of the region in the atlas
+     * @param y The Y coordinate of the top edge of the region in the atlas
+     */
+    private static void blit(int[] argb, int width, int height, TextureAtlas atlas, int x, int y) {
+        for (var row = 0; row < height; row++) {
+            var src = row * width;
+            var dst = (y + row) * atlas.width() + x;
+
+            for (var col = 0; col < width; col++) {
+                var p = argb[src + col];
+                var a = p >>> 24;
+
+                if (a != 255) {
+                    var r = ((p >> 16) & 0xFF) * a / 255;
+                    var g = ((p >> 8) & 0xFF) * a / 255;
+                    var b = (p & 0xFF) * a / 255;
+                    p = a << 24 | r << 16 | g << 8 | b;
+                }
+
+                atlas.pixels[dst + col] = p;
+            }
+        }
+    }
+
+    /**
+     * The atlases built by an {@link AtlasBuilder}, and the regions of the sprites packed into them.
+     */
+    public static final class AtlasSet {
+        /**
+         * The atlases.
+         */
+        private final List<TextureAtlas> atlases;
+
+        /**
+         * The regions of the sprites by name, in the order they were added.
+         */
+        private final Map<String, SpriteRegion> regions;
+
+        /**
+         * Creates a new set.
+         * @param atlases The atlases
+         * @param regions The regions of the sprites by name
+         */
+        private AtlasSet(List<TextureAtlas> atlases, Map<String, SpriteRegion> regions) {
+            this.atlases = List.copyOf(atlases);
+            this.regions = Collections.unmodifiableMap(regions);
+        }
+
+        /**
+         * Returns the atlases.
+         * @return An unmodifiable list of the atlases
+         */
+        public List<TextureAtlas> atlases() {
+            return atlases;
+        }
+
+        /**
+         * Returns the region of a sprite.
+         * @param name The name of the sprite
+         * @return The region
+         * @throws NoSuchElementException When no sprite has the name
+         */
+        public SpriteRegion region(String name) throws NoSuchElementException {
+            var region = regions.get(name);
+            if (region == null) throw new NoSuchElementException("No sprite named " + name);
+            return region;
+        }
+
+        /**
+         * Returns the regions of every sprite.
+         * @return An unmodifiable collection of the regions, in the order the sprites were added
+         */
+        public Collection<SpriteRegion> regions() {
+            return regions.values();
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package pegasus.render;
+
+import pegasus.number.Int2;
+
+/**
+ * Collects the regions of a surface which changed since it was last presented, and merges them into a small set of
+ * rectangles. Two rectangles are merged when the pixels their bounding rectangle wastes cost less than repainting
+ * them separately, and the number of rectangles is capped so that presenting stays cheap however scattered the
+ * changes are. Once the damaged area exceeds a fraction of the surface, the tracker gives up on rectangles and
+ * reports the whole surface as damaged.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class DamageTracker {
+    /**
+     * The number of pixels which repainting a separate rectangle is assumed to cost, through clipping and per-call
+     * overhead.
+     */
+    private static final int RECT_COST = 1024;
+
+    /**
+     * The fraction of the surface above which it is repainted whole.
+     */
+    private final double fullThreshold;
+
+    /**
+     * The maximum number of rectangles.
+     */
+    private final int maxRects;
+
+    /**
+     * The width of the surface.
+     */
+    private int width;
+
+    /**
+     * The height of the surface.
+     */
+    private int height;
+
+    /**
+     * The left edges of the rectangles (inclusive).
+     */
+    private final int[] x0;
+
+    /**
+     * The top edges of the rectangles (inclusive).
+     */
+    private final int[] y0;
+
+    /**
+     * The right edges of the rectangles (exclusive).
+     */
+    private final int[] x1;
+
+    /**
+     * The bottom edges of the rectangles (exclusive).
+     */
+    private final int[] y1;
+
+    /**
+     * The number of rectangles.
+     */
+    private int count;
+
+    /**
+     * Whether the whole surface is damaged.
+     */
+    private boolean full;
+
+    /**
+     * Creates a new tracker. The surface starts out fully damaged.
+     * @param width The width of the surface
+     * @param height The height of the surface
+     * @param fullThreshold The fraction of the surface above which it is repainted whole
+     * @param maxRects The maximum number of rectangles
+     * @throws IllegalArgumentException When the size is negative, the threshold is not in range {@code (0, 1]} or the
+     * maximum number of rectangles is not positive
+     */
+    public DamageTracker(int width, int height, double fullThreshold, int maxRects) throws IllegalArgumentException {
+        if (!(fullThreshold > 0 && fullThreshold <= 1)) {
+            throw new IllegalArgumentException("The threshold must be in range (0, 1].");
+        }
+
+        if (maxRects <= 0) throw new IllegalArgumentException("The maximum number of rectangles must be positive.");
+
+        this.fullThreshold = fullThreshold;
+        this.maxRects = maxRects;
+        this.x0 = new int[maxRects + 1];
+        this.y0 = new int[maxRects + 1];
+        this.x1 = new int[maxRects + 1];
+        this.y1 = new int[maxRects + 1];
+
+        resize(width, height);
+    }
+
+    /**
+     * Resizes the surface, which damages all of it.
+     * @param width The width of the surface
+     * @param height The height of the surface
+     * @throws IllegalArgumentException When the size is negative
+     */
+    public void resize(int width, int height) throws IllegalArgumentException {
+        if (width < 0 || height < 0) throw new IllegalArgumentException("The size must not be negative.");
+
+        this.width = width;
+        this.height = height;
+
+        invalidateAll();
+    }
+
+    /**
+     * Returns the width of the surface.
+     * @return The width of the surface
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the surface.
+     * @return The height of the surface
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Damages a rectangle. The parts outside of the surface are ignored.
+     * @param x The X coordinate of the top left corner
+     * @param y The Y coordinate of the top left corner
+     * @param width The width of the rectangle
+     * @param height The height of the rectangle
+     */
+    public void add(int x, int y, int width, int height) {
+        if (full) return;
+
+        var left = Math.max(0, x);
+        var top = Math.max(0, y);
+        var right = (int) Math.min(this.width, (long) x + width);
+        var bottom = (int) Math.min(this.height, (long) y + height);
+        if (left >= right || top >= bottom) return;
+
+        for (var i = 0; i < count; i++) {
+            if (x0[i] <= left && y0[i] <= top && x1[i] >= right && y1[i] >= bottom) return;
+        }
+
+        x0[count] = left;
+        y0[count] = top;
+        x1[count] = right;
+        y1[count] = bottom;
+        count++;
+
+        if (count > maxRects) mergeCheapest();
+    }
+
+    /**
+     * Damages a rectangle. The parts outside of the surface are ignored.
+     * @param position The top left corner
+     * @param size The size of the rectangle
+     */
+    public void add(Int2 position, Int2 size) {
+        add(position.x, position.y, size.x, size.y);
+    }
+
+    /**
+     * Damages the rectangles a sprite covered before and after moving.
+     * @param from The previous top left corner
+     * @param to The new top left corner
+     * @param size The size of the sprite
+     */
+    public void move(Int2 from, Int2 to, Int2 size) {
+        add(from.x, from.y, size.x, size.y);
+        add(to.x, to.y, size.x, size.y);
+    }
+
+    /**
+     * Damages the whole surface.
+     */
+    public void invalidateAll() {
+        full = true;
+        count = 0;
+    }
+
+    /**
+     * Merges the damaged rectangles as far as it pays off, and falls back to damaging the whole surface if the
+     * remaining area exceeds the threshold. Call this before reading the rectangles.
+     */
+    public void flush() {
+        if (full) return;
+
+        var merged = true;
+
+        while (merged) {
+            merged = false;
+
+            for (var i = 0; i < count && !merged; i++) {
+                for (var j = i + 1; j < count; j++) {
+                    if (cost(i, j) > 0) continue;
+
+                    merge(i, j);
+                    merged = true;
+                    break;
+                }
+            }
+        }
+
+        if (area() > fullThreshold * width * height) invalidateAll();
+    }
+
+    /**
+     * Returns whether the whole surface is damaged.
+     * @return {@code true} if the whole surface is damaged
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Returns whether nothing is damaged.
+     * @return {@code true} if nothing is damaged
+     */
+    public boolean isEmpty() {
+        return !full && count == 0;
+    }
+
+    /**
+     * Returns the number of damaged rectangles, which is {@code 1} when the whole surface is damaged.
+     * @return The number of rectangles
+     */
+    public int count() {
+        return full ? 1 : count;
+    }
+
+    /**
+     * Returns the X coordinate of the top left corner of a damaged rectangle.
+     * @param i The index of the rectangle
+     * @return The X coordinate
+     */
+    public int x(int i) {
+        return full ? 0 : x0[i];
+    }
+
+    /**
+     * Returns the Y coordinate of the top left corner of a damaged rectangle.
+     * @param i The index of the rectangle
+     * @return The Y coordinate
+     */
+    public int y(int i) {
+        return full ? 0 : y0[i];
+    }
+
+    /**
+     * Returns the width of a damaged rectangle.
+     * @param i The index of the rectangle
+     * @return The width
+     */
+    public int width(int i) {
+        return full ? width : x1[i] - x0[i];
+    }
+
+    /**
+     * Returns the height of a damaged rectangle.
+     * @param i The index of the rectangle
+     * @return The height
+     */
+    public int height(int i) {
+        return full ? height : y1[i] - y0[i];
+    }
+
+    /**
+     * Returns the top left corner of a damaged rectangle.
+     * @param i The index of the rectangle
+     * @return The top left corner
+     */
+    public Int2 position(int i) {
+        return Int2.valueOf(x(i), y(i));
+    }
+
+    /**
+     * Returns the size of a damaged rectangle.
+     * @param i The index of the rectangle
+     * @return The size
+     */
+    public Int2 size(int i) {
+        return Int2.valueOf(width(i), height(i));
+    }
+
+    /**
+     * Returns the number of pixels covered by the damaged rectangles, counting overlaps once per rectangle.
+     * @return The damaged area
+     */
+    public long area() {
+        if (full) return (long) width * height;
+
+        var area = 0L;
+
+        for (var i = 0; i < count; i++) {
+            area += (long) (x1[i] - x0[i]) * (y1[i] - y0[i]);
+        }
+
+        return area;
+    }
+
+    /**
+     * Removes every damaged rectangle, after the surface has been presented.
+     */
+    public void clear() {
+        full = false;
+        count = 0;
+    }
+
+    /**
+     * Returns how many more pixels repainting two rectangles as one costs than repainting them separately.
+     * @param i The index of the first rectangle
+     * @param j The index of the second rectangle
+     * @return The extra cost, which is negative or zero when merging pays off
+     */
+    private long cost(int i, int j) {
+        var union = (long) (Math.max(x1[i], x1[j]) - Math.min(x0[i], x0[j]))
+                * (Math.max(y1[i], y1[j]) - Math.min(y0[i], y0[j]));
+
+        var separate = (long) (x1[i] - x0[i]) * (y1[i] - y0[i]) + (long) (x1[j] - x0[j]) * (y1[j] - y0[j]);
+        var overlap = (long) Math.max(0, Math.min(x1[i], x1[j]) - Math.max(x0[i], x0[j]))
+                * Math.max(0, Math.min(y1[i], y1[j]) - Math.max(y0[i], y0[j]));
+
+        return union - (separate - overlap) - RECT_COST;
+    }
+
+    /**
+     * Merges the pair of rectangles whose merge costs the least.
+     */
+    private void mergeCheapest() {
+        var bestI = 0;
+        var bestJ = 1;
+        var best = Long.MAX_VALUE;
+
+        for (var i = 0; i < count; i++) {
+            for (var j = i + 1; j < count; j++) {
+                var cost = cost(i, j);
+                if (cost >= best) continue;
+
+                best = cost;
+                bestI = i;
+                bestJ = j;
+            }
+        }
+
+        merge(bestI, bestJ);
+    }
+
+    /**
+     * Merges a rectangle into another, removing it.
+     * @param i The index of the rectangle to merge into
+     * @param j The index of the rectangle to remove, which must be greater than {@code i}
+     */
+    private void merge(int i, int j) {
+        x0[i] = Math.min(x0[i], x0[j]);
+        y0[i] = Math.min(y0[i], y0[j]);
+        x1[i] = Math.max(x1[i], x1[j]);
+        y1[i] = Math.max(y1[i], y1[j]);
+
+        count--;
+        x0[j] = x0[count];
+        y0[j] = y0[count];
+        x1[j] = x1[count];
+        y1[j] = y1[count];
+    }
+}
@@ -0,0 +1,174 @@
+package pegasus.render;
+
+import pegasus.metrics.Counter;
+import pegasus.metrics.Histogram;
+import pegasus.metrics.MetricRegistry;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+
+/**
+ * Repaints a component incrementally from an offscreen back buffer. Every frame, only the regions collected by a
+ * {@link DamageTracker} are cleared and redrawn into the back buffer, with the scene clipped to each region, and only
+ * those regions are then copied to the screen. Swing would coalesce separate repaint requests into their bounding
+ * rectangle, so the regions are painted immediately on the event dispatch thread instead.
+ * <p>
+ * The number of pixels redrawn per frame is recorded in the {@code render.repaintedPixels} histogram of the global
+ * metric registry, and the number of frames redrawn whole in the {@code render.fullRepaints} counter.
+ */
+public final class IncrementalRepainter {
+    /**
+     * The number of pixels redrawn per frame.
+     */
+    private static final Histogram REPAINTED = MetricRegistry.global().histogram("render.repaintedPixels");
+
+    /**
+     * The number of frames redrawn whole.
+     */
+    private static final Counter FULL_REPAINTS = MetricRegistry.global().counter("render.fullRepaints");
+
+    /**
+     * The component to repaint.
+     */
+    private final JComponent target;
+
+    /**
+     * The regions damaged since the last frame.
+     */
+    private final DamageTracker damage;
+
+    /**
+     * The regions redrawn into the back buffer but not yet copied to the screen.
+     */
+    private final DamageTracker pending;
+
+    /**
+     * Draws the scene. The graphics context is clipped to the region being redrawn, which has been cleared.
+     */
+    private final Consumer<Graphics2D> scene;
+
+    /**
+     * Copies the pending regions to the screen.
+     */
+    private final Runnable present = this::present;
+
+    /**
+     * The lock guarding the back buffer and the pending regions.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * The back buffer.
+     */
+    private BufferedImage buffer;
+
+    /**
+     * Whether a presentation has been scheduled but has not run yet.
+     */
+    private boolean scheduled;
+
+    /**
+     * Creates a new repainter.
+     * @param target The component to repaint, whose {@code paint} method must delegate to {@link #paint(Graphics)}
+     * @param damage The tracker the scene reports its changes to
+     * @param scene Draws the scene
+     */
+    public IncrementalRepainter(JComponent target, DamageTracker damage, Consumer<Graphics2D> scene) {
+        this.target = target;
+        this.damage = damage;
+        this.pending = new DamageTracker(0, 0, 1, 64);
+        this.scene = scene;
+
+        pending.clear();
+    }
+
+    /**
+     * Redraws the damaged regions into the back buffer and schedules copying them to the screen. This may be called
+     * from any thread, as long as it is the thread which reports the damage.
+     */
+    public void render() {
+        var width = target.getWidth();
+        var height = target.getHeight();
+        if (width <= 0 || height <= 0) return;
+
+        synchronized (lock) {
+            if (buffer == null || buffer.getWidth() != width || buffer.getHeight() != height) {
+                buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+                damage.resize(width, height);
+                pending.resize(width, height);
+                pending.clear();
+            }
+
+            damage.flush();
+            if (damage.isEmpty()) return;
+
+            if (damage.isFull()) FULL_REPAINTS.increment();
+            REPAINTED.record(damage.area());
+
+            var g = buffer.createGraphics();
+
+            try {
+                g.setBackground(target.getBackground());
+
+                for (var i = 0; i < damage.count(); i++) {
+                    var x = damage.x(i);
+                    var y = damage.y(i);
+                    var w = damage.width(i);
+                    var h = damage.height(i);
+
+                    g.setClip(x, y, w, h);
+                    g.clearRect(x, y, w, h);
+                    scene.accept(g);
+
+                    pending.add(x, y, w, h);
+                }
+
+                if (damage.isFull()) pending.invalidateAll();
+            } finally {
+                g.dispose();
+            }
+
+            damage.clear();
+
+            if (scheduled) return;
+            scheduled = true;
+        }
+
+        EventQueue.invokeLater(present);
+    }
+
+    /**
+     * Copies the region of the back buffer within the clip of a graphics context. Call this from the {@code paint}
+     * method of the target.
+     * @param g The graphics context to paint with
+     */
+    public void paint(Graphics g) {
+        synchronized (lock) {
+            if (buffer == null) {
+                var clip = g.getClipBounds();
+                if (clip != null) g.clearRect(clip.x, clip.y, clip.width, clip.height);
+                return;
+            }
+
+            g.drawImage(buffer, 0, 0, null);
+        }
+    }
+
+    /**
+     * Copies the pending regions to the screen. This runs on the event dispatch thread.
+     */
+    private void present() {
+        synchronized (lock) {
+            scheduled = false;
+            pending.flush();
+
+            for (var i = 0; i < pending.count(); i++) {
+                target.paintImmediately(pending.x(i), pending.y(i), pending.width(i), pending.height(i));
+            }
+
+            pending.clear();
+        }
+    }
+}
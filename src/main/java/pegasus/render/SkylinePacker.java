@@ -0,0 +1,201 @@
+package pegasus.render;
+
+import pegasus.number.Int2;
+
+import java.util.Arrays;
+
+/**
+ * Packs rectangles into a fixed area with the skyline bottom-left heuristic. The packer tracks the upper outline of
+ * the placed rectangles as a list of horizontal segments, and places every rectangle where its top edge ends up
+ * lowest. This wastes little space on sprites sorted by decreasing height, and each insertion only scans the
+ * skyline.
+ */
+public final class SkylinePacker {
+    /**
+     * The width of the area.
+     */
+    private final int width;
+
+    /**
+     * The height of the area.
+     */
+    private final int height;
+
+    /**
+     * The left edges of the skyline segments, in increasing order.
+     */
+    private int[] xs = new int[16];
+
+    /**
+     * The heights of the skyline segments.
+     */
+    private int[] ys = new int[16];
+
+    /**
+     * The widths of the skyline segments.
+     */
+    private int[] widths = new int[16];
+
+    /**
+     * The number of skyline segments.
+     */
+    private int count;
+
+    /**
+     * The area covered by the placed rectangles.
+     */
+    private long used;
+
+    /**
+     * Creates a new packer.
+     * @param width The width of the area
+     * @param height The height of the area
+     * @throws IllegalArgumentException When the area is empty
+     */
+    public SkylinePacker(int width, int height) throws IllegalArgumentException {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("The area must not be empty.");
+
+        this.width = width;
+        this.height = height;
+
+        reset();
+    }
+
+    /**
+     * Places a rectangle.
+     * @param w The width of the rectangle
+     * @param h The height of the rectangle
+     * @return The top left corner of the placed rectangle, or {@code null} if it does not fit
+     * @throws IllegalArgumentException When the size is not positive
+     */
+    public Int2 insert(int w, int h) throws IllegalArgumentException {
+        if (w <= 0 || h <= 0) throw new IllegalArgumentException("The size must be positive.");
+
+        var best = -1;
+        var bestTop = Integer.MAX_VALUE;
+        var bestY = 0;
+
+        for (var i = 0; i < count; i++) {
+            var y = fit(i, w, h);
+            if (y < 0 || y + h >= bestTop) continue;
+
+            best = i;
+            bestTop = y + h;
+            bestY = y;
+        }
+
+        if (best < 0) return null;
+
+        var x = xs[best];
+        place(best, x, bestY + h, w);
+        used += (long) w * h;
+
+        return Int2.valueOf(x, bestY);
+    }
+
+    /**
+     * Returns the fraction of the area covered by the placed rectangles.
+     * @return The occupancy in range {@code [0, 1]}
+     */
+    public double occupancy() {
+        return (double) used / ((long) width * height);
+    }
+
+    /**
+     * Removes every placed rectangle.
+     */
+    public void reset() {
+        xs[0] = 0;
+        ys[0] = 0;
+        widths[0] = width;
+        count = 1;
+        used = 0;
+    }
+
+    /**
+     * Returns the height at which a rectangle would rest if its left edge were placed at a segment.
+     * @param index The index of the segment
+     * @param w The width of the rectangle
+     * @param h The height of the rectangle
+     * @return The Y coordinate of the top of the rectangle, or {@code -1} if it does not fit there
+     */
+    private int fit(int index, int w, int h) {
+        if (xs[index] + w > width) return -1;
+
+        var y = 0;
+        var remaining = w;
+
+        for (var i = index; remaining > 0; i++) {
+            y = Math.max(y, ys[i]);
+            if (y + h > height) return -1;
+
+            remaining -= widths[i];
+        }
+
+        return y;
+    }
+
+    /**
+     * Raises the skyline over a placed rectangle.
+     * @param index The index of the segment the rectangle starts at
+     * @param x The left edge of the rectangle
+     * @param top The new height of the skyline over the rectangle
+     * @param w The width of the rectangle
+     */
+    private void place(int index, int x, int top, int w) {
+        if (count == xs.length) {
+            xs = Arrays.copyOf(xs, count * 2);
+            ys = Arrays.copyOf(ys, count * 2);
+            widths = Arrays.copyOf(widths, count * 2);
+        }
+
+        System.arraycopy(xs, index, xs, index + 1, count - index);
+        System.arraycopy(ys, index, ys, index + 1, count - index);
+        System.arraycopy(widths, index, widths, index + 1, count - index);
+        count++;
+
+        xs[index] = x;
+        ys[index] = top;
+        widths[index] = w;
+
+        // Shrink or remove the segments now covered by the new one.
+        var right = x + w;
+        var next = index + 1;
+
+        while (next < count && xs[next] < right) {
+            var end = xs[next] + widths[next];
+
+            if (end <= right) {
+                remove(next);
+                continue;
+            }
+
+            widths[next] = end - right;
+            xs[next] = right;
+            break;
+        }
+
+        // Merge neighbouring segments of equal height.
+        for (var i = Math.max(0, index - 1); i + 1 < count && i <= index + 1; ) {
+            if (ys[i] != ys[i + 1]) {
+                i++;
+                continue;
+            }
+
+            widths[i] += widths[i + 1];
+            remove(i + 1);
+        }
+    }
+
+    /**
+     * Removes a skyline segment.
+     * @param index The index of the segment
+     */
+    private void remove(int index) {
+        count--;
+
+        System.arraycopy(xs, index + 1, xs, index, count - index);
+        System.arraycopy(ys, index + 1, ys, index, count - index);
+        System.arraycopy(widths, index + 1, widths, index, count - index);
+    }
+}
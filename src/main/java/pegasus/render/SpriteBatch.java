@@ -0,0 +1,438 @@
+package pegasus.render;
+
+import pegasus.job.IntRangeConsumer;
+import pegasus.job.JobSystem;
+import pegasus.metrics.Counter;
+import pegasus.metrics.MetricRegistry;
+import pegasus.number.Quaternion;
+import pegasus.number.Vector3;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Collects sprite draw commands for a frame and rasterizes them into an {@code int[]} RGB raster in one pass, instead
+ * of issuing a {@code Graphics.drawImage} call per sprite. Commands are sorted by layer, then by atlas so that
+ * consecutive sprites sample the same texture, then by submission order. The raster is split into horizontal bands,
+ * every command is binned into the bands it covers, and the bands are drawn in parallel; each band draws its commands
+ * in sorted order, so the result does not depend on the number of workers.
+ * <p>
+ * Every sprite is mapped by an affine transform, scaled and rotated about its center, and blended over the raster
+ * with its texture alpha times a per-sprite alpha. Sampling is nearest-neighbour. Sprites in the same layer but on
+ * different atlases are drawn atlas by atlas, so overlapping sprites should be separated by layer.
+ * <p>
+ * Commands must be added from a single thread.
+ */
+public final class SpriteBatch {
+    /**
+     * The number of sprites drawn.
+     */
+    private static final Counter SPRITES = MetricRegistry.global().counter("render.sprites");
+
+    /**
+     * The number of rows per band.
+     */
+    private static final int BAND = 32;
+
+    /**
+     * The number of transform values per command: the center, and the axes of the sprite in screen space.
+     */
+    private static final int TRANSFORM = 6;
+
+    /**
+     * The job system to rasterize on.
+     */
+    private final JobSystem jobs;
+
+    /**
+     * The region of each command.
+     */
+    private SpriteRegion[] regions = new SpriteRegion[256];
+
+    /**
+     * The transform of each command.
+     */
+    private double[] transforms = new double[256 * TRANSFORM];
+
+    /**
+     * The alpha of each command, in range {@code [0, 256]}.
+     */
+    private int[] alphas = new int[256];
+
+    /**
+     * The screen space bounds of each command: left, top, right and bottom, the last two exclusive.
+     */
+    private int[] bounds = new int[256 * 4];
+
+    /**
+     * The sort keys of the commands: the layer, atlas and index of each command.
+     */
+    private long[] keys = new long[256];
+
+    /**
+     * The number of commands.
+     */
+    private int count;
+
+    /**
+     * The offsets of the commands of each band in {@link #binned}.
+     */
+    private int[] bandStart = new int[1];
+
+    /**
+     * The commands binned by band, in sorted order within each band.
+     */
+    private int[] binned = new int[256];
+
+    /**
+     * The raster being drawn to.
+     */
+    private int[] raster;
+
+    /**
+     * The width of the raster being drawn to.
+     */
+    private int rasterWidth;
+
+    /**
+     * The height of the raster being drawn to.
+     */
+    private int rasterHeight;
+
+    /**
+     * The job which draws a range of bands.
+     */
+    private final IntRangeConsumer drawBands = this::drawBands;
+
+    /**
+     * Creates a new batch.
+     * @param jobs The job system to rasterize on
+     */
+    public SpriteBatch(JobSystem jobs) {
+        this.jobs = jobs;
+    }
+
+    /**
+     * Draws a sprite unrotated and unscaled.
+     * @param region The sprite
+     * @param x The X coordinate of the center of the sprite
+     * @param y The Y coordinate of the center of the sprite
+     * @param layer The layer, where higher layers are drawn on top
+     */
+    public void draw(SpriteRegion region, double x, double y, int layer) {
+        add(region, x, y, 1, 0, 0, 1, 1, layer);
+    }
+
+    /**
+     * Draws a sprite transformed by a position, rotation and scale. The sprite lies in the XY plane of its local
+     * space, so rotations about the Z axis spin it, and rotations about other axes foreshorten it as under an
+     * orthographic projection.
+     * @param region The sprite
+     * @param position The position of the center of the sprite, whose Z value is ignored
+     * @param rotation The rotation of the sprite, which must be normalized
+     * @param scale The scale of the sprite along its local X and Y axes, whose Z value is ignored
+     * @param alpha The opacity in range {@code [0, 1]}
+     * @param layer The layer, where higher layers are drawn on top
+     */
+    public void draw(SpriteRegion region, Vector3 position, Quaternion rotation, Vector3 scale, double alpha,
+                     int layer) {
+        var w = rotation.w;
+        var x = rotation.x;
+        var y = rotation.y;
+        var z = rotation.z;
+
+        // The first two columns of the rotation matrix, projected onto the screen.
+        var ax = (1 - 2 * (y * y + z * z)) * scale.x;
+        var ay = 2 * (x * y + z * w) * scale.x;
+        var bx = 2 * (x * y - z * w) * scale.y;
+        var by = (1 - 2 * (x * x + z * z)) * scale.y;
+
+        add(region, position.x, position.y, ax, ay, bx, by, alpha, layer);
+    }
+
+    /**
+     * Draws a sprite through an arbitrary affine transform.
+     * @param region The sprite
+     * @param x The X coordinate of the center of the sprite
+     * @param y The Y coordinate of the center of the sprite
+     * @param ax The X component of the screen space step per texel along the width of the sprite
+     * @param ay The Y component of the screen space step per texel along the width of the sprite
+     * @param bx The X component of the screen space step per texel along the height of the sprite
+     * @param by The Y component of the screen space step per texel along the height of the sprite
+     * @param alpha The opacity in range {@code [0, 1]}
+     * @param layer The layer, where higher layers are drawn on top
+     */
+    public void add(SpriteRegion region, double x, double y, double ax, double ay, double bx, double by,
+                    double alpha, int layer) {
+        if (count == regions.length) grow();
+
+        var i = count++;
+        var t = i * TRANSFORM;
+
+        regions[i] = region;
+        transforms[t] = x;
+        transforms[t + 1] = y;
+        transforms[t + 2] = ax;
+        transforms[t + 3] = ay;
+        transforms[t + 4] = bx;
+        transforms[t + 5] = by;
+        alphas[i] = (int) Math.round(Math.max(0, Math.min(1, alpha)) * 256);
+
+        var layerBits = (long) (Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, layer)) - Short.MIN_VALUE);
+        keys[i] = layerBits << 47 | (long) region.atlas.id << 31 | i;
+
+        // The corners of the sprite relative to its center.
+        var hx = region.width * 0.5;
+        var hy = region.height * 0.5;
+        var ex = Math.abs(ax) * hx + Math.abs(bx) * hy;
+        var ey = Math.abs(ay) * hx + Math.abs(by) * hy;
+        var b = i * 4;
+
+        bounds[b] = (int) Math.floor(x - ex);
+        bounds[b + 1] = (int) Math.floor(y - ey);
+        bounds[b + 2] = (int) Math.ceil(x + ex);
+        bounds[b + 3] = (int) Math.ceil(y + ey);
+    }
+
+    /**
+     * Returns the number of commands added since the last flush.
+     * @return The number of commands
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Rasterizes every command over a raster and removes them. The raster is not cleared first.
+     * @param raster The RGB pixels of the raster in row-major order
+     * @param width The width of the raster
+     * @param height The height of the raster
+     * @throws IllegalArgumentException When the raster is smaller than its size
+     * @throws CompletionException When a job has thrown
+     */
+    public void flush(int[] raster, int width, int height) throws IllegalArgumentException, CompletionException {
+        if (width < 0 || height < 0 || raster.length < width * height) {
+            throw new IllegalArgumentException("The raster is smaller than its size.");
+        }
+
+        try {
+            if (count == 0 || width == 0 || height == 0) return;
+
+            Arrays.sort(keys, 0, count);
+            bin(width, height);
+
+            this.raster = raster;
+            this.rasterWidth = width;
+            this.rasterHeight = height;
+
+            jobs.parallelFor(0, (height + BAND - 1) / BAND, 1, drawBands);
+            SPRITES.add(count);
+        } finally {
+            this.raster = null;
+            Arrays.fill(regions, 0, count, null);
+            count = 0;
+        }
+    }
+
+    /**
+     * Bins the sorted commands into the bands they overlap.
+     * @param width The width of the raster
+     * @param height The height of the raster
+     */
+    private void bin(int width, int height) {
+        var bands = (height + BAND - 1) / BAND;
+
+        if (bandStart.length < bands + 1) bandStart = new int[bands + 1];
+        Arrays.fill(bandStart, 0, bands + 1, 0);
+
+        var total = 0;
+
+        for (var k = 0; k < count; k++) {
+            var b = (int) (keys[k] & Integer.MAX_VALUE) * 4;
+            if (bounds[b] >= width || bounds[b + 2] <= 0 || bounds[b + 1] >= height || bounds[b + 3] <= 0) continue;
+
+            var first = Math.max(0, bounds[b + 1]) / BAND;
+            var last = (Math.min(height, bounds[b + 3]) - 1) / BAND;
+
+            for (var band = first; band <= last; band++) {
+                bandStart[band + 1]++;
+            }
+
+            total += last - first + 1;
+        }
+
+        for (var band = 0; band < bands; band++) {
+            bandStart[band + 1] += bandStart[band];
+        }
+
+        if (binned.length < total) binned = new int[Math.max(total, binned.length * 2)];
+
+        for (var k = 0; k < count; k++) {
+            var i = (int) (keys[k] & Integer.MAX_VALUE);
+            var b = i * 4;
+            if (bounds[b] >= width || bounds[b + 2] <= 0 || bounds[b + 1] >= height || bounds[b + 3] <= 0) continue;
+
+            var first = Math.max(0, bounds[b + 1]) / BAND;
+            var last = (Math.min(height, bounds[b + 3]) - 1) / BAND;
+
+            for (var band = first; band <= last; band++) {
+                binned[bandStart[band]++] = i;
+            }
+        }
+
+        // Filling advanced every offset to the start of the next band; shift them back.
+        System.arraycopy(bandStart, 0, bandStart, 1, bands);
+        bandStart[0] = 0;
+    }
+
+    /**
+     * Draws a range of bands.
+     * @param from The first band (inclusive)
+     * @param to The last band (exclusive)
+     */
+    private void drawBands(int from, int to) {
+        for (var band = from; band < to; band++) {
+            var top = band * BAND;
+            var bottom = Math.min(rasterHeight, top + BAND);
+
+            for (var k = bandStart[band]; k < bandStart[band + 1]; k++) {
+                drawSprite(binned[k], top, bottom);
+            }
+        }
+    }
+
+    /**
+     * Draws the rows of a sprite which fall within a band.
+     * @param i The command
+     * @param top The first row of the band (inclusive)
+     * @param bottom The last row of the band (exclusive)
+     */
+    private void drawSprite(int i, int top, int bottom) {
+        var region = regions[i];
+        var t = i * TRANSFORM;
+        var cx = transforms[t];
+        var cy = transforms[t + 1];
+        var ax = transforms[t + 2];
+        var ay = transforms[t + 3];
+        var bx = transforms[t + 4];
+        var by = transforms[t + 5];
+
+        var det = ax * by - ay * bx;
+        if (Math.abs(det) < 1e-12) return;
+
+        // Screen to texel space: u = (by * dx - bx * dy) / det + w / 2, v = (ax * dy - ay * dx) / det + h / 2.
+        var du = by / det;
+        var dv = -ay / det;
+        var w = region.width;
+        var h = region.height;
+
+        var b = i * 4;
+        var left = Math.max(0, bounds[b]);
+        var right = Math.min(rasterWidth, bounds[b + 2]);
+        var y0 = Math.max(top, bounds[b + 1]);
+        var y1 = Math.min(bottom, bounds[b + 3]);
+
+        var pixels = region.atlas.pixels;
+        var stride = region.atlas.width();
+        var origin = region.y * stride + region.x;
+        var alpha = alphas[i];
+        var raster = this.raster;
+
+        for (var y = y0; y < y1; y++) {
+            var dx = left + 0.5 - cx;
+            var dy = y + 0.5 - cy;
+            var u0 = (by * dx - bx * dy) / det + w * 0.5;
+            var v0 = (ax * dy - ay * dx) / det + h * 0.5;
+
+            // Clip the row to the columns whose texel coordinates fall inside the sprite.
+            var start = 0.0;
+            var end = (double) (right - left);
+
+            if (du != 0) {
+                var p = -u0 / du;
+                var q = (w - u0) / du;
+                start = Math.max(start, Math.min(p, q));
+                end = Math.min(end, Math.max(p, q));
+            } else if (u0 < 0 || u0 >= w) {
+                continue;
+            }
+
+            if (dv != 0) {
+                var p = -v0 / dv;
+                var q = (h - v0) / dv;
+                start = Math.max(start, Math.min(p, q));
+                end = Math.min(end, Math.max(p, q));
+            } else if (v0 < 0 || v0 >= h) {
+                continue;
+            }
+
+            var first = (int) Math.ceil(start);
+            var last = (int) Math.ceil(end);
+            if (first >= last) continue;
+
+            // Step through the texels in 16.16 fixed point, clamping only the ends against rounding.
+            var row = y * rasterWidth + left;
+            var u = (long) ((u0 + du * first) * 65536);
+            var v = (long) ((v0 + dv * first) * 65536);
+            var stepU = (long) (du * 65536);
+            var stepV = (long) (dv * 65536);
+            var maxU = (long) w << 16;
+            var maxV = (long) h << 16;
+
+            for (var x = first; x < last; x++, u += stepU, v += stepV) {
+                var tu = (int) (Math.min(maxU - 1, Math.max(0, u)) >> 16);
+                var tv = (int) (Math.min(maxV - 1, Math.max(0, v)) >> 16);
+                var texel = pixels[origin + tv * stride + tu];
+
+                raster[row + x] = blend(raster[row + x], texel, alpha);
+            }
+        }
+    }
+
+    /**
+     * Blends a premultiplied texel over an opaque pixel.
+     * @param dst The RGB pixel
+     * @param src The premultiplied ARGB texel
+     * @param alpha The opacity of the sprite in range {@code [0, 256]}
+     * @return The blended RGB pixel
+     */
+    private static int blend(int dst, int src, int alpha) {
+        var a = src >>> 24;
+        if (a == 0 || alpha == 0) return dst;
+        if (a == 255 && alpha == 256) return src | 0xFF000000;
+
+        var sr = ((src >> 16) & 0xFF) * alpha >> 8;
+        var sg = ((src >> 8) & 0xFF) * alpha >> 8;
+        var sb = (src & 0xFF) * alpha >> 8;
+        var inverse = 255 - (a * alpha >> 8);
+
+        var r = sr + div255(((dst >> 16) & 0xFF) * inverse);
+        var g = sg + div255(((dst >> 8) & 0xFF) * inverse);
+        var b = sb + div255((dst & 0xFF) * inverse);
+
+        return 0xFF000000 | r << 16 | g << 8 | b;
+    }
+
+    /**
+     * Divides a product of two bytes by {@code 255}, rounding to nearest.
+     * @param value The product, in range {@code [0, 255 * 255]}
+     * @return The quotient
+     */
+    private static int div255(int value) {
+        value += 128;
+        return (value + (value >> 8)) >> 8;
+    }
+
+    /**
+     * Doubles the capacity of the command arrays.
+     */
+    private void grow() {
+        var capacity = regions.length * 2;
+
+        regions = Arrays.copyOf(regions, capacity);
+        transforms = Arrays.copyOf(transforms, capacity * TRANSFORM);
+        alphas = Arrays.copyOf(alphas, capacity);
+        bounds = Arrays.copyOf(bounds, capacity * 4);
+        keys = Arrays.copyOf(keys, capacity);
+    }
+}
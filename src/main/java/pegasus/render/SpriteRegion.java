@@ -0,0 +1,63 @@
+package pegasus.render;
+
+/**
+ * The region of a {@link TextureAtlas} which holds the image of a sprite.
+ */
+public final class SpriteRegion {
+    /**
+     * The name of the sprite.
+     */
+    public final String name;
+
+    /**
+     * The atlas holding the sprite.
+     */
+    public final TextureAtlas atlas;
+
+    /**
+     * The X coordinate of the left edge of the region.
+     */
+    public final int x;
+
+    /**
+     * The Y coordinate of the top edge of the region.
+     */
+    public final int y;
+
+    /**
+     * The width of the region.
+     */
+    public final int width;
+
+    /**
+     * The height of the region.
+     */
+    public final int height;
+
+    /**
+     * Creates a new region.
+     * @param name The name of the sprite
+     * @param atlas The atlas holding the sprite
+     * @param x The X coordinate of the left edge of the region
+     * @param y The Y coordinate of the top edge of the region
+     * @param width The width of the region
+     * @param height The height of the region
+     */
+    SpriteRegion(String name, TextureAtlas atlas, int x, int y, int width, int height) {
+        this.name = name;
+        this.atlas = atlas;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Serializes this region into a string.
+     * @return The string representation of this region
+     */
+    @Override
+    public String toString() {
+        return "SpriteRegion{" + name + " @ " + x + ", " + y + " (" + width + "x" + height + ")}";
+    }
+}
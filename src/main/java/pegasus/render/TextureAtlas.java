@@ -0,0 +1,72 @@
+package pegasus.render;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A texture packed with the images of many sprites, stored as premultiplied ARGB pixels so that a
+ * {@link SpriteBatch} can blend from it directly. Atlases are built by an {@link AtlasBuilder}.
+ */
+public final class TextureAtlas {
+    /**
+     * The source of atlas ids.
+     */
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    /**
+     * The id of this atlas, which sprite batches sort by.
+     */
+    final int id = IDS.getAndIncrement() & 0xFFFF;
+
+    /**
+     * The width of this atlas.
+     */
+    private final int width;
+
+    /**
+     * The height of this atlas.
+     */
+    private final int height;
+
+    /**
+     * The premultiplied ARGB pixels of this atlas in row-major order.
+     */
+    final int[] pixels;
+
+    /**
+     * Creates a new transparent atlas.
+     * @param width The width of the atlas
+     * @param height The height of the atlas
+     */
+    TextureAtlas(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.pixels = new int[width * height];
+    }
+
+    /**
+     * Returns the width of this atlas.
+     * @return The width in pixels
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Returns the height of this atlas.
+     * @return The height in pixels
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Copies this atlas into a new image, for debugging.
+     * @return The image
+     */
+    public BufferedImage toImage() {
+        var image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        image.getRaster().setDataElements(0, 0, width, height, pixels);
+        return image;
+    }
+}
@@ -0,0 +1,71 @@
+package pegasus.replay;
+
+import java.nio.ByteOrder;
+
+/**
+ * Constants describing the layout of replay records.
+ * <p>
+ * A replay file consists of a header followed by records in the order they were recorded. Every record starts with
+ * an {@code int} type and an {@code int} payload length, and is padded to a multiple of eight bytes.
+ */
+final class ReplayFormat {
+    /**
+     * The magic number at the start of every replay file.
+     */
+    static final int MAGIC = 0x56585250;
+
+    /**
+     * The version of the replay format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The byte order used for all values in a replay.
+     */
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * The size of the file header in bytes.
+     */
+    static final int FILE_HEADER_SIZE = 8;
+
+    /**
+     * The size of a record header in bytes.
+     */
+    static final int RECORD_HEADER_SIZE = 8;
+
+    /**
+     * The record type used to fill the end of the ring buffer. Padding records are never written to a file.
+     */
+    static final int PADDING = 0;
+
+    /**
+     * The record type of an input. The payload consists of the tick, the input code, four bytes of padding and
+     * the three input values.
+     */
+    static final int INPUT = 1;
+
+    /**
+     * The payload length of an input record.
+     */
+    static final int INPUT_LENGTH = 8 + 4 + 4 + 3 * 8;
+
+    /**
+     * The record type of a checkpoint. The payload consists of the tick followed by the saved state.
+     */
+    static final int CHECKPOINT = 2;
+
+    /**
+     * Returns the total size of a record, including its header and padding.
+     * @param payload The length of the payload
+     * @return The total size of the record
+     */
+    static int recordSize(int payload) {
+        return (RECORD_HEADER_SIZE + payload + 7) & ~7;
+    }
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private ReplayFormat() {}
+}
@@ -0,0 +1,212 @@
+package pegasus.replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static pegasus.replay.ReplayFormat.*;
+
+/**
+ * Plays back a replay file written by a {@link ReplayRecorder}. Seeking restores the nearest checkpoint at or
+ * before the target tick, then re-simulates the recorded inputs up to the target tick.
+ */
+public final class ReplayPlayer {
+    /**
+     * Opens a replay file. Only the record headers are scanned; states and inputs are read when they are played.
+     * @param path The path of the replay file
+     * @return The opened player
+     * @throws IOException When the file is not a valid replay, or an I/O error occurs
+     */
+    public static ReplayPlayer open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("The replay file is too large.");
+            if (channel.size() < FILE_HEADER_SIZE) throw new IOException("The file is too small to be a replay.");
+
+            var data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ORDER);
+
+            if (data.getInt(0) != MAGIC) throw new IOException("The file is not a replay.");
+            if (data.getInt(4) != VERSION) throw new IOException("Unsupported replay version.");
+
+            return new ReplayPlayer(data);
+        }
+    }
+
+    /**
+     * The mapped replay file.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * The ticks of the checkpoints in ascending order.
+     */
+    private final long[] checkpointTicks;
+
+    /**
+     * The file offsets of the checkpoints.
+     */
+    private final int[] checkpointOffsets;
+
+    /**
+     * The last tick which has a record.
+     */
+    private final long lastTick;
+
+    /**
+     * The file offset of the next record to play.
+     */
+    private int cursor = -1;
+
+    /**
+     * The next tick to simulate.
+     */
+    private long tick;
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     * @param data The mapped replay file
+     * @throws IOException When a record is truncated
+     */
+    private ReplayPlayer(ByteBuffer data) throws IOException {
+        var ticks = new long[16];
+        var offsets = new int[16];
+        var count = 0;
+        var last = Long.MIN_VALUE;
+
+        for (var offset = FILE_HEADER_SIZE; offset < data.limit(); ) {
+            if (offset + RECORD_HEADER_SIZE + 8 > data.limit()) throw new IOException("The replay is truncated.");
+
+            var type = data.getInt(offset);
+            var size = recordSize(data.getInt(offset + 4));
+            var recordTick = data.getLong(offset + RECORD_HEADER_SIZE);
+
+            if (offset + size > data.limit()) throw new IOException("The replay is truncated.");
+
+            if (type == CHECKPOINT) {
+                if (count == ticks.length) {
+                    ticks = Arrays.copyOf(ticks, count * 2);
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+
+                ticks[count] = recordTick;
+                offsets[count++] = offset;
+            }
+
+            last = Math.max(last, recordTick);
+            offset += size;
+        }
+
+        this.data = data;
+        this.checkpointTicks = Arrays.copyOf(ticks, count);
+        this.checkpointOffsets = Arrays.copyOf(offsets, count);
+        this.lastTick = last;
+    }
+
+    /**
+     * Returns the first tick which can be seeked to.
+     * @return The tick of the first checkpoint
+     * @throws IllegalStateException When the replay has no checkpoints
+     */
+    public long firstTick() throws IllegalStateException {
+        if (checkpointTicks.length == 0) throw new IllegalStateException("The replay has no checkpoints.");
+        return checkpointTicks[0];
+    }
+
+    /**
+     * Returns the last tick which has a record.
+     * @return The last recorded tick
+     */
+    public long lastTick() {
+        return lastTick;
+    }
+
+    /**
+     * Returns the next tick which will be simulated.
+     * @return The next tick to simulate
+     */
+    public long tick() {
+        return tick;
+    }
+
+    /**
+     * Returns the tick of the nearest checkpoint at or before the provided tick.
+     * @param tick The tick to search for
+     * @return The tick of the nearest checkpoint
+     * @throws IllegalArgumentException When no checkpoint exists at or before the provided tick
+     */
+    public long checkpointBefore(long tick) throws IllegalArgumentException {
+        return checkpointTicks[checkpointIndex(tick)];
+    }
+
+    /**
+     * Restores the simulation to the start of the provided tick, by loading the nearest checkpoint and
+     * re-simulating the ticks in between.
+     * @param tick The tick to seek to
+     * @param simulation The simulation to restore
+     * @throws IllegalArgumentException When no checkpoint exists at or before the provided tick
+     */
+    public void seek(long tick, Simulation simulation) throws IllegalArgumentException {
+        var i = checkpointIndex(tick);
+
+        if (cursor < 0 || tick < this.tick || checkpointTicks[i] > this.tick) {
+            var offset = checkpointOffsets[i];
+            var length = data.getInt(offset + 4);
+
+            simulation.loadState(data.slice(offset + RECORD_HEADER_SIZE + 8, length - 8).order(ORDER));
+
+            this.cursor = offset + recordSize(length);
+            this.tick = checkpointTicks[i];
+        }
+
+        advance(tick, simulation);
+    }
+
+    /**
+     * Re-simulates recorded ticks from the current tick up to, but not including, the provided tick.
+     * @param target The tick to stop at
+     * @param simulation The simulation to advance
+     * @throws IllegalStateException When the player has not been {@link #seek(long, Simulation) seeked} yet
+     */
+    public void advance(long target, Simulation simulation) throws IllegalStateException {
+        if (cursor < 0) throw new IllegalStateException("The player must seek to a checkpoint first.");
+
+        while (tick < target) {
+            while (cursor < data.limit()) {
+                var type = data.getInt(cursor);
+                var recordTick = data.getLong(cursor + RECORD_HEADER_SIZE);
+
+                if (recordTick > tick) break;
+
+                if (type == INPUT && recordTick == tick) {
+                    simulation.input(
+                            recordTick,
+                            data.getInt(cursor + 16),
+                            data.getDouble(cursor + 24),
+                            data.getDouble(cursor + 32),
+                            data.getDouble(cursor + 40)
+                    );
+                }
+
+                cursor += recordSize(data.getInt(cursor + 4));
+            }
+
+            simulation.step(tick++);
+        }
+    }
+
+    /**
+     * Returns the index of the nearest checkpoint at or before the provided tick.
+     * @param tick The tick to search for
+     * @return The index of the checkpoint
+     * @throws IllegalArgumentException When no checkpoint exists at or before the provided tick
+     */
+    private int checkpointIndex(long tick) throws IllegalArgumentException {
+        var i = Arrays.binarySearch(checkpointTicks, tick);
+        if (i < 0) i = -i - 2;
+
+        if (i < 0) throw new IllegalArgumentException("No checkpoint exists at or before tick " + tick + ".");
+        return i;
+    }
+}
@@ -0,0 +1,354 @@
+package pegasus.replay;
+
+import pegasus.metrics.Gauge;
+import pegasus.metrics.MetricRegistry;
+import pegasus.number.Double3;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.nio.file.StandardOpenOption.*;
+import static pegasus.replay.ReplayFormat.*;
+
+/**
+ * Records the inputs and periodic state checkpoints of a {@link Simulation} into a replay file.
+ * <p>
+ * Records are written by the game thread into a preallocated off-heap ring buffer, and a background thread flushes
+ * them to disk. Recording does not allocate. If the flushing thread falls behind far enough for the ring buffer to
+ * fill up, the game thread spins until space is available rather than dropping records, since a replay with
+ * missing inputs cannot be re-simulated; the number of such stalls is reported by {@link #stalls()}. While a
+ * recorder is open, the number of bytes waiting to be flushed is published as the {@code replay.pendingBytes.<id>}
+ * gauge of the global metric registry, where the ID is unique to the recorder.
+ * <p>
+ * The methods of this class other than {@link #close()} and {@link #stalls()} must only be called from a single
+ * thread.
+ */
+public final class ReplayRecorder implements Closeable {
+    /**
+     * The prefix of the names of the gauges of pending bytes.
+     */
+    private static final String PENDING_BYTES = "replay.pendingBytes.";
+
+    /**
+     * The number of recorders created so far, used to name their gauges.
+     */
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    /**
+     * The ring buffer which records are written into.
+     */
+    private final ByteBuffer ring;
+
+    /**
+     * A reusable view of the ring buffer which checkpoints are saved through.
+     */
+    private final ByteBuffer checkpointView;
+
+    /**
+     * The mask used to convert ring positions into buffer indices.
+     */
+    private final long mask;
+
+    /**
+     * The number of ticks between checkpoints.
+     */
+    private final int checkpointInterval;
+
+    /**
+     * The maximum size of a saved state in bytes.
+     */
+    private final int maxStateSize;
+
+    /**
+     * The channel of the replay file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The thread which flushes records to the file.
+     */
+    private final Thread flusher;
+
+    /**
+     * The gauge of the number of bytes waiting to be flushed.
+     */
+    private final Gauge pendingBytes;
+
+    /**
+     * The ring position up to which records have been published by the game thread.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * The ring position up to which records have been flushed to the file.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * The number of times the game thread had to wait for the flushing thread.
+     */
+    private final AtomicLong stalls = new AtomicLong();
+
+    /**
+     * Whether this recorder is still accepting records.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * The exception which stopped the flushing thread, if any.
+     */
+    private volatile IOException failure;
+
+    /**
+     * Creates a new recorder, replacing the file if it already exists.
+     * @param path The path of the replay file
+     * @param capacity The capacity of the ring buffer in bytes, which must be a power of two
+     * @param checkpointInterval The number of ticks between checkpoints
+     * @param maxStateSize The maximum size of a state saved by the simulation in bytes
+     * @throws IllegalArgumentException When the capacity is not a power of two, or is too small to hold a checkpoint
+     * @throws IOException When an I/O error occurs
+     */
+    public ReplayRecorder(Path path, int capacity, int checkpointInterval, int maxStateSize)
+            throws IllegalArgumentException, IOException {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity must be a power of two.");
+        }
+
+        if (recordSize(8 + maxStateSize) * 2L > capacity) {
+            throw new IllegalArgumentException("The capacity is too small to hold a checkpoint.");
+        }
+
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("The checkpoint interval must be positive.");
+        }
+
+        this.ring = ByteBuffer.allocateDirect(capacity).order(ORDER);
+        this.checkpointView = ring.duplicate().order(ORDER);
+        this.mask = capacity - 1;
+        this.checkpointInterval = checkpointInterval;
+        this.maxStateSize = maxStateSize;
+        this.channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, WRITE);
+
+        var header = ByteBuffer.allocate(FILE_HEADER_SIZE).order(ORDER);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+
+        this.pendingBytes = MetricRegistry.global().gauge(
+                PENDING_BYTES + INSTANCES.getAndIncrement(), () -> head.get() - tail.get()
+        );
+
+        this.flusher = new Thread(this::flushLoop, "Replay Flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Records an input.
+     * @param tick The tick the input belongs to
+     * @param code The code identifying the kind of input
+     * @param value The value of the input
+     */
+    public void recordInput(long tick, int code, Double3 value) {
+        recordInput(tick, code, value.x, value.y, value.z);
+    }
+
+    /**
+     * Records an input.
+     * @param tick The tick the input belongs to
+     * @param code The code identifying the kind of input
+     * @param x The X value of the input
+     * @param y The Y value of the input
+     * @param z The Z value of the input
+     */
+    public void recordInput(long tick, int code, double x, double y, double z) {
+        var size = recordSize(INPUT_LENGTH);
+        var index = reserve(size);
+
+        ring.putInt(index, INPUT);
+        ring.putInt(index + 4, INPUT_LENGTH);
+        ring.putLong(index + 8, tick);
+        ring.putInt(index + 16, code);
+        ring.putDouble(index + 24, x);
+        ring.putDouble(index + 32, y);
+        ring.putDouble(index + 40, z);
+
+        publish(size);
+    }
+
+    /**
+     * Records a checkpoint of the provided simulation if the tick falls on the checkpoint interval. This should be
+     * called at the start of each tick, before the inputs of the tick are applied.
+     * @param tick The tick which is about to be simulated
+     * @param simulation The simulation to checkpoint
+     */
+    public void beginTick(long tick, Simulation simulation) {
+        if (tick % checkpointInterval == 0) recordCheckpoint(tick, simulation);
+    }
+
+    /**
+     * Records a checkpoint of the provided simulation. This should be called at the start of a tick, before the
+     * inputs of the tick are applied.
+     * @param tick The tick which is about to be simulated
+     * @param simulation The simulation to checkpoint
+     * @throws IllegalStateException When the simulation writes more than the maximum state size
+     */
+    public void recordCheckpoint(long tick, Simulation simulation) throws IllegalStateException {
+        var index = reserve(recordSize(8 + maxStateSize));
+
+        checkpointView.limit(index + RECORD_HEADER_SIZE + 8 + maxStateSize);
+        checkpointView.position(index + RECORD_HEADER_SIZE + 8);
+
+        try {
+            simulation.saveState(checkpointView);
+        } catch (BufferOverflowException e) {
+            throw new IllegalStateException("The simulation state exceeds the maximum state size.", e);
+        }
+
+        var length = checkpointView.position() - index - RECORD_HEADER_SIZE;
+
+        ring.putInt(index, CHECKPOINT);
+        ring.putInt(index + 4, length);
+        ring.putLong(index + 8, tick);
+
+        publish(recordSize(length));
+    }
+
+    /**
+     * Returns the number of times recording had to wait for the flushing thread.
+     * @return The number of stalls
+     */
+    public long stalls() {
+        return stalls.get();
+    }
+
+    /**
+     * Flushes every pending record, then closes the replay file.
+     * @throws IOException When an I/O error occurred while flushing
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(flusher);
+        MetricRegistry.global().remove(pendingBytes);
+
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            if (failure != null) throw failure;
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reserves contiguous space in the ring buffer, padding the end of the buffer if necessary.
+     * @param size The size of the record to reserve
+     * @return The buffer index of the reserved space
+     * @throws IllegalStateException When this recorder is closed or flushing has failed
+     */
+    private int reserve(int size) throws IllegalStateException {
+        if (!running || failure != null) throw new IllegalStateException("The recorder is no longer recording.");
+
+        var position = head.get();
+        var index = (int) (position & mask);
+        var contiguous = ring.capacity() - index;
+        var padding = contiguous < size ? contiguous : 0;
+
+        awaitSpace(position + padding + size);
+
+        if (padding > 0) {
+            ring.putInt(index, PADDING);
+            ring.putInt(index + 4, padding - RECORD_HEADER_SIZE);
+            head.lazySet(position + padding);
+            index = 0;
+        }
+
+        return index;
+    }
+
+    /**
+     * Publishes a record which was written into reserved space.
+     * @param size The size of the record
+     */
+    private void publish(int size) {
+        head.lazySet(head.get() + size);
+    }
+
+    /**
+     * Spins until the flushing thread has freed the ring buffer up to the provided position.
+     * @param end The ring position which must fit in the buffer
+     */
+    private void awaitSpace(long end) {
+        if (end - tail.get() <= ring.capacity()) return;
+
+        stalls.incrementAndGet();
+        LockSupport.unpark(flusher);
+
+        while (end - tail.get() > ring.capacity()) {
+            if (failure != null) throw new IllegalStateException("Flushing the replay has failed.", failure);
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * The main loop of the flushing thread.
+     */
+    private void flushLoop() {
+        var view = ring.duplicate().order(ORDER);
+
+        try {
+            while (true) {
+                var stopping = !running;
+                var end = head.get();
+                var position = tail.get();
+
+                if (position == end) {
+                    if (stopping) return;
+
+                    LockSupport.parkNanos(1_000_000);
+                    continue;
+                }
+
+                while (position < end) {
+                    var index = (int) (position & mask);
+                    var run = index;
+
+                    while (run - index < end - position && run < ring.capacity()) {
+                        if (ring.getInt(run) == PADDING) break;
+                        run += recordSize(ring.getInt(run + 4));
+                    }
+
+                    view.limit(run).position(index);
+
+                    while (view.hasRemaining()) {
+                        channel.write(view);
+                    }
+
+                    if (run < ring.capacity() && run - index < end - position && ring.getInt(run) == PADDING) {
+                        run += recordSize(ring.getInt(run + 4));
+                    }
+
+                    position += run - index;
+                    tail.lazySet(position);
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+}
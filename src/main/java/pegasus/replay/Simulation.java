@@ -0,0 +1,37 @@
+package pegasus.replay;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A deterministic simulation which can be recorded and replayed. Given the same state and the same inputs,
+ * stepping the simulation must always produce the same state.
+ */
+public interface Simulation {
+    /**
+     * Writes the complete state of this simulation into the provided buffer, starting at its position.
+     * @param dst The buffer to write to
+     */
+    void saveState(ByteBuffer dst);
+
+    /**
+     * Restores the state of this simulation from a buffer written by {@link #saveState(ByteBuffer)}.
+     * @param src The buffer to read from
+     */
+    void loadState(ByteBuffer src);
+
+    /**
+     * Applies an input to this simulation. Inputs of a tick are applied before the tick is stepped.
+     * @param tick The tick the input belongs to
+     * @param code The code identifying the kind of input
+     * @param x The X value of the input
+     * @param y The Y value of the input
+     * @param z The Z value of the input
+     */
+    void input(long tick, int code, double x, double y, double z);
+
+    /**
+     * Advances this simulation by one tick.
+     * @param tick The tick to simulate
+     */
+    void step(long tick);
+}
@@ -0,0 +1,56 @@
+package pegasus.snapshot;
+
+import pegasus.number.Int2;
+
+/**
+ * An entry of the section table of a snapshot file.
+ */
+final class SectionEntry {
+    /**
+     * The kind of this section.
+     */
+    final byte kind;
+
+    /**
+     * The name of the column or grid this section belongs to.
+     */
+    final String name;
+
+    /**
+     * The chunk coordinates of this section, or {@code null} if this section is not a chunk.
+     */
+    final Int2 position;
+
+    /**
+     * The offset of this section from the start of the file.
+     */
+    final long offset;
+
+    /**
+     * The length of this section in bytes.
+     */
+    final int length;
+
+    /**
+     * The CRC-32 checksum of this section.
+     */
+    final int checksum;
+
+    /**
+     * Creates a new entry.
+     * @param kind The kind of the section
+     * @param name The name of the column or grid the section belongs to
+     * @param position The chunk coordinates of the section, or {@code null} if the section is not a chunk
+     * @param offset The offset of the section from the start of the file
+     * @param length The length of the section in bytes
+     * @param checksum The CRC-32 checksum of the section
+     */
+    SectionEntry(byte kind, String name, Int2 position, long offset, int length, int checksum) {
+        this.kind = kind;
+        this.name = name;
+        this.position = position;
+        this.offset = offset;
+        this.length = length;
+        this.checksum = checksum;
+    }
+}
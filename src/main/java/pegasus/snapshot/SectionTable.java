@@ -0,0 +1,152 @@
+package pegasus.snapshot;
+
+import pegasus.number.Int2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static pegasus.snapshot.SnapshotFormat.*;
+
+/**
+ * The section table of a snapshot file. Maps column names and grid chunk coordinates to their sections.
+ */
+final class SectionTable {
+    /**
+     * Reads the section table of the provided snapshot file.
+     * @param channel The channel of the snapshot file
+     * @return The section table of the file
+     * @throws IOException When the file is not a snapshot, or the table is corrupted
+     */
+    static SectionTable read(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_SIZE) throw new IOException("The file is too small to be a snapshot.");
+
+        var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ORDER);
+
+        if (header.getInt() != MAGIC) throw new IOException("The file is not a snapshot.");
+        if (header.getInt() != VERSION) throw new IOException("Unsupported snapshot version.");
+
+        var offset = header.getLong();
+        var length = header.getInt();
+        var checksum = header.getInt();
+
+        if (offset < HEADER_SIZE || offset + length > channel.size()) {
+            throw new IOException("The section table is out of bounds.");
+        }
+
+        var buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(ORDER);
+        if (checksum(buffer) != checksum) throw new IOException("The section table is corrupted.");
+
+        var table = new SectionTable();
+        var count = buffer.getInt();
+
+        for (var i = 0; i < count; i++) {
+            var kind = buffer.get();
+            var nameBytes = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(nameBytes);
+
+            var name = new String(nameBytes, StandardCharsets.UTF_8);
+            var x = buffer.getInt();
+            var y = buffer.getInt();
+            var position = kind == CHUNK ? Int2.valueOf(x, y) : null;
+
+            table.put(new SectionEntry(kind, name, position, buffer.getLong(), buffer.getInt(), buffer.getInt()));
+        }
+
+        return table;
+    }
+
+    /**
+     * Computes the CRC-32 checksum of the remaining bytes of the provided buffer without moving its position.
+     * @param buffer The buffer to compute the checksum of
+     * @return The checksum of the remaining bytes
+     */
+    static int checksum(ByteBuffer buffer) {
+        var crc = new CRC32();
+        crc.update(buffer.duplicate());
+        return (int) crc.getValue();
+    }
+
+    /**
+     * The column sections of this table.
+     */
+    final Map<String, SectionEntry> columns = new LinkedHashMap<>();
+
+    /**
+     * The chunk sections of this table, grouped by grid name.
+     */
+    final Map<String, Map<Int2, SectionEntry>> grids = new LinkedHashMap<>();
+
+    /**
+     * Adds or replaces an entry.
+     * @param entry The entry to add
+     */
+    void put(SectionEntry entry) {
+        if (entry.kind == COLUMN) {
+            columns.put(entry.name, entry);
+        } else {
+            grids.computeIfAbsent(entry.name, n -> new HashMap<>()).put(entry.position, entry);
+        }
+    }
+
+    /**
+     * Returns the chunk section of the provided grid at the provided chunk coordinates.
+     * @param grid The name of the grid
+     * @param position The chunk coordinates
+     * @return The entry, or {@code null} if no such section exists
+     */
+    SectionEntry chunk(String grid, Int2 position) {
+        return grids.getOrDefault(grid, Collections.emptyMap()).get(position);
+    }
+
+    /**
+     * Returns every entry of this table.
+     * @return The entries of this table
+     */
+    List<SectionEntry> entries() {
+        var entries = new ArrayList<>(columns.values());
+        grids.values().forEach(g -> entries.addAll(g.values()));
+        return entries;
+    }
+
+    /**
+     * Encodes this table.
+     * @return A buffer containing the encoded table, ready to be read
+     */
+    ByteBuffer encode() {
+        var entries = entries();
+        var names = new HashMap<String, byte[]>();
+        var size = 4;
+
+        for (var entry : entries) {
+            var name = names.computeIfAbsent(entry.name, n -> n.getBytes(StandardCharsets.UTF_8));
+            size += 1 + 2 + name.length + 4 + 4 + 8 + 4 + 4;
+        }
+
+        var buffer = ByteBuffer.allocate(size).order(ORDER);
+        buffer.putInt(entries.size());
+
+        for (var entry : entries) {
+            var name = names.get(entry.name);
+
+            buffer.put(entry.kind);
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+            buffer.putInt(entry.position != null ? entry.position.x : 0);
+            buffer.putInt(entry.position != null ? entry.position.y : 0);
+            buffer.putLong(entry.offset);
+            buffer.putInt(entry.length);
+            buffer.putInt(entry.checksum);
+        }
+
+        return buffer.flip();
+    }
+}
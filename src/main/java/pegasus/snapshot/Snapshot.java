@@ -0,0 +1,205 @@
+package pegasus.snapshot;
+
+import pegasus.grid.Chunk;
+import pegasus.grid.ChunkedGrid;
+import pegasus.number.Int2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static pegasus.snapshot.SnapshotFormat.*;
+
+/**
+ * A read-only view of a snapshot file. Opening a snapshot only maps the file and reads its section table;
+ * sections are decoded, and their checksums verified, the first time they are touched.
+ * <p>
+ * Because sections are decoded lazily, corruption of a section is reported when it is first accessed as an
+ * {@link UncheckedIOException}.
+ */
+public final class Snapshot implements Closeable {
+    /**
+     * Opens a snapshot file.
+     * @param path The path of the file
+     * @return The opened snapshot
+     * @throws IOException When the file is not a valid snapshot, or an I/O error occurs
+     */
+    public static Snapshot open(Path path) throws IOException {
+        var channel = FileChannel.open(path, READ);
+
+        try {
+            var table = SectionTable.read(channel);
+            var mapping = channel.size() <= Integer.MAX_VALUE
+                    ? channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    : null;
+
+            return new Snapshot(channel, table, mapping);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The channel of the snapshot file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The section table of the snapshot file.
+     */
+    final SectionTable table;
+
+    /**
+     * The mapping of the entire file, or {@code null} if the file is too large to be mapped at once.
+     */
+    private final MappedByteBuffer mapping;
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     * @param channel The channel of the snapshot file
+     * @param table The section table of the snapshot file
+     * @param mapping The mapping of the entire file, or {@code null} if the file is too large to be mapped at once
+     */
+    private Snapshot(FileChannel channel, SectionTable table, MappedByteBuffer mapping) {
+        this.channel = channel;
+        this.table = table;
+        this.mapping = mapping;
+    }
+
+    /**
+     * Returns the names of the columns in this snapshot.
+     * @return An unmodifiable set of column names
+     */
+    public Set<String> columnNames() {
+        return Collections.unmodifiableSet(table.columns.keySet());
+    }
+
+    /**
+     * Returns the names of the grids in this snapshot.
+     * @return An unmodifiable set of grid names
+     */
+    public Set<String> gridNames() {
+        return Collections.unmodifiableSet(table.grids.keySet());
+    }
+
+    /**
+     * Returns the number of values per vector of a column.
+     * @param name The name of the column
+     * @return The number of values per vector
+     * @throws IllegalArgumentException When no such column exists
+     */
+    public int columnDimensions(String name) throws IllegalArgumentException {
+        return section(columnEntry(name)).getInt();
+    }
+
+    /**
+     * Decodes the packed values of a column.
+     * @param name The name of the column
+     * @return The packed values of the column
+     * @throws IllegalArgumentException When no such column exists
+     * @throws UncheckedIOException When the section is corrupted
+     */
+    public double[] column(String name) throws IllegalArgumentException, UncheckedIOException {
+        var entry = columnEntry(name);
+        var data = verified(entry);
+        var dimensions = data.getInt();
+        var values = new double[dimensions * data.getInt()];
+
+        data.asDoubleBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Returns a grid whose chunks are decoded from this snapshot the first time they are touched.
+     * @param name The name of the grid
+     * @return The lazily loaded grid
+     */
+    public ChunkedGrid grid(String name) {
+        return new ChunkedGrid(p -> chunk(name, p));
+    }
+
+    /**
+     * Decodes a single chunk of a grid.
+     * @param grid The name of the grid
+     * @param position The chunk coordinates
+     * @return The decoded chunk, or {@code null} if no such chunk exists
+     * @throws UncheckedIOException When the section is corrupted
+     */
+    public Chunk chunk(String grid, Int2 position) throws UncheckedIOException {
+        var entry = table.chunk(grid, position);
+        if (entry == null) return null;
+
+        var data = verified(entry);
+
+        if (data.getInt() != Chunk.SIZE) {
+            throw new UncheckedIOException(new IOException("The chunk size of the snapshot does not match."));
+        }
+
+        var values = new int[Chunk.AREA];
+        data.asIntBuffer().get(values);
+
+        return new Chunk(position, values);
+    }
+
+    /**
+     * Closes this snapshot. Columns and chunks which have already been mapped remain readable.
+     * @throws IOException When an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Returns the entry of a column.
+     * @param name The name of the column
+     * @return The entry of the column
+     * @throws IllegalArgumentException When no such column exists
+     */
+    private SectionEntry columnEntry(String name) throws IllegalArgumentException {
+        var entry = table.columns.get(name);
+        if (entry == null) throw new IllegalArgumentException("No column named " + name + " exists.");
+
+        return entry;
+    }
+
+    /**
+     * Returns the data of a section after verifying its checksum.
+     * @param entry The entry of the section
+     * @return The data of the section
+     * @throws UncheckedIOException When the section is corrupted
+     */
+    private ByteBuffer verified(SectionEntry entry) throws UncheckedIOException {
+        var data = section(entry);
+
+        if (SectionTable.checksum(data) != entry.checksum) {
+            throw new UncheckedIOException(new IOException("The section " + entry.name + " is corrupted."));
+        }
+
+        return data;
+    }
+
+    /**
+     * Returns the data of a section without verifying it.
+     * @param entry The entry of the section
+     * @return The data of the section
+     * @throws UncheckedIOException When the section could not be mapped
+     */
+    ByteBuffer section(SectionEntry entry) throws UncheckedIOException {
+        if (mapping != null) return mapping.slice((int) entry.offset, entry.length).order(ORDER);
+
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, entry.offset, entry.length).order(ORDER);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package pegasus.snapshot;
+
+import java.nio.ByteOrder;
+
+/**
+ * Constants describing the on-disk layout of a snapshot file.
+ * <p>
+ * A snapshot file starts with a fixed-size header, which points to a section table stored elsewhere in the file.
+ * The table lists every live section along with its offset, length and CRC-32 checksum. Incremental saves append
+ * new sections and a new table to the end of the file, then rewrite the header, so sections which were not
+ * modified are never rewritten.
+ */
+final class SnapshotFormat {
+    /**
+     * The magic number at the start of every snapshot file.
+     */
+    static final int MAGIC = 0x56585331;
+
+    /**
+     * The version of the snapshot format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The byte order used for all values in a snapshot file.
+     */
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * The size of the header in bytes. The header consists of the magic number, the format version, the offset of
+     * the section table, the length of the section table, and the checksum of the section table.
+     */
+    static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4;
+
+    /**
+     * The maximum number of bytes mapped at once.
+     */
+    static final long MAX_MAPPING = 1L << 30;
+
+    /**
+     * The section kind of a packed vector column.
+     */
+    static final byte COLUMN = 1;
+
+    /**
+     * The section kind of a grid chunk.
+     */
+    static final byte CHUNK = 2;
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     */
+    private SnapshotFormat() {}
+}
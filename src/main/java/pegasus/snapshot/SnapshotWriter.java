@@ -0,0 +1,412 @@
+package pegasus.snapshot;
+
+import pegasus.grid.Chunk;
+import pegasus.grid.ChunkedGrid;
+import pegasus.metrics.Counter;
+import pegasus.metrics.Histogram;
+import pegasus.metrics.MetricRegistry;
+import pegasus.number.DoubleVector;
+import pegasus.number.Int2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.*;
+import static pegasus.snapshot.SnapshotFormat.*;
+
+/**
+ * Writes sections into a snapshot file. Sections are queued by the {@code put} methods without copying their
+ * source data, then written through memory-mapped buffers when the writer is {@link #flush() flushed} or
+ * {@link #close() closed}.
+ * <p>
+ * A writer opened with {@link #append(Path)} performs an incremental save: only the sections which are put are
+ * written, and every other section of the existing file is kept as-is. Superseded sections are left in the file
+ * as garbage until it is {@link #compact(Path, Path) compacted}.
+ */
+public final class SnapshotWriter implements Closeable {
+    /**
+     * The number of vectors written into columns.
+     */
+    private static final Counter VECTORS = MetricRegistry.global().counter("snapshot.vectorsWritten");
+
+    /**
+     * The number of grid chunks written.
+     */
+    private static final Counter CHUNKS = MetricRegistry.global().counter("snapshot.chunksWritten");
+
+    /**
+     * The duration of each flush in nanoseconds.
+     */
+    private static final Histogram FLUSH_TIME = MetricRegistry.global().histogram("snapshot.flushNanos");
+
+    /**
+     * Creates a new snapshot file, replacing the file if it already exists.
+     * @param path The path of the file
+     * @return The created writer
+     * @throws IOException When an I/O error occurs
+     */
+    public static SnapshotWriter create(Path path) throws IOException {
+        var channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, READ, WRITE);
+        return new SnapshotWriter(channel, new SectionTable(), HEADER_SIZE);
+    }
+
+    /**
+     * Opens an existing snapshot file for an incremental save. If the file does not exist, it is created.
+     * @param path The path of the file
+     * @return The created writer
+     * @throws IOException When the file is not a valid snapshot, or an I/O error occurs
+     */
+    public static SnapshotWriter append(Path path) throws IOException {
+        if (!Files.exists(path)) return create(path);
+
+        var channel = FileChannel.open(path, READ, WRITE);
+
+        try {
+            return new SnapshotWriter(channel, SectionTable.read(channel), channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Copies every live section of a snapshot file into a new file, discarding superseded sections. The sections
+     * are written into a temporary file next to the target, which then atomically replaces the target, so the source
+     * and target may be the same file, and a failed compaction leaves the target untouched.
+     * @param source The path of the file to compact
+     * @param target The path of the compacted file
+     * @throws IOException When the source file is not a valid snapshot, or an I/O error occurs
+     */
+    public static void compact(Path source, Path target) throws IOException {
+        var directory = target.toAbsolutePath().getParent();
+        var temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+
+        try {
+            try (var snapshot = Snapshot.open(source); var writer = create(temp)) {
+                for (var entry : snapshot.table.entries()) {
+                    var data = snapshot.section(entry);
+                    writer.queue(new Section(entry.kind, entry.name, entry.position, entry.length) {
+                        @Override
+                        void write(ByteBuffer dst) {
+                            dst.put(data.duplicate());
+                        }
+                    });
+                }
+            }
+
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * The channel of the snapshot file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The section table of the snapshot file.
+     */
+    private final SectionTable table;
+
+    /**
+     * The sections which have been queued but not yet written.
+     */
+    private final List<Section> pending = new ArrayList<>();
+
+    /**
+     * The chunks which have been queued since the last flush, and are marked as clean once it has committed them.
+     */
+    private final List<Chunk> chunks = new ArrayList<>();
+
+    /**
+     * The offset at which the next section will be written.
+     */
+    private long position;
+
+    /**
+     * Private constructor. Do not use outside of this class.
+     * @param channel The channel of the snapshot file
+     * @param table The section table of the snapshot file
+     * @param position The offset at which the next section will be written
+     */
+    private SnapshotWriter(FileChannel channel, SectionTable table, long position) {
+        this.channel = channel;
+        this.table = table;
+        this.position = position;
+    }
+
+    /**
+     * Queues a packed column of {@code double} values.
+     * @param name The name of the column
+     * @param dimensions The number of values per vector
+     * @param values The packed values of the column, which must not be modified until this writer is flushed
+     * @throws IllegalArgumentException When the number of values is not a multiple of the dimension count
+     */
+    public void putColumn(String name, int dimensions, double[] values) throws IllegalArgumentException {
+        if (dimensions <= 0 || values.length % dimensions != 0) {
+            throw new IllegalArgumentException("The number of values is not a multiple of the dimension count.");
+        }
+
+        queue(new Section(COLUMN, name, null, columnLength(values.length)) {
+            @Override
+            void write(ByteBuffer dst) {
+                dst.putInt(dimensions);
+                dst.putInt(values.length / dimensions);
+                dst.asDoubleBuffer().put(values);
+                dst.position(dst.position() + values.length * Double.BYTES);
+            }
+        });
+
+        VECTORS.add(values.length / dimensions);
+    }
+
+    /**
+     * Queues a column of vectors, which are packed into the file without an intermediate copy.
+     * @param name The name of the column
+     * @param vectors The vectors of the column, which must all have the same dimension count
+     * @throws IllegalArgumentException When the vectors do not have the same dimension count
+     */
+    public void putVectors(String name, DoubleVector[] vectors) throws IllegalArgumentException {
+        var dimensions = vectors.length > 0 ? vectors[0].dimensions() : 1;
+
+        for (var v : vectors) {
+            if (v.dimensions() != dimensions) {
+                throw new IllegalArgumentException("The provided vectors do not have the same dimension count.");
+            }
+        }
+
+        queue(new Section(COLUMN, name, null, columnLength((long) vectors.length * dimensions)) {
+            @Override
+            void write(ByteBuffer dst) {
+                dst.putInt(dimensions);
+                dst.putInt(vectors.length);
+
+                for (var v : vectors) {
+                    for (var i = 0; i < dimensions; i++) {
+                        dst.putDouble(v.component(i));
+                    }
+                }
+            }
+        });
+
+        VECTORS.add(vectors.length);
+    }
+
+    /**
+     * Queues the chunks of a grid, which are marked as clean once a flush has committed them.
+     * @param name The name of the grid
+     * @param grid The grid to write
+     * @param dirtyOnly {@code true} to only write the chunks which have been modified since they were last saved
+     */
+    public void putGrid(String name, ChunkedGrid grid, boolean dirtyOnly) {
+        var chunks = dirtyOnly ? grid.dirtyChunks() : grid.loadedChunks();
+
+        for (var chunk : chunks) {
+            putChunk(name, chunk);
+        }
+    }
+
+    /**
+     * Queues a single chunk of a grid, which is marked as clean once a flush has committed it.
+     * @param name The name of the grid
+     * @param chunk The chunk to write
+     */
+    public void putChunk(String name, Chunk chunk) {
+        var values = chunk.values();
+
+        queue(new Section(CHUNK, name, chunk.position(), 4 + Chunk.AREA * Integer.BYTES) {
+            @Override
+            void write(ByteBuffer dst) {
+                dst.putInt(Chunk.SIZE);
+                dst.asIntBuffer().put(values);
+                dst.position(dst.position() + values.length * Integer.BYTES);
+            }
+        });
+
+        chunks.add(chunk);
+        CHUNKS.increment();
+    }
+
+    /**
+     * Writes every queued section, then commits a new section table and header. The header is written last, so
+     * an interrupted flush leaves the previously committed state of the file intact. The queued chunks are marked as
+     * clean only once the header has been forced to the file; if the flush fails, they stay dirty, so the next
+     * incremental save writes them again.
+     * @throws IOException When an I/O error occurs
+     */
+    public void flush() throws IOException {
+        var flushStart = System.nanoTime();
+
+        try {
+            commit();
+        } catch (IOException e) {
+            chunks.clear();
+            throw e;
+        }
+
+        for (var chunk : chunks) {
+            chunk.markClean();
+        }
+
+        chunks.clear();
+        FLUSH_TIME.record(System.nanoTime() - flushStart);
+    }
+
+    /**
+     * Writes every queued section, then writes and forces a new section table and header.
+     * @throws IOException When an I/O error occurs
+     */
+    private void commit() throws IOException {
+        var i = 0;
+
+        while (i < pending.size()) {
+            var j = i;
+            var size = 0L;
+
+            while (j < pending.size() && (j == i || size + pending.get(j).length <= MAX_MAPPING)) {
+                size += pending.get(j++).length;
+            }
+
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, size).order(ORDER);
+
+            for (; i < j; i++) {
+                var section = pending.get(i);
+                var start = buffer.position();
+
+                section.write(buffer);
+
+                var checksum = SectionTable.checksum(buffer.slice(start, section.length));
+                table.put(new SectionEntry(
+                        section.kind,
+                        section.name,
+                        section.position,
+                        position + start,
+                        section.length,
+                        checksum
+                ));
+            }
+
+            position += size;
+        }
+
+        pending.clear();
+
+        var encoded = table.encode();
+        var length = encoded.remaining();
+        var checksum = SectionTable.checksum(encoded);
+        var tableOffset = position;
+
+        while (encoded.hasRemaining()) {
+            channel.write(encoded, position + encoded.position());
+        }
+
+        position += length;
+        channel.force(false);
+
+        var header = ByteBuffer.allocate(HEADER_SIZE).order(ORDER);
+        header.putInt(MAGIC).putInt(VERSION).putLong(tableOffset).putInt(length).putInt(checksum).flip();
+
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+
+        channel.force(false);
+    }
+
+    /**
+     * Flushes and closes this writer.
+     * @throws IOException When an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Queues a section to be written.
+     * @param section The section to queue
+     * @throws IllegalArgumentException When the name of the section is too long
+     */
+    private void queue(Section section) throws IllegalArgumentException {
+        if (section.name.getBytes(StandardCharsets.UTF_8).length > 0xFFFF) {
+            throw new IllegalArgumentException("The provided name is too long.");
+        }
+
+        pending.add(section);
+    }
+
+    /**
+     * Returns the length of a column section.
+     * @param values The number of values in the column
+     * @return The length of the section in bytes
+     * @throws IllegalArgumentException When the column is too large to fit in a single section
+     */
+    private static int columnLength(long values) throws IllegalArgumentException {
+        var length = 8 + values * Double.BYTES;
+
+        if (length > MAX_MAPPING) {
+            throw new IllegalArgumentException("The provided column is too large.");
+        }
+
+        return (int) length;
+    }
+
+    /**
+     * A section which has been queued but not yet written.
+     */
+    private static abstract class Section {
+        /**
+         * The kind of this section.
+         */
+        final byte kind;
+
+        /**
+         * The name of the column or grid this section belongs to.
+         */
+        final String name;
+
+        /**
+         * The chunk coordinates of this section, or {@code null} if this section is not a chunk.
+         */
+        final Int2 position;
+
+        /**
+         * The length of this section in bytes.
+         */
+        final int length;
+
+        /**
+         * Creates a new section.
+         * @param kind The kind of the section
+         * @param name The name of the column or grid the section belongs to
+         * @param position The chunk coordinates of the section, or {@code null} if the section is not a chunk
+         * @param length The length of the section in bytes
+         */
+        Section(byte kind, String name, Int2 position, int length) {
+            this.kind = kind;
+            this.name = name;
+            this.position = position;
+            this.length = length;
+        }
+
+        /**
+         * Writes this section into the provided buffer, advancing its position by exactly {@link #length} bytes.
+         * @param dst The buffer to write to
+         */
+        abstract void write(ByteBuffer dst);
+    }
+}
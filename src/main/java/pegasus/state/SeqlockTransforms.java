@@ -0,0 +1,261 @@
+package pegasus.state;
+
+import pegasus.metrics.Counter;
+import pegasus.metrics.MetricRegistry;
+import pegasus.number.Quaternion;
+import pegasus.number.Vector3;
+
+/**
+ * Entity positions and orientations shared by one writer thread with any number of reader threads, without locks.
+ * The state is stored in packed columns, and the slots are split into stripes of {@link #STRIPE} slots which are each
+ * guarded by a seqlock. The writer never waits; a reader retries only when it overlaps a write to the same stripe.
+ * <p>
+ * Every read returns a consistent position and orientation of a single slot, but different slots may be read from
+ * different writes. Use {@link TripleBufferedTransforms} when the slots must be consistent with each other. Reads
+ * which had to retry are counted by the {@code state.readRetries} counter of the global metric registry.
+ * <p>
+ * Slots start at the origin with the identity orientation. Only one thread may write at a time.
+ */
+public final class SeqlockTransforms {
+    /**
+     * The number of reads which had to retry.
+     */
+    private static final Counter RETRIES = MetricRegistry.global().counter("state.readRetries");
+
+    /**
+     * The number of slots guarded by each sequence counter.
+     */
+    public static final int STRIPE = 16;
+
+    /**
+     * The number of slots.
+     */
+    private final int capacity;
+
+    /**
+     * The packed positions in {@code x, y, z} order.
+     */
+    private final double[] positions;
+
+    /**
+     * The packed orientations in {@code w, x, y, z} order.
+     */
+    private final double[] rotations;
+
+    /**
+     * The sequence counter of each stripe.
+     */
+    private final Sequences sequences;
+
+    /**
+     * Creates a new set of transforms.
+     * @param capacity The number of slots
+     * @throws IllegalArgumentException When the capacity is negative
+     */
+    public SeqlockTransforms(int capacity) throws IllegalArgumentException {
+        if (capacity < 0) throw new IllegalArgumentException("The capacity must not be negative.");
+
+        this.capacity = capacity;
+        this.positions = new double[capacity * 3];
+        this.rotations = new double[capacity * 4];
+        this.sequences = new Sequences((capacity + STRIPE - 1) / STRIPE);
+
+        for (var i = 0; i < capacity; i++) {
+            rotations[i * 4] = 1;
+        }
+    }
+
+    /**
+     * Returns the number of slots.
+     * @return The number of slots
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the transform of a slot.
+     * @param slot The index of the slot
+     * @param position The position
+     * @param rotation The orientation
+     * @throws IndexOutOfBoundsException When the slot is out of bounds
+     */
+    public void set(int slot, Vector3 position, Quaternion rotation) throws IndexOutOfBoundsException {
+        set(slot, position.x, position.y, position.z, rotation.w, rotation.x, rotation.y, rotation.z);
+    }
+
+    /**
+     * Sets the transform of a slot.
+     * @param slot The index of the slot
+     * @param px The X coordinate of the position
+     * @param py The Y coordinate of the position
+     * @param pz The Z coordinate of the position
+     * @param rw The W component of the orientation
+     * @param rx The X component of the orientation
+     * @param ry The Y component of the orientation
+     * @param rz The Z component of the orientation
+     * @throws IndexOutOfBoundsException When the slot is out of bounds
+     */
+    public void set(int slot, double px, double py, double pz, double rw, double rx, double ry, double rz)
+            throws IndexOutOfBoundsException {
+        if (slot < 0 || slot >= capacity) throw new IndexOutOfBoundsException(slot);
+
+        var stripe = slot / STRIPE;
+        sequences.beginWrite(stripe);
+
+        positions[slot * 3] = px;
+        positions[slot * 3 + 1] = py;
+        positions[slot * 3 + 2] = pz;
+        rotations[slot * 4] = rw;
+        rotations[slot * 4 + 1] = rx;
+        rotations[slot * 4 + 2] = ry;
+        rotations[slot * 4 + 3] = rz;
+
+        sequences.endWrite(stripe);
+    }
+
+    /**
+     * Sets the transforms of a range of slots from packed arrays, entering each stripe once.
+     * @param start The first slot
+     * @param count The number of slots
+     * @param positions The packed positions in {@code x, y, z} order
+     * @param positionOffset The offset of the first position
+     * @param rotations The packed orientations in {@code w, x, y, z} order
+     * @param rotationOffset The offset of the first orientation
+     * @throws IndexOutOfBoundsException When the range is out of bounds
+     */
+    public void setAll(int start, int count, double[] positions, int positionOffset, double[] rotations,
+                       int rotationOffset) throws IndexOutOfBoundsException {
+        if (start < 0 || count < 0 || start + count > capacity) {
+            throw new IndexOutOfBoundsException("Range " + start + " + " + count + " is out of bounds.");
+        }
+
+        var slot = start;
+        var end = start + count;
+
+        while (slot < end) {
+            var stripe = slot / STRIPE;
+            var stripeEnd = Math.min(end, (stripe + 1) * STRIPE);
+            var n = stripeEnd - slot;
+            var o = slot - start;
+
+            sequences.beginWrite(stripe);
+            System.arraycopy(positions, positionOffset + o * 3, this.positions, slot * 3, n * 3);
+            System.arraycopy(rotations, rotationOffset + o * 4, this.rotations, slot * 4, n * 4);
+            sequences.endWrite(stripe);
+
+            slot = stripeEnd;
+        }
+    }
+
+    /**
+     * Returns the position of a slot.
+     * @param slot The index of the slot
+     * @return The position
+     * @throws IndexOutOfBoundsException When the slot is out of bounds
+     */
+    public Vector3 position(int slot) throws IndexOutOfBoundsException {
+        if (slot < 0 || slot >= capacity) throw new IndexOutOfBoundsException(slot);
+
+        var stripe = slot / STRIPE;
+
+        while (true) {
+            var sequence = sequences.beginRead(stripe);
+
+            var x = positions[slot * 3];
+            var y = positions[slot * 3 + 1];
+            var z = positions[slot * 3 + 2];
+
+            if (sequences.validate(stripe, sequence)) return new Vector3(x, y, z);
+            RETRIES.increment();
+        }
+    }
+
+    /**
+     * Returns the orientation of a slot.
+     * @param slot The index of the slot
+     * @return The orientation
+     * @throws IndexOutOfBoundsException When the slot is out of bounds
+     */
+    public Quaternion rotation(int slot) throws IndexOutOfBoundsException {
+        if (slot < 0 || slot >= capacity) throw new IndexOutOfBoundsException(slot);
+
+        var stripe = slot / STRIPE;
+
+        while (true) {
+            var sequence = sequences.beginRead(stripe);
+
+            var w = rotations[slot * 4];
+            var x = rotations[slot * 4 + 1];
+            var y = rotations[slot * 4 + 2];
+            var z = rotations[slot * 4 + 3];
+
+            if (sequences.validate(stripe, sequence)) return new Quaternion(w, x, y, z);
+            RETRIES.increment();
+        }
+    }
+
+    /**
+     * Copies the position and orientation of a slot, both from the same write.
+     * @param slot The index of the slot
+     * @param dst The array to copy into, as {@code px, py, pz, rw, rx, ry, rz}
+     * @param offset The offset to copy to
+     * @throws IndexOutOfBoundsException When the slot or the destination is out of bounds
+     */
+    public void read(int slot, double[] dst, int offset) throws IndexOutOfBoundsException {
+        if (slot < 0 || slot >= capacity) throw new IndexOutOfBoundsException(slot);
+        if (offset < 0 || offset + 7 > dst.length) throw new IndexOutOfBoundsException(offset);
+
+        var stripe = slot / STRIPE;
+
+        while (true) {
+            var sequence = sequences.beginRead(stripe);
+
+            System.arraycopy(positions, slot * 3, dst, offset, 3);
+            System.arraycopy(rotations, slot * 4, dst, offset + 3, 4);
+
+            if (sequences.validate(stripe, sequence)) return;
+            RETRIES.increment();
+        }
+    }
+
+    /**
+     * Copies the transforms of a range of slots into packed arrays. Each slot is consistent, and so is each stripe,
+     * but different stripes may be copied from different writes.
+     * @param start The first slot
+     * @param count The number of slots
+     * @param positions The array to copy the positions into, in {@code x, y, z} order
+     * @param positionOffset The offset to copy the first position to
+     * @param rotations The array to copy the orientations into, in {@code w, x, y, z} order
+     * @param rotationOffset The offset to copy the first orientation to
+     * @throws IndexOutOfBoundsException When the range is out of bounds
+     */
+    public void readAll(int start, int count, double[] positions, int positionOffset, double[] rotations,
+                        int rotationOffset) throws IndexOutOfBoundsException {
+        if (start < 0 || count < 0 || start + count > capacity) {
+            throw new IndexOutOfBoundsException("Range " + start + " + " + count + " is out of bounds.");
+        }
+
+        var slot = start;
+        var end = start + count;
+
+        while (slot < end) {
+            var stripe = slot / STRIPE;
+            var stripeEnd = Math.min(end, (stripe + 1) * STRIPE);
+            var n = stripeEnd - slot;
+            var o = slot - start;
+
+            var sequence = sequences.beginRead(stripe);
+
+            System.arraycopy(this.positions, slot * 3, positions, positionOffset + o * 3, n * 3);
+            System.arraycopy(this.rotations, slot * 4, rotations, rotationOffset + o * 4, n * 4);
+
+            if (!sequences.validate(stripe, sequence)) {
+                RETRIES.increment();
+                continue;
+            }
+
+            slot = stripeEnd;
+        }
+    }
+}
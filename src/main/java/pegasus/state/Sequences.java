@@ -0,0 +1,94 @@
+package pegasus.state;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A set of sequence counters for seqlocks, padded so that no two counters share a cache line. The single writer makes
+ * a counter odd before changing the data it guards and even again afterwards. A reader waits for an even counter,
+ * reads the data, and then validates that the counter has not changed; if it has, the data may be torn and must be
+ * read again. A reader which can read other data instead, such as a newer frame, should not wait for a counter that
+ * is odd, but use {@link #tryBeginRead(int)} and move on.
+ */
+final class Sequences {
+    /**
+     * The handle used to access the counters with explicit memory ordering.
+     */
+    private static final VarHandle COUNTERS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * The number of {@code long}s per counter, which spans a cache line.
+     */
+    private static final int PADDING = 8;
+
+    /**
+     * The padded counters.
+     */
+    private final long[] counters;
+
+    /**
+     * Creates a new set of counters, all even.
+     * @param count The number of counters
+     */
+    Sequences(int count) {
+        this.counters = new long[count * PADDING];
+    }
+
+    /**
+     * Marks the data guarded by a counter as being written. This must only be called by the writer.
+     * @param i The index of the counter
+     */
+    void beginWrite(int i) {
+        var c = i * PADDING;
+
+        COUNTERS.setOpaque(counters, c, counters[c] + 1);
+        VarHandle.storeStoreFence();
+    }
+
+    /**
+     * Marks the data guarded by a counter as written. This must only be called by the writer.
+     * @param i The index of the counter
+     */
+    void endWrite(int i) {
+        var c = i * PADDING;
+        COUNTERS.setRelease(counters, c, counters[c] + 1);
+    }
+
+    /**
+     * Waits until the data guarded by a counter is not being written.
+     * @param i The index of the counter
+     * @return The even value of the counter, to pass to {@link #validate(int, long)}
+     */
+    long beginRead(int i) {
+        var c = i * PADDING;
+
+        while (true) {
+            var sequence = (long) COUNTERS.getAcquire(counters, c);
+            if ((sequence & 1) == 0) return sequence;
+
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Starts reading the data guarded by a counter without waiting.
+     * @param i The index of the counter
+     * @return The even value of the counter, to pass to {@link #validate(int, long)}, or {@code -1} if the data is
+     * being written
+     */
+    long tryBeginRead(int i) {
+        var sequence = (long) COUNTERS.getAcquire(counters, i * PADDING);
+        return (sequence & 1) == 0 ? sequence : -1;
+    }
+
+    /**
+     * Returns whether the data guarded by a counter was not written since {@link #beginRead(int)}.
+     * @param i The index of the counter
+     * @param sequence The value returned by {@link #beginRead(int)} or {@link #tryBeginRead(int)}
+     * @return {@code true} if the data read in between is consistent
+     */
+    boolean validate(int i, long sequence) {
+        VarHandle.loadLoadFence();
+        return (long) COUNTERS.getOpaque(counters, i * PADDING) == sequence;
+    }
+}
@@ -0,0 +1,275 @@
+package pegasus.state;
+
+import pegasus.metrics.Counter;
+import pegasus.metrics.MetricRegistry;
+import pegasus.number.Quaternion;
+import pegasus.number.Vector3;
+
+/**
+ * Entity positions and orientations published by one writer thread as whole frames to any number of reader threads,
+ * without locks. There are three copies of the packed columns: the latest published frame, the frame being written,
+ * and the frame published before the latest, which late readers may still be reading. Every frame is guarded by a
+ * seqlock, so a reader which is still reading a frame when the writer starts to reuse it notices and retries with
+ * the latest frame; this needs the reader to be slower than two whole frames of the writer. Readers never wait for
+ * the writer: the latest frame is never being written, so a reader which finds its frame being written re-reads
+ * the latest frame instead, even if the writer has stalled in the middle of a frame.
+ * <p>
+ * Every read is taken from a single frame, so all slots read in one call are consistent with each other. Starting a
+ * frame copies the latest frame, so the writer only needs to set the slots that changed. Reads which had to retry are
+ * counted by the {@code state.readRetries} counter of the global metric registry.
+ * <p>
+ * Slots start at the origin with the identity orientation. Only one thread may write at a time.
+ */
+public final class TripleBufferedTransforms {
+    /**
+     * The number of reads which had to retry.
+     */
+    private static final Counter RETRIES = MetricRegistry.global().counter("state.readRetries");
+
+    /**
+     * The number of frames.
+     */
+    private static final int FRAMES = 3;
+
+    /**
+     * The number of slots.
+     */
+    private final int capacity;
+
+    /**
+     * The packed positions of each frame in {@code x, y, z} order.
+     */
+    private final double[][] positions = new double[FRAMES][];
+
+    /**
+     * The packed orientations of each frame in {@code w, x, y, z} order.
+     */
+    private final double[][] rotations = new double[FRAMES][];
+
+    /**
+     * The number of the frame stored in each copy.
+     */
+    private final long[] numbers = new long[FRAMES];
+
+    /**
+     * The sequence counter of each frame.
+     */
+    private final Sequences sequences = new Sequences(FRAMES);
+
+    /**
+     * The number of published frames. The latest frame is stored at index {@code published % 3}.
+     */
+    private volatile long published;
+
+    /**
+     * Whether a frame is being written.
+     */
+    private boolean writing;
+
+    /**
+     * Creates a new set of transforms.
+     * @param capacity The number of slots
+     * @throws IllegalArgumentException When the capacity is negative
+     */
+    public TripleBufferedTransforms(int capacity) throws IllegalArgumentException {
+        if (capacity < 0) throw new IllegalArgumentException("The capacity must not be negative.");
+
+        this.capacity = capacity;
+
+        for (var f = 0; f < FRAMES; f++) {
+            positions[f] = new double[capacity * 3];
+            rotations[f] = new double[capacity * 4];
+
+            for (var i = 0; i < capacity; i++) {
+                rotations[f][i * 4] = 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of slots.
+     * @return The number of slots
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of frames published so far.
+     * @return The number of the latest frame
+     */
+    public long frame() {
+        return published;
+    }
+
+    /**
+     * Starts writing a new frame, initialized with the latest frame.
+     * @throws IllegalStateException When a frame is already being written
+     */
+    public void beginFrame() throws IllegalStateException {
+        if (writing) throw new IllegalStateException("A frame is already being written.");
+
+        var latest = (int) (published % FRAMES);
+        var back = (latest + 1) % FRAMES;
+
+        writing = true;
+        sequences.beginWrite(back);
+
+        numbers[back] = published + 1;
+        System.arraycopy(positions[latest], 0, positions[back], 0, capacity * 3);
+        System.arraycopy(rotations[latest], 0, rotations[back], 0, capacity * 4);
+    }
+
+    /**
+     * Sets the transform of a slot in the frame being written.
+     * @param slot The index of the slot
+     * @param position The position
+     * @param rotation The orientation
+     * @throws IndexOutOfBoundsException When the slot is out of bounds
+     * @throws IllegalStateException When no frame is being written
+     */
+    public void set(int slot, Vector3 position, Quaternion rotation)
+            throws IndexOutOfBoundsException, IllegalStateException {
+        set(slot, position.x, position.y, position.z, rotation.w, rotation.x, rotation.y, rotation.z);
+    }
+
+    /**
+     * Sets the transform of a slot in the frame being written.
+     * @param slot The index of the slot
+     * @param px The X coordinate of the position
+     * @param py The Y coordinate of the position
+     * @param pz The Z coordinate of the position
+     * @param rw The W component of the orientation
+     * @param rx The X component of the orientation
+     * @param ry The Y component of the orientation
+     * @param rz The Z component of the orientation
+     * @throws IndexOutOfBoundsException When the slot is out of bounds
+     * @throws IllegalStateException When no frame is being written
+     */
+    public void set(int slot, double px, double py, double pz, double rw, double rx, double ry, double rz)
+            throws IndexOutOfBoundsException, IllegalStateException {
+        if (!writing) throw new IllegalStateException("No frame is being written.");
+        if (slot < 0 || slot >= capacity) throw new IndexOutOfBoundsException(slot);
+
+        var back = (int) ((published + 1) % FRAMES);
+        var p = positions[back];
+        var r = rotations[back];
+
+        p[slot * 3] = px;
+        p[slot * 3 + 1] = py;
+        p[slot * 3 + 2] = pz;
+        r[slot * 4] = rw;
+        r[slot * 4 + 1] = rx;
+        r[slot * 4 + 2] = ry;
+        r[slot * 4 + 3] = rz;
+    }
+
+    /**
+     * Publishes the frame being written, making it the latest frame.
+     * @throws IllegalStateException When no frame is being written
+     */
+    public void publish() throws IllegalStateException {
+        if (!writing) throw new IllegalStateException("No frame is being written.");
+
+        var next = published + 1;
+
+        sequences.endWrite((int) (next % FRAMES));
+        published = next;
+        writing = false;
+    }
+
+    /**
+     * Returns the position of a slot in the latest frame.
+     * @param slot The index of the slot
+     * @return The position
+     * @throws IndexOutOfBoundsException When the slot is out of bounds
+     */
+    public Vector3 position(int slot) throws IndexOutOfBoundsException {
+        if (slot < 0 || slot >= capacity) throw new IndexOutOfBoundsException(slot);
+
+        while (true) {
+            var frame = (int) (published % FRAMES);
+            var sequence = sequences.tryBeginRead(frame);
+
+            if (sequence < 0) {
+                RETRIES.increment();
+                continue;
+            }
+
+            var p = positions[frame];
+
+            var x = p[slot * 3];
+            var y = p[slot * 3 + 1];
+            var z = p[slot * 3 + 2];
+
+            if (sequences.validate(frame, sequence)) return new Vector3(x, y, z);
+            RETRIES.increment();
+        }
+    }
+
+    /**
+     * Returns the orientation of a slot in the latest frame.
+     * @param slot The index of the slot
+     * @return The orientation
+     * @throws IndexOutOfBoundsException When the slot is out of bounds
+     */
+    public Quaternion rotation(int slot) throws IndexOutOfBoundsException {
+        if (slot < 0 || slot >= capacity) throw new IndexOutOfBoundsException(slot);
+
+        while (true) {
+            var frame = (int) (published % FRAMES);
+            var sequence = sequences.tryBeginRead(frame);
+
+            if (sequence < 0) {
+                RETRIES.increment();
+                continue;
+            }
+
+            var r = rotations[frame];
+
+            var w = r[slot * 4];
+            var x = r[slot * 4 + 1];
+            var y = r[slot * 4 + 2];
+            var z = r[slot * 4 + 3];
+
+            if (sequences.validate(frame, sequence)) return new Quaternion(w, x, y, z);
+            RETRIES.increment();
+        }
+    }
+
+    /**
+     * Copies the transforms of a range of slots from the latest frame into packed arrays.
+     * @param start The first slot
+     * @param count The number of slots
+     * @param positions The array to copy the positions into, in {@code x, y, z} order
+     * @param positionOffset The offset to copy the first position to
+     * @param rotations The array to copy the orientations into, in {@code w, x, y, z} order
+     * @param rotationOffset The offset to copy the first orientation to
+     * @return The number of the frame which was copied
+     * @throws IndexOutOfBoundsException When the range is out of bounds
+     */
+    public long readAll(int start, int count, double[] positions, int positionOffset, double[] rotations,
+                        int rotationOffset) throws IndexOutOfBoundsException {
+        if (start < 0 || count < 0 || start + count > capacity) {
+            throw new IndexOutOfBoundsException("Range " + start + " + " + count + " is out of bounds.");
+        }
+
+        while (true) {
+            var frame = (int) (published % FRAMES);
+            var sequence = sequences.tryBeginRead(frame);
+
+            if (sequence < 0) {
+                RETRIES.increment();
+                continue;
+            }
+
+            var number = numbers[frame];
+
+            System.arraycopy(this.positions[frame], start * 3, positions, positionOffset, count * 3);
+            System.arraycopy(this.rotations[frame], start * 4, rotations, rotationOffset, count * 4);
+
+            if (sequences.validate(frame, sequence)) return number;
+            RETRIES.increment();
+        }
+    }
+}